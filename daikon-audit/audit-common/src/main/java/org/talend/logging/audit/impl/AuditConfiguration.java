@@ -39,12 +39,21 @@ public enum AuditConfiguration {
     APPENDER_HTTP_ASYNC(Boolean.class, Boolean.FALSE),
     APPENDER_HTTP_CONNECT_TIMEOUT(Integer.class, 30000),
     APPENDER_HTTP_READ_TIMEOUT(Integer.class, 60000),
+    APPENDER_HTTP_BATCH_SIZE(Integer.class, 1),
+    APPENDER_HTTP_BATCH_DELAY_MS(Integer.class, 100),
+    APPENDER_HTTP_OVERFLOW_POLICY(OverflowPolicy.class, OverflowPolicy.BLOCK),
+    APPENDER_HTTP_QUEUE_BLOCK_TIMEOUT_MS(Integer.class, 60000),
     PROPAGATE_APPENDER_EXCEPTIONS(PropagateExceptions.class, PropagateExceptions.NONE),
     BACKEND(Backends.class, Backends.AUTO),
     KAFKA_BOOTSTRAP_SERVERS(String.class, null, true),
     KAFKA_BLOCK_TIMEOUT_MS(Long.class, 60000L),
     KAFKA_TOPIC(String.class, null, true),
-    KAFKA_PARTITION_KEY_NAME(String.class, null, true);
+    KAFKA_PARTITION_KEY_NAME(String.class, null, true),
+    KAFKA_ASYNC(Boolean.class, Boolean.FALSE),
+    KAFKA_QUEUE_SIZE(Integer.class, 10000),
+    KAFKA_BATCH_SIZE(Integer.class, 500),
+    KAFKA_BATCH_DELAY_MS(Long.class, 100L),
+    KAFKA_OVERFLOW_POLICY(OverflowPolicy.class, OverflowPolicy.BLOCK);
 
     private static final String PLACEHOLDER_START = "${";
 
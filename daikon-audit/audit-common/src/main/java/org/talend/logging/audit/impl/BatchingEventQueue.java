@@ -0,0 +1,259 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.logging.audit.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of events, delivered in batches by a single background thread so that callers don't wait for the
+ * delivery of their events.
+ * <p>
+ * A batch is delivered as soon as it holds <code>batchSize</code> events, or <code>batchDelayMs</code> after its
+ * oldest event was submitted. When the queue is full, submitted events are handled according to the
+ * {@link OverflowPolicy} of the queue.
+ * <p>
+ * Queue depth, dropped and failed events, and the latency between submission and delivery of events are counted.
+ *
+ * @param <E> type of events.
+ */
+public class BatchingEventQueue<E> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingEventQueue.class);
+
+    /** How long the delivery thread sleeps before checking whether the queue was closed, when no event comes. */
+    private static final long IDLE_POLL_MS = 100L;
+
+    private static final long IDLE_POLL_NANOS = MILLISECONDS.toNanos(IDLE_POLL_MS);
+
+    private static final long CLOSE_TIMEOUT_MS = 30000L;
+
+    private final ArrayBlockingQueue<Entry<E>> queue;
+
+    private final int batchSize;
+
+    private final long batchDelayNanos;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final long blockTimeoutMs;
+
+    private final Consumer<List<E>> handler;
+
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder totalLatencyNanos = new LongAdder();
+
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Creates the queue and starts its delivery thread.
+     *
+     * @param name name of the delivery thread.
+     * @param capacity max number of queued events.
+     * @param batchSize max number of events per batch.
+     * @param batchDelayMs max time to wait for a batch to fill.
+     * @param overflowPolicy what to do with events submitted when the queue is full.
+     * @param blockTimeoutMs max time to wait for room in the queue, with {@link OverflowPolicy#BLOCK}.
+     * @param handler delivers a batch of events; exceptions are logged and the events counted as failed.
+     */
+    public BatchingEventQueue(String name, int capacity, int batchSize, long batchDelayMs, OverflowPolicy overflowPolicy,
+            long blockTimeoutMs, Consumer<List<E>> handler) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.batchDelayNanos = MILLISECONDS.toNanos(Math.max(0L, batchDelayMs));
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.handler = handler;
+        this.worker = new Thread(this::deliverLoop, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues an event for delivery.
+     *
+     * @param event the event.
+     * @return <code>false</code> if the event was dropped.
+     */
+    public boolean submit(E event) {
+        final Entry<E> entry = new Entry<>(event, System.nanoTime());
+        boolean accepted = false;
+        if (!closed) {
+            switch (overflowPolicy) {
+            case DROP_NEWEST:
+                accepted = queue.offer(entry);
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(entry)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                accepted = true;
+                break;
+            default:
+                try {
+                    accepted = queue.offer(entry, blockTimeoutMs, MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            }
+        }
+        if (accepted) {
+            submitted.increment();
+        } else {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * Stops accepting events, and waits for queued events to be delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            worker.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return average time between submission and delivery (successful or not) of events, in nanoseconds.
+     */
+    public long getAverageLatencyNanos() {
+        final long count = delivered.sum() + failed.sum();
+        return count == 0 ? 0L : totalLatencyNanos.sum() / count;
+    }
+
+    /**
+     * @return max time between submission and delivery (successful or not) of an event, in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    private void deliverLoop() {
+        final List<Entry<E>> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Entry<E> first = queue.poll(IDLE_POLL_MS, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+                final long deadline = first.submittedNanos + batchDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (closed) {
+                        // Don't wait anymore, but take events submitted before closing.
+                        queue.drainTo(batch, batchSize - batch.size());
+                        break;
+                    }
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    // Wake up regularly to notice when the queue is closed.
+                    final Entry<E> next = queue.poll(Math.min(remaining, IDLE_POLL_NANOS), NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        queue.drainTo(batch, batchSize - batch.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Deliver what was already taken from the queue, then leave.
+                closed = true;
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Entry<E>> batch) {
+        final List<E> events = new ArrayList<>(batch.size());
+        for (Entry<E> entry : batch) {
+            events.add(entry.event);
+        }
+        try {
+            handler.accept(events);
+            delivered.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            LOGGER.warn("Failed to deliver {} audit events", batch.size(), e);
+        }
+        batches.increment();
+        final long now = System.nanoTime();
+        for (Entry<E> entry : batch) {
+            final long latency = now - entry.submittedNanos;
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+        }
+    }
+
+    private static class Entry<E> {
+
+        private final E event;
+
+        private final long submittedNanos;
+
+        private Entry(E event, long submittedNanos) {
+            this.event = event;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.logging.audit.impl;
+
+/**
+ * What to do with an event submitted to a full {@link BatchingEventQueue}.
+ */
+public enum OverflowPolicy {
+    /** Wait for room in the queue, up to the block timeout of the queue, then drop the event. */
+    BLOCK,
+    /** Drop the submitted event. */
+    DROP_NEWEST,
+    /** Drop the oldest queued event to make room for the submitted one. */
+    DROP_OLDEST
+}
@@ -12,6 +12,7 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.util.Base64;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -23,10 +24,19 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.logging.audit.impl.BatchingEventQueue;
+import org.talend.logging.audit.impl.OverflowPolicy;
+
 public class HttpEventSender {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpEventSender.class);
+
     private final AtomicReference<ExecutorService> executor = new AtomicReference<>();
 
+    private final AtomicReference<BatchingEventQueue<String>> batchingQueue = new AtomicReference<>();
+
     /**
      * Target server URL where event are pushed to.
      */
@@ -85,6 +95,28 @@ public class HttpEventSender {
      */
     private boolean supportsSystemPropertiesOverride = true;
 
+    /**
+     * Max number of events sent in a single request in async mode. If greater than 1, events are posted as a Json array
+     * by a single background thread, and the thread pool settings are not used.
+     */
+    private int batchSize = 1;
+
+    /**
+     * Max time in ms to wait for a batch to fill before sending it.
+     */
+    private int batchDelayMs = 100;
+
+    /**
+     * What to do with events when the batching queue (of <code>queueSize</code> events, or 10000 if not positive) is
+     * full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * Max time in ms to wait for room in the batching queue with {@link OverflowPolicy#BLOCK}.
+     */
+    private int queueBlockTimeoutMs = 60000;
+
     private String authorization;
 
     private URL connectionFactory;
@@ -93,6 +125,29 @@ public class HttpEventSender {
         this.supportsSystemPropertiesOverride = supportsSystemPropertiesOverride;
     }
 
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchDelayMs(final int batchDelayMs) {
+        this.batchDelayMs = batchDelayMs;
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setQueueBlockTimeoutMs(final int queueBlockTimeoutMs) {
+        this.queueBlockTimeoutMs = queueBlockTimeoutMs;
+    }
+
+    /**
+     * @return queue used to send events in batches, <code>null</code> if batching is disabled or no event was sent yet.
+     */
+    public BatchingEventQueue<String> getBatchingQueue() {
+        return batchingQueue.get();
+    }
+
     public void setQueueSize(final int queueSize) {
         this.queueSize = queueSize;
     }
@@ -154,6 +209,26 @@ public class HttpEventSender {
     }
 
     public void sendEventAsync(String jsonEvent) {
+        if (batchSize > 1) {
+            BatchingEventQueue<String> queue = batchingQueue.get();
+            if (queue == null) {
+                queue = new BatchingEventQueue<>(HttpEventSender.class.getName() + "-batch",
+                        queueSize > 0 ? queueSize : 10000, batchSize, batchDelayMs, overflowPolicy, queueBlockTimeoutMs,
+                        this::sendEvents);
+                if (!batchingQueue.compareAndSet(null, queue)) {
+                    queue.close();
+                    queue = batchingQueue.get();
+                }
+            }
+            if (!queue.submit(jsonEvent)) {
+                final long dropped = queue.getDropped();
+                // Log the first drops, then less and less often not to flood logs while the queue stays full.
+                if (Long.bitCount(dropped) == 1) {
+                    LOGGER.warn("Audit event dropped, HTTP queue is full ({} events dropped so far)", dropped);
+                }
+            }
+            return;
+        }
         ExecutorService executorService = executor.get();
         if (executorService == null) {
             executorService = new ThreadPoolExecutor(Math.min(coreSize, maxSize), maxSize, keepAliveMs, MILLISECONDS,
@@ -181,9 +256,31 @@ public class HttpEventSender {
     }
 
     public void sendEvent(String jsonEvent) {
-        HttpURLConnection conn = openConnection();
+        post(jsonEvent.getBytes());
+    }
 
-        byte[] payload = jsonEvent.getBytes();
+    /**
+     * Sends events in a single request, as a Json array.
+     *
+     * @param jsonEvents events serialized as Json.
+     */
+    public void sendEvents(List<String> jsonEvents) {
+        int length = jsonEvents.size() + 1;
+        for (String jsonEvent : jsonEvents) {
+            length += jsonEvent.length();
+        }
+        final StringBuilder array = new StringBuilder(length).append('[');
+        for (int i = 0; i < jsonEvents.size(); i++) {
+            if (i > 0) {
+                array.append(',');
+            }
+            array.append(jsonEvents.get(i));
+        }
+        post(array.append(']').toString().getBytes());
+    }
+
+    private void post(byte[] payload) {
+        HttpURLConnection conn = openConnection();
 
         conn.setFixedLengthStreamingMode(payload.length);
         conn.setRequestProperty("Content-Type", "application/json; charset=" + encoding.name());
@@ -244,8 +341,13 @@ public class HttpEventSender {
     }
 
     public void stop() {
+        final BatchingEventQueue<String> queue = batchingQueue.getAndSet(null);
+        if (queue != null) {
+            queue.close();
+        }
+
         final ExecutorService executorService = executor.get();
-        if (executor.compareAndSet(executorService, null)) {
+        if (executorService != null && executor.compareAndSet(executorService, null)) {
             executorService.shutdown();
 
             try {
@@ -268,6 +370,10 @@ public class HttpEventSender {
                             try {
                                 if (field.getType() == int.class) {
                                     field.set(HttpEventSender.this, Integer.parseInt(value));
+                                } else if (field.getType() == boolean.class) {
+                                    field.set(HttpEventSender.this, Boolean.parseBoolean(value));
+                                } else if (field.getType() == OverflowPolicy.class) {
+                                    field.set(HttpEventSender.this, OverflowPolicy.valueOf(value));
                                 } else if (field.getType() == String.class) {
                                     field.set(HttpEventSender.this, value);
                                 } else if (field.getType() == Charset.class) {
@@ -54,6 +54,11 @@ public class AuditConfigurationTest {
         assertEquals(Boolean.FALSE, AuditConfiguration.APPENDER_HTTP_ASYNC.getBoolean(config));
         assertEquals((Integer) 1000, AuditConfiguration.APPENDER_HTTP_CONNECT_TIMEOUT.getInteger(config));
         assertEquals((Integer) 50, AuditConfiguration.APPENDER_HTTP_READ_TIMEOUT.getInteger(config));
+        assertEquals((Integer) 20, AuditConfiguration.APPENDER_HTTP_BATCH_SIZE.getInteger(config));
+        assertEquals((Integer) 200, AuditConfiguration.APPENDER_HTTP_BATCH_DELAY_MS.getInteger(config));
+        assertEquals(OverflowPolicy.DROP_NEWEST,
+                AuditConfiguration.APPENDER_HTTP_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class));
+        assertEquals((Integer) 500, AuditConfiguration.APPENDER_HTTP_QUEUE_BLOCK_TIMEOUT_MS.getInteger(config));
 
         assertEquals("UTF-16", AuditConfiguration.ENCODING.getString(config));
         assertEquals(Backends.LOGBACK, AuditConfiguration.BACKEND.getValue(config, Backends.class));
@@ -62,5 +67,11 @@ public class AuditConfigurationTest {
         assertEquals("key", AuditConfiguration.KAFKA_PARTITION_KEY_NAME.getString(config));
         assertEquals("localhost:9092", AuditConfiguration.KAFKA_BOOTSTRAP_SERVERS.getString(config));
         assertEquals((Long) 30000L, AuditConfiguration.KAFKA_BLOCK_TIMEOUT_MS.getLong(config));
+        assertEquals(Boolean.TRUE, AuditConfiguration.KAFKA_ASYNC.getBoolean(config));
+        assertEquals((Integer) 1000, AuditConfiguration.KAFKA_QUEUE_SIZE.getInteger(config));
+        assertEquals((Integer) 50, AuditConfiguration.KAFKA_BATCH_SIZE.getInteger(config));
+        assertEquals((Long) 20L, AuditConfiguration.KAFKA_BATCH_DELAY_MS.getLong(config));
+        assertEquals(OverflowPolicy.DROP_OLDEST,
+                AuditConfiguration.KAFKA_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class));
     }
 }
@@ -0,0 +1,146 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.logging.audit.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchingEventQueueTest {
+
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void deliversFullBatches() {
+        // given
+        BatchingEventQueue<Integer> queue = new BatchingEventQueue<>("test", 100, 3, 60000L, OverflowPolicy.BLOCK, 1000L,
+                batches::add);
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            queue.submit(i);
+        }
+        queue.close();
+
+        // then
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5)), batches);
+        assertEquals(6, queue.getSubmitted());
+        assertEquals(6, queue.getDelivered());
+        assertEquals(2, queue.getBatches());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void deliversIncompleteBatchAfterDelay() throws InterruptedException {
+        // given
+        CountDownLatch delivered = new CountDownLatch(1);
+        BatchingEventQueue<Integer> queue = new BatchingEventQueue<>("test", 100, 10, 50L, OverflowPolicy.BLOCK, 1000L,
+                batch -> {
+                    batches.add(batch);
+                    delivered.countDown();
+                });
+
+        // when
+        queue.submit(1);
+        queue.submit(2);
+
+        // then
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        queue.close();
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+        assertTrue(queue.getMaxLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(50L));
+    }
+
+    @Test
+    public void dropsNewestEventsWhenFull() throws InterruptedException {
+        // given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingEventQueue<Integer> queue = new BatchingEventQueue<>("test", 2, 1, 0L, OverflowPolicy.DROP_NEWEST, 0L,
+                batch -> {
+                    blocked.countDown();
+                    await(release);
+                    batches.add(batch);
+                });
+        queue.submit(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // when
+        boolean first = queue.submit(1);
+        boolean second = queue.submit(2);
+        boolean third = queue.submit(3);
+        release.countDown();
+        queue.close();
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(Arrays.asList(Arrays.asList(0), Arrays.asList(1), Arrays.asList(2)), batches);
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    public void dropsOldestEventsWhenFull() throws InterruptedException {
+        // given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingEventQueue<Integer> queue = new BatchingEventQueue<>("test", 2, 1, 0L, OverflowPolicy.DROP_OLDEST, 0L,
+                batch -> {
+                    blocked.countDown();
+                    await(release);
+                    batches.add(batch);
+                });
+        queue.submit(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // when
+        queue.submit(1);
+        queue.submit(2);
+        boolean accepted = queue.submit(3);
+        release.countDown();
+        queue.close();
+
+        // then
+        assertTrue(accepted);
+        assertEquals(Arrays.asList(Arrays.asList(0), Arrays.asList(2), Arrays.asList(3)), batches);
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    public void countsFailedEvents() {
+        // given
+        BatchingEventQueue<Integer> queue = new BatchingEventQueue<>("test", 100, 2, 60000L, OverflowPolicy.BLOCK, 1000L,
+                batch -> {
+                    throw new IllegalStateException("unavailable");
+                });
+
+        // when
+        queue.submit(1);
+        queue.submit(2);
+        queue.submit(3);
+        queue.close();
+
+        // then
+        assertEquals(3, queue.getFailed());
+        assertEquals(0, queue.getDelivered());
+        assertEquals(2, queue.getBatches());
+        assertFalse(queue.submit(4));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
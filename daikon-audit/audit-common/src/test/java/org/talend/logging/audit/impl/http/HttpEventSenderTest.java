@@ -3,10 +3,20 @@ package org.talend.logging.audit.impl.http;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.SetSystemProperty;
+import org.talend.logging.audit.impl.BatchingEventQueue;
+
+import com.sun.net.httpserver.HttpServer;
 
 @SetSystemProperty(key = "org.talend.logging.audit.impl.http.HttpEventSender.username", value = "system-prop-user")
 @SetSystemProperty(key = "org.talend.logging.audit.impl.http.HttpEventSender.encoding", value = "UTF-16")
@@ -25,4 +35,41 @@ public class HttpEventSenderTest {
         assertEquals(5000, sender.getConnectTimeout());
         assertEquals(StandardCharsets.UTF_16, sender.getEncoding());
     }
+
+    @Test
+    public void sendEventsInBatches() throws IOException {
+        // given
+        final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                requests.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        final HttpEventSender sender = new HttpEventSender();
+        sender.setUrl("http://localhost:" + server.getAddress().getPort() + "/");
+        sender.setBatchSize(3);
+        sender.setBatchDelayMs(60000);
+
+        try {
+            // when
+            sender.start();
+            for (int i = 0; i < 7; i++) {
+                sender.sendEventAsync("{\"id\":" + i + "}");
+            }
+            final BatchingEventQueue<String> queue = sender.getBatchingQueue();
+            sender.stop();
+
+            // then
+            assertEquals(Arrays.asList("[{\"id\":0},{\"id\":1},{\"id\":2}]", "[{\"id\":3},{\"id\":4},{\"id\":5}]",
+                    "[{\"id\":6}]"), requests);
+            assertEquals(7, queue.getDelivered());
+            assertEquals(0, queue.getDropped());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
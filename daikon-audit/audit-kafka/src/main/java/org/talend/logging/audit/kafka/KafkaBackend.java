@@ -2,25 +2,33 @@
 package org.talend.logging.audit.kafka;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.talend.logging.audit.LogLevel;
 import org.talend.logging.audit.impl.AbstractBackend;
 import org.talend.logging.audit.impl.AuditConfiguration;
 import org.talend.logging.audit.impl.AuditConfigurationMap;
+import org.talend.logging.audit.impl.BatchingEventQueue;
+import org.talend.logging.audit.impl.OverflowPolicy;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-public class KafkaBackend extends AbstractBackend {
+public class KafkaBackend extends AbstractBackend implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaBackend.class);
 
     private final KafkaProducer<String, String> kafkaProducer;
 
@@ -34,18 +42,42 @@ public class KafkaBackend extends AbstractBackend {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Queue of contexts to send in the background, <code>null</code> if events are sent synchronously.
+     */
+    private final BatchingEventQueue<Map<String, String>> eventQueue;
+
+    /**
+     * Delivers queued events when the JVM stops, <code>null</code> if events are sent synchronously. Removed by
+     * {@link #close()}.
+     */
+    private final Thread shutdownHook;
+
     public KafkaBackend(AuditConfigurationMap config) {
+        this(config, createProducer(config));
+    }
+
+    KafkaBackend(AuditConfigurationMap config, KafkaProducer<String, String> kafkaProducer) {
         super(null);
-        StringSerializer keyValueSerializer = new StringSerializer();
+        this.kafkaProducer = kafkaProducer;
         this.bootstrapServers = config.getString(AuditConfiguration.KAFKA_BOOTSTRAP_SERVERS);
         this.kafkaTopic = config.getString(AuditConfiguration.KAFKA_TOPIC);
         this.partitionKeyName = config.getString(AuditConfiguration.KAFKA_PARTITION_KEY_NAME);
         this.blockTimeoutMs = config.getLong(AuditConfiguration.KAFKA_BLOCK_TIMEOUT_MS);
-        Map<String, Object> producerConfig = new HashMap<>();
-        producerConfig.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        producerConfig.put(ProducerConfig.ACKS_CONFIG, "1");
-        producerConfig.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, blockTimeoutMs);
-        this.kafkaProducer = new KafkaProducer<>(producerConfig, keyValueSerializer, keyValueSerializer);
+        if (config.getBoolean(AuditConfiguration.KAFKA_ASYNC)) {
+            // The producer batches records by itself: the queue only spares callers waiting for acknowledgements.
+            this.eventQueue = new BatchingEventQueue<>(KafkaBackend.class.getName() + "-batch",
+                    config.getInteger(AuditConfiguration.KAFKA_QUEUE_SIZE),
+                    config.getInteger(AuditConfiguration.KAFKA_BATCH_SIZE),
+                    config.getLong(AuditConfiguration.KAFKA_BATCH_DELAY_MS),
+                    config.getValue(AuditConfiguration.KAFKA_OVERFLOW_POLICY, OverflowPolicy.class), blockTimeoutMs,
+                    this::sendBatch);
+            this.shutdownHook = new Thread(eventQueue::close, KafkaBackend.class.getName() + "-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        } else {
+            this.eventQueue = null;
+            this.shutdownHook = null;
+        }
     }
 
     public KafkaBackend(KafkaProducer<String, String> kafkaProducer, String kafkaTopic, String partitionKeyName,
@@ -56,10 +88,33 @@ public class KafkaBackend extends AbstractBackend {
         this.partitionKeyName = partitionKeyName;
         this.bootstrapServers = bootstrapServers;
         this.blockTimeoutMs = blockTimeoutMs;
+        this.eventQueue = null;
+        this.shutdownHook = null;
+    }
+
+    private static KafkaProducer<String, String> createProducer(AuditConfigurationMap config) {
+        StringSerializer keyValueSerializer = new StringSerializer();
+        Map<String, Object> producerConfig = new HashMap<>();
+        producerConfig.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
+                config.getString(AuditConfiguration.KAFKA_BOOTSTRAP_SERVERS));
+        producerConfig.put(ProducerConfig.ACKS_CONFIG, "1");
+        producerConfig.put(ProducerConfig.MAX_BLOCK_MS_CONFIG,
+                config.getLong(AuditConfiguration.KAFKA_BLOCK_TIMEOUT_MS));
+        return new KafkaProducer<>(producerConfig, keyValueSerializer, keyValueSerializer);
     }
 
     @Override
     public void log(String category, LogLevel level, String message, Throwable throwable) {
+        if (eventQueue != null) {
+            if (!eventQueue.submit(getCopyOfContextMap())) {
+                final long dropped = eventQueue.getDropped();
+                // Log the first drops, then less and less often not to flood logs while the queue stays full.
+                if (Long.bitCount(dropped) == 1) {
+                    LOGGER.warn("Audit event dropped, Kafka queue is full ({} events dropped so far)", dropped);
+                }
+            }
+            return;
+        }
         try {
             this.kafkaProducer.send(createRecordFromContext(getCopyOfContextMap())).get(this.blockTimeoutMs,
                     TimeUnit.MILLISECONDS);
@@ -68,6 +123,40 @@ public class KafkaBackend extends AbstractBackend {
         }
     }
 
+    /**
+     * Delivers queued events (in async mode) and stops the delivery thread. Events logged afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (eventQueue == null) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already stopping: the hook closes the queue.
+        }
+        eventQueue.close();
+    }
+
+    /**
+     * Sends a batch of events without waiting for each acknowledgement, then waits for all of them.
+     */
+    private void sendBatch(List<Map<String, String>> contexts) {
+        final AtomicInteger failures = new AtomicInteger();
+        for (Map<String, String> context : contexts) {
+            this.kafkaProducer.send(createRecordFromContext(context), (metadata, exception) -> {
+                if (exception != null) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        this.kafkaProducer.flush();
+        if (failures.get() > 0) {
+            throw new RuntimeException("Failure when sending " + failures.get() + " audit logs to Kafka");
+        }
+    }
+
     private ProducerRecord<String, String> createRecordFromContext(Map<String, String> context) {
         String key = context != null ? context.getOrDefault(this.partitionKeyName, null) : null;
         String value;
@@ -104,4 +193,12 @@ public class KafkaBackend extends AbstractBackend {
     Long getBlockTimeoutMs() {
         return blockTimeoutMs;
     }
+
+    BatchingEventQueue<Map<String, String>> getEventQueue() {
+        return eventQueue;
+    }
+
+    Thread getShutdownHook() {
+        return shutdownHook;
+    }
 }
@@ -2,21 +2,33 @@
 package org.talend.logging.audit.kafka;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.talend.logging.audit.LogLevel;
 import org.talend.logging.audit.impl.AuditConfiguration;
+import org.talend.logging.audit.impl.BatchingEventQueue;
 
 public class KafkaBackendTest {
 
@@ -94,4 +106,74 @@ public class KafkaBackendTest {
         assertEquals(1, copyOfContextMap.size());
         assertEquals("ID1234", eventMap.get("partitionKey"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLogAsync() {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        Properties properties = new Properties();
+        properties.setProperty("application.name", "Kafka Backend test");
+        properties.setProperty("log.appender", "none");
+        properties.setProperty("kafka.bootstrap.servers", "localhost:9092");
+        properties.setProperty("kafka.topic", "testTopic");
+        properties.setProperty("kafka.partition.key.name", "partitionKey");
+        properties.setProperty("kafka.async", "true");
+        properties.setProperty("kafka.batch.size", "2");
+        kafkaBackend = new KafkaBackend(AuditConfiguration.loadFromProperties(properties), kafkaProducerMock);
+
+        for (int i = 0; i < 3; i++) {
+            Map<String, String> eventMap = new HashMap<>();
+            eventMap.put("partitionKey", "ID" + i);
+            kafkaBackend.setContextMap(eventMap);
+            kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        }
+        BatchingEventQueue<Map<String, String>> eventQueue = kafkaBackend.getEventQueue();
+        kafkaBackend.close();
+
+        ArgumentCaptor<ProducerRecord<String, String>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaProducerMock, times(3)).send(captor.capture(), any(Callback.class));
+        verify(kafkaProducerMock, never()).send(any(ProducerRecord.class));
+        verify(kafkaProducerMock, atLeastOnce()).flush();
+        List<ProducerRecord<String, String>> records = captor.getAllValues();
+        assertEquals("ID0", records.get(0).key());
+        assertEquals("ID2", records.get(2).key());
+        assertEquals("{\"partitionKey\":\"ID1\"}", records.get(1).value());
+        assertEquals(3, eventQueue.getDelivered());
+        // already removed by close()
+        assertFalse(Runtime.getRuntime().removeShutdownHook(kafkaBackend.getShutdownHook()));
+    }
+
+    @Test
+    public void testLogAsyncQueueFull() throws InterruptedException {
+        KafkaProducer<String, String> kafkaProducerMock = mock(KafkaProducer.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(kafkaProducerMock).flush();
+        Properties properties = new Properties();
+        properties.setProperty("application.name", "Kafka Backend test");
+        properties.setProperty("log.appender", "none");
+        properties.setProperty("kafka.bootstrap.servers", "localhost:9092");
+        properties.setProperty("kafka.topic", "testTopic");
+        properties.setProperty("kafka.async", "true");
+        properties.setProperty("kafka.queue.size", "1");
+        properties.setProperty("kafka.batch.size", "1");
+        properties.setProperty("kafka.overflow.policy", "drop_newest");
+        kafkaBackend = new KafkaBackend(AuditConfiguration.loadFromProperties(properties), kafkaProducerMock);
+
+        kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        // first event is being sent, second one fills the queue, next ones are dropped (and logged, not thrown).
+        sending.await();
+        for (int i = 0; i < 3; i++) {
+            kafkaBackend.log("application security", LogLevel.INFO, "message", null);
+        }
+        release.countDown();
+        kafkaBackend.close();
+
+        BatchingEventQueue<Map<String, String>> eventQueue = kafkaBackend.getEventQueue();
+        assertEquals(2, eventQueue.getDropped());
+        assertEquals(2, eventQueue.getDelivered());
+    }
+}
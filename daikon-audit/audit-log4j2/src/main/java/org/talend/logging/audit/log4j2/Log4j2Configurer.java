@@ -175,6 +175,10 @@ public final class Log4j2Configurer {
             appender.setPassword(trimmed);
         }
         appender.setAsync(APPENDER_HTTP_ASYNC.getBoolean(config));
+        appender.setBatchSize(APPENDER_HTTP_BATCH_SIZE.getInteger(config));
+        appender.setBatchDelayMs(APPENDER_HTTP_BATCH_DELAY_MS.getInteger(config));
+        appender.setOverflowPolicy(APPENDER_HTTP_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class));
+        appender.setQueueBlockTimeoutMs(APPENDER_HTTP_QUEUE_BLOCK_TIMEOUT_MS.getInteger(config));
 
         appender.setConnectTimeout(APPENDER_HTTP_CONNECT_TIMEOUT.getInteger(config));
         appender.setReadTimeout(APPENDER_HTTP_READ_TIMEOUT.getInteger(config));
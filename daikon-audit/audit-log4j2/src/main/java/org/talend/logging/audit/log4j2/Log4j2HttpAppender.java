@@ -8,6 +8,7 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.config.Property;
+import org.talend.logging.audit.impl.OverflowPolicy;
 import org.talend.logging.audit.impl.http.HttpAppenderException;
 import org.talend.logging.audit.impl.http.HttpEventSender;
 
@@ -52,6 +53,22 @@ public class Log4j2HttpAppender extends AbstractAppender {
         sender.setKeepAliveMs(keepAliveMs);
     }
 
+    public void setBatchSize(final int batchSize) {
+        sender.setBatchSize(batchSize);
+    }
+
+    public void setBatchDelayMs(final int batchDelayMs) {
+        sender.setBatchDelayMs(batchDelayMs);
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        sender.setOverflowPolicy(overflowPolicy);
+    }
+
+    public void setQueueBlockTimeoutMs(final int queueBlockTimeoutMs) {
+        sender.setQueueBlockTimeoutMs(queueBlockTimeoutMs);
+    }
+
     public String getUrl() {
         return sender.getUrl();
     }
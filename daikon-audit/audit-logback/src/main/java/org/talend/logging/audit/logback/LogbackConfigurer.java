@@ -183,6 +183,10 @@ public final class LogbackConfigurer {
             appender.setPassword(APPENDER_HTTP_PASSWORD.getString(config));
         }
         appender.setAsync(APPENDER_HTTP_ASYNC.getBoolean(config));
+        appender.setBatchSize(APPENDER_HTTP_BATCH_SIZE.getInteger(config));
+        appender.setBatchDelayMs(APPENDER_HTTP_BATCH_DELAY_MS.getInteger(config));
+        appender.setOverflowPolicy(APPENDER_HTTP_OVERFLOW_POLICY.getValue(config, OverflowPolicy.class));
+        appender.setQueueBlockTimeoutMs(APPENDER_HTTP_QUEUE_BLOCK_TIMEOUT_MS.getInteger(config));
 
         appender.setConnectTimeout(APPENDER_HTTP_CONNECT_TIMEOUT.getInteger(config));
         appender.setReadTimeout(APPENDER_HTTP_READ_TIMEOUT.getInteger(config));
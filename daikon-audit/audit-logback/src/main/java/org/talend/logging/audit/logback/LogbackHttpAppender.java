@@ -1,6 +1,7 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.logging.audit.logback;
 
+import org.talend.logging.audit.impl.OverflowPolicy;
 import org.talend.logging.audit.impl.http.HttpAppenderException;
 import org.talend.logging.audit.impl.http.HttpEventSender;
 
@@ -49,6 +50,22 @@ public class LogbackHttpAppender extends AppenderBase<ILoggingEvent> {
         sender.setKeepAliveMs(keepAliveMs);
     }
 
+    public void setBatchSize(final int batchSize) {
+        sender.setBatchSize(batchSize);
+    }
+
+    public void setBatchDelayMs(final int batchDelayMs) {
+        sender.setBatchDelayMs(batchDelayMs);
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        sender.setOverflowPolicy(overflowPolicy);
+    }
+
+    public void setQueueBlockTimeoutMs(final int queueBlockTimeoutMs) {
+        sender.setQueueBlockTimeoutMs(queueBlockTimeoutMs);
+    }
+
     public Layout<ILoggingEvent> getLayout() {
         return layout;
     }
@@ -1,6 +1,8 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.collections.tree;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import org.talend.daikon.collections.tree.memory.MemoryNode;
@@ -106,6 +108,61 @@ public class AvlTreeBuilder<K extends Comparable<K>, T> {
         }
     }
 
+    /**
+     * Bulk load of an empty tree with already sorted entries.
+     * Tree is directly built balanced, bottom-up (childs before parent), so there is no rotation
+     * and, for file storage, nodes are only appended to file.
+     * 
+     * @param sortedEntries : entries sorted by key.
+     * @param size : number of entries.
+     */
+    public void insertSorted(final Iterator<Map.Entry<K, T>> sortedEntries, final long size) {
+        if (this.root != null) {
+            throw new IllegalStateException("Bulk load is only possible on empty tree");
+        }
+        if (size <= 0L) {
+            return;
+        }
+        final Node<K, T> newRoot = this.buildSorted(sortedEntries, size, new Object[1]);
+        if (sortedEntries.hasNext()) {
+            throw new IllegalArgumentException("More than " + size + " entries to insert");
+        }
+        this.root = newRoot;
+        this.builder.newRoot(newRoot);
+    }
+
+    /**
+     * Build balanced sub-tree (left sub-tree, then right sub-tree, then its root).
+     * 
+     * @param sortedEntries : entries sorted by key.
+     * @param size : number of entries for this sub-tree.
+     * @param lastKey : last key read (to check order).
+     * @return root of sub-tree.
+     */
+    private Node<K, T> buildSorted(final Iterator<Map.Entry<K, T>> sortedEntries, final long size, final Object[] lastKey) {
+        if (size == 0L) {
+            return null;
+        }
+        final long leftSize = (size - 1L) / 2L;
+        final Node<K, T> left = this.buildSorted(sortedEntries, leftSize, lastKey);
+
+        if (!sortedEntries.hasNext()) {
+            throw new IllegalArgumentException("Less entries than expected to insert");
+        }
+        final Map.Entry<K, T> entry = sortedEntries.next();
+        final K key = entry.getKey();
+        final T data = entry.getValue();
+        @SuppressWarnings("unchecked")
+        final K previousKey = (K) lastKey[0];
+        if (previousKey != null && previousKey.compareTo(key) > 0) {
+            throw new IllegalArgumentException("Entries are not sorted (" + key + " after " + previousKey + ")");
+        }
+        lastKey[0] = key;
+
+        final Node<K, T> right = this.buildSorted(sortedEntries, size - 1L - leftSize, lastKey);
+        return this.builder.build(key, () -> data, left, right);
+    }
+
     public AvlTree<K, T> build() {
         return this.build(10);
     }
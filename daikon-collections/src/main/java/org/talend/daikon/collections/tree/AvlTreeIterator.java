@@ -1,35 +1,45 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.collections.tree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Iterate on a Tree.
  * Left => current => right
+ * Use an explicit stack of nodes (reused along iteration) instead of recursive iterators.
  *
  * @param <K>
  * @param <T>
  */
 public class AvlTreeIterator<K extends Comparable<K>, T> implements Iterator<INode<K, T>> {
 
-    private INode<K, T> nextElement;
-
-    private boolean currentDone = false;
-
-    private INode<K, T> localRoot;
+    /** stack of nodes whose left sub-tree is explored but not node itself nor right sub-tree */
+    @SuppressWarnings("unchecked")
+    private INode<K, T>[] stack = (INode<K, T>[]) new INode<?, ?>[32];
 
-    private Iterator<INode<K, T>>[] childsIterator = new Iterator[2];
+    private int stackSize = 0;
 
-    private boolean[] testedChild = new boolean[] { false, false };
+    private INode<K, T> nextElement;
 
     private final K startKey;
 
     private final K endKey;
 
+    /** right childs to load soon, for prefetch */
+    private final List<NodeLink<K, T>> toPrefetch = new ArrayList<>();
+
     public AvlTreeIterator(INode<K, T> startWith, K startKey, K endKey) {
-        this.localRoot = startWith;
         this.startKey = startKey;
         this.endKey = endKey;
+        this.pushLeft(startWith);
         this.nextElement = this.searchNext();
     }
 
@@ -41,50 +51,67 @@ public class AvlTreeIterator<K extends Comparable<K>, T> implements Iterator<INo
     @Override
     public INode<K, T> next() {
         final INode<K, T> next = nextElement;
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
         this.nextElement = this.searchNext();
         return next;
     }
 
     private INode<K, T> searchNext() {
-        this.initChildIterator(0);
-        if (this.childsIterator[0] != null && this.childsIterator[0].hasNext()) {
-            return this.childsIterator[0].next();
-        }
-        if (!currentDone) {
-            this.currentDone = true;
-            K key = this.localRoot.getKey();
-            if ((this.startKey == null || this.startKey.compareTo(key) <= 0)
-                    && (this.endKey == null || this.endKey.compareTo(key) >= 0)) {
-                return this.localRoot;
-            }
+        if (this.stackSize == 0) {
+            return null;
         }
-        this.initChildIterator(1);
-        if (this.childsIterator[1] != null && this.childsIterator[1].hasNext()) {
-            return this.childsIterator[1].next();
+        final INode<K, T> current = this.stack[--this.stackSize];
+        this.stack[this.stackSize] = null;
+        if (this.endKey != null && this.endKey.compareTo(current.getKey()) < 0) {
+            // all next keys are greater.
+            this.stackSize = 0;
+            return null;
         }
-        return null;
+        this.pushLeft(current.getChild(1));
+        return current;
     }
 
-    private void initChildIterator(int childNum) {
-        if (!this.testedChild[childNum]) {
-            final INode<K, T> child = this.localRoot.getChild(childNum);
-            boolean explore = child != null;
-            if (explore && childNum == 0) {
-                // Explore left subtree where (key <= localRoot.key) only if localroot.key >= start key
-                // (otherwise, all key of left sub-tree can't be valid).
-                explore = this.startKey == null || this.startKey.compareTo(this.localRoot.getKey()) <= 0;
-            } else if (explore) {
-                // Explore right subtree where (key >= localRoot.key) only if localroot.key <= end key
-                // (otherwise, all key of right sub-tree can't be valid).
-                explore = this.endKey == null || this.endKey.compareTo(this.localRoot.getKey()) >= 0;
+    /**
+     * Push node and its left descendants, skipping nodes (and their left sub-trees) lower than start key.
+     *
+     * @param from : sub-tree root.
+     */
+    private void pushLeft(final INode<K, T> from) {
+        INode<K, T> current = from;
+        while (current != null) {
+            if (this.startKey != null && this.startKey.compareTo(current.getKey()) > 0) {
+                // Explore only right subtree (left subtree and current can't be valid).
+                current = current.getChild(1);
+            } else {
+                if (this.stackSize == this.stack.length) {
+                    this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+                }
+                this.stack[this.stackSize++] = current;
+                this.addPrefetch(current);
+                current = current.getChild(0);
             }
-            if (explore) {
-                this.childsIterator[childNum] = new AvlTreeIterator<>(child, startKey, endKey);
+        }
+        this.prefetch();
+    }
+
+    private void addPrefetch(final INode<K, T> node) {
+        if (node instanceof Node) {
+            final NodeLink<K, T> right = ((Node<K, T>) node).getChildSimple(1);
+            if (right != null && right.prefetcher() != null) {
+                this.toPrefetch.add(right);
             }
-            this.testedChild[childNum] = true;
         }
     }
 
+    private void prefetch() {
+        if (this.toPrefetch.size() > 1) {
+            this.toPrefetch.get(0).prefetcher().prefetch(this.toPrefetch);
+        }
+        this.toPrefetch.clear();
+    }
+
     public static class IteratorBuilder<K extends Comparable<K>, T> {
 
         private final INode<K, T> root;
@@ -110,5 +137,114 @@ public class AvlTreeIterator<K extends Comparable<K>, T> implements Iterator<INo
             this.endKey = endKey;
             return this;
         }
+
+        /**
+         * Spliterator on tree, that can be split on sub-tree boundaries.
+         *
+         * @return spliterator.
+         */
+        public Spliterator<INode<K, T>> spliterator() {
+            return new TreeSpliterator<>(null, this.root, this.startKey, this.endKey);
+        }
+
+        public Stream<INode<K, T>> stream() {
+            return StreamSupport.stream(this.spliterator(), false);
+        }
+
+        public Stream<INode<K, T>> parallelStream() {
+            return StreamSupport.stream(this.spliterator(), true);
+        }
+    }
+
+    /**
+     * Spliterator on tree : an optional single node, followed by a whole sub-tree.
+     * Splitting gives left sub-tree, and keeps sub-tree root followed by right sub-tree.
+     */
+    private static class TreeSpliterator<K extends Comparable<K>, T> implements Spliterator<INode<K, T>> {
+
+        private INode<K, T> head;
+
+        private INode<K, T> subTree;
+
+        private final K startKey;
+
+        private final K endKey;
+
+        private AvlTreeIterator<K, T> iterator = null;
+
+        TreeSpliterator(INode<K, T> head, INode<K, T> subTree, K startKey, K endKey) {
+            this.head = head;
+            this.subTree = subTree;
+            this.startKey = startKey;
+            this.endKey = endKey;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super INode<K, T>> action) {
+            if (this.head != null) {
+                final INode<K, T> current = this.head;
+                this.head = null;
+                if (this.inRange(current.getKey())) {
+                    action.accept(current);
+                    return true;
+                }
+            }
+            if (this.iterator == null) {
+                this.iterator = new AvlTreeIterator<>(this.subTree, this.startKey, this.endKey);
+                this.subTree = null;
+            }
+            if (this.iterator.hasNext()) {
+                action.accept(this.iterator.next());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<INode<K, T>> trySplit() {
+            if (this.iterator != null || this.subTree == null) {
+                return null;
+            }
+            if (this.head != null) {
+                // head alone as prefix.
+                final Spliterator<INode<K, T>> prefix = new TreeSpliterator<>(this.head, null, this.startKey, this.endKey);
+                this.head = null;
+                return prefix;
+            }
+            final INode<K, T> root = this.subTree;
+            final K key = root.getKey();
+            if (this.startKey != null && this.startKey.compareTo(key) > 0) {
+                // left sub-tree out of range.
+                this.subTree = root.getChild(1);
+                return this.trySplit();
+            }
+            if (this.endKey != null && this.endKey.compareTo(key) < 0) {
+                // right sub-tree out of range.
+                this.subTree = root.getChild(0);
+                return this.trySplit();
+            }
+            final INode<K, T> left = root.getChild(0);
+            this.head = root;
+            this.subTree = root.getChild(1);
+            if (left == null) {
+                return null;
+            }
+            return new TreeSpliterator<>(null, left, this.startKey, this.endKey);
+        }
+
+        private boolean inRange(final K key) {
+            return (this.startKey == null || this.startKey.compareTo(key) <= 0)
+                    && (this.endKey == null || this.endKey.compareTo(key) >= 0);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
     }
 }
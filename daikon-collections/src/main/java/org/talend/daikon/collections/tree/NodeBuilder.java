@@ -10,4 +10,24 @@ public interface NodeBuilder<K extends Comparable<K>, T> {
     void newRoot(final Node<K, T> root);
 
     Node<K, T> build(final K key, final Supplier<T> data);
+
+    /**
+     * Build a node with its already built childs (used for bulk load, where childs are built before parent).
+     *
+     * @param key : node key.
+     * @param data : node data.
+     * @param left : left child (or null).
+     * @param right : right child (or null).
+     * @return new node.
+     */
+    default Node<K, T> build(final K key, final Supplier<T> data, final Node<K, T> left, final Node<K, T> right) {
+        final Node<K, T> node = this.build(key, data);
+        if (left != null) {
+            node.setChild(0, left);
+        }
+        if (right != null) {
+            node.setChild(1, right);
+        }
+        return node;
+    }
 }
@@ -7,4 +7,11 @@ public interface NodeLink<K extends Comparable<K>, T> {
 
     void saveNode(final Node<K, T> node);
 
+    /**
+     * @return prefetcher for this link storage (null if nodes are not worth prefetching).
+     */
+    default NodePrefetcher<K, T> prefetcher() {
+        return null;
+    }
+
 }
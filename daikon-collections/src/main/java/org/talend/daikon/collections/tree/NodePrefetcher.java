@@ -0,0 +1,15 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree;
+
+import java.util.List;
+
+/**
+ * Load in advance a batch of nodes that will be read soon (used by iterator).
+ *
+ * @param <K> : Class for Key.
+ * @param <T> : Class for stored data.
+ */
+public interface NodePrefetcher<K extends Comparable<K>, T> {
+
+    void prefetch(final List<NodeLink<K, T>> links);
+}
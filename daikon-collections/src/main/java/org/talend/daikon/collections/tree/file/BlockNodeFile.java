@@ -0,0 +1,307 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.file;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.talend.daikon.collections.tree.Node;
+import org.talend.daikon.collections.tree.NodeLink;
+
+/**
+ * Tree nodes on file with compact format (version 2).
+ * Nodes are packed in blocks (optionally compressed), child links are varint and keys share prefix with previous key of
+ * block.
+ * As a block is written once, nodes can't be updated : file is written from sorted entries with
+ * {@link BlockNodeFileWriter}, and this class only reads complete files (methods that write nodes throw
+ * {@link IllegalStateException}, as for a read only file).
+ * Use {@link NodeFile#open} to read a file whatever its version.
+ *
+ * <pre>
+ * header : "TRE2" | version (int) | compression (byte) | block size (int) | footer position (long)
+ * blocks ...
+ * footer : root address (long) | number of blocks (int) | for each block, position (long), compressed size (int),
+ * size (int), number of nodes (int)
+ * </pre>
+ *
+ * Address of a node is (block number + 1) * 2^32 + (index of node in block).
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class BlockNodeFile<K extends Comparable<K>, T> extends NodeFile<K, T> {
+
+    /** magic bytes at start of file (old format starts with "Tree" in UTF-16) */
+    static final byte[] MAGIC = new byte[] { 'T', 'R', 'E', '2' };
+
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = MAGIC.length + Integer.BYTES + 1 + Integer.BYTES + Long.BYTES;
+
+    static final long FOOTER_POSITION = HEADER_SIZE - Long.BYTES;
+
+    /** size of one block entry in footer */
+    static final int BLOCK_ENTRY_SIZE = Long.BYTES + 3 * Integer.BYTES;
+
+    /** default uncompressed size of block */
+    public static final int DEFAULT_BLOCK_SIZE = 16 * 1024;
+
+    /** default number of decoded blocks kept in memory */
+    public static final int DEFAULT_CACHED_BLOCKS = 64;
+
+    private static final String READ_ONLY = "Tree block file is read only, write it with BlockNodeFileWriter";
+
+    /**
+     * Compression of blocks.
+     */
+    public enum Compression {
+        NONE,
+        DEFLATE
+    }
+
+    private final Compression compression;
+
+    /** decoded blocks, least recently used are removed */
+    private final Map<Integer, Block> blocks;
+
+    /** blocks on file (position, compressed size, size, nodes) */
+    private final long[][] blockTable;
+
+    private final long rootAddress;
+
+    /**
+     * Open existing block file.
+     */
+    public BlockNodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer) {
+        this(file, keySerializer, dataSerializer, DEFAULT_CACHED_BLOCKS, null);
+    }
+
+    /**
+     * Open existing block file.
+     *
+     * @param file : file where tree is stored (written by {@link BlockNodeFileWriter}).
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @param cachedBlocks : number of decoded blocks kept in memory.
+     * @param cache : cache for nodes (null for none).
+     */
+    public BlockNodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer,
+            int cachedBlocks, NodeCache<K, T> cache) {
+        super(file, keySerializer, dataSerializer, cache);
+        this.blocks = new LinkedHashMap<Integer, Block>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Block> eldest) {
+                return this.size() > cachedBlocks;
+            }
+        };
+        try {
+            if (!BlockNodeFile.isBlockFile(file)) {
+                throw new IllegalArgumentException("Not a tree block file (use NodeFile for old format)");
+            }
+            final ByteBuffer header = this.readBuffer(0L, HEADER_SIZE);
+            header.position(MAGIC.length);
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported tree file version " + version);
+            }
+            this.compression = Compression.values()[header.get()];
+            header.getInt(); // block size, only used when writing.
+            final long footerPosition = header.getLong();
+            if (footerPosition == 0L) {
+                throw new IllegalArgumentException("Tree block file is not complete");
+            }
+            final ByteBuffer footerStart = this.readBuffer(footerPosition, Long.BYTES + Integer.BYTES);
+            this.rootAddress = footerStart.getLong();
+            final int nbBlocks = footerStart.getInt();
+            final ByteBuffer table = this.readBuffer(footerPosition + Long.BYTES + Integer.BYTES,
+                    nbBlocks * BLOCK_ENTRY_SIZE);
+            this.blockTable = new long[nbBlocks][];
+            for (int i = 0; i < nbBlocks; i++) {
+                this.blockTable[i] = new long[] { table.getLong(), table.getInt(), table.getInt(), table.getInt() };
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read tree file : " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Check if file has block format (version 2) header.
+     *
+     * @param file : tree file.
+     * @return true for block file.
+     */
+    static boolean isBlockFile(final RandomAccessFile file) throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            return false;
+        }
+        final byte[] magic = new byte[MAGIC.length];
+        file.getChannel().read(ByteBuffer.wrap(magic), 0L);
+        return Arrays.equals(MAGIC, magic);
+    }
+
+    @Override
+    public Node<K, T> findRoot() {
+        if (this.rootAddress == 0L) {
+            return null;
+        }
+        return this.getNode(new NodeLinkFile<>(this, this.rootAddress));
+    }
+
+    @Override
+    public void newRoot(final Node<K, T> root) {
+        throw new IllegalStateException(READ_ONLY);
+    }
+
+    @Override
+    public Node<K, T> createNode(K key, T data, Node<K, T> left, Node<K, T> right) {
+        throw new IllegalStateException(READ_ONLY);
+    }
+
+    @Override
+    public void saveNode(final Node<K, T> node, final long startPos) {
+        throw new IllegalStateException(READ_ONLY);
+    }
+
+    @Override
+    public void prefetch(final List<NodeLink<K, T>> links) {
+        // nodes are read by block, no need to prefetch them.
+    }
+
+    @Override
+    protected Node<K, T> readNode(final NodeLinkFile<K, T> nodeLink) {
+        final long address = nodeLink.getStartPos();
+        final Block block = this.block((int) (address >>> 32) - 1);
+        final int index = (int) address;
+        final K key = this.keySerializer.deserialize(block.keys[index]);
+        final byte[] data = block.datas[index];
+        return this.buildNode(nodeLink, key, () -> this.dataSerializer.deserialize(data), block.heights[index],
+                block.lefts[index], block.rights[index]);
+    }
+
+    /**
+     * Get decoded block (from memory or read on file).
+     *
+     * @param number : block number.
+     * @return decoded block.
+     */
+    private Block block(final int number) {
+        synchronized (this.blocks) {
+            final Block block = this.blocks.get(number);
+            if (block != null) {
+                return block;
+            }
+        }
+        final Block block = this.decode(number + 1, this.blockTable[number]);
+        synchronized (this.blocks) {
+            this.blocks.put(number, block);
+        }
+        return block;
+    }
+
+    private Block decode(final int blockNumber, final long[] entry) {
+        try {
+            final byte[] stored = this.readBuffer(entry[0], (int) entry[1]).array();
+            final byte[] raw;
+            if (this.compression == Compression.DEFLATE) {
+                raw = new byte[(int) entry[2]];
+                final Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(stored);
+                    int size = 0;
+                    while (size < raw.length && !inflater.finished()) {
+                        final int inflated = inflater.inflate(raw, size, raw.length - size);
+                        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            // truncated block, inflater would wait for input forever.
+                            throw new DataFormatException("block " + blockNumber + " ends after " + size + " of "
+                                    + raw.length + " bytes");
+                        }
+                        size += inflated;
+                    }
+                    if (size < raw.length) {
+                        throw new DataFormatException(
+                                "block " + blockNumber + " has " + size + " bytes instead of " + raw.length);
+                    }
+                } finally {
+                    inflater.end();
+                }
+            } else {
+                raw = stored;
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(raw);
+            final Block block = new Block((int) entry[3]);
+            byte[] previous = new byte[0];
+            for (int i = 0; i < block.keys.length; i++) {
+                block.heights[i] = BlockNodeFile.readVarint(buffer);
+                block.lefts[i] = BlockNodeFile.readChild(buffer, blockNumber);
+                block.rights[i] = BlockNodeFile.readChild(buffer, blockNumber);
+                final int prefix = BlockNodeFile.readVarint(buffer);
+                final int suffix = BlockNodeFile.readVarint(buffer);
+                final byte[] key = Arrays.copyOf(previous, prefix + suffix);
+                buffer.get(key, prefix, suffix);
+                block.keys[i] = key;
+                previous = key;
+                final byte[] data = new byte[BlockNodeFile.readVarint(buffer)];
+                buffer.get(data);
+                block.datas[i] = data;
+            }
+            return block;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read block : " + ex.getMessage(), ex);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupted block : " + ex.getMessage(), ex);
+        }
+    }
+
+    private static long readChild(final ByteBuffer buffer, final int blockNumber) {
+        final int delta = BlockNodeFile.readVarint(buffer);
+        if (delta == 0) {
+            return 0L;
+        }
+        final int index = BlockNodeFile.readVarint(buffer);
+        return ((long) (blockNumber - delta + 1) << 32) | index;
+    }
+
+    private static int readVarint(final ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Decoded block.
+     */
+    private static class Block {
+
+        private final int[] heights;
+
+        private final long[] lefts;
+
+        private final long[] rights;
+
+        private final byte[][] keys;
+
+        private final byte[][] datas;
+
+        Block(final int size) {
+            this.heights = new int[size];
+            this.lefts = new long[size];
+            this.rights = new long[size];
+            this.keys = new byte[size][];
+            this.datas = new byte[size][];
+        }
+    }
+}
@@ -0,0 +1,257 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Write tree file with compact format (version 2, see {@link BlockNodeFile}) from entries sorted by key.
+ * Balanced tree is built bottom-up (childs before parent, as
+ * {@link org.talend.daikon.collections.tree.AvlTreeBuilder#insertSorted}), so nodes are never updated and each block
+ * is written once. Written file is then read with {@link BlockNodeFile} (or {@link NodeFile#open}).
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class BlockNodeFileWriter<K extends Comparable<K>, T> {
+
+    private final RandomAccessFile file;
+
+    private final Serializer<K> keySerializer;
+
+    private final Serializer<T> dataSerializer;
+
+    private final BlockNodeFile.Compression compression;
+
+    private final int blockSize;
+
+    /** blocks on file (position, compressed size, size, nodes) */
+    private final List<long[]> blockTable = new ArrayList<>();
+
+    /** block in progress */
+    private final ByteArrayOutputStream currentBlock = new ByteArrayOutputStream();
+
+    private int currentNodes = 0;
+
+    private byte[] previousKey = new byte[0];
+
+    /** last key written (to check order) */
+    private K lastKey = null;
+
+    private boolean written = false;
+
+    /**
+     * Writer with default block size, without compression.
+     */
+    public BlockNodeFileWriter(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer) {
+        this(file, keySerializer, dataSerializer, BlockNodeFile.Compression.NONE, BlockNodeFile.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param file : empty file where tree is written.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @param compression : block compression.
+     * @param blockSize : uncompressed block size.
+     */
+    public BlockNodeFileWriter(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer,
+            BlockNodeFile.Compression compression, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.file = file;
+        this.keySerializer = keySerializer;
+        this.dataSerializer = dataSerializer;
+        this.compression = compression;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Write whole tree on file.
+     *
+     * @param sortedEntries : entries sorted by key.
+     * @param size : number of entries.
+     */
+    public void write(final Iterator<Map.Entry<K, T>> sortedEntries, final long size) {
+        if (this.written) {
+            throw new IllegalStateException("Tree block file is already written");
+        }
+        if (size < 0L) {
+            throw new IllegalArgumentException("Number of entries can't be negative");
+        }
+        try {
+            if (this.file.length() > 0L) {
+                throw new IllegalStateException("Tree block file can only be written on empty file");
+            }
+            this.written = true;
+            this.writeHeader();
+            final long rootAddress = this.writeSorted(sortedEntries, size);
+            if (sortedEntries.hasNext()) {
+                throw new IllegalArgumentException("More than " + size + " entries to insert");
+            }
+            this.flushBlock();
+            this.writeFooter(rootAddress);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't write tree block file : " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Write balanced sub-tree (left sub-tree, then right sub-tree, then its root).
+     *
+     * @param sortedEntries : entries sorted by key.
+     * @param size : number of entries for this sub-tree.
+     * @return address of sub-tree root (0 for empty sub-tree).
+     */
+    private long writeSorted(final Iterator<Map.Entry<K, T>> sortedEntries, final long size) throws IOException {
+        if (size == 0L) {
+            return 0L;
+        }
+        final long leftSize = (size - 1L) / 2L;
+        final long left = this.writeSorted(sortedEntries, leftSize);
+
+        if (!sortedEntries.hasNext()) {
+            throw new IllegalArgumentException("Less entries than expected to insert");
+        }
+        final Map.Entry<K, T> entry = sortedEntries.next();
+        final K key = entry.getKey();
+        if (this.lastKey != null && this.lastKey.compareTo(key) > 0) {
+            throw new IllegalArgumentException("Entries are not sorted (" + key + " after " + this.lastKey + ")");
+        }
+        this.lastKey = key;
+        final T data = entry.getValue();
+
+        final long right = this.writeSorted(sortedEntries, size - 1L - leftSize);
+        // right sub-tree is the largest one, with (size / 2) entries, so height is bit length of size.
+        return this.writeNode(key, data, Long.SIZE - Long.numberOfLeadingZeros(size), left, right);
+    }
+
+    private long writeNode(final K key, final T data, final int height, final long left, final long right)
+            throws IOException {
+        final int blockNumber = this.blockTable.size() + 1;
+        final long address = ((long) blockNumber << 32) | this.currentNodes;
+
+        final byte[] keyBytes = this.keySerializer.serialize(key);
+        final byte[] dataBytes = this.dataSerializer.serialize(data);
+        BlockNodeFileWriter.writeVarint(this.currentBlock, height);
+        this.writeChild(blockNumber, left);
+        this.writeChild(blockNumber, right);
+
+        final int prefix = BlockNodeFileWriter.sharedPrefix(this.previousKey, keyBytes);
+        BlockNodeFileWriter.writeVarint(this.currentBlock, prefix);
+        BlockNodeFileWriter.writeVarint(this.currentBlock, keyBytes.length - prefix);
+        this.currentBlock.write(keyBytes, prefix, keyBytes.length - prefix);
+        BlockNodeFileWriter.writeVarint(this.currentBlock, dataBytes.length);
+        this.currentBlock.write(dataBytes, 0, dataBytes.length);
+        this.previousKey = keyBytes;
+        this.currentNodes++;
+
+        if (this.currentBlock.size() >= this.blockSize) {
+            this.flushBlock();
+        }
+        return address;
+    }
+
+    private void writeChild(final int blockNumber, final long address) {
+        if (address == 0L) {
+            this.currentBlock.write(0);
+            return;
+        }
+        // childs are always written before parents, so block delta is positive (+ 1 to distinguish from no child).
+        BlockNodeFileWriter.writeVarint(this.currentBlock, blockNumber - (int) (address >>> 32) + 1);
+        BlockNodeFileWriter.writeVarint(this.currentBlock, (int) address);
+    }
+
+    private void writeHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(BlockNodeFile.HEADER_SIZE);
+        header.put(BlockNodeFile.MAGIC);
+        header.putInt(BlockNodeFile.VERSION);
+        header.put((byte) this.compression.ordinal());
+        header.putInt(this.blockSize);
+        header.putLong(0L); // footer position, set when tree is complete.
+        this.file.seek(0L);
+        this.file.write(header.array());
+    }
+
+    /**
+     * Write footer, then its position in header (file is complete only then).
+     *
+     * @param rootAddress : address of root node.
+     */
+    private void writeFooter(final long rootAddress) throws IOException {
+        final long footerPosition = this.file.length();
+        final ByteBuffer footer = ByteBuffer
+                .allocate(Long.BYTES + Integer.BYTES + this.blockTable.size() * BlockNodeFile.BLOCK_ENTRY_SIZE);
+        footer.putLong(rootAddress);
+        footer.putInt(this.blockTable.size());
+        for (long[] block : this.blockTable) {
+            footer.putLong(block[0]);
+            footer.putInt((int) block[1]);
+            footer.putInt((int) block[2]);
+            footer.putInt((int) block[3]);
+        }
+        this.file.seek(footerPosition);
+        this.file.write(footer.array());
+        this.file.seek(BlockNodeFile.FOOTER_POSITION);
+        this.file.writeLong(footerPosition);
+    }
+
+    private void flushBlock() throws IOException {
+        if (this.currentNodes == 0) {
+            return;
+        }
+        final byte[] raw = this.currentBlock.toByteArray();
+        final byte[] stored;
+        if (this.compression == BlockNodeFile.Compression.DEFLATE) {
+            final Deflater deflater = new Deflater();
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+                final byte[] buffer = new byte[4096];
+                while (!deflater.finished()) {
+                    final int size = deflater.deflate(buffer);
+                    out.write(buffer, 0, size);
+                }
+                stored = out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            stored = raw;
+        }
+        final long position = this.file.length();
+        this.file.seek(position);
+        this.file.write(stored);
+        this.blockTable.add(new long[] { position, stored.length, raw.length, this.currentNodes });
+
+        this.currentBlock.reset();
+        this.currentNodes = 0;
+        this.previousKey = new byte[0];
+    }
+
+    private static int sharedPrefix(final byte[] first, final byte[] second) {
+        final int max = Math.min(first.length, second.length);
+        int i = 0;
+        while (i < max && first[i] == second[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,177 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.file;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.talend.daikon.collections.tree.Node;
+import org.talend.daikon.collections.tree.NodeLink;
+
+/**
+ * Manipulate tree node on file, reading through memory mapped segments.
+ * Writing is done as for {@link NodeFile} (so file format is the same), but reading nodes
+ * use page cache via {@link MappedByteBuffer} without seek and without lock;
+ * segments are mapped again when file grows.
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class MappedNodeFile<K extends Comparable<K>, T> extends NodeFile<K, T> {
+
+    /** default size of one mapped segment (64 Mo) */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+
+    private final int segmentSize;
+
+    /** current mapping of file, replaced (never updated) when file grows */
+    private volatile Mapping mapping = new Mapping(new MappedByteBuffer[0], 0L);
+
+    public MappedNodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer) {
+        this(file, keySerializer, dataSerializer, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedNodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer,
+            int segmentSize) {
+        this(file, keySerializer, dataSerializer, segmentSize, null);
+    }
+
+    public MappedNodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer, int segmentSize,
+            NodeCache<K, T> cache) {
+        super(file, keySerializer, dataSerializer, cache);
+        if (segmentSize < NODE_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + NODE_HEADER_SIZE + " bytes");
+        }
+        this.channel = file.getChannel();
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public Node<K, T> findRoot() {
+        final Mapping current = this.mappingFor(0L);
+        if (current.size == 0L) {
+            return null;
+        }
+        final long startRoot = this.readLong(ROOT_POSITION);
+        return this.getNode(new NodeLinkFile<>(this, startRoot));
+    }
+
+    @Override
+    public void prefetch(final List<NodeLink<K, T>> links) {
+        // nodes are read from page cache, no need to prefetch them.
+    }
+
+    @Override
+    protected Node<K, T> readNode(final NodeLinkFile<K, T> nodeLink) {
+        final long start = nodeLink.getStartPos();
+        final byte[] header = this.readBytes(start, NODE_HEADER_SIZE);
+        final int height = MappedNodeFile.toInt(header, 0);
+        final long child1 = MappedNodeFile.toLong(header, Integer.BYTES);
+        final long child2 = MappedNodeFile.toLong(header, Integer.BYTES + Long.BYTES);
+        final int keySize = MappedNodeFile.toInt(header, Integer.BYTES + 2 * Long.BYTES);
+        final int dataSize = MappedNodeFile.toInt(header, 2 * Integer.BYTES + 2 * Long.BYTES);
+
+        final K key = this.keySerializer.deserialize(this.readBytes(start + NODE_HEADER_SIZE, keySize));
+        final long startData = start + NODE_HEADER_SIZE + keySize;
+        final Supplier<T> dataGetter = () -> this.dataSerializer.deserialize(this.readBytes(startData, dataSize));
+
+        return this.buildNode(nodeLink, key, dataGetter, height, child1, child2);
+    }
+
+    private long readLong(final long position) {
+        return MappedNodeFile.toLong(this.readBytes(position, Long.BYTES), 0);
+    }
+
+    /**
+     * Read bytes from mapped segments (may overlap two or more segments).
+     *
+     * @param position : start position in file.
+     * @param size : number of bytes to read.
+     * @return read bytes.
+     */
+    private byte[] readBytes(final long position, final int size) {
+        final Mapping current = this.mappingFor(position + size);
+        final byte[] data = new byte[size];
+        int copied = 0;
+        while (copied < size) {
+            final long pos = position + copied;
+            final int segment = (int) (pos / this.segmentSize);
+            final int offset = (int) (pos % this.segmentSize);
+            final MappedByteBuffer buffer = current.segments[segment];
+            final int length = Math.min(size - copied, buffer.limit() - offset);
+            buffer.get(offset, data, copied, length);
+            copied += length;
+        }
+        return data;
+    }
+
+    /**
+     * Get a mapping that covers file until given end position; file is mapped again if needed.
+     *
+     * @param end : end position to be covered.
+     * @return mapping.
+     */
+    private Mapping mappingFor(final long end) {
+        final Mapping current = this.mapping;
+        if (end <= current.size && current.size > 0L) {
+            return current;
+        }
+        synchronized (this) {
+            final Mapping last = this.mapping;
+            if (end <= last.size && last.size > 0L) {
+                return last;
+            }
+            try {
+                final long fileSize = this.channel.size();
+                if (end > fileSize) {
+                    throw new IllegalStateException("Position " + end + " after end of file (" + fileSize + ")");
+                }
+                final int nbSegments = (int) ((fileSize + this.segmentSize - 1) / this.segmentSize);
+                final MappedByteBuffer[] segments = Arrays.copyOf(last.segments, nbSegments);
+                // last segment of previous mapping may be partial, so it's mapped again.
+                final int firstToMap = Math.max(0, last.segments.length - 1);
+                for (int i = firstToMap; i < nbSegments; i++) {
+                    final long start = (long) i * this.segmentSize;
+                    final long length = Math.min(this.segmentSize, fileSize - start);
+                    segments[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                }
+                final Mapping newMapping = new Mapping(segments, fileSize);
+                this.mapping = newMapping;
+                return newMapping;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Can't map file : " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private static int toInt(final byte[] data, final int start) {
+        return ((data[start] & 0xFF) << 24) | ((data[start + 1] & 0xFF) << 16) | ((data[start + 2] & 0xFF) << 8)
+                | (data[start + 3] & 0xFF);
+    }
+
+    private static long toLong(final byte[] data, final int start) {
+        return ((long) MappedNodeFile.toInt(data, start) << 32) | (MappedNodeFile.toInt(data, start + Integer.BYTES) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Immutable mapped state of the file.
+     */
+    private static class Mapping {
+
+        private final MappedByteBuffer[] segments;
+
+        private final long size;
+
+        Mapping(final MappedByteBuffer[] segments, final long size) {
+            this.segments = segments;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.file;
+
+import java.util.function.Supplier;
+
+import org.talend.daikon.collections.tree.Node;
+
+/**
+ * Bounded cache of nodes read from file, shared by reader threads (see {@link PositionCache}).
+ * Data of cached nodes is also kept once read.
+ *
+ * @param <K> class for node keys.
+ * @param <T> class for node data.
+ */
+public class NodeCache<K extends Comparable<K>, T> extends PositionCache<Node<K, T>> {
+
+    /**
+     * Node cache.
+     *
+     * @param maxSize : max number of nodes in cache.
+     */
+    public NodeCache(int maxSize) {
+        this(maxSize, PositionCache.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Node cache.
+     *
+     * @param maxSize : max number of nodes in cache.
+     * @param nbeStripes : number of stripes (rounded to power of 2).
+     */
+    public NodeCache(int maxSize, int nbeStripes) {
+        super(maxSize, nbeStripes);
+    }
+
+    /**
+     * Supplier that keep data once read.
+     *
+     * @param <T> class of data.
+     */
+    static class CachedData<T> implements Supplier<T> {
+
+        private final Supplier<T> reader;
+
+        private volatile T data;
+
+        CachedData(Supplier<T> reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public T get() {
+            T current = this.data;
+            if (current == null) {
+                current = this.reader.get();
+                this.data = current;
+            }
+            return current;
+        }
+    }
+}
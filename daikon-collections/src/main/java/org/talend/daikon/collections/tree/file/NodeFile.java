@@ -1,13 +1,20 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.collections.tree.file;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.function.Supplier;
 
 import org.talend.daikon.collections.tree.Node;
 import org.talend.daikon.collections.tree.NodeLink;
+import org.talend.daikon.collections.tree.NodePrefetcher;
 
 /**
  * Manipulate tree node on file.
@@ -15,29 +22,81 @@ import org.talend.daikon.collections.tree.NodeLink;
  * @param <K> class for node keys.
  * @param <T> class for node data.
  */
-public class NodeFile<K extends Comparable<K>, T> {
+public class NodeFile<K extends Comparable<K>, T> implements NodePrefetcher<K, T> {
+
+    /** position of root node start position in file (just after "Tree" header) */
+    protected static final long ROOT_POSITION = "Tree".length();
+
+    /** size of node header : height, left child, right child, key size, data size */
+    protected static final int NODE_HEADER_SIZE = Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    /** max distance between two nodes to be prefetched with same read */
+    private static final int PREFETCH_MAX_GAP = 4096;
+
+    /** bytes read after start of last prefetched node, to get its header and key */
+    private static final int PREFETCH_WINDOW = 512;
 
     /** file where tree is stored */
     private final RandomAccessFile file;
 
-    private final Serializer<K> keySerializer;
+    /** channel of file, for positional reads (that don't need lock) */
+    private final FileChannel channel;
+
+    protected final Serializer<K> keySerializer;
+
+    protected final Serializer<T> dataSerializer;
 
-    private final Serializer<T> dataSerializer;
+    /** cache for read nodes (optional) */
+    private final NodeCache<K, T> cache;
 
     public NodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer) {
+        this(file, keySerializer, dataSerializer, null);
+    }
+
+    /**
+     * Node file with cache for read nodes, to be used when tree is shared by reader threads.
+     * 
+     * @param file : file where tree is stored.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @param cache : cache for nodes (null for none).
+     */
+    public NodeFile(RandomAccessFile file, Serializer<K> keySerializer, Serializer<T> dataSerializer,
+            NodeCache<K, T> cache) {
         super();
         this.file = file;
+        this.channel = file.getChannel();
         this.keySerializer = keySerializer;
         this.dataSerializer = dataSerializer;
+        this.cache = cache;
     }
 
-    public synchronized Node<K, T> findRoot() {
+    /**
+     * Open existing tree file, whatever its format (original one or {@link BlockNodeFile}).
+     * 
+     * @param file : file where tree is stored.
+     * @param keySerializer : serializer for keys.
+     * @param dataSerializer : serializer for data.
+     * @return node file for this format.
+     */
+    public static <K extends Comparable<K>, T> NodeFile<K, T> open(RandomAccessFile file, Serializer<K> keySerializer,
+            Serializer<T> dataSerializer) {
         try {
-            if (this.file.length() == 0L) {
+            if (BlockNodeFile.isBlockFile(file)) {
+                return new BlockNodeFile<>(file, keySerializer, dataSerializer);
+            }
+            return new NodeFile<>(file, keySerializer, dataSerializer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public Node<K, T> findRoot() {
+        try {
+            if (this.channel.size() == 0L) {
                 return null;
             }
-            this.file.seek((long) "Tree".length());
-            final long startRoot = this.file.readLong();
+            final long startRoot = this.readBuffer(ROOT_POSITION, Long.BYTES).getLong();
             final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startRoot);
 
             return link.getNode();
@@ -57,7 +116,7 @@ public class NodeFile<K extends Comparable<K>, T> {
                 final NodeLinkFile<K, T> link = (NodeLinkFile<K, T>) root.getLink();
                 final long start = link.getStartPos();
 
-                this.file.seek((long) "Tree".length());
+                this.file.seek(ROOT_POSITION);
                 this.file.writeLong(start);
             } catch (IOException ex) {
                 throw new UncheckedIOException(ex);
@@ -65,41 +124,149 @@ public class NodeFile<K extends Comparable<K>, T> {
         }
     }
 
+    /**
+     * Get node (from cache if any).
+     * 
+     * @param nodeLink : link to this node.
+     * @return node.
+     */
+    public Node<K, T> getNode(final NodeLinkFile<K, T> nodeLink) {
+        if (this.cache == null) {
+            return this.readNode(nodeLink);
+        }
+        final long startPos = nodeLink.getStartPos();
+        Node<K, T> node = this.cache.get(startPos);
+        if (node == null) {
+            final long stamp = this.cache.stamp(startPos);
+            node = this.readNode(nodeLink);
+            this.cache.put(startPos, node, stamp);
+        }
+        return node;
+    }
+
     /**
      * Read node from file.
      * 
      * @param nodeLink : link to this node.
-     * @return
+     * @return node.
      */
-    public synchronized Node<K, T> getNode(final NodeLinkFile<K, T> nodeLink) {
+    protected Node<K, T> readNode(final NodeLinkFile<K, T> nodeLink) {
         try {
-            file.seek(nodeLink.getStartPos());
-            final int height = file.readInt();
-            final long child1 = file.readLong();
-            final long child2 = file.readLong();
-            final int keySize = file.readInt();
-            final int dataSize = file.readInt();
-
-            final K key = this.read(keySize, this.keySerializer);
-            final long startData = this.file.getFilePointer();
-            final Supplier<T> dataGetter = () -> this.readFrom(startData, dataSize, dataSerializer);
-
-            final Node<K, T> n = new Node<>(nodeLink, key, dataGetter);
-            if (child1 > 0) {
-                n.setChildSimple(0, new NodeLinkFile<>(this, child1));
-            }
-            if (child2 > 0) {
-                n.setChildSimple(1, new NodeLinkFile<>(this, child2));
-            }
+            final long startPos = nodeLink.getStartPos();
+            final ByteBuffer header = this.readBuffer(startPos, NODE_HEADER_SIZE);
+            final int height = header.getInt();
+            final long child1 = header.getLong();
+            final long child2 = header.getLong();
+            final int keySize = header.getInt();
+            final int dataSize = header.getInt();
 
-            n.setHeight(height);
+            final K key = this.keySerializer.deserialize(this.readBuffer(startPos + NODE_HEADER_SIZE, keySize).array());
+            final long startData = startPos + NODE_HEADER_SIZE + keySize;
+
+            return this.buildNode(nodeLink, key, () -> this.readFrom(startData, dataSize, dataSerializer), height, child1,
+                    child2);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 
-            return n;
+    /**
+     * Read nodes close on file with one read, to put them in cache (only useful when cache is used).
+     * 
+     * @param links : links to nodes that will be read soon.
+     */
+    @Override
+    public void prefetch(final List<NodeLink<K, T>> links) {
+        if (this.cache == null) {
+            return;
+        }
+        final List<NodeLinkFile<K, T>> toRead = new ArrayList<>(links.size());
+        for (NodeLink<K, T> link : links) {
+            if (link instanceof NodeLinkFile && !this.cache.contains(((NodeLinkFile<K, T>) link).getStartPos())) {
+                toRead.add((NodeLinkFile<K, T>) link);
+            }
+        }
+        toRead.sort(Comparator.comparingLong(NodeLinkFile::getStartPos));
+        try {
+            final long fileSize = this.channel.size();
+            int first = 0;
+            while (first < toRead.size()) {
+                int last = first;
+                while (last + 1 < toRead.size()
+                        && toRead.get(last + 1).getStartPos() - toRead.get(last).getStartPos() <= PREFETCH_MAX_GAP) {
+                    last++;
+                }
+                final long[] stamps = new long[last - first + 1];
+                for (int i = first; i <= last; i++) {
+                    stamps[i - first] = this.cache.stamp(toRead.get(i).getStartPos());
+                }
+                final long start = toRead.get(first).getStartPos();
+                final long end = Math.min(fileSize, toRead.get(last).getStartPos() + PREFETCH_WINDOW);
+                final ByteBuffer buffer = this.readBuffer(start, (int) (end - start));
+                for (int i = first; i <= last; i++) {
+                    final NodeLinkFile<K, T> link = toRead.get(i);
+                    Node<K, T> node = this.decodeNode(link, buffer, (int) (link.getStartPos() - start));
+                    if (node == null) {
+                        // node key not in read window.
+                        node = this.readNode(link);
+                    }
+                    this.cache.put(link.getStartPos(), node, stamps[i - first]);
+                }
+                first = last + 1;
+            }
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
     }
 
+    private Node<K, T> decodeNode(final NodeLinkFile<K, T> nodeLink, final ByteBuffer buffer, final int offset) {
+        if (offset + NODE_HEADER_SIZE > buffer.limit()) {
+            return null;
+        }
+        final int height = buffer.getInt(offset);
+        final long child1 = buffer.getLong(offset + Integer.BYTES);
+        final long child2 = buffer.getLong(offset + Integer.BYTES + Long.BYTES);
+        final int keySize = buffer.getInt(offset + Integer.BYTES + 2 * Long.BYTES);
+        final int dataSize = buffer.getInt(offset + 2 * Integer.BYTES + 2 * Long.BYTES);
+        if (offset + NODE_HEADER_SIZE + keySize > buffer.limit()) {
+            return null;
+        }
+        final byte[] keyBytes = new byte[keySize];
+        buffer.get(offset + NODE_HEADER_SIZE, keyBytes);
+        final K key = this.keySerializer.deserialize(keyBytes);
+        final long startData = nodeLink.getStartPos() + NODE_HEADER_SIZE + keySize;
+
+        return this.buildNode(nodeLink, key, () -> this.readFrom(startData, dataSize, dataSerializer), height, child1,
+                child2);
+    }
+
+    /**
+     * Build node read from file.
+     * 
+     * @param nodeLink : link to this node.
+     * @param key : node key.
+     * @param dataReader : to read node data.
+     * @param height : node height.
+     * @param child1 : position of left child (0 for none).
+     * @param child2 : position of right child (0 for none).
+     * @return node.
+     */
+    protected Node<K, T> buildNode(final NodeLinkFile<K, T> nodeLink, final K key, final Supplier<T> dataReader,
+            final int height, final long child1, final long child2) {
+        final Supplier<T> dataGetter = this.cache == null ? dataReader : new NodeCache.CachedData<>(dataReader);
+        final Node<K, T> n = new Node<>(nodeLink, key, dataGetter);
+        if (child1 > 0) {
+            n.setChildSimple(0, new NodeLinkFile<>(this, child1));
+        }
+        if (child2 > 0) {
+            n.setChildSimple(1, new NodeLinkFile<>(this, child2));
+        }
+
+        n.setHeight(height);
+
+        return n;
+    }
+
     /**
      * Add new node on file.
      * 
@@ -107,7 +274,20 @@ public class NodeFile<K extends Comparable<K>, T> {
      * @param data : node data.
      * @return the new node.
      */
-    public synchronized Node<K, T> createNode(K key, T data) {
+    public Node<K, T> createNode(K key, T data) {
+        return this.createNode(key, data, null, null);
+    }
+
+    /**
+     * Add new node on file with its childs (that must be already on file).
+     * 
+     * @param key : node key.
+     * @param data : node data.
+     * @param left : left child (or null).
+     * @param right : right child (or null).
+     * @return the new node.
+     */
+    public synchronized Node<K, T> createNode(K key, T data, Node<K, T> left, Node<K, T> right) {
 
         try {
             if (this.file.length() == 0L) {
@@ -117,19 +297,31 @@ public class NodeFile<K extends Comparable<K>, T> {
             final long startPos = file.length();
             file.seek(startPos);
 
-            file.writeInt(1); // height
-            file.writeLong(0L); // left child
-            file.writeLong(0L); // right child
-
+            final int height = Math.max(Node.height(left), Node.height(right)) + 1;
             final byte[] keyBytes = this.keySerializer.serialize(key);
             final byte[] dataBytes = this.dataSerializer.serialize(data);
-            file.writeInt(keyBytes.length);
-            file.writeInt(dataBytes.length);
-            file.write(keyBytes);
-            file.write(dataBytes);
+
+            // write whole node at once.
+            final ByteBuffer buffer = ByteBuffer.allocate(NODE_HEADER_SIZE + keyBytes.length + dataBytes.length);
+            buffer.putInt(height);
+            buffer.putLong(this.position(left)); // left child
+            buffer.putLong(this.position(right)); // right child
+            buffer.putInt(keyBytes.length);
+            buffer.putInt(dataBytes.length);
+            buffer.put(keyBytes);
+            buffer.put(dataBytes);
+            file.write(buffer.array());
 
             final NodeLinkFile<K, T> link = new NodeLinkFile<>(this, startPos);
-            return new Node<>(link, key, () -> data);
+            final Node<K, T> node = new Node<>(link, key, () -> data);
+            if (left != null) {
+                node.setChildSimple(0, left.getLink());
+            }
+            if (right != null) {
+                node.setChildSimple(1, right.getLink());
+            }
+            node.setHeight(height);
+            return node;
         } catch (IOException ex) {
             throw new UncheckedIOException("", ex);
         }
@@ -153,7 +345,10 @@ public class NodeFile<K extends Comparable<K>, T> {
             } catch (IOException exIO) {
                 throw new UncheckedIOException("Error on save node : " + exIO.getMessage(), exIO);
             }
-
+            // after write, so a reader can't cache node as it was before.
+            if (this.cache != null) {
+                this.cache.invalidate(startPos);
+            }
         }
     }
 
@@ -166,25 +361,50 @@ public class NodeFile<K extends Comparable<K>, T> {
         }
     }
 
+    private long position(final Node<K, T> node) {
+        if (node != null && node.getLink() instanceof NodeLinkFile) {
+            return ((NodeLinkFile<K, T>) node.getLink()).getStartPos();
+        }
+        return 0L;
+    }
+
     private <U> U readFrom(long start, final int size, Serializer<U> serializer) {
         try {
-            synchronized (this.file) {
-                this.file.seek(start);
-                return this.read(size, serializer);
-            }
+            return serializer.deserialize(this.readBuffer(start, size).array());
         } catch (IOException exIO) {
             throw new UncheckedIOException("Can't read data : " + exIO.getMessage(), exIO);
         }
     }
 
-    private <U> U read(final int size, Serializer<U> serializer) {
-        try {
-            final byte[] data = new byte[size];
-            this.file.read(data);
-            return serializer.deserialize(data);
-        } catch (IOException exIO) {
-            throw new UncheckedIOException("Can't read data : " + exIO.getMessage(), exIO);
+    /**
+     * Positional read on file (don't change file pointer, so no lock needed).
+     * 
+     * @param start : start position.
+     * @param size : number of bytes to read.
+     * @return buffer ready to be read.
+     */
+    protected ByteBuffer readBuffer(long start, final int size) throws IOException {
+        return NodeFile.readFully(this.channel, start, size);
+    }
+
+    /**
+     * Positional read on file channel (don't change channel position, so can be done by concurrent readers).
+     *
+     * @param channel : file channel.
+     * @param start : start position.
+     * @param size : number of bytes to read.
+     * @return buffer ready to be read.
+     */
+    public static ByteBuffer readFully(final FileChannel channel, final long start, final int size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, start + buffer.position());
+            if (read < 0) {
+                throw new EOFException("End of file at " + (start + buffer.position()));
+            }
         }
+        buffer.flip();
+        return buffer;
     }
 
 }
@@ -3,6 +3,7 @@ package org.talend.daikon.collections.tree.file;
 
 import org.talend.daikon.collections.tree.Node;
 import org.talend.daikon.collections.tree.NodeLink;
+import org.talend.daikon.collections.tree.NodePrefetcher;
 
 public class NodeLinkFile<K extends Comparable<K>, T> implements NodeLink<K, T> {
 
@@ -25,6 +26,11 @@ public class NodeLinkFile<K extends Comparable<K>, T> implements NodeLink<K, T>
         return startPos;
     }
 
+    @Override
+    public NodePrefetcher<K, T> prefetcher() {
+        return this.file;
+    }
+
     @Override
     public void saveNode(final Node<K, T> node) {
         this.file.saveNode(node, this.startPos);
@@ -0,0 +1,179 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.file;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of values read at a position in file, shared by reader threads.
+ * Cache is split in stripes, each one is a LRU map with its own lock, so readers rarely wait for each other.
+ *
+ * @param <V> class for cached values.
+ */
+public class PositionCache<V> {
+
+    /** default number of stripes */
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Position cache.
+     *
+     * @param maxSize : max number of values in cache.
+     * @param nbeStripes : number of stripes (rounded to power of 2).
+     */
+    public PositionCache(int maxSize, int nbeStripes) {
+        if (maxSize <= 0 || nbeStripes <= 0) {
+            throw new IllegalArgumentException("Cache size and number of stripes must be positive");
+        }
+        final int stripesNumber = Integer.highestOneBit(Math.min(nbeStripes, maxSize) * 2 - 1);
+        final int stripeSize = Math.max(1, maxSize / stripesNumber);
+        @SuppressWarnings("unchecked")
+        final Stripe<V>[] newStripes = (Stripe<V>[]) new Stripe<?>[stripesNumber];
+        for (int i = 0; i < stripesNumber; i++) {
+            newStripes[i] = new Stripe<>(stripeSize);
+        }
+        this.stripes = newStripes;
+    }
+
+    /**
+     * Get value in cache.
+     *
+     * @param position : position of value in file.
+     * @return cached value or null.
+     */
+    public V get(long position) {
+        final V value = this.stripe(position).get(position);
+        if (value == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Check if value is in cache (without changing statistics nor LRU order).
+     *
+     * @param position : position of value in file.
+     * @return true if in cache.
+     */
+    public boolean contains(long position) {
+        return this.stripe(position).contains(position);
+    }
+
+    public void put(long position, V value) {
+        this.stripe(position).put(position, value);
+    }
+
+    /**
+     * Stamp to get before reading value from file, and to give back to {@link #put(long, Object, long)}.
+     *
+     * @param position : position of value in file.
+     * @return current stamp.
+     */
+    public long stamp(long position) {
+        return this.stripe(position).stamp();
+    }
+
+    /**
+     * Put value read from file in cache, unless it may have been invalidated since its read started
+     * (so a reader can't put back a value replaced by a concurrent update).
+     *
+     * @param position : position of value in file.
+     * @param value : value read from file.
+     * @param stamp : stamp got before reading value.
+     */
+    public void put(long position, V value, long stamp) {
+        this.stripe(position).put(position, value, stamp);
+    }
+
+    /**
+     * Remove value from cache (when it's updated on file).
+     *
+     * @param position : position of value in file.
+     */
+    public void invalidate(long position) {
+        this.stripe(position).remove(position);
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : this.stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe<V> stripe(long position) {
+        long h = position * 0x9E3779B97F4A7C15L;
+        return this.stripes[(int) (h >>> 32) & (this.stripes.length - 1)];
+    }
+
+    /**
+     * One LRU part of cache.
+     */
+    private static class Stripe<V> {
+
+        private final Map<Long, V> values;
+
+        /** number of invalidations on this stripe */
+        private long invalidations = 0L;
+
+        Stripe(final int maxSize) {
+            this.values = new LinkedHashMap<Long, V>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                    return this.size() > maxSize;
+                }
+            };
+        }
+
+        synchronized V get(long position) {
+            return this.values.get(position);
+        }
+
+        synchronized boolean contains(long position) {
+            // containsKey doesn't move entry in access order.
+            return this.values.containsKey(position);
+        }
+
+        synchronized void put(long position, V value) {
+            this.values.put(position, value);
+        }
+
+        synchronized void put(long position, V value, long stamp) {
+            if (this.invalidations == stamp) {
+                this.values.put(position, value);
+            }
+        }
+
+        synchronized long stamp() {
+            return this.invalidations;
+        }
+
+        synchronized void remove(long position) {
+            this.invalidations++;
+            this.values.remove(position);
+        }
+
+        synchronized int size() {
+            return this.values.size();
+        }
+    }
+}
@@ -12,7 +12,7 @@ public class MemoryNode<K extends Comparable<K>, T> implements INode<K, T> {
 
     private final K key;
 
-    private T data = null;
+    private volatile T data = null;
 
     public MemoryNode(INode<K, T> delegate, int deep, int limit) {
         super();
@@ -0,0 +1,50 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+/**
+ * AVL Tree with primitive int keys.
+ *
+ * @param <T> : Class of stored data.
+ */
+public class IntAvlTree<T> {
+
+    /**
+     * Receive key and data of nodes.
+     *
+     * @param <T> : Class of stored data.
+     */
+    @FunctionalInterface
+    public interface Visitor<T> {
+
+        void visit(final int key, final T data);
+    }
+
+    private final LongAvlTree<T> tree;
+
+    IntAvlTree(LongAvlTree<T> tree) {
+        this.tree = tree;
+    }
+
+    public boolean containsKey(final int key) {
+        return this.tree.containsKey(key);
+    }
+
+    public T get(final int key) {
+        return this.tree.get(key);
+    }
+
+    /**
+     * Iterate on nodes (ordered by key) with startKey <= key <= endKey.
+     *
+     * @param startKey : min key.
+     * @param endKey : max key.
+     * @return iterator on keys, that also gives data of current key.
+     */
+    public IntAvlTreeIterator<T> iterator(final int startKey, final int endKey) {
+        return new IntAvlTreeIterator<>(this.tree.iterator(startKey, endKey));
+    }
+
+    public void forEach(final int startKey, final int endKey, final Visitor<T> visitor) {
+        this.tree.forEach(startKey, endKey, (long key, T data) -> visitor.visit((int) key, data));
+    }
+}
@@ -0,0 +1,34 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.util.function.Supplier;
+
+/**
+ * Tree builder for int keys (stored as long keys, without boxing).
+ *
+ * @param <T> data class.
+ */
+public class IntAvlTreeBuilder<T> {
+
+    private final LongAvlTreeBuilder<T> builder;
+
+    public IntAvlTreeBuilder(LongNodeStore<T> store) {
+        this.builder = new LongAvlTreeBuilder<>(store);
+    }
+
+    public void insertNode(final int key, final Supplier<T> data) {
+        this.builder.insertNode(key, data);
+    }
+
+    public IntAvlTree<T> build() {
+        return new IntAvlTree<>(this.builder.build());
+    }
+
+    /**
+     * @param limit : depth on this tree where node keys and childs are kept in memory.
+     * @return tree.
+     */
+    public IntAvlTree<T> build(int limit) {
+        return new IntAvlTree<>(this.builder.build(limit));
+    }
+}
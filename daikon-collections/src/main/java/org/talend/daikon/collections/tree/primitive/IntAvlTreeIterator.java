@@ -0,0 +1,35 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterate on keys of an {@link IntAvlTree}, without boxing; data of last returned key is read with {@link #data()}.
+ *
+ * @param <T> : Class of stored data.
+ */
+public class IntAvlTreeIterator<T> implements PrimitiveIterator.OfInt {
+
+    private final LongAvlTreeIterator<T> iterator;
+
+    IntAvlTreeIterator(LongAvlTreeIterator<T> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.iterator.hasNext();
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) this.iterator.nextLong();
+    }
+
+    /**
+     * @return data of last returned key.
+     */
+    public T data() {
+        return this.iterator.data();
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+/**
+ * AVL Tree with primitive long keys (see {@link org.talend.daikon.collections.tree.AvlTree}).
+ * As for {@link org.talend.daikon.collections.tree.AvlTreeBuilder#build(int)}, keys and childs of the first levels of
+ * the tree are kept in memory, so that lookups only read the store below these levels.
+ *
+ * @param <T> : Class of stored data.
+ */
+public class LongAvlTree<T> {
+
+    /**
+     * Receive key and data of nodes.
+     *
+     * @param <T> : Class of stored data.
+     */
+    @FunctionalInterface
+    public interface Visitor<T> {
+
+        void visit(final long key, final T data);
+    }
+
+    private final LongNodeStore<T> store;
+
+    private final long root;
+
+    /** keys of nodes kept in memory, as a heap : childs of index i are at 2i + 1 and 2i + 2 */
+    private final long[] topKeys;
+
+    /** childs of nodes kept in memory : left child of index i at 2i, right child at 2i + 1 */
+    private final long[] topChilds;
+
+    /**
+     * @param store : node store.
+     * @param root : root node (0 for empty tree).
+     * @param limit : depth on this tree where node keys and childs are kept in memory.
+     */
+    LongAvlTree(LongNodeStore<T> store, long root, int limit) {
+        this.store = store;
+        this.root = root;
+        final int depth = root == 0L ? 0 : Math.min(limit, store.height(root));
+        final int size = (1 << depth) - 1;
+        this.topKeys = new long[size];
+        this.topChilds = new long[2 * size];
+        if (size > 0) {
+            this.fill(0, root);
+        }
+    }
+
+    private void fill(final int index, final long node) {
+        this.topKeys[index] = this.store.key(node);
+        for (int num = 0; num < 2; num++) {
+            final long child = this.store.child(node, num);
+            this.topChilds[2 * index + num] = child;
+            final int childIndex = 2 * index + 1 + num;
+            if (child != 0L && childIndex < this.topKeys.length) {
+                this.fill(childIndex, child);
+            }
+        }
+    }
+
+    public boolean containsKey(final long key) {
+        return this.find(key) != 0L;
+    }
+
+    /**
+     * Get data for key.
+     *
+     * @param key : key.
+     * @return data (null if key is not in tree).
+     */
+    public T get(final long key) {
+        final long node = this.find(key);
+        if (node == 0L) {
+            return null;
+        }
+        return this.store.data(node);
+    }
+
+    /**
+     * Iterate on nodes (ordered by key) with startKey <= key <= endKey.
+     *
+     * @param startKey : min key.
+     * @param endKey : max key.
+     * @return iterator on keys, that also gives data of current key.
+     */
+    public LongAvlTreeIterator<T> iterator(final long startKey, final long endKey) {
+        return new LongAvlTreeIterator<>(this.store, this.root, startKey, endKey);
+    }
+
+    /**
+     * Visit nodes (ordered by key) with startKey <= key <= endKey.
+     *
+     * @param startKey : min key.
+     * @param endKey : max key.
+     * @param visitor : visitor for nodes.
+     */
+    public void forEach(final long startKey, final long endKey, final Visitor<T> visitor) {
+        final LongAvlTreeIterator<T> iterator = this.iterator(startKey, endKey);
+        while (iterator.hasNext()) {
+            final long key = iterator.nextLong();
+            visitor.visit(key, iterator.data());
+        }
+    }
+
+    private long find(final long key) {
+        long node = this.root;
+        // first levels, in memory.
+        int index = 0;
+        while (node != 0L && index < this.topKeys.length) {
+            final long nodeKey = this.topKeys[index];
+            if (nodeKey == key) {
+                return node;
+            }
+            final int num = nodeKey > key ? 0 : 1;
+            node = this.topChilds[2 * index + num];
+            index = 2 * index + 1 + num;
+        }
+        // next levels, in store.
+        while (node != 0L) {
+            final long nodeKey = this.store.key(node);
+            if (nodeKey == key) {
+                return node;
+            }
+            node = this.store.child(node, nodeKey > key ? 0 : 1);
+        }
+        return 0L;
+    }
+}
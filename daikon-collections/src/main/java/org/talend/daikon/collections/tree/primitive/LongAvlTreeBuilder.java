@@ -0,0 +1,153 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.util.function.Supplier;
+
+/**
+ * Tree builder for long keys (keys are compared without boxing).
+ * Same algorithm as {@link org.talend.daikon.collections.tree.AvlTreeBuilder}.
+ *
+ * @param <T> data class.
+ */
+public class LongAvlTreeBuilder<T> {
+
+    private final LongNodeStore<T> store;
+
+    private long root;
+
+    public LongAvlTreeBuilder(LongNodeStore<T> store) {
+        this.store = store;
+        this.root = store.findRoot();
+    }
+
+    // Insert a node
+    public void insertNode(final long key, final Supplier<T> data) {
+        final long newNode = this.store.create(key, data.get());
+        if (this.root == 0L) {
+            this.root = newNode;
+            this.store.newRoot(newNode);
+        } else {
+            final long newRoot = this.insertNode(this.root, newNode, key);
+            if (newRoot != this.root) {
+                this.root = newRoot;
+                this.store.newRoot(newRoot);
+            }
+        }
+    }
+
+    public LongAvlTree<T> build() {
+        return this.build(10);
+    }
+
+    /**
+     * Build tree to search key/value (see {@link org.talend.daikon.collections.tree.AvlTreeBuilder#build(int)}).
+     *
+     * @param limit : depth on this tree where node keys and childs are kept in memory
+     * (total of nodes kept in memory will be 2^limit).
+     * @return tree.
+     */
+    public LongAvlTree<T> build(int limit) {
+        if (limit < 0 || limit > 30) {
+            throw new IllegalArgumentException("Depth of tree in memory must be between 0 and 30");
+        }
+        return new LongAvlTree<>(this.store, this.root, limit);
+    }
+
+    private long insertNode(final long from, final long newNode, final long key) {
+        if (from == 0L) {
+            return newNode;
+        }
+        long left = this.store.child(from, 0);
+        long right = this.store.child(from, 1);
+        if (key < this.store.key(from)) {
+            left = this.insertNode(left, newNode, key);
+        } else {
+            right = this.insertNode(right, newNode, key);
+        }
+        final int leftHeight = this.height(left);
+        final int rightHeight = this.height(right);
+        this.store.update(from, left, right, Math.max(leftHeight, rightHeight) + 1);
+
+        final int balanceFactor = leftHeight - rightHeight;
+        if (balanceFactor > 1) {
+            if (key >= this.store.key(left)) {
+                this.store.update(from, this.rotate(left, 1), right, Math.max(leftHeight, rightHeight) + 1);
+            }
+            return this.rotate(from, 0);
+        } else if (balanceFactor < -1) {
+            if (key < this.store.key(right)) {
+                this.store.update(from, left, this.rotate(right, 0), Math.max(leftHeight, rightHeight) + 1);
+            }
+            return this.rotate(from, 1);
+        }
+        return from;
+    }
+
+    /**
+     * A child become the parent (see AvlTreeBuilder).
+     *
+     * @param parent : current parent.
+     * @param start : child that will be new parent.
+     * @return new Parent.
+     */
+    private long rotate(final long parent, final int start) {
+        final long pivot = this.store.child(parent, start);
+        final long subChild = this.store.child(pivot, 1 - start);
+
+        // ancient parent put its grand child as direct child.
+        final long parentOther = this.store.child(parent, 1 - start);
+        final int parentHeight = Math.max(this.height(subChild), this.height(parentOther)) + 1;
+        if (start == 0) {
+            this.store.update(parent, subChild, parentOther, parentHeight);
+        } else {
+            this.store.update(parent, parentOther, subChild, parentHeight);
+        }
+
+        // new parent own its ancient parent as child.
+        final long pivotOther = this.store.child(pivot, start);
+        final int pivotHeight = Math.max(parentHeight, this.height(pivotOther)) + 1;
+        if (start == 0) {
+            this.store.update(pivot, pivotOther, parent, pivotHeight);
+        } else {
+            this.store.update(pivot, parent, pivotOther, pivotHeight);
+        }
+        return pivot;
+    }
+
+    private int height(final long node) {
+        if (node == 0L) {
+            return 0;
+        }
+        return this.store.height(node);
+    }
+
+    /**
+     * Method for unit test only (package protected)
+     * to check builder is balanced.
+     */
+    void check() {
+        if (this.root != 0L) {
+            this.checkNode(this.root, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    private int checkNode(final long node, final long min, final long max) {
+        if (node == 0L) {
+            return 0;
+        }
+        final long key = this.store.key(node);
+        if (key < min || key > max) {
+            throw new IllegalStateException("Key " + key + " out of [" + min + ", " + max + "]");
+        }
+        final int left = this.checkNode(this.store.child(node, 0), min, key);
+        final int right = this.checkNode(this.store.child(node, 1), key, max);
+        if (Math.abs(left - right) > 1) {
+            throw new IllegalStateException("Balance error " + (left - right) + " node " + key);
+        }
+        final int h = Math.max(left, right) + 1;
+        if (h != this.store.height(node)) {
+            throw new IllegalStateException("Height Error ==> " + key + " h=" + this.store.height(node));
+        }
+        return h;
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterate on keys of a {@link LongAvlTree} (left => current => right), without boxing.
+ * Use an explicit stack of nodes (as {@link org.talend.daikon.collections.tree.AvlTreeIterator}); data of last returned
+ * key is read with {@link #data()}.
+ *
+ * @param <T> : Class of stored data.
+ */
+public class LongAvlTreeIterator<T> implements PrimitiveIterator.OfLong {
+
+    private final LongNodeStore<T> store;
+
+    private final long endKey;
+
+    /** stack of nodes whose left sub-tree is explored but not node itself nor right sub-tree */
+    private long[] stack = new long[32];
+
+    /** keys of stacked nodes */
+    private long[] stackKeys = new long[32];
+
+    private int stackSize = 0;
+
+    /** last returned node */
+    private long current = 0L;
+
+    LongAvlTreeIterator(LongNodeStore<T> store, long root, long startKey, long endKey) {
+        this.store = store;
+        this.endKey = endKey;
+        long node = root;
+        while (node != 0L) {
+            final long key = this.store.key(node);
+            if (key < startKey) {
+                node = this.store.child(node, 1);
+            } else {
+                this.push(node, key);
+                node = this.store.child(node, 0);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.stackSize > 0 && this.stackKeys[this.stackSize - 1] <= this.endKey;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        this.stackSize--;
+        this.current = this.stack[this.stackSize];
+        final long key = this.stackKeys[this.stackSize];
+
+        long node = this.store.child(this.current, 1);
+        while (node != 0L) {
+            this.push(node, this.store.key(node));
+            node = this.store.child(node, 0);
+        }
+        return key;
+    }
+
+    /**
+     * @return data of last returned key.
+     */
+    public T data() {
+        if (this.current == 0L) {
+            throw new IllegalStateException("No key returned yet");
+        }
+        return this.store.data(this.current);
+    }
+
+    private void push(final long node, final long key) {
+        if (this.stackSize == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+            this.stackKeys = Arrays.copyOf(this.stackKeys, this.stackSize * 2);
+        }
+        this.stack[this.stackSize] = node;
+        this.stackKeys[this.stackSize] = key;
+        this.stackSize++;
+    }
+}
@@ -0,0 +1,54 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import org.talend.daikon.collections.tree.file.PositionCache;
+
+/**
+ * Bounded cache of node headers (key, childs, height) read by {@link LongNodeStoreFile}, shared by reader threads
+ * (see {@link PositionCache}).
+ */
+public class LongNodeCache extends PositionCache<LongNodeCache.Header> {
+
+    /**
+     * Node cache.
+     *
+     * @param maxSize : max number of nodes in cache.
+     */
+    public LongNodeCache(int maxSize) {
+        this(maxSize, PositionCache.DEFAULT_STRIPES);
+    }
+
+    /**
+     * Node cache.
+     *
+     * @param maxSize : max number of nodes in cache.
+     * @param nbeStripes : number of stripes (rounded to power of 2).
+     */
+    public LongNodeCache(int maxSize, int nbeStripes) {
+        super(maxSize, nbeStripes);
+    }
+
+    /**
+     * Immutable node header.
+     */
+    static class Header {
+
+        final int height;
+
+        final long left;
+
+        final long right;
+
+        final long key;
+
+        final int dataSize;
+
+        Header(int height, long left, long right, long key, int dataSize) {
+            this.height = height;
+            this.left = left;
+            this.right = right;
+            this.key = key;
+            this.dataSize = dataSize;
+        }
+    }
+}
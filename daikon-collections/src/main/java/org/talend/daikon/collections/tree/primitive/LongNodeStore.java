@@ -0,0 +1,50 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+/**
+ * Storage of tree nodes with primitive long key.
+ * A node is identified by a positive long (0 means no node).
+ *
+ * @param <T> class for node data.
+ */
+public interface LongNodeStore<T> {
+
+    /**
+     * @return root node (0 if tree is empty).
+     */
+    long findRoot();
+
+    void newRoot(final long root);
+
+    /**
+     * Add new node (without child).
+     *
+     * @param key : node key.
+     * @param data : node data.
+     * @return new node.
+     */
+    long create(final long key, final T data);
+
+    /**
+     * Update node childs and height.
+     *
+     * @param node : node to update.
+     * @param left : left child (0 for none).
+     * @param right : right child (0 for none).
+     * @param height : node height.
+     */
+    void update(final long node, final long left, final long right, final int height);
+
+    long key(final long node);
+
+    /**
+     * @param node : node.
+     * @param num : 0 for left child, 1 for right child.
+     * @return child (0 for none).
+     */
+    long child(final long node, final int num);
+
+    int height(final long node);
+
+    T data(final long node);
+}
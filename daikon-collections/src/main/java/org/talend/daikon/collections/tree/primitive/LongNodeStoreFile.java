@@ -0,0 +1,212 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.talend.daikon.collections.tree.file.NodeFile;
+import org.talend.daikon.collections.tree.file.Serializer;
+
+/**
+ * Tree nodes with long key on file (node is its position in file).
+ * With a {@link LongNodeCache}, node header is read at once and kept in cache, to be shared by reader threads.
+ * 
+ * <pre>
+ * header : "LTre" | root position (long)
+ * node : height (int) | left child (long) | right child (long) | key (long) | data size (int) | data
+ * </pre>
+ *
+ * @param <T> class for node data.
+ */
+public class LongNodeStoreFile<T> implements LongNodeStore<T> {
+
+    private static final byte[] HEADER = new byte[] { 'L', 'T', 'r', 'e' };
+
+    private static final long ROOT_POSITION = HEADER.length;
+
+    private static final int HEIGHT_OFFSET = 0;
+
+    private static final int CHILDS_OFFSET = HEIGHT_OFFSET + Integer.BYTES;
+
+    private static final int KEY_OFFSET = CHILDS_OFFSET + 2 * Long.BYTES;
+
+    private static final int DATA_SIZE_OFFSET = KEY_OFFSET + Long.BYTES;
+
+    private static final int NODE_HEADER_SIZE = DATA_SIZE_OFFSET + Integer.BYTES;
+
+    /** file where tree is stored */
+    private final RandomAccessFile file;
+
+    /** channel of file, for positional reads */
+    private final FileChannel channel;
+
+    private final Serializer<T> dataSerializer;
+
+    /** cache for node headers (optional) */
+    private final LongNodeCache cache;
+
+    public LongNodeStoreFile(RandomAccessFile file, Serializer<T> dataSerializer) {
+        this(file, dataSerializer, null);
+    }
+
+    /**
+     * Node store with cache for node headers, to be used when tree is shared by reader threads.
+     *
+     * @param file : file where tree is stored.
+     * @param dataSerializer : serializer for data.
+     * @param cache : cache for node headers (null for none).
+     */
+    public LongNodeStoreFile(RandomAccessFile file, Serializer<T> dataSerializer, LongNodeCache cache) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.dataSerializer = dataSerializer;
+        this.cache = cache;
+    }
+
+    @Override
+    public long findRoot() {
+        try {
+            if (this.channel.size() == 0L) {
+                return 0L;
+            }
+            return this.read(ROOT_POSITION, Long.BYTES).getLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void newRoot(final long root) {
+        try {
+            this.writeHeaderIfEmpty();
+            this.file.seek(ROOT_POSITION);
+            this.file.writeLong(root);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized long create(final long key, final T data) {
+        try {
+            this.writeHeaderIfEmpty();
+            final long startPos = this.file.length();
+            final byte[] dataBytes = this.dataSerializer.serialize(data);
+            final ByteBuffer buffer = ByteBuffer.allocate(NODE_HEADER_SIZE + dataBytes.length);
+            buffer.putInt(1); // height
+            buffer.putLong(0L); // left child
+            buffer.putLong(0L); // right child
+            buffer.putLong(key);
+            buffer.putInt(dataBytes.length);
+            buffer.put(dataBytes);
+            this.file.seek(startPos);
+            this.file.write(buffer.array());
+            return startPos;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't write node : " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public synchronized void update(final long node, final long left, final long right, final int height) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(KEY_OFFSET);
+            buffer.putInt(height);
+            buffer.putLong(left);
+            buffer.putLong(right);
+            this.file.seek(node + HEIGHT_OFFSET);
+            this.file.write(buffer.array());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Error on save node : " + ex.getMessage(), ex);
+        }
+        if (this.cache != null) {
+            this.cache.invalidate(node);
+        }
+    }
+
+    @Override
+    public long key(final long node) {
+        if (this.cache != null) {
+            return this.header(node).key;
+        }
+        return this.readLong(node + KEY_OFFSET);
+    }
+
+    @Override
+    public long child(final long node, final int num) {
+        if (this.cache != null) {
+            final LongNodeCache.Header header = this.header(node);
+            return num == 0 ? header.left : header.right;
+        }
+        return this.readLong(node + CHILDS_OFFSET + num * Long.BYTES);
+    }
+
+    @Override
+    public int height(final long node) {
+        if (this.cache != null) {
+            return this.header(node).height;
+        }
+        try {
+            return this.read(node + HEIGHT_OFFSET, Integer.BYTES).getInt();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public T data(final long node) {
+        try {
+            final int size = this.cache != null ? this.header(node).dataSize
+                    : this.read(node + DATA_SIZE_OFFSET, Integer.BYTES).getInt();
+            return this.dataSerializer.deserialize(this.read(node + NODE_HEADER_SIZE, size).array());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can't read data : " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Get node header from cache, or read it at once and put it in cache.
+     *
+     * @param node : node.
+     * @return node header.
+     */
+    private LongNodeCache.Header header(final long node) {
+        LongNodeCache.Header header = this.cache.get(node);
+        if (header == null) {
+            final long stamp = this.cache.stamp(node);
+            try {
+                final ByteBuffer buffer = this.read(node, NODE_HEADER_SIZE);
+                header = new LongNodeCache.Header(buffer.getInt(HEIGHT_OFFSET), buffer.getLong(CHILDS_OFFSET),
+                        buffer.getLong(CHILDS_OFFSET + Long.BYTES), buffer.getLong(KEY_OFFSET),
+                        buffer.getInt(DATA_SIZE_OFFSET));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            this.cache.put(node, header, stamp);
+        }
+        return header;
+    }
+
+    private void writeHeaderIfEmpty() throws IOException {
+        if (this.file.length() == 0L) {
+            this.file.seek(0L);
+            this.file.write(HEADER);
+            this.file.writeLong(0L);
+        }
+    }
+
+    private long readLong(final long position) {
+        try {
+            return this.read(position, Long.BYTES).getLong();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ByteBuffer read(final long start, final int size) throws IOException {
+        return NodeFile.readFully(this.channel, start, size);
+    }
+}
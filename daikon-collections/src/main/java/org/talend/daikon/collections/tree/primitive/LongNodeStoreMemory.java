@@ -0,0 +1,79 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Tree nodes in memory, stored in arrays (node n is at index n - 1).
+ *
+ * @param <T> class for node data.
+ */
+public class LongNodeStoreMemory<T> implements LongNodeStore<T> {
+
+    private long[] keys = new long[16];
+
+    private long[] childs = new long[32];
+
+    private int[] heights = new int[16];
+
+    private Object[] datas = new Object[16];
+
+    private int size = 0;
+
+    private long root = 0L;
+
+    @Override
+    public long findRoot() {
+        return this.root;
+    }
+
+    @Override
+    public void newRoot(final long root) {
+        this.root = root;
+    }
+
+    @Override
+    public long create(final long key, final T data) {
+        if (this.size == this.keys.length) {
+            final int newLength = this.size * 2;
+            this.keys = Arrays.copyOf(this.keys, newLength);
+            this.childs = Arrays.copyOf(this.childs, newLength * 2);
+            this.heights = Arrays.copyOf(this.heights, newLength);
+            this.datas = Arrays.copyOf(this.datas, newLength);
+        }
+        this.keys[this.size] = key;
+        this.heights[this.size] = 1;
+        this.datas[this.size] = data;
+        this.size++;
+        return this.size;
+    }
+
+    @Override
+    public void update(final long node, final long left, final long right, final int height) {
+        final int index = (int) node - 1;
+        this.childs[2 * index] = left;
+        this.childs[2 * index + 1] = right;
+        this.heights[index] = height;
+    }
+
+    @Override
+    public long key(final long node) {
+        return this.keys[(int) node - 1];
+    }
+
+    @Override
+    public long child(final long node, final int num) {
+        return this.childs[2 * ((int) node - 1) + num];
+    }
+
+    @Override
+    public int height(final long node) {
+        return this.heights[(int) node - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T data(final long node) {
+        return (T) this.datas[(int) node - 1];
+    }
+}
@@ -1,7 +1,12 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.collections.tree;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -37,6 +42,32 @@ class AvlTreeIteratorTest {
         this.testIterator(iterator5, 0, 0, 0);
     }
 
+    @Test
+    void stream() {
+        final BuilderMemo<Integer, String> builderMemo = new BuilderMemo<>();
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(builderMemo);
+        for (int i = 0; i < 5000; i++) {
+            final int index = i;
+            treeBuilder.insertNode(i, () -> "Hello_" + index);
+        }
+        final AvlTree<Integer, String> tree = treeBuilder.build();
+
+        final List<Integer> keys = tree.iterator().stream().map(INode::getKey).collect(Collectors.toList());
+        Assertions.assertEquals(IntStream.range(0, 5000).boxed().collect(Collectors.toList()), keys);
+
+        final List<Integer> parallelKeys = tree.iterator().startAt(100).endAt(3999).parallelStream().map(INode::getKey)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(IntStream.rangeClosed(100, 3999).boxed().collect(Collectors.toList()), parallelKeys);
+
+        final Spliterator<INode<Integer, String>> spliterator = tree.iterator().endAt(2000).spliterator();
+        final Spliterator<INode<Integer, String>> prefix = spliterator.trySplit();
+        Assertions.assertNotNull(prefix);
+        final List<Integer> splitKeys = new ArrayList<>();
+        prefix.forEachRemaining((INode<Integer, String> n) -> splitKeys.add(n.getKey()));
+        spliterator.forEachRemaining((INode<Integer, String> n) -> splitKeys.add(n.getKey()));
+        Assertions.assertEquals(IntStream.rangeClosed(0, 2000).boxed().collect(Collectors.toList()), splitKeys);
+    }
+
     private void testIterator(Iterator<INode<Integer, String>> iterator, int min, int max, int nbeElement) {
         int nbe = 0;
         INode<Integer, String> next = null;
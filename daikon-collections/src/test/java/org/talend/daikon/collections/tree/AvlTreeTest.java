@@ -5,6 +5,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.URL;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -92,4 +97,64 @@ class AvlTreeTest {
         Assertions.assertEquals("Node 702", node702_Read.getData());
     }
 
+    @Test
+    void sortedMemoryTest() {
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderMemo<Integer, String>());
+        treeBuilder.insertSorted(this.sortedEntries(1000), 1000);
+        treeBuilder.check();
+
+        final AvlTree<Integer, String> tree = treeBuilder.build();
+        Assertions.assertEquals("Node 0", tree.get(0).getData());
+        Assertions.assertEquals("Node 413", tree.get(413).getData());
+        Assertions.assertEquals("Node 999", tree.get(999).getData());
+        Assertions.assertNull(tree.get(1000));
+
+        final AvlTreeBuilder<Integer, String> unsorted = new AvlTreeBuilder<>(new BuilderMemo<Integer, String>());
+        final Iterator<Map.Entry<Integer, String>> entries = List
+                .<Map.Entry<Integer, String>> of(new SimpleEntry<>(2, "2"), new SimpleEntry<>(1, "1")).iterator();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> unsorted.insertSorted(entries, 2));
+
+        final AvlTreeBuilder<Integer, String> tooShort = new AvlTreeBuilder<>(new BuilderMemo<Integer, String>());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tooShort.insertSorted(this.sortedEntries(10), 11));
+    }
+
+    @Test
+    void sortedFileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileSorted.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final RandomAccessFile rf = new RandomAccessFile(fic, "rw");
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, new SerializerInteger(), new SerializerString());
+
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        treeBuilder.insertSorted(this.sortedEntries(3507), 3507);
+        treeBuilder.check();
+
+        // check reading existing file
+        final RandomAccessFile rf2 = new RandomAccessFile(fic, "r");
+        final NodeFile<Integer, String> nodeFile2 = new NodeFile<>(rf2, new SerializerInteger(), new SerializerString());
+        final AvlTreeBuilder<Integer, String> treeBuilder2 = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile2));
+        treeBuilder2.check();
+        final AvlTree<Integer, String> tree = treeBuilder2.build(4);
+        Assertions.assertEquals("Node 702", tree.get(702).getData());
+        Assertions.assertEquals("Node 3506", tree.get(3506).getData());
+        Assertions.assertNull(tree.get(5700));
+
+        final Iterator<INode<Integer, String>> iterator = tree.iterator().build();
+        int expected = 0;
+        while (iterator.hasNext()) {
+            Assertions.assertEquals(expected, iterator.next().getKey());
+            expected++;
+        }
+        Assertions.assertEquals(3507, expected);
+    }
+
+    private Iterator<Map.Entry<Integer, String>> sortedEntries(int size) {
+        return IntStream.range(0, size) //
+                .mapToObj((int i) -> (Map.Entry<Integer, String>) new SimpleEntry<>(i, "Node " + i)) //
+                .iterator();
+    }
 }
@@ -0,0 +1,162 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.time.Duration;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.BlockNodeFile;
+import org.talend.daikon.collections.tree.file.BlockNodeFileWriter;
+import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.NodeFile;
+
+class BlockNodeFileTest {
+
+    @Test
+    void blockFileTest() throws IOException {
+        final File uncompressed = this.buildFile("FileBlock.txt", BlockNodeFile.Compression.NONE);
+        final File compressed = this.buildFile("FileBlockDeflate.txt", BlockNodeFile.Compression.DEFLATE);
+        Assertions.assertTrue(compressed.length() < uncompressed.length());
+
+        this.checkFile(uncompressed);
+        this.checkFile(compressed);
+    }
+
+    @Test
+    void openOldFormat() throws IOException {
+        final File fic = this.newFile("FileOld.txt");
+        final RandomAccessFile rf = new RandomAccessFile(fic, "rw");
+        final NodeFile<String, Integer> nodeFile = new NodeFile<>(rf, new SerializerString(), new SerializerInteger());
+        final AvlTreeBuilder<String, Integer> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        treeBuilder.insertSorted(this.entries(100), 100);
+
+        final NodeFile<String, Integer> opened = NodeFile.open(new RandomAccessFile(fic, "r"), new SerializerString(),
+                new SerializerInteger());
+        Assertions.assertFalse(opened instanceof BlockNodeFile);
+        final AvlTree<String, Integer> tree = new AvlTreeBuilder<>(new BuilderFile<>(opened)).build();
+        Assertions.assertEquals(42, tree.get(this.key(42)).getData());
+    }
+
+    @Test
+    void emptyTree() throws IOException {
+        final File fic = this.newFile("FileBlockEmpty.txt");
+        try (RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            new BlockNodeFileWriter<>(rf, new SerializerString(), new SerializerInteger()).write(this.entries(0), 0);
+        }
+        final NodeFile<String, Integer> nodeFile = NodeFile.open(new RandomAccessFile(fic, "r"), new SerializerString(),
+                new SerializerInteger());
+        Assertions.assertTrue(nodeFile instanceof BlockNodeFile);
+        Assertions.assertNull(new AvlTreeBuilder<>(new BuilderFile<>(nodeFile)).build());
+    }
+
+    @Test
+    void notSorted() throws IOException {
+        final File fic = this.newFile("FileBlockNotSorted.txt");
+        try (RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            final BlockNodeFileWriter<String, Integer> writer = new BlockNodeFileWriter<>(rf, new SerializerString(),
+                    new SerializerInteger());
+            final Iterator<Map.Entry<String, Integer>> entries = List
+                    .<Map.Entry<String, Integer>> of(new SimpleEntry<>("b", 1), new SimpleEntry<>("a", 2)).iterator();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write(entries, 2));
+        }
+        // footer is not written, file can't be read.
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new BlockNodeFile<>(new RandomAccessFile(fic, "r"), new SerializerString(), new SerializerInteger()));
+    }
+
+    @Test
+    void readOnly() throws IOException {
+        final File fic = this.buildFile("FileBlockUpdate.txt", BlockNodeFile.Compression.NONE);
+        final NodeFile<String, Integer> nodeFile = new BlockNodeFile<>(new RandomAccessFile(fic, "r"),
+                new SerializerString(), new SerializerInteger());
+        final AvlTreeBuilder<String, Integer> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        Assertions.assertThrows(IllegalStateException.class, () -> treeBuilder.insertNode("a", () -> 1));
+        Assertions.assertEquals(42, treeBuilder.build().get(this.key(42)).getData());
+    }
+
+    @Test
+    void truncatedBlock() throws IOException {
+        final File fic = this.buildFile("FileBlockTruncated.txt", BlockNodeFile.Compression.DEFLATE);
+        try (RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            // halve compressed size of each block in footer.
+            rf.seek(4 + Integer.BYTES + 1 + Integer.BYTES);
+            final long footer = rf.readLong();
+            rf.seek(footer + Long.BYTES);
+            final int nbBlocks = rf.readInt();
+            for (int i = 0; i < nbBlocks; i++) {
+                final long sizePosition = footer + Long.BYTES + Integer.BYTES + i * (Long.BYTES + 3 * Integer.BYTES)
+                        + Long.BYTES;
+                rf.seek(sizePosition);
+                final int compressedSize = rf.readInt();
+                rf.seek(sizePosition);
+                rf.writeInt(compressedSize / 2);
+            }
+        }
+        final NodeFile<String, Integer> nodeFile = NodeFile.open(new RandomAccessFile(fic, "r"), new SerializerString(),
+                new SerializerInteger());
+        // root block can't be decoded, and decode must not wait for missing input.
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> Assertions
+                .assertThrows(IllegalStateException.class, () -> new AvlTreeBuilder<>(new BuilderFile<>(nodeFile))));
+    }
+
+    private File buildFile(final String name, final BlockNodeFile.Compression compression) throws IOException {
+        final File fic = this.newFile(name);
+        try (RandomAccessFile rf = new RandomAccessFile(fic, "rw")) {
+            new BlockNodeFileWriter<>(rf, new SerializerString(), new SerializerInteger(), compression, 1024)
+                    .write(this.entries(5000), 5000);
+        }
+        return fic;
+    }
+
+    private void checkFile(final File fic) throws IOException {
+        final NodeFile<String, Integer> nodeFile = NodeFile.open(new RandomAccessFile(fic, "r"), new SerializerString(),
+                new SerializerInteger());
+        Assertions.assertTrue(nodeFile instanceof BlockNodeFile);
+        final AvlTreeBuilder<String, Integer> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        treeBuilder.check();
+        final AvlTree<String, Integer> tree = treeBuilder.build(3);
+        Assertions.assertEquals(0, tree.get(this.key(0)).getData());
+        Assertions.assertEquals(413, tree.get(this.key(413)).getData());
+        Assertions.assertEquals(4999, tree.get(this.key(4999)).getData());
+        Assertions.assertNull(tree.get("unknown"));
+
+        final Iterator<INode<String, Integer>> iterator = tree.iterator().build();
+        int expected = 0;
+        while (iterator.hasNext()) {
+            final INode<String, Integer> node = iterator.next();
+            Assertions.assertEquals(this.key(expected), node.getKey());
+            Assertions.assertEquals(expected, node.getData());
+            expected++;
+        }
+        Assertions.assertEquals(5000, expected);
+    }
+
+    private File newFile(final String name) throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), name);
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        return fic;
+    }
+
+    private String key(int i) {
+        return String.format("customer/lookup/key_%06d", i);
+    }
+
+    private Iterator<Map.Entry<String, Integer>> entries(int size) {
+        return IntStream.range(0, size) //
+                .mapToObj((int i) -> (Map.Entry<String, Integer>) new SimpleEntry<>(this.key(i), i)) //
+                .iterator();
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.MappedNodeFile;
+import org.talend.daikon.collections.tree.file.NodeFile;
+
+class MappedNodeFileTest {
+
+    @Test
+    void mappedFileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileMapped.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+
+        // small segments to force nodes overlapping segments.
+        final RandomAccessFile rf = new RandomAccessFile(fic, "rw");
+        final NodeFile<Integer, String> nodeFile = new MappedNodeFile<>(rf, new SerializerInteger(), new SerializerString(),
+                1000);
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int i = 1; i <= 1750; i++) {
+            final int iCopy = i;
+            treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+
+            final int iCopyFinal = 3507 - i;
+            treeBuilder.insertNode(Integer.valueOf(iCopyFinal), () -> "Node " + iCopyFinal);
+        }
+        treeBuilder.check();
+        final AvlTree<Integer, String> tree = treeBuilder.build(3);
+
+        final INode<Integer, String> node413 = tree.get(413);
+        Assertions.assertNotNull(node413);
+        Assertions.assertEquals("Node 413", node413.getData());
+        Assertions.assertNull(tree.get(5700));
+        Assertions.assertEquals("Node 3506", tree.get(3506).getData());
+
+        final Iterator<INode<Integer, String>> iterator = tree.iterator().startAt(1000).endAt(1099).build();
+        int nbe = 0;
+        while (iterator.hasNext()) {
+            final INode<Integer, String> node = iterator.next();
+            Assertions.assertEquals("Node " + node.getKey(), node.getData());
+            nbe++;
+        }
+        Assertions.assertEquals(100, nbe);
+
+        // read with RandomAccessFile implementation (same format).
+        final RandomAccessFile rf2 = new RandomAccessFile(fic, "r");
+        final NodeFile<Integer, String> nodeFile2 = new NodeFile<>(rf2, new SerializerInteger(), new SerializerString());
+        final AvlTree<Integer, String> tree2 = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile2)).build(2);
+        Assertions.assertEquals("Node 702", tree2.get(702).getData());
+
+        // read existing file with mapped implementation.
+        final RandomAccessFile rf3 = new RandomAccessFile(fic, "r");
+        final NodeFile<Integer, String> nodeFile3 = new MappedNodeFile<>(rf3, new SerializerInteger(),
+                new SerializerString());
+        final AvlTree<Integer, String> tree3 = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile3)).build(2);
+        Assertions.assertEquals("Node 2800", tree3.get(2800).getData());
+        Assertions.assertNull(tree3.get(0));
+    }
+}
@@ -0,0 +1,165 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.BuilderFile;
+import org.talend.daikon.collections.tree.file.NodeCache;
+import org.talend.daikon.collections.tree.file.NodeFile;
+import org.talend.daikon.collections.tree.file.NodeLinkFile;
+
+class NodeCacheTest {
+
+    @Test
+    void concurrentReaders() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileCache.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final RandomAccessFile rf = new RandomAccessFile(fic, "rw");
+        final NodeCache<Integer, String> cache = new NodeCache<>(500);
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(rf, new SerializerInteger(), new SerializerString(), cache);
+
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int i = 1; i <= 2000; i++) {
+            final int iCopy = i;
+            treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+        }
+        // cached nodes must be updated when saved during build.
+        treeBuilder.check();
+        final AvlTree<Integer, String> tree = treeBuilder.build(3);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                final int start = t;
+                results.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int i = 1; i <= 2000; i++) {
+                        final int key = ((i + start * 61) % 2000) + 1;
+                        final INode<Integer, String> node = tree.get(key);
+                        Assertions.assertEquals("Node " + key, node.getData());
+                        found++;
+                    }
+                    return found;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                Assertions.assertEquals(2000, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertTrue(cache.getHits() > 0L);
+        Assertions.assertTrue(cache.getMisses() > 0L);
+        Assertions.assertTrue(cache.size() <= 500);
+    }
+
+    @Test
+    void concurrentReadAndSave() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileCacheSave.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final NodeCache<Integer, String> cache = new NodeCache<>(100, 1);
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(new RandomAccessFile(fic, "rw"),
+                new SerializerInteger(), new SerializerString(), cache);
+        final Node<Integer, String> node = nodeFile.createNode(1, "Node 1");
+        final NodeLinkFile<Integer, String> link = (NodeLinkFile<Integer, String>) node.getLink();
+
+        final AtomicInteger saved = new AtomicInteger(node.getHeight());
+        final ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    while (saved.get() < 3000) {
+                        final int minHeight = saved.get();
+                        // once saved, a node can't be read (from file or cache) as it was before.
+                        Assertions.assertTrue(nodeFile.getNode(link).getHeight() >= minHeight);
+                    }
+                }));
+            }
+            results.add(executor.submit(() -> {
+                for (int height = 2; height <= 3000; height++) {
+                    node.setHeight(height);
+                    nodeFile.saveNode(node, link.getStartPos());
+                    saved.set(height);
+                }
+            }));
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(3000, nodeFile.getNode(link).getHeight());
+    }
+
+    @Test
+    void prefetchIterator() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FilePrefetch.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+        final NodeFile<Integer, String> nodeFile = new NodeFile<>(new RandomAccessFile(fic, "rw"), new SerializerInteger(),
+                new SerializerString());
+        final AvlTreeBuilder<Integer, String> treeBuilder = new AvlTreeBuilder<>(new BuilderFile<>(nodeFile));
+        for (int i = 1; i <= 3000; i++) {
+            final int iCopy = i;
+            treeBuilder.insertNode(Integer.valueOf(i), () -> "Node " + iCopy);
+        }
+
+        final NodeCache<Integer, String> cache = new NodeCache<>(10_000);
+        final NodeFile<Integer, String> readFile = new NodeFile<>(new RandomAccessFile(fic, "r"), new SerializerInteger(),
+                new SerializerString(), cache);
+        final AvlTree<Integer, String> tree = new AvlTreeBuilder<>(new BuilderFile<>(readFile)).build(2);
+
+        final Iterator<INode<Integer, String>> iterator = tree.iterator().build();
+        int expected = 1;
+        while (iterator.hasNext()) {
+            final INode<Integer, String> node = iterator.next();
+            Assertions.assertEquals(expected, node.getKey());
+            Assertions.assertEquals("Node " + expected, node.getData());
+            expected++;
+        }
+        Assertions.assertEquals(3001, expected);
+        // right childs were prefetched before being read.
+        Assertions.assertTrue(cache.getHits() > 0L);
+    }
+
+    @Test
+    void containsDoesNotChangeOrder() {
+        final NodeCache<Integer, String> cache = new NodeCache<>(2, 1);
+        cache.put(1L, null);
+        cache.put(2L, null);
+
+        Assertions.assertTrue(cache.contains(1L));
+        cache.put(3L, null);
+
+        // 1 is still least recently used, so it's the one removed.
+        Assertions.assertFalse(cache.contains(1L));
+        Assertions.assertTrue(cache.contains(2L));
+        Assertions.assertTrue(cache.contains(3L));
+        Assertions.assertEquals(0L, cache.getHits() + cache.getMisses());
+    }
+}
@@ -0,0 +1,168 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.collections.tree.primitive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.collections.tree.file.Serializer;
+
+class LongAvlTreeTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    @Test
+    void memoryTest() {
+        final LongAvlTreeBuilder<String> treeBuilder = new LongAvlTreeBuilder<>(new LongNodeStoreMemory<>());
+        for (long i = 1; i <= 730; i++) {
+            final long timestamp = BASE + i;
+            treeBuilder.insertNode(timestamp, () -> "Node " + timestamp);
+            final long other = BASE + 1501 - i;
+            treeBuilder.insertNode(other, () -> "Node " + other);
+        }
+        treeBuilder.check();
+        final LongAvlTree<String> tree = treeBuilder.build();
+
+        Assertions.assertEquals("Node " + (BASE + 413), tree.get(BASE + 413));
+        Assertions.assertTrue(tree.containsKey(BASE + 1000));
+        Assertions.assertFalse(tree.containsKey(12L));
+        Assertions.assertNull(tree.get(12L));
+
+        final List<Long> keys = new ArrayList<>();
+        tree.forEach(BASE + 100, BASE + 199, (long key, String data) -> {
+            Assertions.assertEquals("Node " + key, data);
+            keys.add(key);
+        });
+        Assertions.assertEquals(100, keys.size());
+        Assertions.assertEquals(BASE + 100, keys.get(0));
+        Assertions.assertEquals(BASE + 199, keys.get(99));
+    }
+
+    @Test
+    void fileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileLong.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+
+        final IntAvlTreeBuilder<String> treeBuilder = new IntAvlTreeBuilder<>(
+                new LongNodeStoreFile<>(new RandomAccessFile(fic, "rw"), new StringSerializer()));
+        for (int i = 1; i <= 1750; i++) {
+            final int iCopy = i;
+            treeBuilder.insertNode(i, () -> "Node " + iCopy);
+            final int negative = -i;
+            treeBuilder.insertNode(negative, () -> "Node " + negative);
+        }
+        final IntAvlTree<String> tree = treeBuilder.build();
+        Assertions.assertEquals("Node 413", tree.get(413));
+        Assertions.assertEquals("Node -1750", tree.get(-1750));
+        Assertions.assertNull(tree.get(0));
+
+        // check reading existing file
+        final LongNodeStoreFile<String> store = new LongNodeStoreFile<>(new RandomAccessFile(fic, "r"),
+                new StringSerializer());
+        final LongAvlTreeBuilder<String> readBuilder = new LongAvlTreeBuilder<>(store);
+        readBuilder.check();
+        final LongAvlTree<String> tree2 = readBuilder.build();
+        Assertions.assertEquals("Node 702", tree2.get(702L));
+
+        final int[] count = new int[1];
+        tree.forEach(-10, 10, (int key, String data) -> count[0]++);
+        Assertions.assertEquals(20, count[0]);
+
+        final IntAvlTreeIterator<String> iterator = tree.iterator(-2, 2);
+        Assertions.assertEquals(-2, iterator.nextInt());
+        Assertions.assertEquals("Node -2", iterator.data());
+        Assertions.assertEquals(-1, iterator.nextInt());
+        Assertions.assertEquals(1, iterator.nextInt());
+        Assertions.assertEquals(2, iterator.nextInt());
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void iteratorTest() {
+        final LongAvlTreeBuilder<String> treeBuilder = new LongAvlTreeBuilder<>(new LongNodeStoreMemory<>());
+        for (long i = 1000; i > 0; i--) {
+            final long key = i * 2;
+            treeBuilder.insertNode(key, () -> "Node " + key);
+        }
+        final LongAvlTree<String> tree = treeBuilder.build(4);
+
+        final LongAvlTreeIterator<String> iterator = tree.iterator(11L, 31L);
+        long expected = 12L;
+        while (iterator.hasNext()) {
+            final long key = iterator.nextLong();
+            Assertions.assertEquals(expected, key);
+            Assertions.assertEquals("Node " + key, iterator.data());
+            expected += 2;
+        }
+        Assertions.assertEquals(32L, expected);
+        Assertions.assertThrows(NoSuchElementException.class, iterator::nextLong);
+
+        final int[] count = new int[1];
+        tree.iterator(Long.MIN_VALUE, Long.MAX_VALUE).forEachRemaining((long key) -> count[0]++);
+        Assertions.assertEquals(1000, count[0]);
+        Assertions.assertFalse(tree.iterator(2001L, Long.MAX_VALUE).hasNext());
+        Assertions.assertThrows(IllegalStateException.class, () -> tree.iterator(0L, 10L).data());
+    }
+
+    @Test
+    void cachedFileTest() throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        final File fic = new File(url.getPath(), "FileLongCache.txt");
+        if (fic.exists()) {
+            fic.delete();
+        }
+        fic.createNewFile();
+
+        final LongNodeCache cache = new LongNodeCache(500);
+        final LongAvlTreeBuilder<String> treeBuilder = new LongAvlTreeBuilder<>(
+                new LongNodeStoreFile<>(new RandomAccessFile(fic, "rw"), new StringSerializer(), cache));
+        for (long i = 1; i <= 3000; i++) {
+            final long key = BASE + i;
+            treeBuilder.insertNode(key, () -> "Node " + key);
+        }
+        // cached headers must be invalidated when nodes are updated during build.
+        treeBuilder.check();
+        Assertions.assertTrue(cache.size() <= 500);
+
+        final LongNodeCache readCache = new LongNodeCache(10_000);
+        final LongAvlTreeBuilder<String> readBuilder = new LongAvlTreeBuilder<>(
+                new LongNodeStoreFile<>(new RandomAccessFile(fic, "r"), new StringSerializer(), readCache));
+        final LongAvlTree<String> inMemory = readBuilder.build(5);
+        final LongAvlTree<String> onFile = readBuilder.build(0);
+        for (long i = 0; i <= 3001; i++) {
+            final String expected = i == 0 || i == 3001 ? null : "Node " + (BASE + i);
+            Assertions.assertEquals(expected, inMemory.get(BASE + i));
+            Assertions.assertEquals(expected, onFile.get(BASE + i));
+        }
+        Assertions.assertTrue(readCache.getHits() > 0L);
+
+        final List<Long> keys = new ArrayList<>();
+        inMemory.forEach(BASE + 2990, BASE + 5000, (long key, String data) -> keys.add(key));
+        Assertions.assertEquals(11, keys.size());
+        Assertions.assertEquals(BASE + 3000, keys.get(10));
+    }
+
+    private static class StringSerializer implements Serializer<String> {
+
+        @Override
+        public byte[] serialize(final String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] data) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    }
+}
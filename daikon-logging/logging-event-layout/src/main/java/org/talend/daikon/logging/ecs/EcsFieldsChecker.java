@@ -36,11 +36,15 @@ public class EcsFieldsChecker {
         // * Given field start with labels field name
         // * Given field without labels prefix is not empty
         // * Given field without labels prefix doesn't contain another object
-        return LABELS_FIELDS.stream().anyMatch( //
-                f -> field.startsWith(f + ".") && //
-                        !field.substring(f.length() + 1).isEmpty() && //
-                        !field.substring(f.length() + 1).contains(".") //
-        );
+        for (int i = 0; i < LABELS_FIELDS.size(); i++) {
+            final String labelsField = LABELS_FIELDS.get(i);
+            final int prefixLength = labelsField.length() + 1;
+            if (field.length() > prefixLength && field.startsWith(labelsField) && field.charAt(prefixLength - 1) == '.'
+                    && field.indexOf('.', prefixLength) < 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
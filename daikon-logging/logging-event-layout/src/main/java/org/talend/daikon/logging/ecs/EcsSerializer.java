@@ -2,12 +2,14 @@
 package org.talend.daikon.logging.ecs;
 
 import java.time.Instant;
-import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -28,6 +30,10 @@ public class EcsSerializer {
 
     private static final String LEGACY_MDC_PREFIX = "customInfo.";
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MdcWriter> MDC_WRITER = ThreadLocal.withInitial(MdcWriter::new);
+
     /**
      * Serialize the additional fields (mapped and filtered)
      *
@@ -35,11 +41,14 @@ public class EcsSerializer {
      * @param additionalFields the additional fields to serialize
      */
     public static void serializeAdditionalFields(final StringBuilder builder, final List<AdditionalField> additionalFields) {
-        EcsJsonSerializer.serializeAdditionalFields(builder, additionalFields.stream()
-                // Map additional field keys with corresponding ECS field
-                .map(f -> new AdditionalField(MdcEcsMapper.map(f.getKey()), f.getValue()))
-                // Filter out non ECS fields if in strict mode
-                .filter(f -> EcsFieldsChecker.isECSField(f.getKey())).collect(Collectors.toList()));
+        for (int i = 0; i < additionalFields.size(); i++) {
+            final AdditionalField additionalField = additionalFields.get(i);
+            // Map additional field keys with corresponding ECS field, and filter out non ECS fields
+            final String key = MdcEcsMapper.map(additionalField.getKey());
+            if (key != null && EcsFieldsChecker.isECSField(key)) {
+                addToSerializationWithQuotes(builder, key, additionalField.getValue());
+            }
+        }
     }
 
     /**
@@ -65,38 +74,51 @@ public class EcsSerializer {
         if (null == builder || null == mdcPropertyMap || mdcPropertyMap.isEmpty()) {
             return;
         }
-
-        final Map<String, String> filteredMdc = mdcPropertyMap.entrySet().stream()
-                // Map additional field keys with corresponding ECS field
-                .map(mdcEntry -> new AbstractMap.SimpleEntry<>(MdcEcsMapper.map(mdcEntry.getKey()), mdcEntry.getValue()))
-                // Filter out non ECS fields
-                .filter(mdcEntry -> legacyMode || EcsFieldsChecker.isECSField(mdcEntry.getKey()))
-                .map(mdcEntry -> new AbstractMap.SimpleEntry<>(
-                        metaFields.getOrDefault(mdcEntry.getKey(), (legacyMode ? LEGACY_MDC_PREFIX : "") + mdcEntry.getKey()),
-                        mdcEntry.getValue()))
-                .filter(entry -> entry.getValue() != null).distinct() // filter out exact entry duplicates
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (duplicateValue1, duplicateValue2) -> {
-                    System.err.println(("EcsSerializer.serializeMDC(): duplicate key with values '%s' and '%s'. "
-                            + "Value '%s' is used to produce log. Full MDC map: %s").formatted(duplicateValue1, duplicateValue2,
-                                    duplicateValue1, mdcPropertyMap));
-                    return duplicateValue1;
-                }));
-
-        final List<String> mdcNumericFields = filteredMdc.keySet().stream().filter(EcsFields::isNumber)
-                .collect(Collectors.toList());
-
-        // serialize numeric values
-        if (!mdcNumericFields.isEmpty() && !filteredMdc.isEmpty()) {
-            mdcNumericFields.stream().map(MdcEcsMapper::map)
-                    .map(mappedFieldName -> new AbstractMap.SimpleEntry<>(mappedFieldName, filteredMdc.get(mappedFieldName)))
-                    .peek(entry -> filteredMdc.remove(entry.getKey()))
-                    .filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty())
-                    .filter(entry -> NumberUtils.isParsable(entry.getValue()))
-                    .forEach(e -> builder.append("\"").append(e.getKey()).append("\":").append(e.getValue()).append(","));
+        final MdcWriter writer = startMDC(builder, metaFields, legacyMode);
+        try {
+            mdcPropertyMap.forEach(writer);
+        } finally {
+            // release the thread writer even if an entry can't be read
+            writer.end();
         }
+    }
 
-        // serialize string values
-        EcsJsonSerializer.serializeMDC(builder, filteredMdc);
+    /**
+     * Start the serialization of MDC entries (mapped and filtered, as {@link #serializeMDC(StringBuilder, Map, Map, boolean)}
+     * does) given one by one, for instance from a context map which can't be read as a {@link Map} without copy.
+     * Entries are written when {@link MdcWriter#end()} is called; the writer must not be used after that.
+     *
+     * @param builder the builder to serialize in
+     * @param metaFields map between MDC keys (once mapped to ECS fields) and field names in the output
+     * @param legacyMode if true it will allow non-ECS fields + it will add a prefix to non-standard MDC values
+     * @return the writer to give MDC entries to, reused by the current thread
+     */
+    public static MdcWriter startMDC(final StringBuilder builder, final Map<String, String> metaFields,
+            final boolean legacyMode) {
+        return startMDC(builder, metaFields, legacyMode, true);
+    }
+
+    /**
+     * Start the serialization of MDC entries given one by one, see {@link #startMDC(StringBuilder, Map, boolean)}.
+     *
+     * @param builder the builder to serialize in
+     * @param metaFields map between MDC keys (once mapped to ECS fields) and field names in the output
+     * @param legacyMode if true it will allow non-ECS fields + it will add a prefix to non-standard MDC values
+     * @param reuseWriter if false, a new writer is returned instead of the one of the current thread (for frameworks
+     * configured without thread locals, such as Log4j2 in web applications)
+     * @return the writer to give MDC entries to
+     */
+    public static MdcWriter startMDC(final StringBuilder builder, final Map<String, String> metaFields,
+            final boolean legacyMode, final boolean reuseWriter) {
+        MdcWriter writer = reuseWriter ? MDC_WRITER.get() : new MdcWriter();
+        if (writer.builder != null) {
+            // MDC already being serialized by this thread (when converting a value to string logs something)
+            writer = new MdcWriter();
+        }
+        writer.builder = builder;
+        writer.metaFields = metaFields;
+        writer.legacyMode = legacyMode;
+        return writer;
     }
 
     /**
@@ -106,8 +128,19 @@ public class EcsSerializer {
      * @param hostData the host data to serialize
      */
     public static void serializeHostInfo(final StringBuilder builder, final HostData hostData) {
-        builder.append(String.format("\"%s\":[\"%s\"],", EcsFields.HOST_IP.fieldName, hostData.getHostAddress()));
-        builder.append(String.format("\"%s\":\"%s\",", EcsFields.HOST_HOSTNAME.fieldName, hostData.getHostName()));
+        builder.append('\"').append(EcsFields.HOST_IP.fieldName).append("\":[\"").append(hostData.getHostAddress())
+                .append("\"],");
+        builder.append('\"').append(EcsFields.HOST_HOSTNAME.fieldName).append("\":\"").append(hostData.getHostName())
+                .append("\",");
+    }
+
+    /**
+     * Serialize the data of the local host, looked up once
+     *
+     * @param builder the builder to serialize in
+     */
+    public static void serializeHostInfo(final StringBuilder builder) {
+        builder.append(LocalHostInfo.SERIALIZED);
     }
 
     /**
@@ -117,7 +150,38 @@ public class EcsSerializer {
      * @param eventId the event id to serialize
      */
     public static void serializeEventId(final StringBuilder builder, final UUID eventId) {
-        builder.append(String.format("\"%s\":\"%s\",", EcsFields.EVENT_ID.fieldName, eventId));
+        builder.append('\"').append(EcsFields.EVENT_ID.fieldName).append("\":\"").append(eventId).append("\",");
+    }
+
+    /**
+     * Serialize a new random event id, formatted as a random {@link UUID} without creating it.
+     * Contrary to {@link UUID#randomUUID()}, the random generator isn't cryptographically strong (event ids only need to
+     * be unique) and doesn't contend between threads.
+     *
+     * @param builder the builder to serialize in
+     */
+    public static void serializeEventId(final StringBuilder builder) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Same version and variant bits as UUID.randomUUID()
+        final long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        final long leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        builder.append('\"').append(EcsFields.EVENT_ID.fieldName).append("\":\"");
+        appendHex(builder, mostSigBits >>> 32, 8);
+        builder.append('-');
+        appendHex(builder, mostSigBits >>> 16, 4);
+        builder.append('-');
+        appendHex(builder, mostSigBits, 4);
+        builder.append('-');
+        appendHex(builder, leastSigBits >>> 48, 4);
+        builder.append('-');
+        appendHex(builder, leastSigBits, 12);
+        builder.append("\",");
+    }
+
+    private static void appendHex(final StringBuilder builder, final long value, final int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            builder.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+        }
     }
 
     /**
@@ -127,14 +191,27 @@ public class EcsSerializer {
      * @param marker the marker to serialize
      */
     public static void serializeCustomMarker(final StringBuilder builder, final String marker) {
-        if (marker != null) {
-            final String[] customMarker = marker.split(":");
-            if (customMarker.length == 2 && customMarker[0] != null) {
-                final String markerKey = EcsFieldsChecker.isECSField(MdcEcsMapper.map(customMarker[0]))
-                        ? MdcEcsMapper.map(customMarker[0])
-                        : "labels." + customMarker[0];
-                builder.append(String.format("\"%s\":\"%s\",", markerKey, customMarker[1]));
+        if (marker == null) {
+            return;
+        }
+        // Same as marker.split(":") giving 2 parts: a single separator, once trailing separators are ignored
+        int end = marker.length();
+        while (end > 0 && marker.charAt(end - 1) == ':') {
+            end--;
+        }
+        final int separator = marker.indexOf(':');
+        if (separator >= 0 && separator < end && marker.lastIndexOf(':', end - 1) == separator) {
+            final String name = marker.substring(0, separator);
+            final String mappedName = MdcEcsMapper.map(name);
+            builder.append('\"');
+            if (EcsFieldsChecker.isECSField(mappedName)) {
+                builder.append(mappedName);
+            } else {
+                builder.append("labels.").append(name);
             }
+            builder.append("\":\"");
+            JsonUtils.quoteAsString(marker.substring(separator + 1, end), builder);
+            builder.append("\",");
         }
     }
 
@@ -376,4 +453,107 @@ public class EcsSerializer {
         }
     }
 
+    /**
+     * Writes MDC entries given one by one, see {@link #startMDC(StringBuilder, Map, boolean)}.
+     * Entries are kept in arrays reused for each event, so that no map is built to filter out duplicates.
+     */
+    public static final class MdcWriter implements BiConsumer<String, Object> {
+
+        private StringBuilder builder;
+
+        private Map<String, String> metaFields;
+
+        private boolean legacyMode;
+
+        private String[] keys = new String[16];
+
+        private String[] values = new String[16];
+
+        private int size;
+
+        private MdcWriter() {
+        }
+
+        /**
+         * Add a MDC entry, ignored if its key isn't an ECS field (unless in legacy mode) or its value is null.
+         * When several entries have the same key once mapped, the first one is kept.
+         *
+         * @param mdcKey MDC key
+         * @param mdcValue MDC value
+         */
+        @Override
+        public void accept(final String mdcKey, final Object mdcValue) {
+            if (mdcValue == null) {
+                return;
+            }
+            // Map MDC key with corresponding ECS field, and filter out non ECS fields
+            final String mappedKey = MdcEcsMapper.map(mdcKey);
+            if (!legacyMode && !EcsFieldsChecker.isECSField(mappedKey)) {
+                return;
+            }
+            final String metaField = metaFields.isEmpty() ? null : metaFields.get(mappedKey);
+            final String key = metaField != null ? metaField : legacyMode ? LEGACY_MDC_PREFIX + mappedKey : mappedKey;
+            final String value = mdcValue.toString();
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    if (!values[i].equals(value)) {
+                        System.err.println(("EcsSerializer.serializeMDC(): duplicate key '%s' with values '%s' and '%s'. "
+                                + "Value '%s' is used to produce log.").formatted(key, values[i], value, values[i]));
+                    }
+                    return;
+                }
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * Write the MDC entries: numeric fields (as numbers, skipped if not parsable) first, then string fields.
+         * Field type is defined by https://github.com/elastic/ecs/blob/master/generated/ecs/ecs_flat.yml
+         */
+        public void end() {
+            try {
+                for (int i = 0; i < size; i++) {
+                    if (EcsFields.isNumber(keys[i])) {
+                        if (!values[i].isEmpty() && NumberUtils.isParsable(values[i])) {
+                            builder.append('\"').append(keys[i]).append("\":").append(values[i]).append(',');
+                        }
+                    }
+                }
+                for (int i = 0; i < size; i++) {
+                    if (!EcsFields.isNumber(keys[i])) {
+                        addToSerializationWithQuotes(builder, keys[i], values[i]);
+                    }
+                }
+            } finally {
+                Arrays.fill(keys, 0, size, null);
+                Arrays.fill(values, 0, size, null);
+                size = 0;
+                builder = null;
+                metaFields = null;
+            }
+        }
+    }
+
+    /**
+     * Data of the local host, looked up and serialized once.
+     */
+    private static final class LocalHostInfo {
+
+        private static final String SERIALIZED;
+
+        static {
+            final StringBuilder builder = new StringBuilder();
+            serializeHostInfo(builder, new HostData());
+            SERIALIZED = builder.toString();
+        }
+
+        private LocalHostInfo() {
+        }
+    }
 }
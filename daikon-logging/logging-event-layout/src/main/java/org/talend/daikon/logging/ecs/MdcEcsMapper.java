@@ -3,6 +3,7 @@ package org.talend.daikon.logging.ecs;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
@@ -20,6 +21,9 @@ public class MdcEcsMapper {
 
     private static final MdcEcsMapper INSTANCE = new MdcEcsMapper();
 
+    /**
+     * Unmodifiable, so that it is read without the synchronization of {@link Properties}.
+     */
     private final Map<String, String> mapping;
 
     private MdcEcsMapper() {
@@ -29,7 +33,11 @@ public class MdcEcsMapper {
         } catch (IOException e) {
             LOGGER.error("MDC ECS mapping file can't be read", e);
         }
-        mapping = (Map) properties;
+        Map<String, String> loaded = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            loaded.put(key, properties.getProperty(key));
+        }
+        mapping = Collections.unmodifiableMap(loaded);
     }
 
     private static MdcEcsMapper getInstance() {
@@ -42,7 +50,7 @@ public class MdcEcsMapper {
      * @return the MDC to ECS map
      */
     public static Map<String, String> getMapping() {
-        return Collections.unmodifiableMap(getInstance().mapping);
+        return getInstance().mapping;
     }
 
     /**
@@ -53,10 +61,7 @@ public class MdcEcsMapper {
      * @return the corresponding ECS field or the MDC key if no mapping exists
      */
     public static String map(String mdcKey) {
-        if (getMapping().get(mdcKey) != null) {
-            return getMapping().get(mdcKey);
-        } else {
-            return mdcKey;
-        }
+        final String ecsField = mdcKey == null ? null : getMapping().get(mdcKey);
+        return ecsField != null ? ecsField : mdcKey;
     }
 }
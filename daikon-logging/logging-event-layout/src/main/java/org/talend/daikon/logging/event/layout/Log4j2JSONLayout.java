@@ -18,9 +18,11 @@ import org.apache.logging.log4j.core.layout.AbstractStringLayout;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.Encoder;
 import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.util.Constants;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.TriConsumer;
 import org.talend.daikon.logging.ecs.EcsFieldsMarker;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
 
 import co.elastic.logging.AdditionalField;
 import co.elastic.logging.EcsJsonSerializer;
@@ -34,6 +36,9 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
 
     public static final Charset UTF_8 = StandardCharsets.UTF_8;
 
+    private static final TriConsumer<String, Object, EcsSerializer.MdcWriter> WRITE_CONTEXT_DATA = //
+            (key, value, writer) -> writer.accept(key, value);
+
     private final List<AdditionalField> additionalFields;
 
     private final String serviceName;
@@ -94,14 +99,14 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
 
         // Call custom serializer for additional fields & MDC (for mapping and filtering)
         EcsSerializer.serializeAdditionalFields(builder, additionalFields);
-        EcsSerializer.serializeMDC(builder, event.getContextData().toMap());
+        serializeContextData(builder, event.getContextData());
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            EcsSerializer.serializeHostInfo(builder);
         }
 
         if (this.addEventUuid) {
-            EcsSerializer.serializeEventId(builder, UUID.randomUUID());
+            EcsSerializer.serializeEventId(builder);
         }
 
         if (locationInfo) {
@@ -112,6 +117,19 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         return builder;
     }
 
+    private void serializeContextData(final StringBuilder builder, final ReadOnlyStringMap contextData) {
+        if (contextData != null && !contextData.isEmpty()) {
+            // Iterate over context data without copying it to a map, with a thread writer only if Log4j2 uses them
+            final EcsSerializer.MdcWriter writer = EcsSerializer.startMDC(builder, Collections.emptyMap(), false,
+                    Constants.ENABLE_THREADLOCALS);
+            try {
+                contextData.forEach(WRITE_CONTEXT_DATA, writer);
+            } finally {
+                writer.end();
+            }
+        }
+    }
+
     private void serializeMarkers(final StringBuilder builder, final LogEvent event) {
         if (event != null) {
             serializeMarkerEcsFields(event.getMarker(), builder);
@@ -125,9 +143,14 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
                 EcsSerializer.serializeEcsFieldsMarker(builder, (EcsFieldsMarker) marker);
             } else {
                 final Marker[] parents = marker.getParents();
-                final Optional<Marker> ecsFieldsMarker = Arrays.stream(parents)
-                        .filter(parent -> EcsFieldsMarker.ECS_FIELDS_MARKER_NAME.equals(parent.getName())).findFirst();
-                ecsFieldsMarker.ifPresent(value -> EcsSerializer.serializeEcsFieldsMarker(builder, (EcsFieldsMarker) value));
+                if (parents != null) {
+                    for (Marker parent : parents) {
+                        if (EcsFieldsMarker.ECS_FIELDS_MARKER_NAME.equals(parent.getName())) {
+                            EcsSerializer.serializeEcsFieldsMarker(builder, (EcsFieldsMarker) parent);
+                            break;
+                        }
+                    }
+                }
             }
         }
     }
@@ -135,7 +158,7 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
     private void serializeMarkerTags(final LogEvent event, final StringBuilder builder) {
         final ThreadContext.ContextStack stack = event.getContextStack();
         final List<String> contextStack;
-        if (stack == null) {
+        if (stack == null || stack.getDepth() == 0) {
             contextStack = Collections.emptyList();
         } else {
             contextStack = stack.asList();
@@ -4,12 +4,10 @@ package org.talend.daikon.logging.event.layout;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
 
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.LayoutBase;
@@ -143,11 +141,11 @@ public class LogbackJSONAccessEventLayout extends LayoutBase<IAccessEvent> {
         }
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            EcsSerializer.serializeHostInfo(builder);
         }
 
         if (this.addEventUuid) {
-            EcsSerializer.serializeEventId(builder, UUID.randomUUID());
+            EcsSerializer.serializeEventId(builder);
         }
 
         EcsJsonSerializer.serializeObjectEnd(builder);
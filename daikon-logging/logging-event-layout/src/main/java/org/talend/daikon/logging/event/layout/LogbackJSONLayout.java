@@ -6,12 +6,10 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import org.slf4j.Marker;
 import org.talend.daikon.logging.ecs.EcsFieldsMarker;
 import org.talend.daikon.logging.ecs.EcsSerializer;
-import org.talend.daikon.logging.event.field.HostData;
 
 import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
@@ -26,6 +24,13 @@ import co.elastic.logging.EcsJsonSerializer;
  */
 public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
 
+    /**
+     * Max capacity of the builders kept for next events, so that a large event doesn't keep memory forever.
+     */
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 4096;
+
+    private static final ThreadLocal<ReusableBuilder> BUILDER = ThreadLocal.withInitial(ReusableBuilder::new);
+
     private boolean locationInfo;
 
     private boolean hostInfo;
@@ -133,7 +138,26 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
 
     @Override
     public String doLayout(final ILoggingEvent event) {
-        final StringBuilder builder = new StringBuilder();
+        final ReusableBuilder reusable = BUILDER.get();
+        if (reusable.inUse) {
+            // Event already being laid out by this thread (when converting a value to string logs something)
+            return toText(event, new StringBuilder(1024)).toString();
+        }
+        reusable.inUse = true;
+        final StringBuilder builder = reusable.builder;
+        builder.setLength(0);
+        try {
+            return toText(event, builder).toString();
+        } finally {
+            if (builder.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+                builder.setLength(MAX_REUSED_BUILDER_CAPACITY);
+                builder.trimToSize();
+            }
+            reusable.inUse = false;
+        }
+    }
+
+    private StringBuilder toText(final ILoggingEvent event, final StringBuilder builder) {
         EcsJsonSerializer.serializeObjectStart(builder, event.getTimeStamp());
         EcsJsonSerializer.serializeLogLevel(builder, event.getLevel().toString());
         EcsJsonSerializer.serializeFormattedMessage(builder, event.getFormattedMessage());
@@ -151,11 +175,11 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
         EcsSerializer.serializeMDC(builder, event.getMDCPropertyMap(), metaFields, legacyMode);
 
         if (this.hostInfo) {
-            EcsSerializer.serializeHostInfo(builder, new HostData());
+            EcsSerializer.serializeHostInfo(builder);
         }
 
         if (this.addEventUuid) {
-            EcsSerializer.serializeEventId(builder, UUID.randomUUID());
+            EcsSerializer.serializeEventId(builder);
         }
 
         if (this.locationInfo) {
@@ -172,7 +196,7 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
                     throwableProxyConverter.convert(event), false);
         }
         EcsJsonSerializer.serializeObjectEnd(builder);
-        return builder.toString();
+        return builder;
     }
 
     private void serializeMarkers(final StringBuilder builder, final ILoggingEvent event) {
@@ -236,4 +260,14 @@ public class LogbackJSONLayout extends LayoutBase<ILoggingEvent> {
             }
         }
     }
+
+    /**
+     * Builder reused by a thread for its events, unless it's already in use (see {@link #doLayout(ILoggingEvent)}).
+     */
+    private static final class ReusableBuilder {
+
+        private final StringBuilder builder = new StringBuilder(1024);
+
+        private boolean inUse;
+    }
 }
@@ -5,14 +5,20 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.Test;
 import org.talend.daikon.logging.event.field.HostData;
@@ -122,6 +128,100 @@ public class EcsSerializerTest {
         assertThat(builder.toString(), is("\"event.id\":\"b75e9427-8679-4064-8251-02ff0de61d91\","));
     }
 
+    @Test
+    public void testSerializeLocalHostInfo() {
+        final StringBuilder builder = new StringBuilder();
+        final HostData hostData = new HostData();
+        EcsSerializer.serializeHostInfo(builder);
+        assertThat(builder.toString(), is("\"host.ip\":[\"" + hostData.getHostAddress() + "\"],\"host.hostname\":\""
+                + hostData.getHostName() + "\","));
+    }
+
+    @Test
+    public void testSerializeRandomEventId() {
+        final StringBuilder builder = new StringBuilder();
+        EcsSerializer.serializeEventId(builder);
+        EcsSerializer.serializeEventId(builder);
+        final String[] eventIds = builder.toString().split(",");
+
+        for (String eventId : eventIds) {
+            assertThat(eventId, startsWith("\"event.id\":\""));
+            final String value = eventId.substring("\"event.id\":\"".length(), eventId.length() - 1);
+            final UUID uuid = UUID.fromString(value);
+            assertThat(uuid.toString(), is(value));
+            assertThat(uuid.version(), is(4));
+            assertThat(uuid.variant(), is(2));
+        }
+        assertThat(eventIds[0], not(is(eventIds[1])));
+    }
+
+    @Test
+    public void testSerializeMDCEntries() {
+        final StringBuilder builder = new StringBuilder();
+
+        final EcsSerializer.MdcWriter writer = EcsSerializer.startMDC(builder, Collections.emptyMap(), false);
+        writer.accept("traceId", "123");
+        writer.accept("trace.id", "124");
+        writer.accept("event.duration", 12345L);
+        writer.accept("unknown_field", "my value 4");
+        writer.accept("labels.my_awesome_label", null);
+        writer.end();
+
+        assertThat(builder.toString(), is("\"event.duration\":12345,\"trace.id\":\"123\","));
+    }
+
+    @Test
+    public void testSerializeMDCReleasesWriterOnError() {
+        final EcsSerializer.MdcWriter threadWriter = EcsSerializer.startMDC(new StringBuilder(), Collections.emptyMap(),
+                false);
+        threadWriter.end();
+        final Map<String, String> mdc = new HashMap<String, String>() {
+
+            @Override
+            public void forEach(BiConsumer<? super String, ? super String> action) {
+                action.accept("traceId", "123");
+                throw new IllegalStateException("MDC changed");
+            }
+        };
+        mdc.put("traceId", "123");
+
+        assertThrows(IllegalStateException.class, () -> EcsSerializer.serializeMDC(new StringBuilder(), mdc));
+
+        // thread writer is free again, and has no entry left.
+        final StringBuilder builder = new StringBuilder();
+        final EcsSerializer.MdcWriter writer = EcsSerializer.startMDC(builder, Collections.emptyMap(), false);
+        assertThat(writer, is(sameInstance(threadWriter)));
+        writer.end();
+        assertThat(builder.toString(), is(""));
+    }
+
+    @Test
+    public void testSerializeMDCEntriesWithoutThreadWriter() {
+        final StringBuilder builder = new StringBuilder();
+
+        final EcsSerializer.MdcWriter writer = EcsSerializer.startMDC(builder, Collections.emptyMap(), false, false);
+        final EcsSerializer.MdcWriter threadWriter = EcsSerializer.startMDC(new StringBuilder(), Collections.emptyMap(),
+                false);
+        threadWriter.end();
+        writer.accept("traceId", "123");
+        writer.end();
+
+        assertThat(writer, not(sameInstance(threadWriter)));
+        assertThat(builder.toString(), is("\"trace.id\":\"123\","));
+    }
+
+    @Test
+    public void testSerializeMDCLegacyMode() {
+        final StringBuilder builder = new StringBuilder();
+        final Map<String, String> mdc = new LinkedHashMap<>();
+        mdc.put("talend.meta.application", "some-app");
+        mdc.put("traceId", "123");
+
+        EcsSerializer.serializeMDC(builder, mdc, Collections.singletonMap("talend.meta.application", "application"), true);
+
+        assertThat(builder.toString(), is("\"application\":\"some-app\",\"customInfo.trace.id\":\"123\","));
+    }
+
     @Test
     public void testSerializeCustomMarkers() {
         final StringBuilder builder = new StringBuilder();
@@ -103,6 +103,36 @@ public class LogBackJSONLayoutTest extends AbstractLayoutTest {
         assertThat(nonStrictResult, hasJsonPath("$.['non_ecs_meta_field']", is("meta")));
     }
 
+    @Test
+    public void testReentrantLayout() {
+        final LogbackJSONLayout layout = new LogbackJSONLayout();
+        layout.start();
+        final LogDetails logDetails = new LogDetails(this.getClass());
+        final LoggingEvent innerEvent = (LoggingEvent) newEvent(logDetails);
+        final String[] innerResult = new String[1];
+        // an argument logging something when converted to string, while the outer event is being laid out
+        final Object argument = new Object() {
+
+            @Override
+            public String toString() {
+                innerResult[0] = layout.doLayout(innerEvent);
+                return "argument";
+            }
+        };
+        final LoggingEvent outerEvent = new LoggingEvent(this.getClass().getName(),
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(this.getClass()), Level.INFO, "outer {}", null,
+                new Object[] { argument });
+
+        final String result = layout.doLayout(outerEvent);
+
+        assertThat(result, hasJsonPath("$.message", equalTo("outer argument")));
+        assertThat(result, hasJsonPath("$['log.level']", equalTo("INFO")));
+        assertThat(innerResult[0], hasJsonPath("$.message", equalTo(logDetails.getLogMessage())));
+        // builder is reused for next events
+        assertThat(layout.doLayout(innerEvent), hasJsonPath("$.message", equalTo(logDetails.getLogMessage())));
+        layout.stop();
+    }
+
     @Test
     public void testStrictModeIsDefault() {
         assertFalse(new LogbackJSONLayout().isLegacyMode());
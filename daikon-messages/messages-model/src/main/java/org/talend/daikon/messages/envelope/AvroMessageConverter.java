@@ -0,0 +1,58 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.messages.envelope;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.talend.daikon.messages.serialization.AvroBinaryCodec;
+
+/**
+ * A {@link BinaryMessageConverter} for Avro payloads (generated classes), encoded with the Avro binary encoding.
+ * <p>
+ * Datum readers and writers are created once per class and schema, encoders and decoders are reused per thread (see
+ * {@link AvroBinaryCodec}).
+ */
+public class AvroMessageConverter implements BinaryMessageConverter {
+
+    public static final String FORMAT = "avro";
+
+    private final Map<Schema, DatumWriter<Object>> writers = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, DatumReader<?>> readers = new ConcurrentHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserializeFromBytes(ByteBuffer content, Class<T> clazz) {
+        final DatumReader<T> reader = (DatumReader<T>) readers.computeIfAbsent(clazz,
+                c -> new SpecificDatumReader<>(SpecificData.get().getSchema(c)));
+        try {
+            return AvroBinaryCodec.decode(reader, content);
+        } catch (IOException e) {
+            throw new AvroRuntimeException("Cannot deserialize " + clazz.getName(), e);
+        }
+    }
+
+    @Override
+    public <T> byte[] serializeToBytes(T content) {
+        if (!(content instanceof GenericContainer)) {
+            throw new IllegalArgumentException("Not an Avro payload: " + content);
+        }
+        final DatumWriter<Object> writer = writers.computeIfAbsent(((GenericContainer) content).getSchema(),
+                SpecificDatumWriter::new);
+        try {
+            return AvroBinaryCodec.encode(writer, content);
+        } catch (IOException e) {
+            throw new AvroRuntimeException("Cannot serialize " + content.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.messages.envelope;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converts a message payload to bytes and the other way around.
+ * <p>
+ * {@link MessageEnvelopeHandlerImpl} stores the payloads of binary converters as is in
+ * {@link org.talend.daikon.messages.MessagePayload#getBinaryContent()}. Their string form, only used when called
+ * directly, is the Base64 encoding of the bytes.
+ */
+public interface BinaryMessageConverter extends MessageConverter {
+
+    /**
+     * Deserializes the provided message payload
+     *
+     * @param content the provided content, from its position to its limit
+     * @param <T> the expected type
+     * @return the deserialized message payload
+     */
+    <T> T deserializeFromBytes(ByteBuffer content, Class<T> clazz);
+
+    /**
+     * Serializes the provided message payload to bytes
+     *
+     * @param content the message payload
+     * @param <T> the message payload type
+     * @return the serialized form of the payload.
+     */
+    <T> byte[] serializeToBytes(T content);
+
+    @Override
+    default <T> T deserialize(String content, Class<T> clazz) {
+        return deserializeFromBytes(ByteBuffer.wrap(Base64.getDecoder().decode(content)), clazz);
+    }
+
+    @Override
+    default <T> String serialize(T content) {
+        return new String(Base64.getEncoder().encode(serializeToBytes(content)), StandardCharsets.US_ASCII);
+    }
+}
@@ -1,15 +1,16 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.messages.envelope;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Created by bguillon on 14/12/2017.
+ * A {@link MessageConverterRegistry} keyed by format. Converters can be registered while messages are wrapped and
+ * unwrapped, lookups don't lock.
  */
 public class MessageConverterRegistryImpl implements MessageConverterRegistry {
 
-    private final Map<String, MessageConverter> messageConverters = new HashMap<>();
+    private final Map<String, MessageConverter> messageConverters = new ConcurrentHashMap<>();
 
     public void registerConverter(String format, MessageConverter converter) {
         this.messageConverters.put(format, converter);
@@ -17,6 +18,10 @@ public class MessageConverterRegistryImpl implements MessageConverterRegistry {
 
     @Override
     public MessageConverter getMessageConverter(String format) {
-        return messageConverters.get(format);
+        final MessageConverter messageConverter = messageConverters.get(format);
+        if (messageConverter == null) {
+            throw new IllegalArgumentException("Unsupported message format: " + format);
+        }
+        return messageConverter;
     }
 }
@@ -1,6 +1,8 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.messages.envelope;
 
+import java.nio.ByteBuffer;
+
 import org.talend.daikon.messages.MessageEnvelope;
 import org.talend.daikon.messages.MessageHeader;
 import org.talend.daikon.messages.MessagePayload;
@@ -27,13 +29,24 @@ public class MessageEnvelopeHandlerImpl implements MessageEnvelopeHandler {
 
     @Override
     public <T> T unwrap(MessageEnvelope envelop, Class<T> clazz) {
-        MessageConverter messageConverter = this.getMessageConverter(envelop.getPayload().getFormat());
-        String content = envelop.getPayload().getContent();
+        MessagePayload payload = envelop.getPayload();
+        MessageConverter messageConverter = this.getMessageConverter(payload.getFormat());
+        ByteBuffer binaryContent = payload.getBinaryContent();
+        if (binaryContent != null && messageConverter instanceof BinaryMessageConverter) {
+            return ((BinaryMessageConverter) messageConverter).deserializeFromBytes(binaryContent, clazz);
+        }
+        String content = payload.getContent();
         return messageConverter.deserialize(content, clazz);
     }
 
     private <T> MessagePayload createMessagePayload(T payload, String format) {
         MessageConverter messageConverter = this.getMessageConverter(format);
+        if (messageConverter instanceof BinaryMessageConverter) {
+            // Payload bytes are stored as is rather than text-encoded
+            byte[] content = ((BinaryMessageConverter) messageConverter).serializeToBytes(payload);
+            return MessagePayload.newBuilder().setFormat(format).setContent("")
+                    .setBinaryContent(ByteBuffer.wrap(content)).build();
+        }
         String content = messageConverter.serialize(payload);
         return MessagePayload.newBuilder().setFormat(format).setContent(content).build();
     }
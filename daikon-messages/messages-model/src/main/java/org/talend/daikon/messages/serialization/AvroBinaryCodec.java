@@ -0,0 +1,128 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.messages.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * Avro binary encoding and decoding with a per-thread pool of encoders, decoders and output buffers, so that
+ * serializing a message allocates nothing but the returned array.
+ * <p>
+ * The output buffer grows up to the largest message encoded by the thread, and is given up when it exceeds
+ * {@link #MAX_RETAINED_BUFFER_SIZE}.
+ */
+public final class AvroBinaryCodec {
+
+    static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private static final ThreadLocal<Codec> CODECS = ThreadLocal.withInitial(Codec::new);
+
+    private AvroBinaryCodec() {
+    }
+
+    /**
+     * Encodes the datum with the writer.
+     *
+     * @return the Avro binary encoding of the datum.
+     */
+    public static <T> byte[] encode(DatumWriter<T> writer, T datum) throws IOException {
+        final Codec codec = CODECS.get();
+        if (codec.inUse) {
+            // Nested call (from a custom datum writer): don't overwrite the buffer of the enclosing call
+            return new Codec().encode(writer, datum);
+        }
+        codec.inUse = true;
+        try {
+            return codec.encode(writer, datum);
+        } finally {
+            codec.inUse = false;
+        }
+    }
+
+    /**
+     * Decodes a datum with the reader.
+     */
+    public static <T> T decode(DatumReader<T> reader, byte[] data) throws IOException {
+        return decode(reader, data, 0, data.length);
+    }
+
+    /**
+     * Decodes a datum from the remaining bytes of the buffer, the position of the buffer is not changed.
+     */
+    public static <T> T decode(DatumReader<T> reader, ByteBuffer data) throws IOException {
+        if (data.hasArray()) {
+            return decode(reader, data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return decode(reader, bytes, 0, bytes.length);
+    }
+
+    private static <T> T decode(DatumReader<T> reader, byte[] data, int offset, int length) throws IOException {
+        final Codec codec = CODECS.get();
+        if (codec.inUse) {
+            return new Codec().decode(reader, data, offset, length);
+        }
+        codec.inUse = true;
+        try {
+            return codec.decode(reader, data, offset, length);
+        } finally {
+            codec.inUse = false;
+        }
+    }
+
+    private static final class Codec {
+
+        private final Buffer buffer = new Buffer();
+
+        private BinaryEncoder encoder;
+
+        private BinaryDecoder decoder;
+
+        private boolean inUse;
+
+        private <T> byte[] encode(DatumWriter<T> writer, T datum) throws IOException {
+            buffer.reset();
+            try {
+                encoder = EncoderFactory.get().binaryEncoder(buffer, encoder);
+                writer.write(datum, encoder);
+                encoder.flush();
+                return buffer.toByteArray();
+            } finally {
+                buffer.trim();
+            }
+        }
+
+        private <T> T decode(DatumReader<T> reader, byte[] data, int offset, int length) throws IOException {
+            decoder = DecoderFactory.get().binaryDecoder(data, offset, length, decoder);
+            return reader.read(null, decoder);
+        }
+    }
+
+    /**
+     * Output buffer whose backing array can be given up once it is too large.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        private Buffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        private void trim() {
+            if (buf.length > MAX_RETAINED_BUFFER_SIZE) {
+                buf = new byte[INITIAL_BUFFER_SIZE];
+                count = 0;
+            }
+        }
+    }
+}
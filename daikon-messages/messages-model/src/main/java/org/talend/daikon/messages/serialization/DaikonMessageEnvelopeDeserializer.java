@@ -0,0 +1,44 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.messages.serialization;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.messages.MessageEnvelope;
+
+/**
+ * Daikon Avro Message Envelope deserializer, decoders are reused (see {@link AvroBinaryCodec}).
+ * <p>
+ * Algorithm come from: https://cwiki.apache.org/confluence/display/AVRO/FAQ
+ */
+public class DaikonMessageEnvelopeDeserializer implements Deserializer<MessageEnvelope> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaikonMessageEnvelopeDeserializer.class);
+
+    private SpecificDatumReader<MessageEnvelope> reader = new SpecificDatumReader<>(MessageEnvelope.getClassSchema());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // do nothing
+    }
+
+    @Override
+    public MessageEnvelope deserialize(String topic, byte[] data) {
+        try {
+            return AvroBinaryCodec.decode(reader, data);
+        } catch (IOException e) {
+            LOGGER.error("Cannot deserialize Daikon MessageEnvelope", e);
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // do nothing
+    }
+}
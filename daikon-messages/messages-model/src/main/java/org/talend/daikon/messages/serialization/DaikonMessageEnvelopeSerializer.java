@@ -0,0 +1,45 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.messages.serialization;
+
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.messages.MessageEnvelope;
+
+/**
+ * Daikon Avro Message Envelope serializer, encoders and buffers are reused (see {@link AvroBinaryCodec}).
+ * <p>
+ * Algorithm come from: https://cwiki.apache.org/confluence/display/AVRO/FAQ
+ */
+public class DaikonMessageEnvelopeSerializer implements Serializer<MessageEnvelope> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaikonMessageEnvelopeSerializer.class);
+
+    private DatumWriter<MessageEnvelope> writer = new SpecificDatumWriter<>(MessageEnvelope.getClassSchema());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // do nothing
+    }
+
+    @Override
+    public byte[] serialize(String topic, MessageEnvelope data) {
+
+        try {
+            return AvroBinaryCodec.encode(writer, data);
+        } catch (Exception e) {
+            LOGGER.error("Cannot serialize Daikon MessageEnvelope", e);
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // do nothing
+    }
+}
@@ -5,8 +5,6 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.apache.avro.AvroRuntimeException;
-import org.apache.avro.io.Decoder;
-import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.slf4j.Logger;
@@ -32,8 +30,7 @@ public class DaikonMessageKeyDeserializer implements Deserializer<MessageKey> {
     @Override
     public MessageKey deserialize(String topic, byte[] data) {
         try {
-            Decoder decoder = DecoderFactory.get().binaryDecoder(data, null);
-            return reader.read(null, decoder);
+            return AvroBinaryCodec.decode(reader, data);
         } catch (IOException e) {
             LOGGER.error("Cannot deserialize Daikon MessageKey", e);
             throw new AvroRuntimeException(e);
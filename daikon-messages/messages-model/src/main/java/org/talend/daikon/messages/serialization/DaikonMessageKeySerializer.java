@@ -1,13 +1,10 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.messages.serialization;
 
-import java.io.ByteArrayOutputStream;
 import java.util.Map;
 
 import org.apache.avro.AvroRuntimeException;
-import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.kafka.common.serialization.Serializer;
 import org.slf4j.Logger;
@@ -33,11 +30,8 @@ public class DaikonMessageKeySerializer implements Serializer<MessageKey> {
     @Override
     public byte[] serialize(String topic, MessageKey data) {
 
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream();) {
-            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
-            writer.write(data, encoder);
-            encoder.flush();
-            return out.toByteArray();
+        try {
+            return AvroBinaryCodec.encode(writer, data);
         } catch (Exception e) {
             LOGGER.error("Cannot serialize Daikon MessageKey", e);
             throw new AvroRuntimeException(e);
@@ -2,6 +2,7 @@
 package org.talend.daikon.messages.envelope;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
@@ -19,6 +20,13 @@ public class TestMessageConverterRegistryImpl {
 
     }
 
+    @Test
+    public void testGetUnknownMessageConverter() {
+        messageConverterRegistry.registerConverter("format1", new Message1Converter());
+
+        assertThrows(IllegalArgumentException.class, () -> messageConverterRegistry.getMessageConverter("format2"));
+    }
+
     private static class Message1Converter implements MessageConverter {
 
         @Override
@@ -3,6 +3,10 @@ package org.talend.daikon.messages.envelope;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +21,8 @@ public class TestMessageEnvelopeHandlerImpl {
 
     private static final String FORMAT = "testFormat";
 
+    private static final String BINARY_FORMAT = "testBinaryFormat";
+
     private static final String MESSAGE_NAME = "messageName";
 
     private MessageConverterRegistry messageConverterRegistry = Mockito.mock(MessageConverterRegistry.class);
@@ -29,6 +35,8 @@ public class TestMessageEnvelopeHandlerImpl {
     public void setup() {
 
         Mockito.when(messageConverterRegistry.getMessageConverter(FORMAT)).thenReturn(new TestMessageConverter());
+        Mockito.when(messageConverterRegistry.getMessageConverter(BINARY_FORMAT))
+                .thenReturn(new TestBinaryMessageConverter());
 
         Mockito.when(messageHeaderFactory.createMessageHeader(MessageTypes.COMMAND, MESSAGE_NAME)).thenReturn(messageHeader);
     }
@@ -48,6 +56,40 @@ public class TestMessageEnvelopeHandlerImpl {
         assertEquals(FORMAT, envelope.getPayload().getFormat());
         assertEquals(new TestMessageConverter().serialize(anyMessage), envelope.getPayload().getContent());
         assertEquals(messageHeader, envelope.getHeader());
+        assertNull(envelope.getPayload().getBinaryContent());
+    }
+
+    @Test
+    public void testWrapBinaryMessage() {
+        AnyMessage anyMessage = new AnyMessage();
+        anyMessage.setProperty1("value1");
+        anyMessage.setProperty2("value2");
+
+        MessageEnvelopeHandler handler = new MessageEnvelopeHandlerImpl(messageConverterRegistry, messageHeaderFactory);
+
+        MessageEnvelope envelope = handler.wrap(MessageTypes.COMMAND, MESSAGE_NAME, anyMessage, BINARY_FORMAT);
+
+        assertEquals(BINARY_FORMAT, envelope.getPayload().getFormat());
+        assertEquals("", envelope.getPayload().getContent());
+        assertEquals(ByteBuffer.wrap(new TestBinaryMessageConverter().serializeToBytes(anyMessage)),
+                envelope.getPayload().getBinaryContent());
+        assertEquals(anyMessage, handler.unwrap(envelope, AnyMessage.class));
+    }
+
+    @Test
+    public void testUnwrapTextEncodedBinaryMessage() {
+        AnyMessage anyMessage = new AnyMessage();
+        anyMessage.setProperty1("value1");
+        anyMessage.setProperty2("value2");
+
+        MessageEnvelope envelope = MessageEnvelope.newBuilder()
+                .setPayload(MessagePayload.newBuilder().setFormat(BINARY_FORMAT)
+                        .setContent(new TestBinaryMessageConverter().serialize(anyMessage)).build())
+                .setHeader(messageHeader).build();
+
+        MessageEnvelopeHandler handler = new MessageEnvelopeHandlerImpl(messageConverterRegistry, messageHeaderFactory);
+
+        assertEquals(anyMessage, handler.unwrap(envelope, AnyMessage.class));
     }
 
     @Test
@@ -85,6 +127,21 @@ public class TestMessageEnvelopeHandlerImpl {
         }
     }
 
+    private static class TestBinaryMessageConverter implements BinaryMessageConverter {
+
+        private final TestMessageConverter delegate = new TestMessageConverter();
+
+        @Override
+        public <T> T deserializeFromBytes(ByteBuffer content, Class<T> clazz) {
+            return delegate.deserialize(StandardCharsets.UTF_8.decode(content.duplicate()).toString(), clazz);
+        }
+
+        @Override
+        public <T> byte[] serializeToBytes(T content) {
+            return delegate.serialize(content).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
     private static class AnyMessage {
 
         private String property1;
@@ -1,13 +1,24 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.messages.serialization;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.junit.jupiter.api.Test;
+import org.talend.daikon.messages.MessageEnvelope;
+import org.talend.daikon.messages.MessageHeader;
+import org.talend.daikon.messages.MessageIssuer;
 import org.talend.daikon.messages.MessageKey;
+import org.talend.daikon.messages.MessageTypes;
+import org.talend.daikon.messages.envelope.AvroMessageConverter;
+import org.talend.daikon.messages.envelope.MessageConverterRegistryImpl;
+import org.talend.daikon.messages.envelope.MessageEnvelopeHandler;
+import org.talend.daikon.messages.envelope.MessageEnvelopeHandlerImpl;
 
 public class TestDaikonMessageSerialization {
 
@@ -15,6 +26,11 @@ public class TestDaikonMessageSerialization {
 
     private DaikonMessageKeySerializer daikonMessageKeySerializer = new DaikonMessageKeySerializer();
 
+    private DaikonMessageEnvelopeDeserializer daikonMessageEnvelopeDeserializer =
+            new DaikonMessageEnvelopeDeserializer();
+
+    private DaikonMessageEnvelopeSerializer daikonMessageEnvelopeSerializer = new DaikonMessageEnvelopeSerializer();
+
     @Test
     public void testSerializationDeserialisation() {
         Map<String, String> keys = new HashMap<>();
@@ -32,4 +48,59 @@ public class TestDaikonMessageSerialization {
 
     }
 
+    @Test
+    public void testSerializationReusesBuffers() {
+        MessageKey data1 = MessageKey.newBuilder().setRandom("random1").setTenantId("tenant1").setKeys(new HashMap<>())
+                .build();
+        MessageKey data2 = MessageKey.newBuilder().setRandom("random2").setTenantId("tenant2").setKeys(new HashMap<>())
+                .build();
+
+        byte[] serializeData1 = daikonMessageKeySerializer.serialize("topic", data1);
+        byte[] serializeData2 = daikonMessageKeySerializer.serialize("topic", data2);
+
+        assertNotSame(serializeData1, serializeData2);
+        assertEquals("random1", daikonMessageKeyDeserializer.deserialize("topic", serializeData1).getRandom());
+        assertEquals("random2", daikonMessageKeyDeserializer.deserialize("topic", serializeData2).getRandom());
+    }
+
+    @Test
+    public void testSerializationAfterLargeMessage() throws Exception {
+        Map<String, String> keys = new HashMap<>();
+        keys.put("key", "v".repeat(AvroBinaryCodec.MAX_RETAINED_BUFFER_SIZE));
+        MessageKey large = MessageKey.newBuilder().setRandom("random1").setTenantId("tenant1").setKeys(keys).build();
+        MessageKey small = MessageKey.newBuilder().setRandom("random2").setTenantId("tenant2").setKeys(new HashMap<>())
+                .build();
+        SpecificDatumWriter<MessageKey> writer = new SpecificDatumWriter<>(MessageKey.getClassSchema());
+
+        byte[] serializeLarge = AvroBinaryCodec.encode(writer, large);
+        assertEquals(keys, daikonMessageKeyDeserializer.deserialize("topic", serializeLarge).getKeys());
+        assertArrayEquals(daikonMessageKeySerializer.serialize("topic", small), AvroBinaryCodec.encode(writer, small));
+    }
+
+    @Test
+    public void testEnvelopeRoundTripWithAvroPayload() {
+        MessageConverterRegistryImpl registry = new MessageConverterRegistryImpl();
+        registry.registerConverter(AvroMessageConverter.FORMAT, new AvroMessageConverter());
+        MessageHeader header = MessageHeader.newBuilder().setId("id").setCorrelationId("correlationId")
+                .setTimestamp(123L) //
+                .setIssuer(MessageIssuer.newBuilder().setApplication("application").setService("service")
+                        .setVersion("version").build())
+                .setType(MessageTypes.EVENT).setName("keyCreated").setTenantId("tenant1").setUserId("user1").build();
+        MessageEnvelopeHandler handler = new MessageEnvelopeHandlerImpl(registry, (type, name) -> header);
+        Map<String, String> keys = new HashMap<>();
+        keys.put("key1", "value1");
+        MessageKey payload = MessageKey.newBuilder().setRandom("random1234").setTenantId("tenant1").setKeys(keys)
+                .build();
+
+        MessageEnvelope envelope = handler.wrap(MessageTypes.EVENT, "keyCreated", payload, AvroMessageConverter.FORMAT);
+        byte[] serializeData = daikonMessageEnvelopeSerializer.serialize("topic", envelope);
+        MessageEnvelope deserializeData = daikonMessageEnvelopeDeserializer.deserialize("topic", serializeData);
+        MessageKey result = handler.unwrap(deserializeData, MessageKey.class);
+
+        assertEquals(header, deserializeData.getHeader());
+        assertEquals("", deserializeData.getPayload().getContent());
+        assertEquals(payload.getRandom(), result.getRandom());
+        assertEquals(payload.getTenantId(), result.getTenantId());
+        assertEquals(payload.getKeys(), result.getKeys());
+    }
 }
@@ -6,6 +6,10 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
@@ -13,6 +17,9 @@ import javax.sql.DataSource;
 /**
  * Abstract implementation of a data source that switches the database name whenever a
  * connection is provided.
+ * <p>
+ * With {@link #setTrackDatabase(boolean)}, the database of each physical connection is remembered, and the switch is
+ * skipped when a connection borrowed again from the wrapped (pooled) data source is already on the right database.
  * 
  * @author Clint Morgan (Tasktop Technologies Inc.)
  * @author Lucas Panjer (Tasktop Technologies Inc.)
@@ -23,10 +30,50 @@ public abstract class AbstractDatabaseSwitchingDataSource implements DataSource
 
     protected Language language = Language.MYSQL;
 
+    /**
+     * Current database of physical connections, with weak keys so that connections closed by the pool are collected.
+     */
+    private final Map<Connection, String> connectionDatabases = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private boolean trackDatabase;
+
+    private final LongAdder switches = new LongAdder();
+
+    private final LongAdder avoidedSwitches = new LongAdder();
+
     public void setLanguage(Language l) {
         this.language = l;
     }
 
+    /**
+     * Remember the database of each physical connection to skip the switch when it's not needed. Only enable it when
+     * this data source is the only one to change the database of connections (no <code>USE</code> or
+     * <code>SET SCHEMA</code> statement in application code), otherwise a connection could be used on a wrong database.
+     *
+     * @param trackDatabase <code>true</code> to skip redundant switches, defaults to <code>false</code>.
+     * @see #getPhysicalConnection(Connection)
+     */
+    public void setTrackDatabase(boolean trackDatabase) {
+        this.trackDatabase = trackDatabase;
+        if (!trackDatabase) {
+            connectionDatabases.clear();
+        }
+    }
+
+    /**
+     * @return number of database switches executed.
+     */
+    public long getSwitchCount() {
+        return switches.sum();
+    }
+
+    /**
+     * @return number of database switches skipped because the connection was already on the right database.
+     */
+    public long getAvoidedSwitchCount() {
+        return avoidedSwitches.sum();
+    }
+
     @Override
     public PrintWriter getLogWriter() throws SQLException {
         return wrappedDataSource.getLogWriter();
@@ -81,19 +128,48 @@ public abstract class AbstractDatabaseSwitchingDataSource implements DataSource
     protected Connection switchDatabase(Connection con) throws SQLException {
         String databaseName = getDatabaseName();
         if (databaseName != null) {
+            final Connection physicalConnection = trackDatabase ? getPhysicalConnection(con) : null;
+            if (physicalConnection != null && databaseName.equals(connectionDatabases.get(physicalConnection))) {
+                avoidedSwitches.increment();
+                return con;
+            }
             Statement s = con.createStatement();
             try {
                 s.execute(language.switchDatabase(databaseName));
             } catch (SQLException e) {
+                if (physicalConnection != null) {
+                    connectionDatabases.remove(physicalConnection);
+                }
                 con.close();
                 throw e;
             } finally {
                 s.close();
             }
+            switches.increment();
+            if (physicalConnection != null) {
+                connectionDatabases.put(physicalConnection, databaseName);
+            }
         }
         return con;
     }
 
+    /**
+     * Returns the connection used to track the current database when {@link #setTrackDatabase(boolean) enabled}: it
+     * must be the same instance each time a pooled connection is borrowed. The default implementation unwraps the
+     * connection returned by the pool (e.g. HikariCP returns a new proxy on each borrow, which unwraps to the physical
+     * connection).
+     *
+     * @param con the connection returned by the wrapped data source.
+     * @return the physical connection, or <code>null</code> to not track the database of this connection.
+     */
+    protected Connection getPhysicalConnection(Connection con) {
+        try {
+            return con.unwrap(Connection.class);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
     protected abstract String getDatabaseName();
 
     public enum Language {
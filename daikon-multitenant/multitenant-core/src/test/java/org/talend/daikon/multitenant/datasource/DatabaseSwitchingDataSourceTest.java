@@ -0,0 +1,242 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.multitenant.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DatabaseSwitchingDataSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:tenants;DB_CLOSE_DELAY=-1";
+
+    private PooledDataSource pool;
+
+    private ThreadlocalDatabaseSwitchingDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL); //
+                Statement statement = connection.createStatement()) {
+            for (String tenant : new String[] { "TENANT1", "TENANT2" }) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS " + tenant);
+                statement.execute("CREATE TABLE IF NOT EXISTS " + tenant + ".OWNER(NAME VARCHAR(20))");
+                statement.execute("DELETE FROM " + tenant + ".OWNER");
+                statement.execute("INSERT INTO " + tenant + ".OWNER VALUES ('" + tenant + "')");
+            }
+        }
+        pool = new PooledDataSource(1);
+        dataSource = new ThreadlocalDatabaseSwitchingDataSource();
+        dataSource.setWrappedDataSource(pool);
+        dataSource.setLanguage(AbstractDatabaseSwitchingDataSource.Language.HSQL);
+        dataSource.setTrackDatabase(true);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        dataSource.clearDatabaseName();
+        pool.closeAll();
+    }
+
+    @Test
+    public void shouldSkipSwitchWhenPooledConnectionIsOnTenantDatabase() throws SQLException {
+        // given
+        dataSource.setDatabaseName("TENANT1");
+
+        // when
+        final String first = queryOwner();
+        final String second = queryOwner();
+
+        // then
+        assertEquals("TENANT1", first);
+        assertEquals("TENANT1", second);
+        assertEquals(1, dataSource.getSwitchCount());
+        assertEquals(1, dataSource.getAvoidedSwitchCount());
+    }
+
+    @Test
+    public void shouldSwitchWhenPooledConnectionIsOnOtherTenantDatabase() throws SQLException {
+        // when
+        dataSource.setDatabaseName("TENANT1");
+        final String first = queryOwner();
+        dataSource.setDatabaseName("TENANT2");
+        final String second = queryOwner();
+        dataSource.setDatabaseName("TENANT1");
+        final String third = queryOwner();
+
+        // then
+        assertEquals("TENANT1", first);
+        assertEquals("TENANT2", second);
+        assertEquals("TENANT1", third);
+        assertEquals(3, dataSource.getSwitchCount());
+        assertEquals(0, dataSource.getAvoidedSwitchCount());
+    }
+
+    @Test
+    public void shouldTrackEachPooledConnection() throws SQLException {
+        // given
+        pool.closeAll();
+        pool = new PooledDataSource(2);
+        dataSource.setWrappedDataSource(pool);
+        dataSource.setDatabaseName("TENANT1");
+
+        // when
+        try (Connection connection1 = dataSource.getConnection(); Connection connection2 = dataSource.getConnection()) {
+            assertEquals("TENANT1", connection1.getSchema());
+            assertEquals("TENANT1", connection2.getSchema());
+        }
+        dataSource.setDatabaseName("TENANT2");
+        try (Connection connection1 = dataSource.getConnection(); Connection connection2 = dataSource.getConnection()) {
+            assertEquals("TENANT2", connection1.getSchema());
+            assertEquals("TENANT2", connection2.getSchema());
+        }
+        final String owner = queryOwner();
+
+        // then
+        assertEquals("TENANT2", owner);
+        assertEquals(4, dataSource.getSwitchCount());
+        assertEquals(1, dataSource.getAvoidedSwitchCount());
+    }
+
+    @Test
+    public void shouldSwitchAgainAfterFailedSwitch() throws SQLException {
+        // given
+        dataSource.setDatabaseName("TENANT1");
+        queryOwner();
+
+        // when
+        dataSource.setDatabaseName("UNKNOWN");
+        assertThrows(SQLException.class, dataSource::getConnection);
+        dataSource.setDatabaseName("TENANT1");
+        final String owner = queryOwner();
+
+        // then
+        assertEquals("TENANT1", owner);
+        assertEquals(2, dataSource.getSwitchCount());
+    }
+
+    @Test
+    public void shouldSwitchOnEachBorrowWhenNotTracked() throws SQLException {
+        // given
+        dataSource.setTrackDatabase(false);
+        dataSource.setDatabaseName("TENANT1");
+
+        // when
+        queryOwner();
+        queryOwner();
+
+        // then
+        assertEquals(2, dataSource.getSwitchCount());
+        assertEquals(0, dataSource.getAvoidedSwitchCount());
+    }
+
+    private String queryOwner() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT NAME FROM OWNER")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    /**
+     * A minimal connection pool: like usual pools, each borrow returns a new proxy that gives the physical connection
+     * back to the pool on close, and unwraps to the physical connection.
+     */
+    private static class PooledDataSource implements DataSource {
+
+        private final Deque<Connection> idle = new ArrayDeque<>();
+
+        private PooledDataSource(int size) throws SQLException {
+            for (int i = 0; i < size; i++) {
+                idle.push(DriverManager.getConnection(URL));
+            }
+        }
+
+        @Override
+        public Connection getConnection() {
+            final Connection physical = idle.pop();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "close":
+                            idle.push(physical);
+                            return null;
+                        case "unwrap":
+                            return physical;
+                        case "isWrapperFor":
+                            return true;
+                        default:
+                            try {
+                                return method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    });
+        }
+
+        private void closeAll() throws SQLException {
+            for (Connection connection : idle) {
+                connection.close();
+            }
+            idle.clear();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+            // Not used
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+            // Not used
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return null;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) {
+            return null;
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.content.journal;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Example;
 
@@ -17,6 +20,31 @@ public interface MongoResourceJournalRepository {
 
     void save(ResourceJournalEntry resourceJournalEntry);
 
+    /**
+     * Inserts the entry if it doesn't exist yet, and sets its last modification date.
+     *
+     * @param name the entry name.
+     */
+    void upsert(String name);
+
+    /**
+     * Same as {@link #upsert(String)} for all names, in a single unordered bulk write.
+     *
+     * @param names the entry names.
+     */
+    void upsertAll(Collection<String> names);
+
+    /**
+     * @return the names of all entries, streamed from the database: callers must close the stream.
+     */
+    Stream<String> findAllNames();
+
+    /**
+     * @param date the oldest last modification date.
+     * @return the names of entries upserted on or after <code>date</code>.
+     */
+    List<String> findNamesModifiedSince(Date date);
+
     ResourceJournalEntry findOne(Example<ResourceJournalEntry> of);
 
     boolean exists(String journalReadyMarker);
@@ -5,17 +5,28 @@ import static org.springframework.data.mongodb.core.query.Criteria.byExample;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 @Component
-public class MongoResourceJournalRepositoryImpl implements MongoResourceJournalRepository {
+public class MongoResourceJournalRepositoryImpl implements MongoResourceJournalRepository, InitializingBean {
+
+    private static final String LAST_MODIFIED = "lastModified";
 
     @Value("${mongo.resource.journal.collection:resourceJournalEntry}")
     private String collectionName;
@@ -23,6 +34,12 @@ public class MongoResourceJournalRepositoryImpl implements MongoResourceJournalR
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Override
+    public void afterPropertiesSet() {
+        // Makes incremental lookups by modification date cheap
+        mongoTemplate.indexOps(collectionName).ensureIndex(new Index().on(LAST_MODIFIED, Sort.Direction.ASC));
+    }
+
     @Override
     public List<ResourceJournalEntry> findByNameStartsWith(String name) {
         Query findByName = query(where("name").regex("^" + name));
@@ -52,6 +69,43 @@ public class MongoResourceJournalRepositoryImpl implements MongoResourceJournalR
         mongoTemplate.insert(resourceJournalEntry, collectionName);
     }
 
+    @Override
+    public void upsert(String name) {
+        mongoTemplate.upsert(query(where("name").is(name)), new Update().set(LAST_MODIFIED, new Date()),
+                ResourceJournalEntry.class, collectionName);
+    }
+
+    @Override
+    public void upsertAll(Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        final Date now = new Date();
+        final BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                ResourceJournalEntry.class, collectionName);
+        for (String name : names) {
+            bulkOperations.upsert(query(where("name").is(name)), new Update().set(LAST_MODIFIED, now));
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public Stream<String> findAllNames() {
+        final Query findAll = new Query();
+        findAll.fields().include("name");
+        return mongoTemplate.stream(findAll, ResourceJournalEntry.class, collectionName)
+                .map(ResourceJournalEntry::getName);
+    }
+
+    @Override
+    public List<String> findNamesModifiedSince(Date date) {
+        final Query findModified = query(where(LAST_MODIFIED).gte(date));
+        findModified.fields().include("name");
+        return mongoTemplate.find(findModified, ResourceJournalEntry.class, collectionName).stream()
+                .map(ResourceJournalEntry::getName) //
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ResourceJournalEntry findOne(Example<ResourceJournalEntry> example) {
         Query findOne = query(byExample(example));
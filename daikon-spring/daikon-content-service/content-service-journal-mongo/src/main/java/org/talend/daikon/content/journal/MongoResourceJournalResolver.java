@@ -2,12 +2,20 @@
 package org.talend.daikon.content.journal;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Example;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.stereotype.Component;
@@ -20,6 +28,12 @@ import io.micrometer.core.annotation.Timed;
 
 /**
  * An implementation of {@link ResourceJournal} that uses a MongoDB database as backend.
+ * <p>
+ * {@link #matches(String)} and {@link #exist(String)} are answered from a local index of the journal entries. Writes
+ * of this journal are applied to both the database and the index, and entries written by other processes are merged
+ * in the index at most every <code>mongo.resource.journal.index.refresh-ms</code>. As entries removed by other
+ * processes are only noticed when the whole index is reloaded, it is reloaded every
+ * <code>mongo.resource.journal.index.reload-ms</code>, and before each {@link #sync()}.
  */
 @Component
 @EnableMongoRepositories
@@ -29,6 +43,12 @@ public class MongoResourceJournalResolver implements ResourceJournal {
 
     static final String JOURNAL_READY_MARKER = ".journal.ready";
 
+    /**
+     * How far before the last index refresh to look for entries written by other processes, to cope with clock drift
+     * between processes.
+     */
+    private static final long CLOCK_DRIFT_MS = 30000L;
+
     /**
      * Spring MongoDB template.
      */
@@ -40,6 +60,24 @@ public class MongoResourceJournalResolver implements ResourceJournal {
      */
     private ResourceResolver resourceResolver;
 
+    /**
+     * Max number of entries written to the database at once during {@link #sync()}.
+     */
+    @Value("${mongo.resource.journal.bulk-size:1000}")
+    private int bulkSize = 1000;
+
+    @Value("${mongo.resource.journal.index.refresh-ms:5000}")
+    private long indexRefreshMs = 5000L;
+
+    @Value("${mongo.resource.journal.index.reload-ms:600000}")
+    private long indexReloadMs = 600000L;
+
+    private final ResourceJournalIndex index = new ResourceJournalIndex();
+
+    private final Lock indexLock = new ReentrantLock();
+
+    private volatile long indexLoadedAt;
+
     @Timed
     @Override
     public void sync() {
@@ -51,13 +89,24 @@ public class MongoResourceJournalResolver implements ResourceJournal {
         try {
             LOGGER.info("Running initial sync...");
             final DeletableResource[] resources = resourceResolver.getResources("/**");
+            reload();
+            final List<String> bulk = new ArrayList<>(bulkSize);
             for (int i = 0; i < resources.length; i++) {
+                final String location = resources[i].getAbsolutePath();
+                if (StringUtils.isEmpty(location)) {
+                    continue;
+                }
                 // removing prefix from absolute path
-                add(resources[i].getAbsolutePath());
-                if (i % 500 == 0) {
-                    LOGGER.info("Sync in progress ({}/{})", i, resources.length);
+                final String savedLocation = updateLocationToAbsolutePath(removePrefixFromResourceName(location));
+                if (index.add(savedLocation)) {
+                    bulk.add(savedLocation);
+                }
+                if (bulk.size() >= bulkSize) {
+                    upsertAll(bulk);
+                    LOGGER.info("Sync in progress ({}/{})", i + 1, resources.length);
                 }
             }
+            upsertAll(bulk);
             validate();
             LOGGER.info("Initial sync done.");
         } catch (IOException e) {
@@ -66,6 +115,67 @@ public class MongoResourceJournalResolver implements ResourceJournal {
         }
     }
 
+    private void upsertAll(List<String> locations) {
+        try {
+            repository.upsertAll(locations);
+        } catch (RuntimeException e) {
+            locations.forEach(index::remove);
+            throw e;
+        }
+        locations.clear();
+    }
+
+    /**
+     * Reloads the local index of the journal with all the entries of the database. Entries removed from the database
+     * by other processes are only removed from the index by a reload.
+     */
+    public void reload() {
+        indexLock.lock();
+        try {
+            reloadIndex(System.currentTimeMillis());
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void reloadIndex(long now) {
+        try (Stream<String> names = repository.findAllNames()) {
+            index.load(names, now);
+        }
+        indexLoadedAt = now;
+        LOGGER.debug("Journal index loaded ({} entries).", index.size());
+    }
+
+    /**
+     * @return the local index of the journal, loaded on first call, then refreshed when it gets too old.
+     */
+    private ResourceJournalIndex index() {
+        final long now = System.currentTimeMillis();
+        if (!index.isLoaded()) {
+            indexLock.lock();
+            try {
+                if (!index.isLoaded()) {
+                    reloadIndex(now);
+                }
+            } finally {
+                indexLock.unlock();
+            }
+        } else if (now - index.getRefreshedAt() >= indexRefreshMs && indexLock.tryLock()) {
+            // Other threads keep using the current index during the refresh
+            try {
+                final long refreshedAt = index.getRefreshedAt();
+                if (now - indexLoadedAt >= indexReloadMs) {
+                    reloadIndex(now);
+                } else if (now - refreshedAt >= indexRefreshMs) {
+                    index.merge(repository.findNamesModifiedSince(new Date(refreshedAt - CLOCK_DRIFT_MS)), now);
+                }
+            } finally {
+                indexLock.unlock();
+            }
+        }
+        return index;
+    }
+
     /**
      * Removing prefix from resourceName
      *
@@ -113,7 +223,8 @@ public class MongoResourceJournalResolver implements ResourceJournal {
         }
 
         String patternForMatch = formattingStringToMongoPattern(removePrefixFromResourceName(pattern));
-        return repository.findByNameStartsWith(patternForMatch).stream().map(ResourceJournalEntry::getName);
+        // Collected to give a stable snapshot to callers
+        return index().startingWith(patternForMatch).collect(Collectors.toList()).stream();
     }
 
     @Timed
@@ -121,6 +232,9 @@ public class MongoResourceJournalResolver implements ResourceJournal {
     public void clear(String pattern) {
         String patternForClear = formattingStringToMongoPattern(removePrefixFromResourceName(pattern));
         repository.deleteByNameStartsWith(patternForClear);
+        // Same matching as the database
+        final Pattern regex = Pattern.compile(patternForClear);
+        index().removeIf(name -> regex.matcher(name).find());
         LOGGER.debug("Cleared location '{}'.", patternForClear);
     }
 
@@ -131,8 +245,16 @@ public class MongoResourceJournalResolver implements ResourceJournal {
             return;
         }
         String savedLocation = updateLocationToAbsolutePath(removePrefixFromResourceName(location));
-        if (!exist(savedLocation)) {
-            repository.save(new ResourceJournalEntry(savedLocation));
+        // Repeated additions of a location only write it once
+        if (!index().add(savedLocation)) {
+            LOGGER.debug("Location '{}' already in journal.", savedLocation);
+            return;
+        }
+        try {
+            repository.upsert(savedLocation);
+        } catch (RuntimeException e) {
+            index.remove(savedLocation);
+            throw e;
         }
         LOGGER.debug("Location '{}' added to journal.", savedLocation);
     }
@@ -140,7 +262,9 @@ public class MongoResourceJournalResolver implements ResourceJournal {
     @Timed
     @Override
     public void remove(String location) {
-        repository.deleteByName(removePrefixFromResourceName(location));
+        final String removedLocation = removePrefixFromResourceName(location);
+        repository.deleteByName(removedLocation);
+        index().remove(removedLocation);
         LOGGER.debug("Location '{}' removed from journal.", location);
     }
 
@@ -153,9 +277,11 @@ public class MongoResourceJournalResolver implements ResourceJournal {
         ResourceJournalEntry dbResourceJournalEntry = repository
                 .findOne(Example.of(new ResourceJournalEntry(sourceWithoutPrefix)));
         if (dbResourceJournalEntry != null) {
-            dbResourceJournalEntry.setName(targetWithoutPrefix);
-            repository.save(dbResourceJournalEntry);
+            repository.upsert(targetWithoutPrefix);
             repository.deleteByName(sourceWithoutPrefix);
+            final ResourceJournalIndex currentIndex = index();
+            currentIndex.add(targetWithoutPrefix);
+            currentIndex.remove(sourceWithoutPrefix);
             LOGGER.debug("Move from '{}' to '{}' recorded in journal.", sourceWithoutPrefix, targetWithoutPrefix);
         } else {
             LOGGER.warn("Unable to move '{}' to '{}' (not found in journal)", sourceWithoutPrefix, targetWithoutPrefix);
@@ -166,7 +292,7 @@ public class MongoResourceJournalResolver implements ResourceJournal {
     @Override
     public boolean exist(String location) {
         String savedLocation = updateLocationToAbsolutePath(removePrefixFromResourceName(location));
-        final boolean exist = repository.countByName(savedLocation) > 0L;
+        final boolean exist = index().contains(savedLocation);
         LOGGER.debug("Location check on '{}': {}", location, exist);
         return exist;
     }
@@ -1,6 +1,8 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.content.journal;
 
+import java.util.Date;
+
 import org.springframework.data.annotation.Id;
 
 /**
@@ -11,6 +13,11 @@ public class ResourceJournalEntry {
     @Id
     private String name;
 
+    /**
+     * Date of the last upsert of this entry, <code>null</code> for entries saved by former versions.
+     */
+    private Date lastModified;
+
     public ResourceJournalEntry(String name) {
         this.name = name;
     }
@@ -22,4 +29,12 @@ public class ResourceJournalEntry {
     public void setName(String name) {
         this.name = name;
     }
-}
\ No newline at end of file
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.content.journal;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Local sorted copy of the entry names of a journal, so prefix lookups and existence checks don't need a round trip to
+ * the database.
+ * <p>
+ * The index is loaded once with all names, then kept up to date with the names written by this process, and merged
+ * with the names written by other processes (see {@link #merge(Collection, long)}).
+ */
+class ResourceJournalIndex {
+
+    private volatile NavigableSet<String> names = new ConcurrentSkipListSet<>();
+
+    private volatile boolean loaded;
+
+    private volatile long refreshedAt;
+
+    /**
+     * Replaces the content of the index.
+     *
+     * @param allNames all the names of the journal.
+     * @param at time (in ms) of the beginning of the load.
+     */
+    void load(Stream<String> allNames, long at) {
+        final NavigableSet<String> loadedNames = new ConcurrentSkipListSet<>();
+        allNames.forEach(loadedNames::add);
+        names = loadedNames;
+        refreshedAt = at;
+        loaded = true;
+    }
+
+    /**
+     * Adds names written since last refresh.
+     *
+     * @param modifiedNames names written since last refresh.
+     * @param at time (in ms) of the beginning of the refresh.
+     */
+    void merge(Collection<String> modifiedNames, long at) {
+        names.addAll(modifiedNames);
+        refreshedAt = at;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    long getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    /**
+     * @return <code>true</code> if the name was not indexed yet.
+     */
+    boolean add(String name) {
+        return names.add(name);
+    }
+
+    boolean remove(String name) {
+        return names.remove(name);
+    }
+
+    void removeIf(Predicate<String> filter) {
+        names.removeIf(filter);
+    }
+
+    boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * @return names starting with <code>prefix</code>, in natural order.
+     */
+    Stream<String> startingWith(String prefix) {
+        return names.tailSet(prefix, true).stream().takeWhile(name -> name.startsWith(prefix));
+    }
+
+    int size() {
+        return names.size();
+    }
+}
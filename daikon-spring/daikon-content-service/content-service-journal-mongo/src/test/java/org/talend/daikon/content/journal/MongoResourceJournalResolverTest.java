@@ -7,7 +7,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -28,8 +31,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.talend.daikon.content.DeletableResource;
@@ -53,7 +58,7 @@ public class MongoResourceJournalResolverTest extends MongoDBConfiguration {
     /**
      * Spring MongoDB template.
      */
-    @Autowired
+    @SpyBean
     private MongoResourceJournalRepository repository;
 
     @Autowired
@@ -79,6 +84,7 @@ public class MongoResourceJournalResolverTest extends MongoDBConfiguration {
         resolver.setResourceResolver(resourceResolver);
 
         mongoTemplate.remove(new Query(), ResourceJournalEntry.class, collectionName);
+        resolver.reload();
         resolver.add("notlocation1.1");
         resolver.add("location1.1");
         resolver.add("location1.2");
@@ -87,6 +93,7 @@ public class MongoResourceJournalResolverTest extends MongoDBConfiguration {
         resolver.add("location2.2");
 
         Mockito.reset(resourceResolver);
+        clearInvocations(repository);
     }
 
     @AfterEach
@@ -346,6 +353,78 @@ public class MongoResourceJournalResolverTest extends MongoDBConfiguration {
         verify(resourceResolver, never()).getResources(eq("/**"));
     }
 
+    @Test
+    public void shouldSyncWithBulkWrites() throws IOException {
+        // Given
+        final DeletableResource[] resources = new DeletableResource[2500];
+        for (int i = 0; i < resources.length; i++) {
+            resources[i] = mock(DeletableResource.class);
+            when(resources[i].getAbsolutePath()).thenReturn("/bulk/resource" + i);
+        }
+        // already in journal
+        when(resources[0].getAbsolutePath()).thenReturn("/location1.1");
+        when(resourceResolver.getResources(any())).thenReturn(resources);
+        when(resourceResolver.getLocationPrefix()).thenReturn("");
+        final long nbLocation = countRecord();
+
+        // When
+        resolver.sync();
+
+        // Then
+        verify(repository, times(3)).upsertAll(anyCollection());
+        verify(repository, never()).upsert(anyString());
+        verify(repository, never()).countByName(anyString());
+        assertEquals(nbLocation + resources.length, countRecord()); // 2499 resources and the ready marker
+        assertEquals(resources.length - 1, resolver.matches("/bulk/*").count());
+        assertTrue(resolver.exist("/bulk/resource2499"));
+    }
+
+    @Test
+    public void shouldCoalesceRepeatedAdd() {
+        // When
+        resolver.add("location4.0");
+        resolver.add("location4.0");
+        resolver.add("/location4.0");
+        resolver.add("location1.1");
+
+        // Then
+        verify(repository, times(1)).upsert(eq("/location4.0"));
+        verify(repository, never()).upsert(eq("/location1.1"));
+        assertEquals(1L, repository.countByName("/location4.0"));
+    }
+
+    @Test
+    public void shouldMatchFromIndexWithoutQueries() {
+        // When
+        final List<String> listLocation = resolver.matches("/location2*").collect(Collectors.toList());
+        final boolean exist = resolver.exist("/location2.1");
+
+        // Then
+        assertEquals(List.of("/location2.1", "/location2.2"), listLocation);
+        assertTrue(exist);
+        verify(repository, never()).findByNameStartsWith(anyString());
+        verify(repository, never()).countByName(anyString());
+    }
+
+    @Test
+    public void shouldMergeEntriesWrittenByOthers() {
+        // Given
+        repository.upsert("/location5.0");
+        mongoTemplate.remove(Query.query(Criteria.where("name").is("/location2.2")), ResourceJournalEntry.class,
+                collectionName);
+
+        // When
+        final boolean added = resolver.exist("/location5.0");
+        final boolean removedBeforeReload = resolver.exist("/location2.2");
+        resolver.reload();
+        final boolean removedAfterReload = resolver.exist("/location2.2");
+
+        // Then
+        assertTrue(added);
+        assertTrue(removedBeforeReload);
+        assertFalse(removedAfterReload);
+    }
+
     @Test
     public void shouldMatchIgnoringAbsolutePath() {
         // When
@@ -0,0 +1,77 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.content.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class ResourceJournalIndexTest {
+
+    private final ResourceJournalIndex index = new ResourceJournalIndex();
+
+    @Test
+    public void shouldListNamesStartingWithPrefix() {
+        // given
+        index.load(Stream.of("/b/2", "/a/1", "/a", "/b/1", "/ab", "/a/2/3"), 1L);
+
+        // when
+        final List<String> names = index.startingWith("/a/").collect(Collectors.toList());
+
+        // then
+        assertEquals(List.of("/a/1", "/a/2/3"), names);
+        assertEquals(6, index.startingWith("").count());
+        assertEquals(0, index.startingWith("/c").count());
+    }
+
+    @Test
+    public void shouldAddNamesOnlyOnce() {
+        // given
+        index.load(Stream.of("/a"), 1L);
+
+        // when
+        final boolean first = index.add("/b");
+        final boolean second = index.add("/b");
+        final boolean existing = index.add("/a");
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(existing);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void shouldReplaceNamesOnLoad() {
+        // given
+        index.load(Stream.of("/a", "/b"), 1L);
+
+        // when
+        index.load(Stream.of("/c"), 2L);
+
+        // then
+        assertTrue(index.isLoaded());
+        assertFalse(index.contains("/a"));
+        assertTrue(index.contains("/c"));
+        assertEquals(2L, index.getRefreshedAt());
+    }
+
+    @Test
+    public void shouldMergeModifiedNames() {
+        // given
+        index.load(Stream.of("/a"), 1L);
+
+        // when
+        index.merge(List.of("/a", "/b"), 2L);
+        index.removeIf(name -> name.startsWith("/a"));
+
+        // then
+        assertEquals(List.of("/b"), index.startingWith("/").collect(Collectors.toList()));
+        assertEquals(2L, index.getRefreshedAt());
+    }
+}
@@ -46,7 +46,9 @@ class JournalizedDeletableResource implements DeletableResource {
 
     @Override
     public OutputStream getOutputStream() throws IOException {
-        return resource.getOutputStream();
+        final OutputStream outputStream = resource.getOutputStream();
+        resourceJournal.add(location);
+        return outputStream;
     }
 
     @Override
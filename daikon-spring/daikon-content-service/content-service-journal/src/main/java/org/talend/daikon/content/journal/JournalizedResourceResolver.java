@@ -49,8 +49,8 @@ public class JournalizedResourceResolver implements ResourceResolver {
     @Timed
     @Override
     public DeletableResource getResource(String location) {
+        // Journal is updated when the resource gets written, not each time it's resolved
         final DeletableResource resource = delegate.getResource(location);
-        resourceJournal.add(location);
         return new JournalizedDeletableResource(location, resource, resourceJournal);
     }
 
@@ -34,15 +34,29 @@ public class JournalizedResourceResolverTest {
     private ResourceResolver delegate;
 
     @Test
-    public void shouldAddToRepository() {
+    public void shouldAddToRepository() throws IOException {
+        // given
+        when(delegate.getResource(eq("myResource.txt"))).thenReturn(mock(DeletableResource.class));
+
         // when
-        journalizedResourceResolver.getResource("myResource.txt");
+        journalizedResourceResolver.getResource("myResource.txt").getOutputStream();
 
         // then
         verify(delegate, times(1)).getResource(eq("myResource.txt"));
         verify(resourceJournal, times(1)).add(eq("myResource.txt"));
     }
 
+    @Test
+    public void shouldNotAddToRepositoryWhenOnlyResolved() {
+        // when
+        journalizedResourceResolver.getResource("myResource.txt");
+        journalizedResourceResolver.getResource("myResource.txt");
+
+        // then
+        verify(delegate, times(2)).getResource(eq("myResource.txt"));
+        verify(resourceJournal, never()).add(anyString());
+    }
+
     @Test
     public void shouldListUsingRepository() throws IOException {
         // given
@@ -3,6 +3,7 @@ package org.talend.daikon.spring.auth.config;
 
 import static org.talend.daikon.spring.auth.config.RedisCacheConfig.wrapRedisCacheWithExceptionHandler;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +45,8 @@ import org.talend.daikon.spring.auth.multitenant.UserDetailsTenantProvider;
 import org.talend.daikon.spring.auth.provider.Auth0AuthenticationProvider;
 import org.talend.daikon.spring.auth.provider.SatAuthenticationProvider;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -68,6 +71,12 @@ public class AuthAutoConfiguration {
     @Value("${spring.security.oauth2.resourceserver.iam.opaque-token.cache-enabled:false}")
     private boolean patIntrospectionCacheEnabled;
 
+    @Value("${spring.security.oauth2.resourceserver.iam.opaque-token.cache-redis-ttl:2m}")
+    private Duration patIntrospectionCacheTtl;
+
+    @Value("${spring.security.oauth2.resourceserver.iam.opaque-token.near-cache-max-size:10000}")
+    private int patIntrospectionNearCacheMaxSize;
+
     @Bean
     public RestTemplate oauth2RestTemplate() {
         RestTemplate restTemplate = new RestTemplate();
@@ -81,7 +90,8 @@ public class AuthAutoConfiguration {
             @Qualifier("iamOauth2Properties") OAuth2ResourceServerProperties iamOauth2Properties,
             @Qualifier("auth0Oauth2Properties") OAuth2ResourceServerProperties auth0Oauth2Properties,
             UserDetailsIntrospectorFactory userDetailsIntrospectorFactory,
-            List<Auth0AuthenticationProvider> auth0AuthenticationProviders, Optional<CacheManager> cacheManager) {
+            List<Auth0AuthenticationProvider> auth0AuthenticationProviders, Optional<CacheManager> cacheManager,
+            Optional<MeterRegistry> meterRegistry) {
 
         cacheManager.ifPresent(manager -> LOGGER.info("Cache manager {} is found", manager.getClass().getName()));
 
@@ -122,8 +132,9 @@ public class AuthAutoConfiguration {
         AuthenticationManager iamJwtAuthenticationManager = AuthenticationManagerFactory
                 .iamJwtAuthenticationManager(iamOauth2Properties, jwkSetCache);
 
-        AuthenticationManager opaqueTokenAuthenticationManager = AuthenticationManagerFactory
-                .opaqueTokenAuthenticationManager(iamOauth2Properties, patIntrospectionCache, userDetailsIntrospectorFactory);
+        AuthenticationManager opaqueTokenAuthenticationManager = AuthenticationManagerFactory.opaqueTokenAuthenticationManager(
+                iamOauth2Properties, patIntrospectionCache, userDetailsIntrospectorFactory, patIntrospectionCacheTtl,
+                patIntrospectionNearCacheMaxSize, meterRegistry.orElse(Metrics.globalRegistry));
 
         return TalendAuthenticationManagerResolver.builder().auth0JwtAuthenticationManager(auth0JwtAuthenticationManager)
                 .auth0IssuerUri(auth0Oauth2Properties.getJwt().getIssuerUri())
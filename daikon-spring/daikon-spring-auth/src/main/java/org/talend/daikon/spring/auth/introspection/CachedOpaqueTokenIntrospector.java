@@ -4,52 +4,262 @@ package org.talend.daikon.spring.auth.introspection;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.talend.daikon.spring.auth.interceptor.IpAllowListHeaderInterceptor.X_FORWARDED_FOR;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimAccessor;
 import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 /**
- * Cache successful introspection response
+ * Cache successful introspection response, in two tiers: a bounded in-process near cache, in front of the shared
+ * cache (Redis by default).
+ * <p>
+ * Concurrent introspections of the same token from the same client are loaded once: the first caller looks up the
+ * shared cache then calls the delegate, the others wait for its result. Cache keys are hashes of the token and client
+ * address, so that tokens are not stored in clear in the caches.
+ * <p>
+ * The near cache keeps the least recently used principals, each one for the near cache TTL. The remaining life of
+ * shared cache entries is not known, so a principal found in the shared cache may stay in the near cache up to the near
+ * cache TTL after its shared entry expired: the near cache TTL should not exceed the shared cache TTL. A principal is
+ * never kept after the expiry of its token, when known ({@link OAuth2TokenIntrospectionClaimAccessor#getExpiresAt()}).
  */
 public class CachedOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CachedOpaqueTokenIntrospector.class);
 
+    public static final Duration DEFAULT_NEAR_CACHE_TTL = Duration.ofMinutes(2);
+
+    public static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 10_000;
+
+    private static final String CACHE_METRIC = "talend.auth.opaque.token.cache";
+
+    private static final String INTROSPECTION_METRIC = "talend.auth.opaque.token.introspection";
+
     private final OpaqueTokenIntrospector delegate;
 
     private final Cache cache;
 
+    private final Duration nearCacheTtl;
+
+    private final int nearCacheMaxSize;
+
+    /** Least recently used principals, in access order; guarded by its own lock. */
+    private final Map<String, NearCacheEntry> nearCache;
+
+    private final Map<String, CompletableFuture<OAuth2AuthenticatedPrincipal>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter nearCacheHits;
+
+    private final Counter nearCacheMisses;
+
+    private final Counter sharedCacheHits;
+
+    private final Counter sharedCacheMisses;
+
+    private final Timer introspectionTimer;
+
     public CachedOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate, Cache cache) {
+        this(delegate, cache, DEFAULT_NEAR_CACHE_TTL, DEFAULT_NEAR_CACHE_MAX_SIZE, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param nearCacheTtl how long a principal is kept in the near cache, at most the TTL of the shared cache.
+     * @param nearCacheMaxSize the maximum number of principals in the near cache, 0 to disable it.
+     * @param meterRegistry the registry of the cache hits/misses and introspection latency metrics.
+     */
+    public CachedOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate, Cache cache, Duration nearCacheTtl,
+            int nearCacheMaxSize, MeterRegistry meterRegistry) {
         if (null == delegate) {
             throw new IllegalArgumentException("Parameter delegate is required");
         }
         if (null == cache) {
             throw new IllegalArgumentException("Parameter cache is required");
         }
+        if (null == nearCacheTtl || nearCacheTtl.isNegative()) {
+            throw new IllegalArgumentException("Parameter nearCacheTtl must be a positive duration");
+        }
+        if (null == meterRegistry) {
+            throw new IllegalArgumentException("Parameter meterRegistry is required");
+        }
         this.delegate = delegate;
         this.cache = cache;
+        this.nearCacheTtl = nearCacheTtl;
+        this.nearCacheMaxSize = nearCacheMaxSize;
+        this.nearCache = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NearCacheEntry> eldest) {
+                return size() > nearCacheMaxSize;
+            }
+        };
+
+        String cacheName = String.valueOf(cache.getName());
+        this.nearCacheHits = cacheCounter(meterRegistry, cacheName, "near", "hit");
+        this.nearCacheMisses = cacheCounter(meterRegistry, cacheName, "near", "miss");
+        this.sharedCacheHits = cacheCounter(meterRegistry, cacheName, "shared", "hit");
+        this.sharedCacheMisses = cacheCounter(meterRegistry, cacheName, "shared", "miss");
+        this.introspectionTimer = Timer.builder(INTROSPECTION_METRIC).tag("cache", cacheName)
+                .description("Latency of the opaque token introspections on cache misses").register(meterRegistry);
+        Gauge.builder(CACHE_METRIC + ".size", this, CachedOpaqueTokenIntrospector::nearCacheSize).tag("cache", cacheName)
+                .tag("tier", "near")
+                .description("Number of principals in the near cache").register(meterRegistry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String cacheName, String tier, String result) {
+        return Counter.builder(CACHE_METRIC).tag("cache", cacheName).tag("tier", tier).tag("result", result)
+                .description("Opaque token introspection cache lookups").register(meterRegistry);
     }
 
     public OAuth2AuthenticatedPrincipal introspect(String token) {
-        return findInCache(token)
-                .orElseGet(() -> Optional.of(delegate.introspect(token)).map(principal -> putInCache(token, principal)).get());
+        String key = key(token);
+        OAuth2AuthenticatedPrincipal principal = findInNearCache(key);
+        if (principal != null) {
+            return principal;
+        }
+
+        CompletableFuture<OAuth2AuthenticatedPrincipal> load = new CompletableFuture<>();
+        CompletableFuture<OAuth2AuthenticatedPrincipal> existingLoad = inFlight.putIfAbsent(key, load);
+        if (existingLoad != null) {
+            LOGGER.debug("Waiting for the introspection in progress: {}", key);
+            return join(existingLoad);
+        }
+        try {
+            // The previous load may have completed between the near cache lookup and putIfAbsent
+            NearCacheEntry entry = getFromNearCache(key);
+            if (entry != null) {
+                principal = entry.principal;
+            } else {
+                principal = findInCache(key).orElseGet(() -> putInCache(key, introspectWithDelegate(token)));
+                putInNearCache(key, principal);
+            }
+            load.complete(principal);
+            return principal;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static OAuth2AuthenticatedPrincipal join(CompletableFuture<OAuth2AuthenticatedPrincipal> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // Same exception as the caller that loaded the principal, e.g. for an invalid token
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
     }
 
-    private Optional<OAuth2AuthenticatedPrincipal> findInCache(String token) {
+    private OAuth2AuthenticatedPrincipal introspectWithDelegate(String token) {
+        long start = System.nanoTime();
+        try {
+            return delegate.introspect(token);
+        } finally {
+            introspectionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private OAuth2AuthenticatedPrincipal findInNearCache(String key) {
+        if (nearCacheMaxSize <= 0) {
+            return null;
+        }
+        NearCacheEntry entry = getFromNearCache(key);
+        if (entry == null) {
+            nearCacheMisses.increment();
+            return null;
+        }
+        nearCacheHits.increment();
+        return entry.principal;
+    }
+
+    /**
+     * @return the entry of the key if it is not expired, null otherwise.
+     */
+    private NearCacheEntry getFromNearCache(String key) {
+        synchronized (nearCache) {
+            NearCacheEntry entry = nearCache.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                nearCache.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void putInNearCache(String key, OAuth2AuthenticatedPrincipal principal) {
+        if (nearCacheMaxSize <= 0 || principal == null) {
+            return;
+        }
+        Duration ttl = nearCacheTtl;
+        if (principal instanceof OAuth2TokenIntrospectionClaimAccessor) {
+            Instant tokenExpiresAt = ((OAuth2TokenIntrospectionClaimAccessor) principal).getExpiresAt();
+            if (tokenExpiresAt != null) {
+                Duration tokenTtl = Duration.between(Instant.now(), tokenExpiresAt);
+                if (tokenTtl.compareTo(ttl) < 0) {
+                    ttl = tokenTtl.isNegative() ? Duration.ZERO : tokenTtl;
+                }
+            }
+        }
+        NearCacheEntry entry = new NearCacheEntry(principal, System.nanoTime() + ttl.toNanos());
+        synchronized (nearCache) {
+            // The least recently used entry is removed when the near cache is full
+            nearCache.put(key, entry);
+        }
+    }
+
+    private int nearCacheSize() {
+        synchronized (nearCache) {
+            return nearCache.size();
+        }
+    }
+
+    /**
+     * Clears the near cache (the shared cache is not changed).
+     */
+    public void clearNearCache() {
+        synchronized (nearCache) {
+            nearCache.clear();
+        }
+    }
+
+    private Optional<OAuth2AuthenticatedPrincipal> findInCache(String key) {
         Optional<OAuth2AuthenticatedPrincipal> principal = Optional.empty();
         try {
-            String key = key(token);
             Cache.ValueWrapper valueWrapper = cache.get(key);
 
             if (null != valueWrapper) {
-                LOGGER.debug("Successfully retrieved OAuth2AuthenticatedPrincipal from cache: {}", key.hashCode());
+                LOGGER.debug("Successfully retrieved OAuth2AuthenticatedPrincipal from cache: {}", key);
                 principal = Optional.ofNullable((OAuth2AuthenticatedPrincipal) valueWrapper.get());
             } else {
                 LOGGER.debug("Key {} wasn't found in cache", key);
@@ -58,12 +268,16 @@ public class CachedOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
             LOGGER.warn("Failed to get OAuth2AuthenticatedPrincipal from cache: {}", e.getMessage(), e);
         }
 
+        if (principal.isPresent()) {
+            sharedCacheHits.increment();
+        } else {
+            sharedCacheMisses.increment();
+        }
         return principal;
     }
 
-    private OAuth2AuthenticatedPrincipal putInCache(String token, OAuth2AuthenticatedPrincipal principal) {
-        String key = key(token);
-        LOGGER.debug("Attempting to put OAuth2AuthenticatedPrincipal into cache: ({}, {})", key.hashCode(), principal);
+    private OAuth2AuthenticatedPrincipal putInCache(String key, OAuth2AuthenticatedPrincipal principal) {
+        LOGGER.debug("Attempting to put OAuth2AuthenticatedPrincipal into cache: ({}, {})", key, principal);
 
         try {
             cache.put(key, principal);
@@ -75,22 +289,49 @@ public class CachedOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
 
     /**
      * Compound cache key to restrict access only from the allowed IPs
-     * if cache-key is token alone then users from not allowed IPs will be able to login as well
+     * if cache-key is token alone then users from not allowed IPs will be able to login as well.
+     * The key is hashed so that neither the token nor the client address can be read from the cache.
      */
-    private String key(String token) {
-        return token + getXFFHeaderHash();
+    static String key(String token) {
+        String clientAddress = getClientAddress();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(token.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(clientAddress.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
-     * Instead of actual client IP we use hash of XFF header as a second part of the compound key to differentiate requests
+     * Instead of actual client IP we use XFF header as a second part of the compound key to differentiate requests
      * from different IPs
      */
-    private String getXFFHeaderHash() {
+    private static String getClientAddress() {
         return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
                 .filter(requestAttributes -> requestAttributes instanceof ServletRequestAttributes)
                 .map(requestAttributes -> ((ServletRequestAttributes) requestAttributes).getRequest())
                 .map(request -> isNotBlank(request.getHeader(X_FORWARDED_FOR)) ? request.getHeader(X_FORWARDED_FOR)
                         : request.getRemoteAddr())
-                .filter(StringUtils::isNotBlank).map(xffHeader -> xffHeader.hashCode() + "").orElse("");
+                .filter(StringUtils::isNotBlank).orElse("");
+    }
+
+    private static class NearCacheEntry {
+
+        private final OAuth2AuthenticatedPrincipal principal;
+
+        private final long expiresAtNanos;
+
+        private NearCacheEntry(OAuth2AuthenticatedPrincipal principal, long expiresAtNanos) {
+            this.principal = principal;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
     }
 }
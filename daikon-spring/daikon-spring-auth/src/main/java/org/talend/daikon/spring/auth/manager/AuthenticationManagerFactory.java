@@ -3,6 +3,7 @@ package org.talend.daikon.spring.auth.manager;
 
 import static org.springframework.util.StringUtils.hasText;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +32,9 @@ import org.talend.daikon.spring.auth.introspection.factory.UserDetailsIntrospect
 import org.talend.daikon.spring.auth.model.token.IamBearerTokenAuthentication;
 import org.talend.daikon.spring.auth.provider.Auth0AuthenticationProvider;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
 public class AuthenticationManagerFactory {
 
     // Auth0 JWT
@@ -71,6 +75,19 @@ public class AuthenticationManagerFactory {
     // PAT
     public static AuthenticationManager opaqueTokenAuthenticationManager(OAuth2ResourceServerProperties iamOauth2Properties,
             Cache patIntrospectionCache, UserDetailsIntrospectorFactory userDetailsIntrospectorFactory) {
+        return opaqueTokenAuthenticationManager(iamOauth2Properties, patIntrospectionCache, userDetailsIntrospectorFactory,
+                CachedOpaqueTokenIntrospector.DEFAULT_NEAR_CACHE_TTL, CachedOpaqueTokenIntrospector.DEFAULT_NEAR_CACHE_MAX_SIZE,
+                Metrics.globalRegistry);
+    }
+
+    /**
+     * @param nearCacheTtl how long introspected principals are kept in memory in front of the PAT introspection cache.
+     * @param nearCacheMaxSize the maximum number of principals kept in memory, 0 to only use the PAT introspection cache.
+     * @param meterRegistry the registry of the PAT introspection cache metrics.
+     */
+    public static AuthenticationManager opaqueTokenAuthenticationManager(OAuth2ResourceServerProperties iamOauth2Properties,
+            Cache patIntrospectionCache, UserDetailsIntrospectorFactory userDetailsIntrospectorFactory, Duration nearCacheTtl,
+            int nearCacheMaxSize, MeterRegistry meterRegistry) {
         if (!hasText(iamOauth2Properties.getOpaquetoken().getIntrospectionUri())) {
             throw new IllegalArgumentException("Property spring.security.oauth2.resourceserver.iam.opaque-token."
                     + "introspection-uri must be present in application properties");
@@ -88,7 +105,8 @@ public class AuthenticationManagerFactory {
         OpaqueTokenIntrospector converterIntrospector = userDetailsIntrospectorFactory.build(delegate);
 
         if (null != patIntrospectionCache) {
-            return opaqueTokenProviderManager(new CachedOpaqueTokenIntrospector(converterIntrospector, patIntrospectionCache));
+            return opaqueTokenProviderManager(new CachedOpaqueTokenIntrospector(converterIntrospector, patIntrospectionCache,
+                    nearCacheTtl, nearCacheMaxSize, meterRegistry));
         } else {
             return opaqueTokenProviderManager(converterIntrospector);
         }
@@ -9,12 +9,24 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.talend.daikon.spring.auth.interceptor.IpAllowListHeaderInterceptor.X_FORWARDED_FOR;
+import static org.talend.daikon.spring.auth.introspection.CachedOpaqueTokenIntrospector.key;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,11 +35,15 @@ import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.OAuth2IntrospectionAuthenticatedPrincipal;
 import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.talend.daikon.spring.auth.common.model.userdetails.AuthUserDetails;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,25 +57,33 @@ public class CachedOpaqueTokenIntrospectorTest {
     @Mock
     private OpaqueTokenIntrospector delegate;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private CachedOpaqueTokenIntrospector introspector;
 
     @BeforeEach
     public void setUp() {
         RequestContextHolder.setRequestAttributes(null);
+        meterRegistry = new SimpleMeterRegistry();
+        introspector = new CachedOpaqueTokenIntrospector(delegate, cache, Duration.ofMinutes(2), 100, meterRegistry);
     }
 
     @Test
     public void nullParametersNotAcceptedByConstructor() {
         Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedOpaqueTokenIntrospector(null, cache));
         Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedOpaqueTokenIntrospector(delegate, null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CachedOpaqueTokenIntrospector(delegate, cache, null, 100, meterRegistry));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CachedOpaqueTokenIntrospector(delegate, cache, Duration.ofMinutes(2), 100, null));
     }
 
     @Test
     public void concurrentMapCache() {
         // given
         ConcurrentMapCache concurrentMapCache = Mockito.spy(new ConcurrentMapCache("name"));
-        introspector = new CachedOpaqueTokenIntrospector(delegate, concurrentMapCache);
+        introspector = new CachedOpaqueTokenIntrospector(delegate, concurrentMapCache, Duration.ofMinutes(2), 0, meterRegistry);
+        String key = CachedOpaqueTokenIntrospector.key(TOKEN);
 
         AuthUserDetails expected = new AuthUserDetails("username", "password", singletonList(new SimpleGrantedAuthority("test")));
         expected.setEmail("email@test.com");
@@ -69,14 +93,14 @@ public class CachedOpaqueTokenIntrospectorTest {
 
         // when
         AuthUserDetails resultFromDelegate = (AuthUserDetails) introspector.introspect(TOKEN);
-        verify(concurrentMapCache, times(1)).get(TOKEN);
+        verify(concurrentMapCache, times(1)).get(key);
         verify(delegate, times(1)).introspect(TOKEN);
-        verify(concurrentMapCache, times(1)).put(TOKEN, expected);
+        verify(concurrentMapCache, times(1)).put(key, expected);
 
         AuthUserDetails resultFromCache = (AuthUserDetails) introspector.introspect(TOKEN);
-        verify(concurrentMapCache, times(2)).get(TOKEN); // retrieved from cache
+        verify(concurrentMapCache, times(2)).get(key); // retrieved from cache
         verify(delegate, times(1)).introspect(TOKEN); // still one
-        verify(concurrentMapCache, times(1)).put(TOKEN, expected); // still one
+        verify(concurrentMapCache, times(1)).put(key, expected); // still one
 
         // then
         Assertions.assertNotNull(resultFromDelegate);
@@ -95,13 +119,13 @@ public class CachedOpaqueTokenIntrospectorTest {
     public void retrieveFromCache() {
         // given
         OAuth2AuthenticatedPrincipal expected = mock(OAuth2AuthenticatedPrincipal.class);
-        when(cache.get(TOKEN)).thenReturn(new SimpleValueWrapper(expected));
+        when(cache.get(key(TOKEN))).thenReturn(new SimpleValueWrapper(expected));
 
         // when
         OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
 
         // then
-        verify(cache, times(1)).get(TOKEN);
+        verify(cache, times(1)).get(key(TOKEN));
         verify(delegate, times(0)).introspect(TOKEN);
 
         Assertions.assertNotNull(principal);
@@ -118,7 +142,7 @@ public class CachedOpaqueTokenIntrospectorTest {
         OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
 
         // then
-        verify(cache, times(1)).get(TOKEN);
+        verify(cache, times(1)).get(key(TOKEN));
         verify(delegate, times(1)).introspect(TOKEN);
 
         Assertions.assertNotNull(principal);
@@ -135,7 +159,7 @@ public class CachedOpaqueTokenIntrospectorTest {
         OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
 
         // then
-        verify(cache, times(1)).put(TOKEN, principal);
+        verify(cache, times(1)).put(key(TOKEN), principal);
     }
 
     @Test
@@ -149,9 +173,9 @@ public class CachedOpaqueTokenIntrospectorTest {
         OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
 
         // then
-        verify(cache, times(1)).get(TOKEN);
+        verify(cache, times(1)).get(key(TOKEN));
         verify(delegate, times(1)).introspect(TOKEN);
-        verify(cache, times(1)).put(TOKEN, expected);
+        verify(cache, times(1)).put(key(TOKEN), expected);
 
         Assertions.assertNotNull(principal);
         Assertions.assertSame(expected, principal);
@@ -168,7 +192,7 @@ public class CachedOpaqueTokenIntrospectorTest {
         OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
 
         // then
-        verify(cache, times(1)).get(TOKEN);
+        verify(cache, times(1)).get(key(TOKEN));
         verify(delegate, times(1)).introspect(TOKEN);
 
         Assertions.assertNotNull(principal);
@@ -184,16 +208,19 @@ public class CachedOpaqueTokenIntrospectorTest {
         // when
         mockXFFHeader("1.1.1.1");
         OAuth2AuthenticatedPrincipal firstResult = introspector.introspect(TOKEN);
+        String firstKey = key(TOKEN);
 
         mockXFFHeader("2.2.2.2");
         OAuth2AuthenticatedPrincipal secondResult = introspector.introspect(TOKEN);
+        String secondKey = key(TOKEN);
 
         // then
-        verify(cache, times(1)).get(TOKEN + "1.1.1.1".hashCode());
-        verify(cache, times(1)).get(TOKEN + "2.2.2.2".hashCode());
+        Assertions.assertNotEquals(firstKey, secondKey);
+        verify(cache, times(1)).get(firstKey);
+        verify(cache, times(1)).get(secondKey);
         verify(delegate, times(2)).introspect(TOKEN);
-        verify(cache, times(1)).put(TOKEN + "1.1.1.1".hashCode(), expected);
-        verify(cache, times(1)).put(TOKEN + "2.2.2.2".hashCode(), expected);
+        verify(cache, times(1)).put(firstKey, expected);
+        verify(cache, times(1)).put(secondKey, expected);
 
         Assertions.assertNotNull(firstResult);
         Assertions.assertNotNull(secondResult);
@@ -204,6 +231,248 @@ public class CachedOpaqueTokenIntrospectorTest {
         RequestContextHolder.setRequestAttributes(null);
     }
 
+    @Test
+    public void keyIsHashed() {
+        // when
+        String key = key(TOKEN);
+        String sameKey = key(TOKEN);
+        mockXFFHeader("1.1.1.1");
+        String keyWithXFF = key(TOKEN);
+
+        // then
+        Assertions.assertFalse(key.contains(TOKEN));
+        Assertions.assertEquals(43, key.length()); // SHA-256, base64
+        Assertions.assertEquals(key, sameKey);
+        Assertions.assertNotEquals(key, key("other-token"));
+        Assertions.assertNotEquals(key, keyWithXFF);
+
+        // clean up
+        RequestContextHolder.setRequestAttributes(null);
+    }
+
+    @Test
+    public void retrieveFromNearCache() {
+        // given
+        OAuth2AuthenticatedPrincipal expected = mock(OAuth2AuthenticatedPrincipal.class);
+        when(delegate.introspect(TOKEN)).thenReturn(expected);
+
+        // when
+        OAuth2AuthenticatedPrincipal first = introspector.introspect(TOKEN);
+        OAuth2AuthenticatedPrincipal second = introspector.introspect(TOKEN);
+
+        // then
+        verify(cache, times(1)).get(key(TOKEN));
+        verify(cache, times(1)).put(key(TOKEN), expected);
+        verify(delegate, times(1)).introspect(TOKEN);
+        Assertions.assertSame(expected, first);
+        Assertions.assertSame(expected, second);
+        Assertions.assertEquals(1, cacheCount("near", "hit"));
+        Assertions.assertEquals(1, cacheCount("near", "miss"));
+        Assertions.assertEquals(0, cacheCount("shared", "hit"));
+        Assertions.assertEquals(1, cacheCount("shared", "miss"));
+        Assertions.assertEquals(1, meterRegistry.get("talend.auth.opaque.token.introspection").timer().count());
+    }
+
+    @Test
+    public void nearCacheEntriesExpire() {
+        // given
+        ConcurrentMapCache sharedCache = new ConcurrentMapCache("name");
+        introspector = new CachedOpaqueTokenIntrospector(delegate, sharedCache, Duration.ofNanos(1), 100, meterRegistry);
+        OAuth2AuthenticatedPrincipal expected = mock(OAuth2AuthenticatedPrincipal.class);
+        when(delegate.introspect(TOKEN)).thenReturn(expected);
+
+        // when
+        introspector.introspect(TOKEN);
+        OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
+
+        // then
+        verify(delegate, times(1)).introspect(TOKEN);
+        Assertions.assertSame(expected, principal);
+        Assertions.assertEquals(0, cacheCount("near", "hit"));
+        Assertions.assertEquals(1, cacheCount("shared", "hit"));
+    }
+
+    @Test
+    public void nearCacheIsBounded() {
+        // given
+        introspector = new CachedOpaqueTokenIntrospector(delegate, new ConcurrentMapCache("name"), Duration.ofMinutes(2), 2,
+                meterRegistry);
+        when(delegate.introspect(any())).thenAnswer(invocation -> mock(OAuth2AuthenticatedPrincipal.class));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            introspector.introspect(TOKEN + i);
+        }
+
+        // then
+        Assertions.assertEquals(2, meterRegistry.get("talend.auth.opaque.token.cache.size").tag("cache", "name").gauge().value());
+    }
+
+    @Test
+    public void concurrentIntrospectionsAreLoadedOnce() throws Exception {
+        // given
+        OAuth2AuthenticatedPrincipal expected = mock(OAuth2AuthenticatedPrincipal.class);
+        AtomicInteger delegateCalls = new AtomicInteger();
+        OpaqueTokenIntrospector slowDelegate = token -> {
+            delegateCalls.incrementAndGet();
+            sleep(100);
+            return expected;
+        };
+        introspector = new CachedOpaqueTokenIntrospector(slowDelegate, new ConcurrentMapCache("name"), Duration.ofMinutes(2),
+                100, meterRegistry);
+
+        // when
+        List<OAuth2AuthenticatedPrincipal> results = introspectConcurrently(500);
+
+        // then
+        Assertions.assertEquals(1, delegateCalls.get());
+        Assertions.assertEquals(500, results.size());
+        results.forEach(principal -> Assertions.assertSame(expected, principal));
+    }
+
+    @Test
+    public void concurrentIntrospectionsShareFailure() throws Exception {
+        // given
+        int requests = 50;
+        AtomicInteger delegateCalls = new AtomicInteger();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> callers = new ArrayList<>();
+        ConcurrentMapCache sharedCache = new ConcurrentMapCache("name");
+        OpaqueTokenIntrospector failingDelegate = token -> {
+            delegateCalls.incrementAndGet();
+            // Fail only once all the other callers wait for this introspection
+            awaitWaiting(callers, started, requests);
+            throw new BadOpaqueTokenException("Provided token isn't active");
+        };
+        introspector = new CachedOpaqueTokenIntrospector(failingDelegate, sharedCache, Duration.ofMinutes(2), 100,
+                meterRegistry);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < requests; i++) {
+            callers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                started.incrementAndGet();
+                try {
+                    introspector.introspect(TOKEN);
+                } catch (BadOpaqueTokenException e) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+
+        // when
+        callers.forEach(Thread::start);
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // then
+        Assertions.assertEquals(1, delegateCalls.get());
+        Assertions.assertEquals(requests, failures.get());
+        Assertions.assertNull(sharedCache.get(key(TOKEN)));
+    }
+
+    @Test
+    public void nearCacheEvictsLeastRecentlyUsed() {
+        // given
+        introspector = new CachedOpaqueTokenIntrospector(delegate, cache, Duration.ofMinutes(2), 2, meterRegistry);
+        when(delegate.introspect(any())).thenAnswer(invocation -> mock(OAuth2AuthenticatedPrincipal.class));
+
+        // when
+        introspector.introspect("a");
+        introspector.introspect("b");
+        introspector.introspect("a");
+        introspector.introspect("c");
+        introspector.introspect("a");
+        introspector.introspect("b");
+
+        // then
+        verify(delegate, times(1)).introspect("a");
+        verify(delegate, times(2)).introspect("b");
+        verify(delegate, times(1)).introspect("c");
+        Assertions.assertEquals(2, cacheCount("near", "hit"));
+    }
+
+    @Test
+    public void nearCacheEntriesExpireWithToken() {
+        // given
+        OAuth2AuthenticatedPrincipal expected = new OAuth2IntrospectionAuthenticatedPrincipal(
+                Map.of(OAuth2TokenIntrospectionClaimNames.EXP, Instant.now()), singletonList(new SimpleGrantedAuthority("test")));
+        when(delegate.introspect(TOKEN)).thenReturn(expected);
+
+        // when
+        introspector.introspect(TOKEN);
+        OAuth2AuthenticatedPrincipal principal = introspector.introspect(TOKEN);
+
+        // then
+        verify(delegate, times(2)).introspect(TOKEN);
+        Assertions.assertSame(expected, principal);
+        Assertions.assertEquals(0, cacheCount("near", "hit"));
+    }
+
+    /**
+     * Waits until all the callers started, and all but the current one are blocked.
+     */
+    private static void awaitWaiting(List<Thread> callers, AtomicInteger started, int requests) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            boolean allWaiting = started.get() == requests && callers.stream()
+                    .filter(caller -> caller != Thread.currentThread())
+                    .allMatch(caller -> caller.getState() == Thread.State.WAITING);
+            if (allWaiting) {
+                return;
+            }
+            sleep(1);
+        }
+        throw new IllegalStateException("Callers don't wait for the introspection in progress");
+    }
+
+    /**
+     * @return the principals, or null for the failed introspections.
+     */
+    private List<OAuth2AuthenticatedPrincipal> introspectConcurrently(int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(100);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<OAuth2AuthenticatedPrincipal>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return introspector.introspect(TOKEN);
+                    } catch (BadOpaqueTokenException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            List<OAuth2AuthenticatedPrincipal> results = new ArrayList<>();
+            for (Future<OAuth2AuthenticatedPrincipal> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double cacheCount(String tier, String result) {
+        return meterRegistry.get("talend.auth.opaque.token.cache").tag("tier", tier).tag("result", result).counter().count();
+    }
+
     private static void mockXFFHeader(String ip) {
         HttpServletRequest request = mock(HttpServletRequest.class);
         when(request.getHeader(X_FORWARDED_FOR)).thenReturn(ip);
@@ -1,7 +1,9 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.spring.metrics.config;
 
+import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Around;
@@ -31,11 +33,13 @@ import io.micrometer.tracing.Tracer;
 import jakarta.servlet.http.Part;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.time.Duration;
-import java.time.Instant;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 public class Aspects {
@@ -44,6 +48,11 @@ public class Aspects {
 
     private final Optional<Tracer> tracer;
 
+    private final TimedProperties timedProperties;
+
+    /** Timers of timed methods, created on first call. */
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
     private static final Logger LOGGER = LoggerFactory.getLogger(Aspects.class);
 
     /** Tenant ID returned when not in multi-tenancy context. */
@@ -52,8 +61,13 @@ public class Aspects {
     private static final String ANONYMOUS_USER_NAME = "anonymous";
 
     public Aspects(Tracer tracer, MeterRegistry repository) {
+        this(tracer, repository, new TimedProperties());
+    }
+
+    public Aspects(Tracer tracer, MeterRegistry repository, TimedProperties timedProperties) {
         this.tracer = Optional.ofNullable(tracer);
         this.repository = repository;
+        this.timedProperties = timedProperties;
     }
 
     private static String getCategory(Signature signature) {
@@ -65,33 +79,52 @@ public class Aspects {
     @Around("@annotation(io.micrometer.core.annotation.Timed)")
     public Object timed(ProceedingJoinPoint pjp) throws Throwable {
         final MethodSignature signature = (MethodSignature) pjp.getSignature();
-        final String spanName = getCategory(signature);
+        final Timer timer = timers.computeIfAbsent(signature.getMethod(), method -> createTimer(signature, method));
+        // Timer name is the span name
+        final String spanName = timer.getId().getName();
         if (Callable.class.isAssignableFrom(signature.getReturnType())) {
             Callable callable = (Callable) pjp.proceed();
             return (Callable) () -> {
-                long start = System.currentTimeMillis();
+                final long start = System.nanoTime();
                 final ScopedSpan span = startSpan(spanName);
                 try {
                     return callable.call();
                 } finally {
-                    long time = System.currentTimeMillis() - start;
-                    repository.counter(metricName(pjp), "type", "sum").increment(time);
-                    repository.counter(metricName(pjp), "type", "count").increment();
-                    span.end();
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    endSpan(span);
                 }
             };
         } else {
-            long start = System.currentTimeMillis();
+            final long start = System.nanoTime();
             final ScopedSpan span = startSpan(spanName);
             try {
                 return pjp.proceed();
             } finally {
-                long time = System.currentTimeMillis() - start;
-                repository.counter(metricName(pjp), "type", "sum").increment(time);
-                repository.counter(metricName(pjp), "type", "count").increment();
-                span.end();
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                endSpan(span);
+            }
+        }
+    }
+
+    private Timer createTimer(MethodSignature signature, Method method) {
+        final Timer.Builder builder = Timer.builder(getCategory(signature)) //
+                .publishPercentiles(timedProperties.getPercentiles()) //
+                .publishPercentileHistogram(timedProperties.isPercentilesHistogram()) //
+                .serviceLevelObjectives(timedProperties.getSlo());
+        final Timed timed = method.getAnnotation(Timed.class);
+        if (timed != null) {
+            if (timed.percentiles().length > 0) {
+                builder.publishPercentiles(timed.percentiles());
             }
+            if (timed.histogram()) {
+                builder.publishPercentileHistogram(true);
+            }
+            if (!timed.description().isEmpty()) {
+                builder.description(timed.description());
+            }
+            builder.tags(timed.extraTags());
         }
+        return builder.register(repository);
     }
 
     private String metricName(ProceedingJoinPoint pjp) {
@@ -102,6 +135,12 @@ public class Aspects {
         return tracer.map(t -> t.startScopedSpan(spanName)).orElse(null);
     }
 
+    private static void endSpan(ScopedSpan span) {
+        if (span != null) {
+            span.end();
+        }
+    }
+
     @Around("@annotation(org.talend.daikon.spring.metrics.VolumeMetered)")
     public Object volumeMetered(ProceedingJoinPoint pjp) throws Throwable {
         // Find first InputStream available in arguments
@@ -164,6 +203,10 @@ public class Aspects {
         }
 
         Logger loggerExecution = LoggerFactory.getLogger(pjp.getSignature().getDeclaringType());
+        if (!VariableLevelLog.isEnabledFor(loggerExecution, logLevel)) {
+            // Don't format arguments for nothing
+            return pjp.proceed();
+        }
 
         final String methodName = signature.getName();
 
@@ -183,15 +226,13 @@ public class Aspects {
                     new Object[] { startMessage, methodName, args, tenantId, userId });
         }
 
-        Instant start = Instant.now();
+        long start = System.nanoTime();
         Object output;
         try {
             output = pjp.proceed();
         } finally {
 
-            Instant finish = Instant.now();
-
-            long elapsedTime = Duration.between(start, finish).toMillis();
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 
             String stopMessage = logTimed.endMessage().isEmpty() ? "End call" : logTimed.endMessage();
 
@@ -3,6 +3,7 @@ package org.talend.daikon.spring.metrics.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -14,11 +15,13 @@ import io.micrometer.tracing.Tracer;
 @AutoConfiguration
 @EnableAspectJAutoProxy
 @ComponentScan(basePackageClasses = MetricsConfiguration.class)
+@EnableConfigurationProperties(TimedProperties.class)
 public class MetricsConfiguration {
 
     @Bean
     @ConditionalOnBean({ Tracer.class, MeterRegistry.class })
-    public Aspects metricAspect(@Autowired Tracer tracer, @Autowired MeterRegistry repository) {
-        return new Aspects(tracer, repository);
+    public Aspects metricAspect(@Autowired Tracer tracer, @Autowired MeterRegistry repository,
+            @Autowired TimedProperties timedProperties) {
+        return new Aspects(tracer, repository, timedProperties);
     }
 }
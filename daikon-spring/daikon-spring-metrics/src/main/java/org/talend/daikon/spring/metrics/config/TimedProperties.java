@@ -0,0 +1,56 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.spring.metrics.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Distribution statistics published by the timers of methods annotated with
+ * {@link io.micrometer.core.annotation.Timed}. Percentiles and histogram set on the annotation take precedence.
+ */
+@ConfigurationProperties(prefix = "talend.metrics.timed")
+public class TimedProperties {
+
+    /**
+     * Percentiles computed in the application, e.g. <code>0.5,0.95,0.99</code>.
+     */
+    private double[] percentiles = new double[0];
+
+    /**
+     * Whether to publish a percentile histogram, that can be aggregated by the monitoring system.
+     */
+    private boolean percentilesHistogram;
+
+    /**
+     * Service level objectives: histogram buckets, e.g. <code>100ms,500ms,1s</code>.
+     */
+    private Duration[] slo = new Duration[0];
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public TimedProperties setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+        return this;
+    }
+
+    public boolean isPercentilesHistogram() {
+        return percentilesHistogram;
+    }
+
+    public TimedProperties setPercentilesHistogram(boolean percentilesHistogram) {
+        this.percentilesHistogram = percentilesHistogram;
+        return this;
+    }
+
+    public Duration[] getSlo() {
+        return slo;
+    }
+
+    public TimedProperties setSlo(Duration[] slo) {
+        this.slo = slo;
+        return this;
+    }
+}
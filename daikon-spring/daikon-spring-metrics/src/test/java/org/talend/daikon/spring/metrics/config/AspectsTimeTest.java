@@ -1,15 +1,17 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.spring.metrics.config;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
 
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -19,19 +21,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.tracing.ScopedSpan;
 import io.micrometer.tracing.Tracer;
 
 @ExtendWith(MockitoExtension.class)
 public class AspectsTimeTest {
 
+    private static final String TIMER_NAME = AspectsTimeTest.class.getTypeName() + ".testMethod";
+
     private Aspects aspects;
 
-    private MethodSignature methodSignature;
+    private SimpleMeterRegistry meterRegistry;
 
-    private Counter counter;
+    private MethodSignature methodSignature;
 
     private ProceedingJoinPoint point;
 
@@ -40,10 +47,8 @@ public class AspectsTimeTest {
     private ScopedSpan span;
 
     @BeforeEach
-    public void setUp() {
-        final MeterRegistry meterRegistry = mock(MeterRegistry.class);
-        counter = mock(Counter.class);
-        when(meterRegistry.counter(anyString(), any(String[].class))).thenReturn(counter);
+    public void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
 
         tracer = mock(Tracer.class);
         span = mock(ScopedSpan.class);
@@ -54,22 +59,20 @@ public class AspectsTimeTest {
         point = mock(ProceedingJoinPoint.class);
         methodSignature = mock(MethodSignature.class);
         when(methodSignature.getDeclaringType()).thenReturn(this.getClass());
+        when(methodSignature.getName()).thenReturn("testMethod");
+        when(methodSignature.getMethod()).thenReturn(this.getClass().getMethod("testMethod"));
         when(methodSignature.getReturnType()).thenReturn(Void.class);
         when(point.getSignature()).thenReturn(methodSignature);
     }
 
     @Test
     public void shouldTimeMethodExecution() throws Throwable {
-        // given
-        when(methodSignature.getDeclaringType()).thenReturn(this.getClass());
-
         // when
         aspects.timed(point);
 
         // then
-        verify(counter, times(1)).increment(anyDouble());
-        verify(counter, times(1)).increment();
-        verify(tracer, times(1)).startScopedSpan(anyString());
+        assertEquals(1, meterRegistry.get(TIMER_NAME).timer().count());
+        verify(tracer, times(1)).startScopedSpan(TIMER_NAME);
         verify(span, times(1)).end();
     }
 
@@ -84,18 +87,86 @@ public class AspectsTimeTest {
 
         // then
         assertTrue(callable instanceof Callable);
+        assertEquals(0, meterRegistry.get(TIMER_NAME).timer().count());
 
         // when
         ((Callable) callable).call();
 
         // then
-        verify(counter, times(1)).increment(anyDouble());
-        verify(counter, times(1)).increment();
+        assertEquals(1, meterRegistry.get(TIMER_NAME).timer().count());
         verify(tracer, times(1)).startScopedSpan(anyString());
         verify(span, times(1)).end();
     }
 
+    @Test
+    public void shouldResolveTimerOnce() throws Throwable {
+        // when
+        aspects.timed(point);
+        aspects.timed(point);
+
+        // then
+        assertEquals(2, meterRegistry.get(TIMER_NAME).timer().count());
+        verify(methodSignature, times(1)).getDeclaringType();
+        verify(methodSignature, times(1)).getName();
+    }
+
+    @Test
+    public void shouldTimeWithoutTracer() throws Throwable {
+        // given
+        aspects = new Aspects(null, meterRegistry);
+
+        // when
+        aspects.timed(point);
+
+        // then
+        assertEquals(1, meterRegistry.get(TIMER_NAME).timer().count());
+    }
+
+    @Test
+    public void shouldPublishConfiguredDistribution() throws Throwable {
+        // given
+        aspects = new Aspects(tracer, meterRegistry, new TimedProperties() //
+                .setPercentiles(new double[] { 0.5, 0.99 }) //
+                .setSlo(new Duration[] { Duration.ofMillis(100), Duration.ofSeconds(1) }));
+
+        // when
+        aspects.timed(point);
+
+        // then
+        final Timer timer = meterRegistry.get(TIMER_NAME).timer();
+        final ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        assertEquals(2, percentiles.length);
+        assertEquals(0.5, percentiles[0].percentile());
+        assertEquals(0.99, percentiles[1].percentile());
+        final CountAtBucket[] buckets = timer.takeSnapshot().histogramCounts();
+        assertEquals(2, buckets.length);
+        assertEquals(1, Arrays.stream(buckets).filter(b -> b.bucket() == Duration.ofSeconds(1).toNanos()).count());
+    }
+
+    @Test
+    public void shouldUseAnnotationPercentiles() throws Throwable {
+        // given
+        when(methodSignature.getName()).thenReturn("annotatedMethod");
+        when(methodSignature.getMethod()).thenReturn(this.getClass().getMethod("annotatedMethod"));
+        aspects = new Aspects(tracer, meterRegistry, new TimedProperties().setPercentiles(new double[] { 0.5 }));
+
+        // when
+        aspects.timed(point);
+
+        // then
+        final Timer timer = meterRegistry.get(AspectsTimeTest.class.getTypeName() + ".annotatedMethod")
+                .tag("layer", "service").timer();
+        final ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        assertEquals(1, percentiles.length);
+        assertEquals(0.95, percentiles[0].percentile());
+    }
+
     public void testMethod() {
         // Intentionally left empty (here to get a Method object using introspection).
     }
-}
\ No newline at end of file
+
+    @Timed(percentiles = 0.95, extraTags = { "layer", "service" })
+    public void annotatedMethod() {
+        // Intentionally left empty (here to get a Method object using introspection).
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.spring.mongo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+/**
+ * Connection pool statistics of a MongoDB cluster, summed over all the servers of the cluster.
+ *
+ * @see SharedClusterMongoClientProvider#getPoolStatistics()
+ */
+public class ConnectionPoolStatistics implements ConnectionPoolListener {
+
+    private final String clusterName;
+
+    private final int maxSize;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicInteger checkedOut = new AtomicInteger();
+
+    private final AtomicInteger waitQueueSize = new AtomicInteger();
+
+    ConnectionPoolStatistics(String clusterName, int maxSize) {
+        this.clusterName = clusterName;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the hosts (and replica set name, if any) of the cluster.
+     */
+    public String getClusterName() {
+        return clusterName;
+    }
+
+    /**
+     * @return the max number of connections of the pool of each server.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of open connections.
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of connections in use.
+     */
+    public int getCheckedOut() {
+        return checkedOut.get();
+    }
+
+    /**
+     * @return the number of operations waiting for a connection.
+     */
+    public int getWaitQueueSize() {
+        return waitQueueSize.get();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        size.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waitQueueSize.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waitQueueSize.decrementAndGet();
+        checkedOut.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waitQueueSize.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStatistics{" + "clusterName='" + clusterName + '\'' + ", size=" + size + ", checkedOut="
+                + checkedOut + ", waitQueueSize=" + waitQueueSize + '}';
+    }
+}
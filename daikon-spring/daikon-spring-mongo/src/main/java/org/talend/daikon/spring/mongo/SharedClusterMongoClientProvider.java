@@ -0,0 +1,198 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.spring.mongo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.connection.ClusterSettings;
+
+/**
+ * An implementation of {@link MongoClientProvider} that shares a {@link MongoClient} (thus its connection pool and
+ * monitoring threads) between all the tenants of a MongoDB cluster.
+ * <p>
+ * Tenants are on the same cluster when their {@link TenantInformation#getClientSettings() client settings} (hosts,
+ * credentials and options) are equal: they get the same client, and access their own database through
+ * {@link MongoClient#getDatabase(String)}. The client of a cluster is closed once all its tenants are closed with
+ * {@link #close(TenantInformationProvider)}.
+ */
+public class SharedClusterMongoClientProvider implements MongoClientProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedClusterMongoClientProvider.class);
+
+    private final ConcurrentMap<MongoClientSettings, SharedClient> clients = new ConcurrentHashMap<>();
+
+    protected MongoClient createMongoClient(MongoClientSettings clientSettings) {
+        try {
+            return MongoClients.create(clientSettings);
+        } catch (Exception e) {
+            // 3.x client throws UnknownHostException, keep catch block for compatibility with 3.x version
+            throw new InvalidDataAccessResourceUsageException("Unable to retrieve host information.", e);
+        }
+    }
+
+    @Override
+    public MongoClient get(TenantInformationProvider provider) {
+        final TenantInformation tenantInformation = provider.getTenantInformation();
+        final MongoClientSettings clientSettings = tenantInformation.getClientSettings();
+        while (true) {
+            final SharedClient sharedClient = clients.computeIfAbsent(clientSettings, this::createSharedClient);
+            if (sharedClient.acquire(tenantInformation.getDatabaseName())) {
+                return sharedClient.client;
+            }
+            // Closed by its last tenant in the meantime
+            clients.remove(clientSettings, sharedClient);
+        }
+    }
+
+    private SharedClient createSharedClient(MongoClientSettings clientSettings) {
+        final ConnectionPoolStatistics statistics = new ConnectionPoolStatistics(getClusterName(clientSettings),
+                clientSettings.getConnectionPoolSettings().getMaxSize());
+        LOGGER.debug("Adding new mongo client for cluster '{}'.", statistics.getClusterName());
+        final MongoClient client = createMongoClient(MongoClientSettings.builder(clientSettings) //
+                .applyToConnectionPoolSettings(builder -> builder.addConnectionPoolListener(statistics)) //
+                .build());
+        return new SharedClient(client, statistics);
+    }
+
+    private static String getClusterName(MongoClientSettings clientSettings) {
+        final ClusterSettings clusterSettings = clientSettings.getClusterSettings();
+        final String hosts;
+        if (clusterSettings.getSrvHost() != null) {
+            hosts = clusterSettings.getSrvHost();
+        } else {
+            hosts = clusterSettings.getHosts().stream().map(ServerAddress::toString).collect(Collectors.joining(","));
+        }
+        final String replicaSet = clusterSettings.getRequiredReplicaSetName();
+        return replicaSet == null ? hosts : hosts + "/" + replicaSet;
+    }
+
+    /**
+     * Releases the client for the tenant, the client is closed if it was used by no other tenant.
+     */
+    @Override
+    public void close(TenantInformationProvider provider) {
+        try {
+            final TenantInformation tenantInformation = provider.getTenantInformation();
+            final MongoClientSettings clientSettings = tenantInformation.getClientSettings();
+            final SharedClient sharedClient = clients.get(clientSettings);
+            if (sharedClient != null && sharedClient.release(tenantInformation.getDatabaseName())) {
+                clients.remove(clientSettings, sharedClient);
+            }
+        } catch (Exception e) {
+            throw new InvalidDataAccessResourceUsageException("Unable to close client.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Map.Entry<MongoClientSettings, SharedClient> entry : clients.entrySet()) {
+            if (clients.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().forceClose();
+            }
+        }
+    }
+
+    /**
+     * @return the number of clients (one per cluster) currently open.
+     */
+    public int getClusterCount() {
+        return clients.size();
+    }
+
+    /**
+     * @return the connection pool statistics of each cluster with an open client.
+     */
+    public List<ConnectionPoolStatistics> getPoolStatistics() {
+        final List<ConnectionPoolStatistics> statistics = new ArrayList<>(clients.size());
+        for (SharedClient sharedClient : clients.values()) {
+            statistics.add(sharedClient.statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * A client with the databases (tenants) using it. The number of databases is tracked apart, so that it can be
+     * updated with compare-and-set operations, and moved to {@link #CLOSED} when the last database is released.
+     */
+    private static final class SharedClient {
+
+        private static final int CLOSED = -1;
+
+        private final MongoClient client;
+
+        private final ConnectionPoolStatistics statistics;
+
+        private final ConcurrentMap<String, Boolean> databases = new ConcurrentHashMap<>();
+
+        private final AtomicInteger references = new AtomicInteger();
+
+        private SharedClient(MongoClient client, ConnectionPoolStatistics statistics) {
+            this.client = client;
+            this.statistics = statistics;
+        }
+
+        /**
+         * @return <code>false</code> if the client was closed.
+         */
+        private boolean acquire(String databaseName) {
+            if (databases.containsKey(databaseName)) {
+                return references.get() != CLOSED;
+            }
+            int current;
+            do {
+                current = references.get();
+                if (current == CLOSED) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            if (databases.putIfAbsent(databaseName, Boolean.TRUE) != null) {
+                // Database added concurrently, give back the extra reference
+                return !releaseReference();
+            }
+            return true;
+        }
+
+        /**
+         * @return <code>true</code> if the client was closed.
+         */
+        private boolean release(String databaseName) {
+            return databases.remove(databaseName) != null && releaseReference();
+        }
+
+        private boolean releaseReference() {
+            int current;
+            int next;
+            do {
+                current = references.get();
+                if (current <= 0) {
+                    return false;
+                }
+                next = current == 1 ? CLOSED : current - 1;
+            } while (!references.compareAndSet(current, next));
+            if (next == CLOSED) {
+                LOGGER.debug("Closing mongo client for cluster '{}' (no more tenant).", statistics.getClusterName());
+                client.close();
+                return true;
+            }
+            return false;
+        }
+
+        private void forceClose() {
+            references.set(CLOSED);
+            client.close();
+        }
+    }
+}
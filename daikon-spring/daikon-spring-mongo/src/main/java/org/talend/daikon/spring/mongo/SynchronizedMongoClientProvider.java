@@ -2,9 +2,8 @@
 package org.talend.daikon.spring.mongo;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -22,7 +21,7 @@ public class SynchronizedMongoClientProvider implements MongoClientProvider {
 
     private final MongoClientProvider delegate;
 
-    private final Map<TenantInformation, AtomicInteger> concurrentOpens = Collections.synchronizedMap(new HashMap<>());
+    private final ConcurrentMap<TenantInformation, AtomicInteger> concurrentOpens = new ConcurrentHashMap<>();
 
     public SynchronizedMongoClientProvider(MongoClientProvider delegate) {
         this.delegate = delegate;
@@ -31,19 +30,20 @@ public class SynchronizedMongoClientProvider implements MongoClientProvider {
     @Override
     public MongoClient get(TenantInformationProvider tenantInformationProvider) {
         final TenantInformation tenantInformation = tenantInformationProvider.getTenantInformation();
-        concurrentOpens.putIfAbsent(tenantInformation, new AtomicInteger(0));
-        concurrentOpens.get(tenantInformation).incrementAndGet();
+        concurrentOpens.computeIfAbsent(tenantInformation, key -> new AtomicInteger(0)).incrementAndGet();
 
         return delegate.get(tenantInformationProvider);
     }
 
     @Override
-    public synchronized void close(TenantInformationProvider tenantInformationProvider) {
+    public void close(TenantInformationProvider tenantInformationProvider) {
         TenantInformation tenantInformation = null;
+        AtomicInteger opens = null;
         int openCount = 0;
         try {
             tenantInformation = tenantInformationProvider.getTenantInformation();
-            openCount = concurrentOpens.getOrDefault(tenantInformation, new AtomicInteger(0)).decrementAndGet();
+            opens = concurrentOpens.get(tenantInformation);
+            openCount = opens == null ? 0 : opens.decrementAndGet();
         } catch (Exception e) {
             LOGGER.debug("Unable to obtain database URI (configuration might be missing for tenant).", e);
         }
@@ -51,7 +51,9 @@ public class SynchronizedMongoClientProvider implements MongoClientProvider {
             try {
                 delegate.close(tenantInformationProvider);
             } finally {
-                concurrentOpens.remove(tenantInformation);
+                if (opens != null) {
+                    concurrentOpens.remove(tenantInformation, opens);
+                }
             }
         } else {
             LOGGER.trace("Not closing mongo clients ({} remain in use for database '{}')", openCount,
@@ -0,0 +1,124 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.spring.mongo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.spring.mongo.info.MultiSchemaTenantInformation;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+public class SharedClusterMongoClientProviderTest {
+
+    private static MongoServer server1;
+
+    private static MongoServer server2;
+
+    private static InetSocketAddress serverAddress1;
+
+    private static InetSocketAddress serverAddress2;
+
+    private final SharedClusterMongoClientProvider provider = new SharedClusterMongoClientProvider();
+
+    private static TenantInformationProvider getTenantInformationProvider(InetSocketAddress serverAddress, String tenant) {
+        return () -> {
+            ConnectionString connectionString = new ConnectionString(
+                    "mongodb://" + serverAddress.getHostName() + ":" + serverAddress.getPort() + "/" + tenant);
+            return MultiSchemaTenantInformation.builder()
+                    .clientSettings(MongoClientSettings.builder().applyConnectionString(connectionString).build())
+                    .databaseName(tenant).build();
+        };
+    }
+
+    @BeforeAll
+    public static void setUp() {
+        server1 = new MongoServer(new MemoryBackend());
+        // bind on a random local port
+        serverAddress1 = server1.bind();
+
+        server2 = new MongoServer(new MemoryBackend());
+        // bind on a random local port
+        serverAddress2 = server2.bind();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        server1.shutdown();
+        server2.shutdown();
+    }
+
+    @AfterEach
+    public void closeClients() {
+        provider.close();
+    }
+
+    @Test
+    public void shouldShareClientBetweenTenantsOfCluster() {
+        // When
+        final MongoClient client1 = provider.get(getTenantInformationProvider(serverAddress1, "Tenant1"));
+        final MongoClient client2 = provider.get(getTenantInformationProvider(serverAddress1, "Tenant2"));
+        final MongoClient client3 = provider.get(getTenantInformationProvider(serverAddress2, "Tenant3"));
+
+        // Then
+        assertSame(client1, client2);
+        assertNotSame(client1, client3);
+        assertEquals(2, provider.getClusterCount());
+    }
+
+    @Test
+    public void shouldCloseClientWithLastTenant() {
+        // Given
+        final TenantInformationProvider tenant1 = getTenantInformationProvider(serverAddress1, "Tenant1");
+        final TenantInformationProvider tenant2 = getTenantInformationProvider(serverAddress1, "Tenant2");
+        final MongoClient client = provider.get(tenant1);
+        provider.get(tenant1);
+        provider.get(tenant2);
+
+        // When
+        provider.close(tenant1);
+        final MongoClient clientAfterFirstClose = provider.get(tenant2);
+        clientAfterFirstClose.getDatabase("Tenant2").getCollection("test").insertOne(new Document("key", "value"));
+        provider.close(tenant2);
+        final MongoClient clientAfterLastClose = provider.get(tenant2);
+
+        // Then
+        assertSame(client, clientAfterFirstClose);
+        assertNotSame(client, clientAfterLastClose);
+        assertEquals(1, provider.getClusterCount());
+    }
+
+    @Test
+    public void shouldExposePoolStatisticsPerCluster() {
+        // Given
+        final MongoClient client = provider.get(getTenantInformationProvider(serverAddress1, "Tenant1"));
+        provider.get(getTenantInformationProvider(serverAddress2, "Tenant2"));
+
+        // When
+        client.getDatabase("Tenant1").getCollection("test").insertOne(new Document("key", "value"));
+        final List<ConnectionPoolStatistics> statistics = provider.getPoolStatistics();
+
+        // Then
+        assertEquals(2, statistics.size());
+        final ConnectionPoolStatistics cluster1 = statistics.stream()
+                .filter(s -> s.getClusterName().endsWith(":" + serverAddress1.getPort())).findFirst().orElseThrow();
+        assertTrue(cluster1.getSize() >= 1);
+        assertEquals(0, cluster1.getCheckedOut());
+        assertEquals(0, cluster1.getWaitQueueSize());
+        assertEquals(MongoClientSettings.builder().build().getConnectionPoolSettings().getMaxSize(), cluster1.getMaxSize());
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.tql.excp.TqlException;
+
+/**
+ * Access to a (possibly nested) field of records, through field positions resolved once from schema.
+ */
+class FieldAccessor {
+
+    private final String path;
+
+    private final int[] positions;
+
+    private FieldAccessor(String path, int[] positions) {
+        this.path = path;
+        this.positions = positions;
+    }
+
+    /**
+     * @param schema The record schema.
+     * @param path The field path (names of nested fields separated by '.').
+     * @return Accessor to field.
+     * @throws TqlException if field isn't in schema.
+     */
+    static FieldAccessor of(Schema schema, String path) {
+        final String[] names = path.split("\\.");
+        final int[] positions = new int[names.length];
+        Schema current = schema;
+        for (int i = 0; i < names.length; i++) {
+            current = AvroUtils.unwrapIfNullable(current);
+            final Schema.Field field = current.getType() == Schema.Type.RECORD ? current.getField(names[i]) : null;
+            if (field == null) {
+                throw new TqlException("Field '" + path + "' doesn't exist in schema '" + schema.getName() + "'.");
+            }
+            positions[i] = field.pos();
+            current = field.schema();
+        }
+        return new FieldAccessor(path, positions);
+    }
+
+    /**
+     * @param schema The record schema.
+     * @return Accessors to all fields (including nested ones) with a primitive value.
+     */
+    static List<FieldAccessor> all(Schema schema) {
+        final List<FieldAccessor> accessors = new ArrayList<>();
+        collect(schema, "", new int[0], new HashSet<>(), accessors);
+        return accessors;
+    }
+
+    private static void collect(Schema schema, String prefix, int[] parent, Set<String> visited,
+            List<FieldAccessor> accessors) {
+        if (!visited.add(schema.getFullName())) {
+            // recursive schema.
+            return;
+        }
+        for (Schema.Field field : schema.getFields()) {
+            final int[] positions = new int[parent.length + 1];
+            System.arraycopy(parent, 0, positions, 0, parent.length);
+            positions[parent.length] = field.pos();
+            final Schema fieldSchema = AvroUtils.unwrapIfNullable(field.schema());
+            switch (fieldSchema.getType()) {
+            case RECORD:
+                collect(fieldSchema, prefix + field.name() + '.', positions, visited, accessors);
+                break;
+            case ARRAY:
+            case MAP:
+            case BYTES:
+            case FIXED:
+            case NULL:
+                break;
+            default:
+                accessors.add(new FieldAccessor(prefix + field.name(), positions));
+            }
+        }
+        visited.remove(schema.getFullName());
+    }
+
+    /**
+     * @param record A record.
+     * @return The field value (<code>null</code> if field or one of its parent is null).
+     */
+    Object get(IndexedRecord record) {
+        Object current = record;
+        for (int position : positions) {
+            if (current == null) {
+                return null;
+            }
+            current = ((IndexedRecord) current).get(position);
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,178 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * {@link IndexedRecordFilter} implementations: batches are filtered expression by expression (and not record by
+ * record), each expression only reads records still undecided.
+ */
+class Filters {
+
+    /** filter matching all records */
+    static final IndexedRecordFilter ALL = new RecordFilter() {
+
+        @Override
+        public boolean test(IndexedRecord record) {
+            return true;
+        }
+    };
+
+    private Filters() {
+        // Do not instantiate
+    }
+
+    /**
+     * Test on value of one field (or any of several fields).
+     */
+    interface ValueTest {
+
+        boolean test(Object value);
+    }
+
+    static IndexedRecordFilter field(FieldAccessor[] accessors, ValueTest test) {
+        if (accessors.length == 1) {
+            final FieldAccessor accessor = accessors[0];
+            return new RecordFilter() {
+
+                @Override
+                public boolean test(IndexedRecord record) {
+                    return test.test(accessor.get(record));
+                }
+            };
+        }
+        return new RecordFilter() {
+
+            @Override
+            public boolean test(IndexedRecord record) {
+                for (FieldAccessor accessor : accessors) {
+                    if (test.test(accessor.get(record))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    static IndexedRecordFilter and(IndexedRecordFilter[] filters) {
+        return filters.length == 1 ? filters[0] : new And(filters);
+    }
+
+    static IndexedRecordFilter or(IndexedRecordFilter[] filters) {
+        return filters.length == 1 ? filters[0] : new Or(filters);
+    }
+
+    static IndexedRecordFilter not(IndexedRecordFilter filter) {
+        return new Not(filter);
+    }
+
+    /**
+     * Filter testing records one by one.
+     */
+    abstract static class RecordFilter implements IndexedRecordFilter {
+
+        @Override
+        public void filter(List<? extends IndexedRecord> records, BitSet candidates, BitSet selection) {
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (test(records.get(i))) {
+                    selection.set(i);
+                }
+            }
+        }
+    }
+
+    private static class And implements IndexedRecordFilter {
+
+        private final IndexedRecordFilter[] filters;
+
+        private And(IndexedRecordFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public boolean test(IndexedRecord record) {
+            for (IndexedRecordFilter filter : filters) {
+                if (!filter.test(record)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void filter(List<? extends IndexedRecord> records, BitSet candidates, BitSet selection) {
+            // next expressions only test records matching previous ones.
+            BitSet current = candidates;
+            for (IndexedRecordFilter filter : filters) {
+                final BitSet matching = new BitSet(records.size());
+                filter.filter(records, current, matching);
+                if (matching.isEmpty()) {
+                    return;
+                }
+                current = matching;
+            }
+            selection.or(current);
+        }
+    }
+
+    private static class Or implements IndexedRecordFilter {
+
+        private final IndexedRecordFilter[] filters;
+
+        private Or(IndexedRecordFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public boolean test(IndexedRecord record) {
+            for (IndexedRecordFilter filter : filters) {
+                if (filter.test(record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void filter(List<? extends IndexedRecord> records, BitSet candidates, BitSet selection) {
+            // next expressions only test records not matching previous ones.
+            final BitSet remaining = (BitSet) candidates.clone();
+            for (IndexedRecordFilter filter : filters) {
+                final BitSet matching = new BitSet(records.size());
+                filter.filter(records, remaining, matching);
+                selection.or(matching);
+                remaining.andNot(matching);
+                if (remaining.isEmpty()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class Not implements IndexedRecordFilter {
+
+        private final IndexedRecordFilter filter;
+
+        private Not(IndexedRecordFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean test(IndexedRecord record) {
+            return !filter.test(record);
+        }
+
+        @Override
+        public void filter(List<? extends IndexedRecord> records, BitSet candidates, BitSet selection) {
+            final BitSet matching = new BitSet(records.size());
+            filter.filter(records, candidates, matching);
+            final BitSet notMatching = (BitSet) candidates.clone();
+            notMatching.andNot(matching);
+            selection.or(notMatching);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * A TQL expression compiled against an Avro schema (see {@link IndexedRecordFilterVisitor}), that can test a single
+ * record or select records in a batch.
+ */
+public interface IndexedRecordFilter extends Predicate<IndexedRecord> {
+
+    /**
+     * Select records of a batch matching the filter, only among candidates: records not in candidates are not read.
+     *
+     * @param records The batch of records.
+     * @param candidates Indexes (in <code>records</code>) of records to test.
+     * @param selection Where indexes of matching records are set (other bits are left unchanged).
+     */
+    void filter(List<? extends IndexedRecord> records, BitSet candidates, BitSet selection);
+
+    /**
+     * Select records of a batch matching the filter.
+     *
+     * @param records The batch of records.
+     * @return Indexes (in <code>records</code>) of matching records.
+     */
+    default BitSet filter(List<? extends IndexedRecord> records) {
+        final BitSet candidates = new BitSet(records.size());
+        candidates.set(0, records.size());
+        final BitSet selection = new BitSet(records.size());
+        filter(records, candidates, selection);
+        return selection;
+    }
+}
@@ -0,0 +1,281 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.talend.daikon.pattern.PatternCache;
+import org.talend.tql.avro.Values.Literal;
+import org.talend.tql.avro.Values.NumberComparison;
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.AllFields;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsInvalidExpression;
+import org.talend.tql.model.FieldIsNullExpression;
+import org.talend.tql.model.FieldIsValidExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.FieldWordCompliesPattern;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * A {@link IASTVisitor} implementation that compiles a TQL expression to a {@link IndexedRecordFilter filter} on Avro
+ * records of a given {@link Schema}. Field paths are resolved to field positions once, literals are converted once,
+ * and values are compared without reflection nor string conversion (strings are compared as {@link CharSequence}).
+ * <p>
+ * As in <code>BeanPredicateVisitor</code>, equality is numeric for numbers and case insensitive for other values.
+ *
+ * <pre>
+ * IndexedRecordFilter filter = Tql.parse("age &gt; 30 and name = 'Smith'").accept(new IndexedRecordFilterVisitor(schema));
+ * BitSet selected = filter.filter(records);
+ * </pre>
+ */
+public class IndexedRecordFilterVisitor implements IASTVisitor<IndexedRecordFilter> {
+
+    private static final PatternCache PATTERNS = PatternCache.getDefault();
+
+    private final Schema schema;
+
+    public IndexedRecordFilterVisitor(Schema schema) {
+        this.schema = schema;
+    }
+
+    private static NumberComparison comparison(ComparisonOperator.Enum operator) {
+        switch (operator) {
+        case LT:
+            return (value, expected) -> value < expected;
+        case GT:
+            return (value, expected) -> value > expected;
+        case LET:
+            return (value, expected) -> value <= expected;
+        case GET:
+            return (value, expected) -> value >= expected;
+        default:
+            throw new UnsupportedOperationException("Unsupported operator: " + operator);
+        }
+    }
+
+    private FieldAccessor[] getAccessors(TqlElement field) {
+        if (field instanceof FieldReference) {
+            return new FieldAccessor[] { FieldAccessor.of(schema, ((FieldReference) field).getPath()) };
+        }
+        if (field instanceof AllFields) {
+            final List<FieldAccessor> accessors = FieldAccessor.all(schema);
+            return accessors.toArray(new FieldAccessor[0]);
+        }
+        throw new TqlException("Unsupported field: " + field);
+    }
+
+    @Override
+    public IndexedRecordFilter visit(TqlElement tqlElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(ComparisonOperator comparisonOperator) {
+        // No need to implement this (handled in ComparisonExpression).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(LiteralValue literalValue) {
+        // No need to implement this (handled in expressions).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldReference fieldReference) {
+        // No need to implement this (handled in expressions).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(Expression expression) {
+        // Very generic method: prefer an unsupported exception iso. erratic behavior.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(AndExpression andExpression) {
+        final Expression[] expressions = andExpression.getExpressions();
+        if (expressions.length == 0) {
+            return Filters.ALL;
+        }
+        return Filters.and(Stream.of(expressions).map(e -> e.accept(this)).toArray(IndexedRecordFilter[]::new));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(OrExpression orExpression) {
+        final Expression[] expressions = orExpression.getExpressions();
+        if (expressions.length == 0) {
+            return Filters.ALL;
+        }
+        return Filters.or(Stream.of(expressions).map(e -> e.accept(this)).toArray(IndexedRecordFilter[]::new));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(NotExpression notExpression) {
+        return Filters.not(notExpression.getExpression().accept(this));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(ComparisonExpression comparisonExpression) {
+        final FieldAccessor[] accessors = getAccessors(comparisonExpression.getField());
+        final ComparisonOperator.Enum operator = comparisonExpression.getOperator().getOperator();
+        final TqlElement valueOrField = comparisonExpression.getValueOrField();
+        if (valueOrField instanceof FieldReference) {
+            return compareFields(accessors, operator, FieldAccessor.of(schema, ((FieldReference) valueOrField).getPath()));
+        }
+        if (!(valueOrField instanceof LiteralValue)) {
+            throw new TqlException("Unsupported value: " + valueOrField);
+        }
+        final Literal literal = new Literal(((LiteralValue) valueOrField).getValue());
+        switch (operator) {
+        case EQ:
+            return Filters.field(accessors, literal::isEqualTo);
+        case NEQ:
+            return Filters.field(accessors, value -> !literal.isEqualTo(value));
+        default:
+            final NumberComparison comparison = comparison(operator);
+            return Filters.field(accessors, value -> comparison.test(Values.toDouble(value), literal.expected(value)));
+        }
+    }
+
+    private static IndexedRecordFilter compareFields(FieldAccessor[] accessors, ComparisonOperator.Enum operator,
+            FieldAccessor other) {
+        // equality (or its negation) if no number comparison.
+        final NumberComparison comparison = operator == ComparisonOperator.Enum.EQ
+                || operator == ComparisonOperator.Enum.NEQ ? null : comparison(operator);
+        final boolean negate = operator == ComparisonOperator.Enum.NEQ;
+        return new Filters.RecordFilter() {
+
+            @Override
+            public boolean test(IndexedRecord record) {
+                final Object otherValue = other.get(record);
+                for (FieldAccessor accessor : accessors) {
+                    final Object value = accessor.get(record);
+                    final boolean matches = comparison == null ? Values.equals(value, otherValue) != negate
+                            : comparison.test(Values.toDouble(value), Values.toDouble(otherValue));
+                    if (matches) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldInExpression fieldInExpression) {
+        final FieldAccessor[] accessors = getAccessors(fieldInExpression.getField());
+        final LiteralValue[] values = fieldInExpression.getValues();
+        if (values.length == 0) {
+            return Filters.ALL;
+        }
+        final Literal[] literals = Stream.of(values).map(v -> new Literal(v.getValue())).toArray(Literal[]::new);
+        return Filters.field(accessors, value -> {
+            for (Literal literal : literals) {
+                if (literal.isEqualTo(value)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldBetweenExpression fieldBetweenExpression) {
+        final FieldAccessor[] accessors = getAccessors(fieldBetweenExpression.getField());
+        final Literal left = new Literal(fieldBetweenExpression.getLeft().getValue());
+        final Literal right = new Literal(fieldBetweenExpression.getRight().getValue());
+        final NumberComparison lower = comparison(
+                fieldBetweenExpression.isLowerOpen() ? ComparisonOperator.Enum.GT : ComparisonOperator.Enum.GET);
+        final NumberComparison upper = comparison(
+                fieldBetweenExpression.isUpperOpen() ? ComparisonOperator.Enum.LT : ComparisonOperator.Enum.LET);
+        return Filters.field(accessors, value -> {
+            final double number = Values.toDouble(value);
+            return lower.test(number, left.expected(value)) && upper.test(number, right.expected(value));
+        });
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldIsEmptyExpression fieldIsEmptyExpression) {
+        final FieldAccessor[] accessors = getAccessors(fieldIsEmptyExpression.getField());
+        return Filters.field(accessors, value -> value == null
+                || (value instanceof CharSequence && ((CharSequence) value).length() == 0));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldIsNullExpression fieldIsNullExpression) {
+        final FieldAccessor[] accessors = getAccessors(fieldIsNullExpression.getField());
+        return Filters.field(accessors, value -> value == null);
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldIsValidExpression fieldIsValidExpression) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldIsInvalidExpression fieldIsInvalidExpression) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldMatchesRegex fieldMatchesRegex) {
+        final FieldAccessor[] accessors = getAccessors(fieldMatchesRegex.getField());
+        return matches(accessors, PATTERNS.compile(fieldMatchesRegex.getRegex()));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldCompliesPattern fieldCompliesPattern) {
+        final FieldAccessor[] accessors = getAccessors(fieldCompliesPattern.getField());
+        final String pattern = fieldCompliesPattern.getPattern();
+        return matches(accessors, pattern == null ? null : PATTERNS.charPattern(pattern));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldWordCompliesPattern fieldWordCompliesPattern) {
+        final FieldAccessor[] accessors = getAccessors(fieldWordCompliesPattern.getField());
+        final String pattern = fieldWordCompliesPattern.getPattern();
+        return matches(accessors, pattern == null ? null : PATTERNS.wordPattern(pattern, true));
+    }
+
+    private static IndexedRecordFilter matches(FieldAccessor[] accessors, Pattern pattern) {
+        return Filters.field(accessors,
+                value -> value != null && pattern != null && pattern.matcher(Values.toText(value)).matches());
+    }
+
+    @Override
+    public IndexedRecordFilter visit(FieldContainsExpression fieldContainsExpression) {
+        final FieldAccessor[] accessors = getAccessors(fieldContainsExpression.getField());
+        final String expected = fieldContainsExpression.getValue();
+        if (fieldContainsExpression.isCaseSensitive()) {
+            return Filters.field(accessors, value -> value != null && StringUtils.contains(Values.toText(value), expected));
+        }
+        return Filters.field(accessors,
+                value -> value != null && StringUtils.containsIgnoreCase(Values.toText(value), expected));
+    }
+
+    @Override
+    public IndexedRecordFilter visit(AllFields allFields) {
+        // No need to implement this (handled in expressions).
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,218 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Comparisons of Avro values (numbers, {@link CharSequence} such as {@link org.apache.avro.util.Utf8}, booleans,
+ * enum symbols) without converting them to {@link String} when possible.
+ */
+class Values {
+
+    /** powers of ten exactly represented as double */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private Values() {
+        // Do not instantiate
+    }
+
+    /**
+     * Comparison of two numbers.
+     */
+    interface NumberComparison {
+
+        boolean test(double value, double expected);
+    }
+
+    /**
+     * @param value A value.
+     * @return The value as double, {@link Double#NaN} if it's not a number.
+     */
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Utf8) {
+            // Utf8.charAt converts to String: read the bytes instead.
+            final Utf8 utf8 = (Utf8) value;
+            return parseDouble(null, utf8.getBytes(), utf8.getByteLength());
+        }
+        if (value instanceof CharSequence) {
+            final CharSequence text = (CharSequence) value;
+            return parseDouble(text, null, text.length());
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Parse a decimal number in one pass, without exception for texts that are not numbers. Numbers with at most 15
+     * significant digits and small exponent (most field values) are computed exactly from their digits, others are
+     * parsed by {@link Double#parseDouble(String)}.
+     *
+     * @param text The text, if read as chars.
+     * @param bytes The text, if read as (UTF-8) bytes.
+     * @param length Number of chars or bytes.
+     * @return Same value as {@link Double#parseDouble(String)}, {@link Double#NaN} if it's not a number.
+     */
+    private static double parseDouble(CharSequence text, byte[] bytes, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (charAt(text, bytes, i) == '-' || charAt(text, bytes, i) == '+')) {
+            negative = charAt(text, bytes, i) == '-';
+            i++;
+        }
+        long mantissa = 0L;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean dot = false;
+        for (; i < length; i++) {
+            final int c = charAt(text, bytes, i);
+            if (c == '.' && !dot) {
+                dot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            anyDigit = true;
+            if (mantissa == 0L && c == '0') {
+                // leading zero.
+                exponent -= dot ? 1 : 0;
+            } else if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                exponent -= dot ? 1 : 0;
+            } else {
+                // digit beyond long precision: exact parsing is needed.
+                digits++;
+                exponent += dot ? 0 : 1;
+            }
+        }
+        if (!anyDigit) {
+            return parseOther(text, bytes, length);
+        }
+        if (i < length && (charAt(text, bytes, i) == 'e' || charAt(text, bytes, i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (charAt(text, bytes, i) == '-' || charAt(text, bytes, i) == '+')) {
+                negativeExponent = charAt(text, bytes, i) == '-';
+                i++;
+            }
+            int value = 0;
+            final int start = i;
+            for (; i < length && charAt(text, bytes, i) >= '0' && charAt(text, bytes, i) <= '9'; i++) {
+                value = Math.min(value * 10 + (charAt(text, bytes, i) - '0'), 100_000);
+            }
+            if (i == start) {
+                return parseOther(text, bytes, length);
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != length) {
+            // suffix (such as 'd'), white spaces...
+            return parseOther(text, bytes, length);
+        }
+        if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+            // mantissa and power of ten are exact, so result is correctly rounded.
+            final double result = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -result : result;
+        }
+        return Double.parseDouble(toString(text, bytes, length));
+    }
+
+    /**
+     * Parse texts not handled by one pass parsing, only when they can be a number for Java (hexadecimal, NaN,
+     * Infinity, with type suffix or white spaces).
+     */
+    private static double parseOther(CharSequence text, byte[] bytes, int length) {
+        final String trimmed = toString(text, bytes, length).trim();
+        final int start = trimmed.startsWith("-") || trimmed.startsWith("+") ? 1 : 0;
+        if (start < trimmed.length() && (Character.isDigit(trimmed.charAt(start)) || trimmed.charAt(start) == '.'
+                || trimmed.startsWith("NaN", start) || trimmed.startsWith("Infinity", start))) {
+            try {
+                return Double.parseDouble(trimmed);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static int charAt(CharSequence text, byte[] bytes, int index) {
+        return bytes == null ? text.charAt(index) : bytes[index];
+    }
+
+    private static String toString(CharSequence text, byte[] bytes, int length) {
+        return bytes == null ? text.toString() : new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param value A not null value.
+     * @return The value as text (no copy for string values).
+     */
+    static CharSequence toText(Object value) {
+        return value instanceof CharSequence ? (CharSequence) value : value.toString();
+    }
+
+    /**
+     * Equality of two field values: numbers are compared by value, other values as case insensitive text.
+     */
+    static boolean equals(Object value, Object other) {
+        if (value == null || other == null) {
+            return false;
+        }
+        if (value instanceof Number && other instanceof Number) {
+            return ((Number) value).doubleValue() == ((Number) other).doubleValue();
+        }
+        return StringUtils.equalsIgnoreCase(toText(value), toText(other));
+    }
+
+    /**
+     * A literal of TQL expression, converted once to the types it's compared to.
+     */
+    static class Literal {
+
+        private final String text;
+
+        private final double number;
+
+        /** number rounded as float, to compare float values as they were written */
+        private final double floatNumber;
+
+        Literal(String text) {
+            this.text = text;
+            this.number = toDouble(text);
+            this.floatNumber = (float) number;
+        }
+
+        /**
+         * Numbers are compared by value, other values as case insensitive text.
+         *
+         * @param value A field value.
+         * @return <code>true</code> if value is equal to literal.
+         */
+        boolean isEqualTo(Object value) {
+            if (value == null) {
+                return false;
+            }
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue() == expected(value);
+            }
+            return StringUtils.equalsIgnoreCase(toText(value), text);
+        }
+
+        /**
+         * @param value A field value.
+         * @return Literal number to compare to value.
+         */
+        double expected(Object value) {
+            return value instanceof Float ? floatNumber : number;
+        }
+    }
+}
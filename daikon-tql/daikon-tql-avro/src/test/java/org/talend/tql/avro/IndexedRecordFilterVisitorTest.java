@@ -0,0 +1,180 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.parser.Tql;
+
+public class IndexedRecordFilterVisitorTest {
+
+    private static final Schema ADDRESS = SchemaBuilder.record("address").fields() //
+            .requiredString("city") //
+            .endRecord();
+
+    private static final Schema PERSON = SchemaBuilder.record("person").fields() //
+            .requiredString("name") //
+            .requiredInt("age") //
+            .optionalDouble("score") //
+            .requiredFloat("ratio") //
+            .requiredBoolean("active") //
+            .name("address").type(AvroUtils.wrapAsNullable(ADDRESS)).noDefault() //
+            .endRecord();
+
+    private final List<IndexedRecord> records = Arrays.asList( //
+            person("Smith", 42, 12.5, 1.1f, true, "Nantes"), //
+            person("Doe", 25, null, 0.5f, false, null), //
+            person("", 31, 40.0, 2.0f, true, "Paris"));
+
+    private static IndexedRecord person(String name, int age, Double score, float ratio, boolean active, String city) {
+        final GenericData.Record person = new GenericData.Record(PERSON);
+        person.put("name", new Utf8(name));
+        person.put("age", age);
+        person.put("score", score);
+        person.put("ratio", ratio);
+        person.put("active", active);
+        if (city != null) {
+            final GenericData.Record address = new GenericData.Record(ADDRESS);
+            address.put("city", new Utf8(city));
+            person.put("address", address);
+        }
+        return person;
+    }
+
+    private BitSet select(String query) {
+        final IndexedRecordFilter filter = Tql.parse(query).accept(new IndexedRecordFilterVisitor(PERSON));
+        final BitSet selection = filter.filter(records);
+        // batch and record by record evaluations must agree.
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(selection.get(i), filter.test(records.get(i)), query);
+        }
+        return selection;
+    }
+
+    private static BitSet bits(int... indexes) {
+        final BitSet bits = new BitSet();
+        Arrays.stream(indexes).forEach(bits::set);
+        return bits;
+    }
+
+    @Test
+    public void equalsShouldSelectRecords() {
+        assertEquals(bits(0), select("name = 'SMITH'"));
+        assertEquals(bits(1, 2), select("name != 'smith'"));
+        assertEquals(bits(0), select("age = 42"));
+        assertEquals(bits(0), select("ratio = 1.1"));
+        assertEquals(bits(0, 2), select("active = true"));
+        assertEquals(bits(), select("age = 'not a number'"));
+    }
+
+    @Test
+    public void comparisonShouldSelectRecords() {
+        assertEquals(bits(0, 2), select("age > 30"));
+        assertEquals(bits(1, 2), select("age <= 31"));
+        assertEquals(bits(0), select("score < 20"));
+        assertEquals(bits(0, 2), select("age between [31, 42]"));
+        assertEquals(bits(0), select("age between ]31, 50]"));
+        assertEquals(bits(0), select("age > field(score) and score >= 12.5"));
+    }
+
+    @Test
+    public void logicalExpressionsShouldSelectRecords() {
+        assertEquals(bits(0), select("age > 30 and name = 'Smith'"));
+        assertEquals(bits(0, 1), select("name = 'Doe' or ratio > 1 and active = true and name != ''"));
+        assertEquals(bits(1), select("not(active = true)"));
+    }
+
+    @Test
+    public void nestedFieldShouldSelectRecords() {
+        assertEquals(bits(0), select("address.city = 'nantes'"));
+        assertEquals(bits(1), select("address.city is null"));
+        assertEquals(bits(0, 2), select("* = 'Paris' or * = 42"));
+    }
+
+    @Test
+    public void textOperatorsShouldSelectRecords() {
+        assertEquals(bits(0), select("name contains 'mit'"));
+        assertEquals(bits(0), select("name containsIgnoreCase 'MIT'"));
+        assertEquals(bits(0, 1), select("name ~ '[A-Z][a-z]+'"));
+        assertEquals(bits(1), select("name complies 'Aaa'"));
+        assertEquals(bits(0, 1), select("name wordComplies '[Word]'"));
+        assertEquals(bits(2), select("name in ['doe', ''] and age > 30"));
+        assertEquals(bits(1, 2), select("name is empty or score is null"));
+    }
+
+    @Test
+    public void andShouldNotReadDiscardedRecords() {
+        // given
+        final CountingRecord[] counting = records.stream().map(CountingRecord::new).toArray(CountingRecord[]::new);
+        final IndexedRecordFilter filter = Tql.parse("age > 40 and (name = 'Smith' or active = false)")
+                .accept(new IndexedRecordFilterVisitor(PERSON));
+
+        // when
+        final BitSet selection = filter.filter(Arrays.asList(counting));
+
+        // then
+        assertEquals(bits(0), selection);
+        final int name = PERSON.getField("name").pos();
+        final int active = PERSON.getField("active").pos();
+        assertEquals(1, counting[0].reads[name]);
+        assertEquals(0, counting[0].reads[active]);
+        assertEquals(0, counting[1].reads[name]);
+        assertEquals(0, counting[2].reads[name]);
+    }
+
+    @Test
+    public void missingFieldShouldFail() {
+        assertThrows(TqlException.class, () -> select("wrongField = 'value'"));
+        assertThrows(TqlException.class, () -> select("name.first = 'value'"));
+    }
+
+    @Test
+    public void nullParentShouldNotFail() {
+        final IndexedRecordFilter filter = Tql.parse("address.city = 'Paris'").accept(new IndexedRecordFilterVisitor(PERSON));
+
+        assertFalse(filter.test(records.get(1)));
+        assertTrue(filter.test(records.get(2)));
+    }
+
+    private static class CountingRecord implements IndexedRecord {
+
+        private final IndexedRecord delegate;
+
+        private final int[] reads;
+
+        private CountingRecord(IndexedRecord delegate) {
+            this.delegate = delegate;
+            this.reads = new int[delegate.getSchema().getFields().size()];
+        }
+
+        @Override
+        public void put(int i, Object v) {
+            delegate.put(i, v);
+        }
+
+        @Override
+        public Object get(int i) {
+            reads[i]++;
+            return delegate.get(i);
+        }
+
+        @Override
+        public Schema getSchema() {
+            return delegate.getSchema();
+        }
+    }
+}
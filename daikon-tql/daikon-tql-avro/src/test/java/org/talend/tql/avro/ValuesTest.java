@@ -0,0 +1,55 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.avro;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+public class ValuesTest {
+
+    @Test
+    public void toDouble_sameAsParseDouble() {
+        final String[] texts = { "0", "-0", "+0", "1", "-1", "42", "12.5", "0.05", ".5", "5.", "-.5e-3", "1e22", "1e23",
+                "1E-22", "1e-23", "123456789012345", "1234567890123456", "12345678901234567890123", "0.1", "0.3",
+                "9007199254740993", "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308", "1e400",
+                "000000000000000000000001.5", "0.000000000000000000000000001", " 12 ", "12d", "12f", "0x1p3",
+                "NaN", "-Infinity", "Infinity", "", "-", "+", ".", "e5", "1e", "1e+", "1..2", "1.2.3", "12a",
+                "Nantes", "Smith", "Infinite", "abc", "--1", "1e5x", "١٢", "12€" };
+        for (String text : texts) {
+            assertSameAsParseDouble(text);
+        }
+    }
+
+    @Test
+    public void toDouble_randomNumbers() {
+        final Random random = new Random(42L);
+        for (int i = 0; i < 100_000; i++) {
+            final double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong())
+                    : (random.nextInt(2_000_000) - 1_000_000) / Math.pow(10, random.nextInt(12));
+            assertSameAsParseDouble(Double.toString(value));
+            assertSameAsParseDouble(String.format("%." + random.nextInt(17) + "f", value % 1e9));
+        }
+    }
+
+    @Test
+    public void toDouble_notText() {
+        assertEquals(Double.NaN, Values.toDouble(null));
+        assertEquals(Double.NaN, Values.toDouble(Boolean.TRUE));
+        assertEquals(12.0, Values.toDouble(12));
+        assertEquals(1.5, Values.toDouble(new StringBuilder("1.5")));
+    }
+
+    private static void assertSameAsParseDouble(String text) {
+        double expected;
+        try {
+            expected = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            expected = Double.NaN;
+        }
+        assertEquals(expected, Values.toDouble(text), text);
+        assertEquals(expected, Values.toDouble(new Utf8(text)), text);
+    }
+}
@@ -28,8 +28,7 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.talend.daikon.pattern.character.CharPatternToRegex;
-import org.talend.daikon.pattern.word.WordPatternToRegex;
+import org.talend.daikon.pattern.PatternCache;
 import org.talend.tql.model.AllFields;
 import org.talend.tql.model.AndExpression;
 import org.talend.tql.model.ComparisonExpression;
@@ -62,6 +61,8 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BeanPredicateVisitor.class);
 
+    private static final PatternCache PATTERNS = PatternCache.getDefault();
+
     private final Class<T> targetClass;
 
     private final Deque<String> literals = new ArrayDeque<>();
@@ -95,15 +96,11 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
      * Test a string value against a pattern returned during value analysis.
      *
      * @param value A string value. May be null.
-     * @param pattern A pattern as returned in value analysis.
+     * @param pattern The compiled pattern (see {@link PatternCache}). May be null.
      * @return <code>true</code> if value complies, <code>false</code> otherwise.
      */
-    private static boolean complies(String value, String pattern) {
-        return value != null && pattern != null && value.matches(CharPatternToRegex.toRegex(pattern));
-    }
-
-    private static boolean wordComplies(String value, String pattern) {
-        return value != null && pattern != null && value.matches(WordPatternToRegex.toRegex(pattern, true));
+    private static boolean complies(String value, Pattern pattern) {
+        return value != null && pattern != null && pattern.matcher(value).matches();
     }
 
     private static <T> Predicate<T> unchecked(Predicate<T> predicate) {
@@ -289,7 +286,7 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         fieldMatchesRegex.getField().accept(this);
         final MethodAccessor[] methods = currentMethods.pop();
 
-        final Pattern pattern = Pattern.compile(fieldMatchesRegex.getRegex());
+        final Pattern pattern = PATTERNS.compile(fieldMatchesRegex.getRegex());
         return anyMatch(methods, o -> pattern.matcher(valueOf(o)).matches());
     }
 
@@ -299,7 +296,8 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         final MethodAccessor[] methods = currentMethods.pop();
 
         final String pattern = fieldCompliesPattern.getPattern();
-        return anyMatch(methods, o -> complies(valueOf(o), pattern));
+        final Pattern compiled = pattern == null ? null : PATTERNS.charPattern(pattern);
+        return anyMatch(methods, o -> complies(valueOf(o), compiled));
     }
 
     @Override
@@ -308,7 +306,8 @@ public class BeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
         final MethodAccessor[] methods = currentMethods.pop();
 
         final String pattern = fieldWordCompliesPattern.getPattern();
-        return anyMatch(methods, o -> wordComplies(valueOf(o), pattern));
+        final Pattern compiled = pattern == null ? null : PATTERNS.wordPattern(pattern, true);
+        return anyMatch(methods, o -> complies(valueOf(o), compiled));
     }
 
     @Override
@@ -0,0 +1,322 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.bean;
+
+import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.talend.daikon.pattern.PatternCache;
+import org.talend.tql.model.AllFields;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsInvalidExpression;
+import org.talend.tql.model.FieldIsNullExpression;
+import org.talend.tql.model.FieldIsValidExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.FieldWordCompliesPattern;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * A {@link IASTVisitor} implementation that generates the same {@link Predicate predicates} as
+ * {@link BeanPredicateVisitor}, but compiled for repeated evaluation on many <code>T</code> instances:
+ * <ul>
+ * <li>getters are invoked through generated functions (see {@link CompiledGetter}) instead of reflection,</li>
+ * <li>literals are converted (to number, regular expression...) once when predicate is built,</li>
+ * <li>numbers are compared as primitive values (no string conversion for numeric fields).</li>
+ * </ul>
+ * Expressions this visitor can't compile (fields with {@link Iterable} or {@link java.util.Map} values, all fields
+ * references...) are delegated to {@link BeanPredicateVisitor}.
+ *
+ * @param <T> The bean class.
+ */
+public class CompiledBeanPredicateVisitor<T> implements IASTVisitor<Predicate<T>> {
+
+    private static final PatternCache PATTERNS = PatternCache.getDefault();
+
+    private final Class<T> targetClass;
+
+    private final LanguageBinder languageBinder;
+
+    public CompiledBeanPredicateVisitor(Class<T> targetClass) {
+        this(targetClass, new DefaultLanguageBinder(targetClass));
+    }
+
+    public CompiledBeanPredicateVisitor(Class<T> targetClass, LanguageBinder languageBinder) {
+        this.targetClass = targetClass;
+        this.languageBinder = languageBinder;
+    }
+
+    private static boolean compare(ComparisonOperator.Enum operator, double value, double literal) {
+        switch (operator) {
+        case EQ:
+            return value == literal;
+        case LT:
+            return value < literal;
+        case GT:
+            return value > literal;
+        case LET:
+            return value <= literal;
+        case GET:
+            return value >= literal;
+        default:
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private Predicate<T> delegate(Expression expression) {
+        return expression.accept(new BeanPredicateVisitor<>(targetClass, languageBinder));
+    }
+
+    /**
+     * @param field The field reference in expression.
+     * @return The compiled getter for field, <code>null</code> if expression should be delegated.
+     */
+    private CompiledGetter compile(TqlElement field) {
+        if (!(field instanceof FieldReference)) {
+            return null;
+        }
+        return CompiledGetter.compile(languageBinder.getMethods(((FieldReference) field).getPath()));
+    }
+
+    @Override
+    public Predicate<T> visit(TqlElement tqlElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(ComparisonOperator comparisonOperator) {
+        // No need to implement this (handled in ComparisonExpression).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(LiteralValue literalValue) {
+        // No need to implement this (literals are read when compiling expressions).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(FieldReference fieldReference) {
+        // No need to implement this (fields are read when compiling expressions).
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(Expression expression) {
+        // Very generic method: prefer an unsupported exception iso. erratic behavior.
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(AndExpression andExpression) {
+        final Expression[] expressions = andExpression.getExpressions();
+        return Stream.of(expressions) //
+                .map(e -> e.accept(this)) //
+                .reduce(Predicate::and) //
+                .orElseGet(() -> m -> true);
+    }
+
+    @Override
+    public Predicate<T> visit(OrExpression orExpression) {
+        final Expression[] expressions = orExpression.getExpressions();
+        return Stream.of(expressions) //
+                .map(e -> e.accept(this)) //
+                .reduce(Predicate::or) //
+                .orElseGet(() -> m -> true);
+    }
+
+    @Override
+    public Predicate<T> visit(ComparisonExpression comparisonExpression) {
+        final CompiledGetter getter = compile(comparisonExpression.getField());
+        if (getter == null || !(comparisonExpression.getValueOrField() instanceof LiteralValue)) {
+            return delegate(comparisonExpression);
+        }
+        final String literal = ((LiteralValue) comparisonExpression.getValueOrField()).getValue();
+        final ComparisonOperator.Enum operator = comparisonExpression.getOperator().getOperator();
+        switch (operator) {
+        case NEQ:
+            return root -> !Objects.equals(getter.get(root), literal);
+        case EQ:
+            if (!getter.isNumeric()) {
+                final String expected = languageBinder.valueOf(literal);
+                return root -> equalsIgnoreCase(languageBinder.valueOf(getter.get(root)), expected);
+            }
+            return compare(getter, operator, literal);
+        case LT:
+        case GT:
+        case LET:
+        case GET:
+            return compare(getter, operator, literal);
+        default:
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private Predicate<T> compare(CompiledGetter getter, ComparisonOperator.Enum operator, String literal) {
+        // An invalid number is NaN: nothing compares to it, as parse errors in BeanPredicateVisitor.
+        final double expected = CompiledGetter.toDouble(languageBinder.valueOf(literal));
+        return root -> compare(operator, getter.getDouble(root, languageBinder), expected);
+    }
+
+    @Override
+    public Predicate<T> visit(FieldInExpression fieldInExpression) {
+        final CompiledGetter getter = compile(fieldInExpression.getField());
+        if (getter == null) {
+            return delegate(fieldInExpression);
+        }
+        final LiteralValue[] values = fieldInExpression.getValues();
+        if (values.length == 0) {
+            return m -> true;
+        }
+        if (getter.isNumeric()) {
+            final double[] expected = Stream.of(values) //
+                    .mapToDouble(v -> CompiledGetter.toDouble(languageBinder.valueOf(v.getValue()))) //
+                    .toArray();
+            return root -> {
+                final double value = getter.getDouble(root, languageBinder);
+                for (double current : expected) {
+                    if (value == current) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        final String[] expected = Stream.of(values) //
+                .map(v -> languageBinder.valueOf(v.getValue())) //
+                .toArray(String[]::new);
+        return root -> {
+            final String value = languageBinder.valueOf(getter.get(root));
+            for (String current : expected) {
+                if (equalsIgnoreCase(value, current)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldIsEmptyExpression fieldIsEmptyExpression) {
+        return delegate(fieldIsEmptyExpression);
+    }
+
+    @Override
+    public Predicate<T> visit(FieldIsValidExpression fieldIsValidExpression) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(FieldIsInvalidExpression fieldIsInvalidExpression) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Predicate<T> visit(FieldIsNullExpression elt) {
+        final CompiledGetter getter = compile(elt.getField());
+        if (getter == null) {
+            return delegate(elt);
+        }
+        return root -> getter.get(root) == null;
+    }
+
+    @Override
+    public Predicate<T> visit(FieldMatchesRegex fieldMatchesRegex) {
+        final CompiledGetter getter = compile(fieldMatchesRegex.getField());
+        if (getter == null) {
+            return delegate(fieldMatchesRegex);
+        }
+        final Pattern pattern = PATTERNS.compile(fieldMatchesRegex.getRegex());
+        return root -> {
+            // a custom binder may return null, that BeanPredicateVisitor doesn't match.
+            final String value = languageBinder.valueOf(getter.get(root));
+            return value != null && pattern.matcher(value).matches();
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldCompliesPattern fieldCompliesPattern) {
+        final CompiledGetter getter = compile(fieldCompliesPattern.getField());
+        if (getter == null) {
+            return delegate(fieldCompliesPattern);
+        }
+        final String pattern = fieldCompliesPattern.getPattern();
+        return matches(getter, pattern == null ? null : PATTERNS.charPattern(pattern));
+    }
+
+    @Override
+    public Predicate<T> visit(FieldWordCompliesPattern fieldWordCompliesPattern) {
+        final CompiledGetter getter = compile(fieldWordCompliesPattern.getField());
+        if (getter == null) {
+            return delegate(fieldWordCompliesPattern);
+        }
+        final String pattern = fieldWordCompliesPattern.getPattern();
+        return matches(getter, pattern == null ? null : PATTERNS.wordPattern(pattern, true));
+    }
+
+    private Predicate<T> matches(CompiledGetter getter, Pattern pattern) {
+        return root -> {
+            final String value = languageBinder.valueOf(getter.get(root));
+            return value != null && pattern != null && pattern.matcher(value).matches();
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldBetweenExpression fieldBetweenExpression) {
+        final CompiledGetter getter = compile(fieldBetweenExpression.getField());
+        if (getter == null) {
+            return delegate(fieldBetweenExpression);
+        }
+        final double left = CompiledGetter
+                .toDouble(languageBinder.valueOf(fieldBetweenExpression.getLeft().getValue()));
+        final double right = CompiledGetter
+                .toDouble(languageBinder.valueOf(fieldBetweenExpression.getRight().getValue()));
+        final boolean lowerOpen = fieldBetweenExpression.isLowerOpen();
+        final boolean upperOpen = fieldBetweenExpression.isUpperOpen();
+        return root -> {
+            final double value = getter.getDouble(root, languageBinder);
+            return (lowerOpen ? value > left : value >= left) && (upperOpen ? value < right : value <= right);
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(NotExpression notExpression) {
+        final Predicate<T> accept = notExpression.getExpression().accept(this);
+        return accept.negate();
+    }
+
+    @Override
+    public Predicate<T> visit(FieldContainsExpression fieldContainsExpression) {
+        final CompiledGetter getter = compile(fieldContainsExpression.getField());
+        if (getter == null) {
+            return delegate(fieldContainsExpression);
+        }
+        final String expressionValue = fieldContainsExpression.getValue();
+        if (fieldContainsExpression.isCaseSensitive()) {
+            return root -> StringUtils.contains(languageBinder.valueOf(getter.get(root)), expressionValue);
+        }
+        return root -> StringUtils.containsIgnoreCase(languageBinder.valueOf(getter.get(root)), expressionValue);
+    }
+
+    @Override
+    public Predicate<T> visit(AllFields allFields) {
+        // All fields are only used within expressions (that are delegated).
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,253 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.bean;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A chain of getters (resolved from {@link UnaryMethodAccessor unary accessors}) compiled to functions with
+ * {@link LambdaMetafactory} (or {@link MethodHandle} when the bean class can't be linked from here), so values are read
+ * without reflection. Last getter returning a primitive number is also compiled to a {@link ToDoubleFunction} to read it
+ * without boxing. Functions are generated once per method, and shared by all getters (and predicates) that use it.
+ *
+ * @see CompiledBeanPredicateVisitor
+ */
+class CompiledGetter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledGetter.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** Compiled methods, by declaring class (so they're released with it). */
+    private static final ClassValue<Map<Method, CompiledMethod>> COMPILED_METHODS = new ClassValue<>() {
+
+        @Override
+        protected Map<Method, CompiledMethod> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final CompiledMethod[] getters;
+
+    /** Last getter when it returns a primitive number (null otherwise). */
+    private final ToDoubleFunction<Object> numericGetter;
+
+    private final Class<?> returnType;
+
+    private CompiledGetter(CompiledMethod[] getters, ToDoubleFunction<Object> numericGetter, Class<?> returnType) {
+        this.getters = getters;
+        this.numericGetter = numericGetter;
+        this.returnType = returnType;
+    }
+
+    /**
+     * Compile methods chain.
+     *
+     * @param accessors The methods chain (as returned by {@link LanguageBinder#getMethods(String)}).
+     * @return The compiled getter or <code>null</code> if accessors can't be compiled (iterable or map values, non
+     * accessible methods...).
+     */
+    static CompiledGetter compile(MethodAccessor[] accessors) {
+        if (accessors.length == 0) {
+            return null;
+        }
+        final CompiledMethod[] getters = new CompiledMethod[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            if (!(accessors[i] instanceof UnaryMethodAccessor)) {
+                return null;
+            }
+            final Method method = ((UnaryMethodAccessor) accessors[i]).getMethod();
+            getters[i] = COMPILED_METHODS.get(method.getDeclaringClass()).computeIfAbsent(method, CompiledMethod::new);
+            if (getters[i].function == null) {
+                return null;
+            }
+        }
+        final CompiledMethod last = getters[getters.length - 1];
+        return new CompiledGetter(getters, last.numericFunction,
+                ClassUtils.primitiveToWrapper(last.method.getReturnType()));
+    }
+
+    /**
+     * @return <code>true</code> if value is a number (comparisons are then numeric).
+     */
+    boolean isNumeric() {
+        return Number.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * @param root The bean.
+     * @return The value of the field on <code>root</code>.
+     */
+    Object get(Object root) {
+        return apply(root, getters.length);
+    }
+
+    /**
+     * @param root The bean.
+     * @param languageBinder To get the string representation of values. Numbers are read directly (without their
+     * string representation) only with {@link DefaultLanguageBinder}, where it gives the same value.
+     * @return The value of the field as double, or {@link Double#NaN} if it's not a number.
+     */
+    double getDouble(Object root, LanguageBinder languageBinder) {
+        if (languageBinder.getClass() != DefaultLanguageBinder.class) {
+            // a custom binder may change the representation of numbers (or have none).
+            return toDouble(languageBinder.valueOf(get(root)));
+        }
+        if (numericGetter != null) {
+            final Object owner = apply(root, getters.length - 1);
+            try {
+                return numericGetter.applyAsDouble(owner);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unable to invoke methods on '" + root + "'.", e);
+            }
+        }
+        final Object value = get(root);
+        if (value instanceof Number && !(value instanceof Float)) {
+            return ((Number) value).doubleValue();
+        }
+        return toDouble(languageBinder.valueOf(value));
+    }
+
+    /**
+     * @param value A string value (literal or field value). May be null.
+     * @return The double value, or {@link Double#NaN} if it's null or not a number (so it doesn't compare to any
+     * number, as {@link BeanPredicateVisitor} evaluates to <code>false</code> when value can't be parsed).
+     */
+    static double toDouble(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private Object apply(Object root, int length) {
+        Object current = root;
+        for (int i = 0; i < length; i++) {
+            if (current == null) {
+                throw new IllegalArgumentException("Unable to invoke methods on '" + root + "'.");
+            }
+            try {
+                current = getters[i].function.apply(current);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unable to invoke methods on '" + root + "'.", e);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Functions generated for a method.
+     */
+    private static final class CompiledMethod {
+
+        private final Method method;
+
+        /** Function that invokes method (null if method isn't accessible). */
+        private final Function<Object, Object> function;
+
+        /** Function that invokes method when it returns a primitive number (null otherwise). */
+        private final ToDoubleFunction<Object> numericFunction;
+
+        private CompiledMethod(Method method) {
+            this.method = method;
+            this.function = function(method);
+            final Class<?> type = method.getReturnType();
+            // float is excluded: its double widening doesn't give the same value as parsing its string representation.
+            if (function != null && type.isPrimitive() && type != boolean.class && type != char.class
+                    && type != float.class && type != void.class) {
+                this.numericFunction = toDoubleFunction(method);
+            } else {
+                this.numericFunction = null;
+            }
+        }
+    }
+
+    private static Function<Object, Object> function(Method method) {
+        final MethodHandle handle = handle(method);
+        if (handle == null) {
+            return null;
+        }
+        if (isVisible(method.getDeclaringClass())) {
+            try {
+                final Class<?> instantiatedReturn = method.getReturnType().isPrimitive()
+                        ? ClassUtils.primitiveToWrapper(method.getReturnType())
+                        : Object.class;
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), handle,
+                        MethodType.methodType(instantiatedReturn, method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                LOGGER.debug("Unable to generate getter for '{}', use method handle.", method, e);
+            }
+        }
+        final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return o -> {
+            try {
+                return generic.invokeExact(o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    private static ToDoubleFunction<Object> toDoubleFunction(Method method) {
+        final MethodHandle handle = handle(method);
+        if (isVisible(method.getDeclaringClass())) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "applyAsDouble",
+                        MethodType.methodType(ToDoubleFunction.class), MethodType.methodType(double.class, Object.class),
+                        handle, MethodType.methodType(double.class, method.getDeclaringClass()));
+                return (ToDoubleFunction<Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                LOGGER.debug("Unable to generate numeric getter for '{}', use method handle.", method, e);
+            }
+        }
+        final MethodHandle generic = handle.asType(MethodType.methodType(double.class, Object.class));
+        return o -> {
+            try {
+                return (double) generic.invokeExact(o);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    private static MethodHandle handle(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            LOGGER.debug("Method '{}' is not accessible.", method, e);
+            return null;
+        }
+    }
+
+    // Generated class is linked with this class loader: bean class must be the same from here.
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, CompiledGetter.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
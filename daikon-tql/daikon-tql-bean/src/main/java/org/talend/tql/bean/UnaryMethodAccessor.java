@@ -30,6 +30,10 @@ class UnaryMethodAccessor implements MethodAccessor {
         }).collect(Collectors.toSet());
     }
 
+    Method getMethod() {
+        return method;
+    }
+
     @Override
     public Class getReturnType() {
         return method.getReturnType();
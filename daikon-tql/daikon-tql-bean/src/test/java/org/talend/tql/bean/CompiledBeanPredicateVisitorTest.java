@@ -0,0 +1,145 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.tql.bean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.talend.tql.bean.BeanPredicateVisitorTest.Bean;
+import org.talend.tql.model.Expression;
+import org.talend.tql.parser.Tql;
+
+public class CompiledBeanPredicateVisitorTest {
+
+    private static final String[] QUERIES = { "int > 'obviously not an integer'", "int between [0,10]", "int between ]0,10]",
+            "int between [0,10[", "int between ]0,10[", "not(int > 0)", "value contains 'alu'", "value contains 'ALU'",
+            "value containsIgnoreCase 'ALu'", "value complies 'aaaaa'", "value complies '99999'", "value wordComplies '[word]'",
+            "value ~ '\\w*'", "int in [10, 20]", "int in [1, 2]", "value in ['VALUE', 'other']", "value is empty",
+            "value._class = 'java.lang.String'", "value = 'VALUE'", "value != 'value'", "int = 10", "int = 10.0", "int != 10",
+            "int < 11", "int <= 10", "int >= 10.5", "nested.nestedInt = 10", "nested.nestedDouble > 10",
+            "nested.nestedDouble = 10.1", "nested.nestedValue = 'nested'", "nestedBeans.nestedInt = 10",
+            "attributes.version = '1.0'", "attributes.tags = 'Released'", "aDifferentName = 'myValue'", "nullValue is null",
+            "nested.nestedNullValue is null", "value is null", "int = 10 and value = 'value'", "int = 11 or value = 'value'" };
+
+    private final Bean bean = new Bean();
+
+    @Test
+    public void shouldMatchAsBeanPredicateVisitor() {
+        for (String query : QUERIES) {
+            // given
+            final Expression expression = Tql.parse(query);
+
+            // when
+            final Predicate<Bean> expected = expression.accept(new BeanPredicateVisitor<>(Bean.class));
+            final Predicate<Bean> compiled = expression.accept(new CompiledBeanPredicateVisitor<>(Bean.class));
+
+            // then
+            assertEquals(expected.test(bean), compiled.test(bean), query);
+        }
+    }
+
+    @Test
+    public void numericComparisonShouldMatchBean() {
+        // given
+        final Expression query = Tql.parse("nested.nestedDouble >= 10.1 and int < 10.5");
+
+        // when
+        final Predicate<Bean> predicate = query.accept(new CompiledBeanPredicateVisitor<>(Bean.class));
+
+        // then
+        assertTrue(predicate.test(bean));
+    }
+
+    @Test
+    public void invalidNumberShouldNotMatchBean() {
+        // given
+        final Expression query = Tql.parse("int <= 'ten'");
+
+        // when
+        final Predicate<Bean> predicate = query.accept(new CompiledBeanPredicateVisitor<>(Bean.class));
+
+        // then
+        assertFalse(predicate.test(bean));
+    }
+
+    @Test
+    public void numericComparisonShouldUseCustomBinder() {
+        // given
+        final LanguageBinder binder = new DefaultLanguageBinder(Bean.class) {
+
+            @Override
+            public String valueOf(Object value) {
+                return value instanceof Number ? String.valueOf(((Number) value).doubleValue() * 2) : super.valueOf(value);
+            }
+        };
+
+        for (String query : new String[] { "int = 20", "int > 15", "int between [15, 25]", "int in [20, 30]",
+                "nested.nestedDouble = 20.2" }) {
+            // when
+            final Expression expression = Tql.parse(query);
+            final Predicate<Bean> expected = expression.accept(new BeanPredicateVisitor<>(Bean.class, binder));
+            final Predicate<Bean> compiled = expression.accept(new CompiledBeanPredicateVisitor<>(Bean.class, binder));
+
+            // then
+            assertTrue(compiled.test(bean), query);
+            assertEquals(expected.test(bean), compiled.test(bean), query);
+        }
+    }
+
+    @Test
+    public void nullFromCustomBinderShouldNotMatch() {
+        // given
+        final LanguageBinder binder = new DefaultLanguageBinder(Bean.class) {
+
+            @Override
+            public String valueOf(Object value) {
+                return null;
+            }
+        };
+
+        for (String query : new String[] { "int = 10", "int > 5", "int between [5, 15]", "int in [10, 20]",
+                "not(int < 5)", "nested.nestedDouble >= 10", "value ~ '\\w*'", "value complies 'aaaaa'",
+                "value = 'value'", "value in ['value']" }) {
+            // when
+            final Expression expression = Tql.parse(query);
+            final Predicate<Bean> expected = expression.accept(new BeanPredicateVisitor<>(Bean.class, binder));
+            final Predicate<Bean> compiled = expression.accept(new CompiledBeanPredicateVisitor<>(Bean.class, binder));
+
+            // then
+            assertEquals(expected.test(bean), compiled.test(bean), query);
+        }
+    }
+
+    @Test
+    public void gettersShouldShareGeneratedFunctions() throws Exception {
+        // given
+        final MethodAccessor[] accessors = new DefaultLanguageBinder(Bean.class).getMethods("int");
+
+        // when
+        final CompiledGetter first = CompiledGetter.compile(accessors);
+        final CompiledGetter second = CompiledGetter.compile(accessors);
+
+        // then
+        final Field getters = CompiledGetter.class.getDeclaredField("getters");
+        getters.setAccessible(true);
+        assertSame(((Object[]) getters.get(first))[0], ((Object[]) getters.get(second))[0]);
+        assertEquals(first.get(bean), second.get(bean));
+    }
+
+    @Test
+    public void shouldNotMatchBeanOnMissingField() {
+        assertThrows(UnsupportedOperationException.class, () -> {
+            // given
+            final Expression query = Tql.parse("wrongField = 'value'");
+
+            // when
+            query.accept(new CompiledBeanPredicateVisitor<>(Bean.class));
+        });
+    }
+}
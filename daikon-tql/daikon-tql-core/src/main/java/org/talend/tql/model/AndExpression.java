@@ -19,7 +19,7 @@ public class AndExpression implements Expression {
     }
 
     public Expression[] getExpressions() {
-        return expressions;
+        return expressions.clone();
     }
 
     @Override
@@ -47,6 +47,6 @@ public class AndExpression implements Expression {
     @Override
     public boolean equals(Object expression) {
         return expression instanceof AndExpression
-                && new EqualsBuilder().append(((AndExpression) expression).getExpressions(), this.expressions).isEquals();
+                && new EqualsBuilder().append(((AndExpression) expression).expressions, this.expressions).isEquals();
     }
 }
@@ -29,7 +29,7 @@ public class FieldInExpression implements Atom {
     }
 
     public LiteralValue[] getValues() {
-        return values;
+        return values.clone();
     }
 
     @Override
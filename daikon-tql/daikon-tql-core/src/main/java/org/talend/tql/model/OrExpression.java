@@ -22,7 +22,7 @@ public class OrExpression implements Expression {
     }
 
     public Expression[] getExpressions() {
-        return expressions;
+        return expressions.clone();
     }
 
     @Override
@@ -49,6 +49,6 @@ public class OrExpression implements Expression {
     @Override
     public boolean equals(Object expression) {
         return expression instanceof OrExpression
-                && new EqualsBuilder().append(expressions, ((OrExpression) expression).getExpressions()).isEquals();
+                && new EqualsBuilder().append(expressions, ((OrExpression) expression).expressions).isEquals();
     }
 }
@@ -1,9 +1,18 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.tql.parser;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.talend.tql.TqlLexer;
 import org.talend.tql.TqlParser;
 import org.talend.tql.excp.TqlException;
@@ -12,11 +21,31 @@ import org.talend.tql.model.TqlElement;
 
 /**
  * Provides utility to parse TQL queries.
+ * <p>
+ * Parsed queries are kept in a bounded cache (least recently used queries are removed): parsing the same query text
+ * again returns the same {@link Expression} instance. Model elements are immutable (array getters return copies), so
+ * shared expressions can't be changed by callers.
  * 
  * @see #parse(String)
  */
 public class Tql {
 
+    /** max number of parsed queries kept in cache */
+    public static final int CACHE_MAX_SIZE = 1024;
+
+    /** parsed queries in access order, guarded by its own lock (queries are parsed outside of it) */
+    private static final Map<String, Expression> CACHE = new LinkedHashMap<String, Expression>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+            return this.size() > CACHE_MAX_SIZE;
+        }
+    };
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
     private Tql() {
     }
 
@@ -24,13 +53,72 @@ public class Tql {
      * Parses the query text and returns a {@link TqlElement AST} of the query.
      * 
      * @param query A valid query text.
-     * @return A {@link TqlElement AST} of the query.
+     * @return A {@link TqlElement AST} of the query (shared with other callers parsing the same query).
      */
     public static Expression parse(String query) {
+        Expression expression;
+        synchronized (CACHE) {
+            expression = CACHE.get(query);
+        }
+        if (expression != null) {
+            HITS.increment();
+            return expression;
+        }
+        MISSES.increment();
+        expression = doParse(query);
+        synchronized (CACHE) {
+            final Expression previous = CACHE.putIfAbsent(query, expression);
+            return previous == null ? expression : previous;
+        }
+    }
+
+    public static long getCacheHits() {
+        return HITS.sum();
+    }
+
+    public static long getCacheMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Remove all parsed queries from cache.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * For tests only.
+     */
+    static boolean isCached(String query) {
+        synchronized (CACHE) {
+            return CACHE.containsKey(query);
+        }
+    }
+
+    private static Expression doParse(String query) {
         CharStream input = CharStreams.fromString(query);
         TqlLexer lexer = new TqlLexer(input);
-        TqlParser parser = new TqlParser(new CommonTokenStream(lexer));
-        TqlParser.ExpressionContext expression = parser.expression();
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        TqlParser parser = new TqlParser(tokens);
+
+        // Try faster SLL prediction first (enough for almost all queries), use full LL only if it fails.
+        TqlParser.ExpressionContext expression;
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            expression = parser.expression();
+        } catch (ParseCancellationException e) {
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            expression = parser.expression();
+        }
         TqlElement accept = expression.accept(new TqlExpressionVisitor());
         try {
             return (Expression) accept;
@@ -1,12 +1,24 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.tql.parser;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.junit.jupiter.api.Test;
+import org.talend.tql.TqlLexer;
+import org.talend.tql.TqlParser;
 import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.AndExpression;
 import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.OrExpression;
 
 public class TqlTest {
 
@@ -28,4 +40,72 @@ public class TqlTest {
         });
     }
 
-}
\ No newline at end of file
+    @Test
+    public void parse_cached() throws Exception {
+        String query = "name = 'cached' and age > 10";
+        Expression first = Tql.parse(query);
+        long hits = Tql.getCacheHits();
+
+        Expression second = Tql.parse(query);
+
+        assertSame(first, second);
+        assertEquals(hits + 1, Tql.getCacheHits());
+    }
+
+    @Test
+    public void parse_sameAsFullLL() throws Exception {
+        String[] queries = { "toto = 'hello world'", "(f1 = 1 and f2 = 2.5) or not(f3 is empty)",
+                "f1 between [1, 10[ and (f2 ~ '^a.*' or f3 wordComplies '[word]') and f4 in ['a', 'b']",
+                "((((f1 = 1)))) or ((f2 contains 'x' and f3 containsIgnoreCase 'Y') or * complies 'Aa9')" };
+        for (String query : queries) {
+            Tql.clearCache();
+
+            Expression parsed = Tql.parse(query);
+
+            TqlParser parser = new TqlParser(new CommonTokenStream(new TqlLexer(CharStreams.fromString(query))));
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            assertEquals(parser.expression().accept(new TqlExpressionVisitor()).toString(), parsed.toString());
+        }
+    }
+
+    @Test
+    public void parse_invalidNotCached() throws Exception {
+        long misses = Tql.getCacheMisses();
+
+        assertThrows(TqlException.class, () -> Tql.parse("toto"));
+        assertThrows(TqlException.class, () -> Tql.parse("toto"));
+
+        assertFalse(Tql.isCached("toto"));
+        assertEquals(misses + 2, Tql.getCacheMisses());
+    }
+
+    @Test
+    public void parse_leastRecentlyUsedEvicted() throws Exception {
+        Tql.clearCache();
+        String first = "f0 = 0";
+        Tql.parse(first);
+        Tql.parse("f1 = 1");
+        for (int i = 2; i <= Tql.CACHE_MAX_SIZE; i++) {
+            // keep first query recently used.
+            Tql.parse(first);
+            Tql.parse("f" + i + " = " + i);
+        }
+
+        assertTrue(Tql.isCached(first));
+        assertFalse(Tql.isCached("f1 = 1"));
+        assertTrue(Tql.isCached("f" + Tql.CACHE_MAX_SIZE + " = " + Tql.CACHE_MAX_SIZE));
+    }
+
+    @Test
+    public void parse_sharedExpressionNotModified() throws Exception {
+        String query = "f1 = 1 and f2 in ['a', 'b']";
+        Expression parsed = Tql.parse(query);
+        String expected = parsed.toString();
+
+        AndExpression and = (AndExpression) ((OrExpression) parsed).getExpressions()[0];
+        and.getExpressions()[0] = null;
+        ((FieldInExpression) and.getExpressions()[1]).getValues()[0] = null;
+
+        assertEquals(expected, Tql.parse(query).toString());
+    }
+}
@@ -9,8 +9,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.Document;
 import org.springframework.data.mongodb.core.query.Criteria;
-import org.talend.daikon.pattern.character.CharPatternToRegex;
-import org.talend.daikon.pattern.word.WordPatternToRegex;
+import org.talend.daikon.pattern.PatternCache;
 import org.talend.tql.model.AllFields;
 import org.talend.tql.model.AndExpression;
 import org.talend.tql.model.ComparisonExpression;
@@ -43,6 +42,8 @@ public class ASTVisitor implements IASTVisitor<Object> {
 
     public static final String MONGO_ESCAPE_PATTERN = "[\\.\\^\\$\\*\\+\\?\\(\\)\\[\\{\\\\\\|]";
 
+    private static final PatternCache PATTERNS = PatternCache.getDefault();
+
     private boolean isNegation = false;
 
     @Override
@@ -211,7 +212,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
             return Criteria.where(fieldName).ne("");
         }
 
-        Pattern regexCompiled = Pattern.compile(regex);
+        Pattern regexCompiled = PATTERNS.compile(regex);
         if (!isNegation)
             return Criteria.where(fieldName).regex(regexCompiled);
         return Criteria.where(fieldName).not().regex(regexCompiled);
@@ -226,8 +227,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
                 return Criteria.where(fieldName).is("");
             return Criteria.where(fieldName).ne("");
         }
-        String regex = CharPatternToRegex.toRegex(pattern);
-        Pattern regexCompiled = Pattern.compile(regex);
+        Pattern regexCompiled = PATTERNS.charPattern(pattern);
         if (!isNegation)
             return Criteria.where(fieldName).regex(regexCompiled);
         return Criteria.where(fieldName).not().regex(regexCompiled);
@@ -242,7 +242,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
                 return Criteria.where(fieldName).is("");
             return Criteria.where(fieldName).ne("");
         }
-        String regex = WordPatternToRegex.toRegex(pattern, true);
+        String regex = PATTERNS.wordPatternRegex(pattern, true);
         return getRegexpForWordPattern(fieldName, regex, isNegation);
     }
 
@@ -9,6 +9,7 @@ import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.apache.avro.Schema;
@@ -62,6 +63,23 @@ public class AvroRegistry {
      */
     private static Map<Class<?>, SerializableSupplier<? extends IndexedRecordConverter<?, ?>>> mapSharedIndexedRecordConverter = new HashMap<>();
 
+    /**
+     * Resolved lookups (class hierarchy included) in {@link #mapSharedConverter}.
+     */
+    private static final ClassResolutionCache<AvroConverter<?, ?>> sharedConverterCache = new ClassResolutionCache<>(
+            mapSharedConverter);
+
+    /**
+     * Resolved lookups (class hierarchy included) in {@link #mapSharedIndexedRecordConverter}.
+     */
+    private static final ClassResolutionCache<SerializableSupplier<? extends IndexedRecordConverter<?, ?>>> sharedIndexedRecordConverterCache = new ClassResolutionCache<>(
+            mapSharedIndexedRecordConverter);
+
+    /**
+     * Resolved lookups (class hierarchy included) in {@link #mapConverter}.
+     */
+    private final ClassResolutionCache<AvroConverter<?, ?>> converterCache = new ClassResolutionCache<>(mapConverter);
+
     /**
      * Registers a reusable mechanism to obtain a {@link Schema} from a specific class of object and makes it available
      * to the {@link #inferSchema(Object)} method.
@@ -104,8 +122,8 @@ public class AvroRegistry {
      * all components.
      */
     private static <DatumT> void registerSharedPrimitiveClass(Class<DatumT> primitiveClass, Schema schema) {
-        mapSharedConverter.put(primitiveClass, new Unconverted<>(primitiveClass, schema));
-        mapSharedIndexedRecordConverter.put(primitiveClass,
+        sharedConverterCache.put(primitiveClass, new Unconverted<>(primitiveClass, schema));
+        sharedIndexedRecordConverterCache.put(primitiveClass,
                 new LambdaSingleColumnIndexedRecordConverterSupplier<>(primitiveClass, schema));
     }
 
@@ -114,8 +132,8 @@ public class AvroRegistry {
      * be reused by all components.
      */
     private static <DatumT> void registerSharedPrimitiveClass(Class<DatumT> primitiveClass, AvroConverter<DatumT, ?> converter) {
-        mapSharedConverter.put(primitiveClass, converter);
-        mapSharedIndexedRecordConverter.put(primitiveClass,
+        sharedConverterCache.put(primitiveClass, converter);
+        sharedIndexedRecordConverterCache.put(primitiveClass,
                 new LambdaSingleColumnIndexedRecordConverterSupplier<>(primitiveClass, converter.getSchema()));
     }
 
@@ -164,7 +182,7 @@ public class AvroRegistry {
      * instance.
      */
     public <DatumT> void registerConverter(Class<DatumT> specificClass, AvroConverter<DatumT, ?> avroConverter) {
-        mapConverter.put(specificClass, avroConverter);
+        converterCache.put(specificClass, avroConverter);
     }
 
     /**
@@ -179,13 +197,13 @@ public class AvroRegistry {
         // If a converter exists, it is guaranteed to be correctly typed because of the register methods.
 
         // Try to get a private converter first.
-        AvroConverter<T, ?> converter = getFromClassRegistry(mapConverter, datumClass);
+        AvroConverter<T, ?> converter = converterCache.get(datumClass);
         if (converter != null) {
             return converter;
         }
 
         // Fall-back on the shared converters.
-        return getFromClassRegistry(mapSharedConverter, datumClass);
+        return sharedConverterCache.get(datumClass);
     }
 
     /**
@@ -197,7 +215,7 @@ public class AvroRegistry {
      */
     protected <DatumT, ConverterT extends IndexedRecordConverter<? super DatumT, ?>> void registerIndexedRecordConverter(
             Class<DatumT> datumClass, Class<ConverterT> converterClass) {
-        mapSharedIndexedRecordConverter.put(datumClass, new LambdaCreateANewInstanceSupplier<>(datumClass, converterClass));
+        sharedIndexedRecordConverterCache.put(datumClass, new LambdaCreateANewInstanceSupplier<>(datumClass, converterClass));
     }
 
     /**
@@ -209,7 +227,7 @@ public class AvroRegistry {
      */
     protected <T> void registerIndexedRecordConverter(Class<T> datumClass,
             SerializableSupplier<? extends IndexedRecordConverter<? super T, ?>> converterFactory) {
-        mapSharedIndexedRecordConverter.put(datumClass, converterFactory);
+        sharedIndexedRecordConverterCache.put(datumClass, converterFactory);
     }
 
     /**
@@ -226,8 +244,8 @@ public class AvroRegistry {
     public <DatumT> IndexedRecordConverter<? super DatumT, ?> createIndexedRecordConverter(Class<DatumT> datumClass) {
         // This is guaranteed to be correctly typed if it exists, because of the register methods.
         @SuppressWarnings({ "rawtypes", "unchecked" })
-        Supplier<? extends IndexedRecordConverter<DatumT, ?>> converter = (Supplier) getFromClassRegistry(
-                mapSharedIndexedRecordConverter, datumClass);
+        Supplier<? extends IndexedRecordConverter<DatumT, ?>> converter = (Supplier) sharedIndexedRecordConverterCache
+                .get(datumClass);
 
         if (converter == null && IndexedRecord.class.isAssignableFrom(datumClass)) {
             @SuppressWarnings("unchecked")
@@ -276,6 +294,50 @@ public class AvroRegistry {
         return null;
     }
 
+    /**
+     * Caches the result of {@link #getFromClassRegistry(Map, Class)} for a registry map.
+     * <p>
+     * Resolved values are stored in a {@link ClassValue} so that lookups don't walk the class hierarchy again and
+     * don't prevent looked up classes from being unloaded. Registering a new value through {@link #put(Class, Object)}
+     * discards all resolved values, since the new registration may be a better match for any class.
+     */
+    private static final class ClassResolutionCache<V> {
+
+        private final Map<Class<?>, V> map;
+
+        private volatile ClassValue<Optional<V>> resolved = newResolved();
+
+        private ClassResolutionCache(Map<Class<?>, V> map) {
+            this.map = map;
+        }
+
+        private synchronized void put(Class<?> datumClass, V value) {
+            map.put(datumClass, value);
+            // Replaced after map is updated: resolutions in the new instance always see the registration.
+            resolved = newResolved();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends V> T get(Class<?> datumClass) {
+            if (datumClass == null) {
+                return null;
+            }
+            return (T) resolved.get(datumClass).orElse(null);
+        }
+
+        private ClassValue<Optional<V>> newResolved() {
+            return new ClassValue<Optional<V>>() {
+
+                @Override
+                protected Optional<V> computeValue(Class<?> type) {
+                    synchronized (ClassResolutionCache.this) {
+                        return Optional.ofNullable(getFromClassRegistry(map, type));
+                    }
+                }
+            };
+        }
+    }
+
     /**
      * Given a class and a parameter, attempts to create an instance of that object by looking for a constructor.
      * <p>
@@ -5,9 +5,7 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 
 import org.apache.avro.Schema;
-import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.IndexedRecord;
-import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.container.ContainerReaderByIndex;
 import org.talend.daikon.avro.container.ContainerWriterByIndex;
 
@@ -48,6 +46,18 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
     /** The cached ContainerReaderByIndex objects for the fields of this record. */
     protected transient ContainerWriterByIndex<? super SettableT, ?>[] fieldWriter;
 
+    /**
+     * The fields of the (non-nullable) record schema compiled by position, so that no schema is navigated per field
+     * access and values already in the Avro representation of a primitive field are read without any converter.
+     */
+    private transient CompiledFieldConverter[] fields;
+
+    /**
+     * For each field without an AvroConverter, the class of the values that the lookup returned no converter for.
+     * Values of that class are passed through without any further lookup, values of other classes are looked up again.
+     */
+    private transient Class<?>[] passThroughClass;
+
     /**
      * Create a new instance of this class. It will self-initialize as necessary. This can be an expensive operation, so
      * instances of this class should be cached where possible.
@@ -76,14 +86,17 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
     public void setSchema(Schema schema) {
         this.schema = schema;
         if (schema != null) {
+            fields = CompiledFieldConverter.compile(schema);
             // Initialized on the first convertToAvro or convertToDatum call.
-            fieldType = (FieldDataSpecT[]) Array.newInstance(fieldDataSpecClass,
-                    AvroUtils.unwrapIfNullable(schema).getFields().size());
+            fieldType = (FieldDataSpecT[]) Array.newInstance(fieldDataSpecClass, fields.length);
             // Initialized on the first get(i) call on the indexed record for that field.
-            fieldConverter = new AvroConverter[fieldType.length];
+            fieldConverter = new AvroConverter[fields.length];
+            passThroughClass = new Class<?>[fields.length];
         } else {
+            fields = null;
             fieldType = null;
             fieldConverter = null;
+            passThroughClass = null;
             fieldWriter = null;
             fieldReader = null;
         }
@@ -136,18 +149,38 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
 
     @Override
     public Iterable<AvroConverter<?, ?>> getNestedAvroConverters() {
-        for (Schema.Field f : AvroUtils.unwrapIfNullable(getSchema()).getFields()) {
-            int i = f.pos();
+        for (int i = 0; i < fields.length; i++) {
             if (fieldType[i] == null) {
                 fieldType[i] = getFieldDataSpec(i);
             }
             if (fieldConverter[i] == null) {
-                fieldConverter[i] = getConverter(fieldType[i], f.schema(), null);
+                fieldConverter[i] = getConverter(fieldType[i], fields[i].getField().schema(), null);
             }
         }
         return Arrays.asList((AvroConverter<?, ?>[]) fieldConverter);
     }
 
+    /**
+     * Looks up and caches the AvroConverter of a field, or remembers that values of the given class have none.
+     *
+     * @param i The index of the field.
+     * @param fDatumClass The class of the field value.
+     * @return The converter of the field, or null if values of this class don't need to be converted.
+     */
+    @SuppressWarnings("rawtypes")
+    private AvroConverter resolveConverter(int i, Class<?> fDatumClass) {
+        if (passThroughClass[i] == fDatumClass) {
+            return null;
+        }
+        AvroConverter converter = getConverter(fieldType[i], fields[i].getField().schema(), fDatumClass);
+        if (converter != null) {
+            fieldConverter[i] = converter;
+        } else {
+            passThroughClass[i] = fDatumClass;
+        }
+        return converter;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public IndexedRecord convertToAvro(GettableT gettable) {
@@ -159,12 +192,12 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
 
         // Create all of the readers for the record immediately.
         if (fieldReader == null) {
-            fieldReader = new ContainerReaderByIndex[fieldType.length];
-            for (Field f : AvroUtils.unwrapIfNullable(getSchema()).getFields()) {
-                int i = f.pos();
+            ContainerReaderByIndex<? super GettableT, ?>[] readers = new ContainerReaderByIndex[fields.length];
+            for (int i = 0; i < fields.length; i++) {
                 fieldType[i] = getFieldDataSpec(i);
-                fieldReader[i] = getFieldReader(fieldType[i]);
+                readers[i] = getFieldReader(fieldType[i]);
             }
+            fieldReader = readers;
         }
 
         return record;
@@ -175,18 +208,17 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
     public GettableT convertToDatum(IndexedRecord record) {
 
         if (fieldWriter == null) {
-            fieldWriter = new ContainerWriterByIndex[fieldType.length];
-            for (Field f : AvroUtils.unwrapIfNullable(getSchema()).getFields()) {
-                int i = f.pos();
+            ContainerWriterByIndex<? super SettableT, ?>[] writers = new ContainerWriterByIndex[fields.length];
+            for (int i = 0; i < fields.length; i++) {
                 fieldType[i] = getFieldDataSpec(i);
-                fieldWriter[i] = getFieldWriter(fieldType[i]);
+                writers[i] = getFieldWriter(fieldType[i]);
             }
+            fieldWriter = writers;
         }
 
         SettableT value = createOrGetInstance();
 
-        for (Field f : AvroUtils.unwrapIfNullable(getSchema()).getFields()) {
-            int fieldIndex = f.pos();
+        for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
             if (fieldType[fieldIndex] == null) {
                 fieldType[fieldIndex] = getFieldDataSpec(fieldIndex);
             }
@@ -197,13 +229,15 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
                 continue;
             }
 
-            if (fieldConverter[fieldIndex] == null) {
-                fieldConverter[fieldIndex] = getConverter(fieldType[fieldIndex], f.schema(), fieldValue.getClass());
+            @SuppressWarnings("rawtypes")
+            AvroConverter converter = fieldConverter[fieldIndex];
+            if (converter == null) {
+                converter = resolveConverter(fieldIndex, fieldValue.getClass());
             }
 
             @SuppressWarnings("rawtypes")
             ContainerWriterByIndex writer = fieldWriter[fieldIndex];
-            writer.writeValue(value, f.pos(), fieldConverter[fieldIndex].convertToDatum(fieldValue));
+            writer.writeValue(value, fieldIndex, converter == null ? fieldValue : converter.convertToDatum(fieldValue));
         }
         return (GettableT) value;
     }
@@ -236,20 +270,17 @@ public abstract class CachedIndexedRecordConverterBase<ContainerDataSpecT, Field
         @Override
         public Object get(int i) {
             Object value = fieldReader[i].readValue(gettable, i);
-            if (value == null) {
-                return null;
+            if (value == null || fields[i].isAvroValue(value)) {
+                return value;
             }
 
-            if (fieldConverter[i] == null) {
-                fieldConverter[i] = getConverter(fieldType[i], AvroUtils.unwrapIfNullable(schema).getFields().get(i).schema(),
-                        value.getClass());
-            }
-
-            if (fieldConverter[i] != null) {
-                value = fieldConverter[i].convertToAvro(value);
+            @SuppressWarnings("rawtypes")
+            AvroConverter converter = fieldConverter[i];
+            if (converter == null) {
+                converter = resolveConverter(i, value.getClass());
             }
 
-            return value;
+            return converter == null ? value : converter.convertToAvro(value);
         }
 
         @Override
@@ -7,6 +7,9 @@ import org.apache.avro.generic.IndexedRecord;
 /**
  * A base for {@link IndexedRecord} implementations that respect the Java {@link Object} contracts for {@link #equals},
  * {@link #hashCode} and {@link #compareTo}.
+ * <p>
+ * These methods walk the schema on each call: to sort or group many records, encode each record once with a
+ * {@link org.talend.daikon.avro.sort.SortKeyEncoder} and compare the keys instead.
  */
 public abstract class ComparableIndexedRecordBase implements IndexedRecord, Comparable<IndexedRecord> {
 
@@ -19,7 +22,6 @@ public abstract class ComparableIndexedRecordBase implements IndexedRecord, Comp
         IndexedRecord that = (IndexedRecord) o;
         if (!this.getSchema().equals(that.getSchema()))
             return false;
-        // TODO(rskraba): there should be an better&faster compare for Avro!
         return GenericData.get().compare(this, that, getSchema()) == 0;
     }
 
@@ -0,0 +1,120 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.converter;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.util.Utf8;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.SchemaConstants;
+
+/**
+ * What is known of one field of a record schema once that schema is compiled with {@link #compile(Schema)}: its
+ * position, its nullable union (["null", X] or [X, "null"]) resolved to X, and for a primitive type X without logical
+ * type nor Java class, the values that are already in their Avro representation and need no converter.
+ */
+public final class CompiledFieldConverter {
+
+    private final int position;
+
+    private final Field field;
+
+    /** The schema of the field, without its nullable union. */
+    private final Schema schema;
+
+    private final boolean nullable;
+
+    /** The primitive type whose Avro values are passed through as they are, or null if values must be converted. */
+    private final Schema.Type primitiveType;
+
+    private CompiledFieldConverter(int position, Field field) {
+        this.position = position;
+        this.field = field;
+        this.schema = AvroUtils.unwrapIfNullable(field.schema());
+        this.nullable = AvroUtils.isNullable(field.schema());
+        this.primitiveType = getPrimitiveType(schema);
+    }
+
+    /**
+     * Compiles a record schema into the converters of its fields, by position.
+     *
+     * @param recordSchema The schema of the record, that can be wrapped in a nullable union.
+     * @return One compiled converter for each field of the record, at the index of the field.
+     */
+    public static CompiledFieldConverter[] compile(Schema recordSchema) {
+        List<Field> fields = AvroUtils.unwrapIfNullable(recordSchema).getFields();
+        CompiledFieldConverter[] converters = new CompiledFieldConverter[fields.size()];
+        for (int i = 0; i < converters.length; i++) {
+            converters[i] = new CompiledFieldConverter(i, fields.get(i));
+        }
+        return converters;
+    }
+
+    private static Schema.Type getPrimitiveType(Schema fieldSchema) {
+        if (fieldSchema.getLogicalType() != null || fieldSchema.getProp(SchemaConstants.JAVA_CLASS_FLAG) != null) {
+            return null;
+        }
+        switch (fieldSchema.getType()) {
+        case BOOLEAN:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case STRING:
+        case BYTES:
+            return fieldSchema.getType();
+        default:
+            return null;
+        }
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return The schema of the field, without its nullable union.
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * @param value A non-null value of the field.
+     * @return true if the value is already in the Avro representation of the primitive type of the field, so it can be
+     * used as it is, without looking up any converter.
+     */
+    public boolean isAvroValue(Object value) {
+        if (primitiveType == null) {
+            return false;
+        }
+        switch (primitiveType) {
+        case BOOLEAN:
+            return value instanceof Boolean;
+        case INT:
+            return value instanceof Integer;
+        case LONG:
+            return value instanceof Long;
+        case FLOAT:
+            return value instanceof Float;
+        case DOUBLE:
+            return value instanceof Double;
+        case STRING:
+            return value instanceof String || value instanceof Utf8;
+        case BYTES:
+            return value instanceof ByteBuffer;
+        default:
+            return false;
+        }
+    }
+}
@@ -30,6 +30,8 @@ import com.fasterxml.jackson.databind.node.ValueNode;
  */
 public class JsonGenericRecordConverter implements AvroConverter<String, GenericRecord> {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private JsonSchemaInferrer jsonSchemaInferrer;
 
     private Schema schema;
@@ -38,7 +40,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
      * Constructor
      */
     public JsonGenericRecordConverter() {
-        this.jsonSchemaInferrer = JsonSchemaInferrer.createJsonSchemaInferrer();
+        this.jsonSchemaInferrer = new JsonSchemaInferrer(MAPPER);
     }
 
     /**
@@ -47,7 +49,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
      * @param schema
      */
     public JsonGenericRecordConverter(Schema schema) {
-        this.jsonSchemaInferrer = JsonSchemaInferrer.createJsonSchemaInferrer();
+        this.jsonSchemaInferrer = new JsonSchemaInferrer(MAPPER);
         this.schema = schema;
     }
 
@@ -77,8 +79,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
     @Override
     public GenericRecord convertToAvro(String json) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.readTree(json);
+            JsonNode jsonNode = MAPPER.readTree(json);
             return getOutputRecord(jsonNode, schema);
         } catch (IOException | TalendRuntimeException e) {
             throw TalendRuntimeException.createUnexpectedException(e.getCause());
@@ -107,7 +108,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
                 if (nextNode instanceof ValueNode) {
                     outputRecord.set(mapEntry.getKey(), getValue(nextNode));
                 } else if (nextNode instanceof ObjectNode) {
-                    Schema schemaTo = jsonSchemaInferrer.inferSchema(nextNode.toString());
+                    Schema schemaTo = jsonSchemaInferrer.inferSchema(nextNode);
                     GenericRecord record = getOutputRecord(nextNode, schemaTo);
                     outputRecord.set(mapEntry.getKey(), record);
                 } else if (nextNode instanceof ArrayNode) {
@@ -118,7 +119,7 @@ public class JsonGenericRecordConverter implements AvroConverter<String, Generic
                         if (nodeTo instanceof ValueNode) {
                             listRecords.add(getValue(nodeTo));
                         } else {
-                            Schema schemaTo = jsonSchemaInferrer.inferSchema(nodeTo.toString());
+                            Schema schemaTo = jsonSchemaInferrer.inferSchema(nodeTo);
                             listRecords.add(getOutputRecord(nodeTo, schemaTo));
                         }
                     }
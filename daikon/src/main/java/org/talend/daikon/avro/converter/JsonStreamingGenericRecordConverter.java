@@ -0,0 +1,358 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.converter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.inferrer.JsonSchemaInferrer;
+import org.talend.daikon.exception.TalendRuntimeException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Converts Json String to Avro Generic Record, inferring the schema of each record.
+ * <p>
+ * Contrary to {@link JsonGenericRecordConverter}, Json is read with a streaming {@link JsonParser} in a single pass: no
+ * intermediate tree is built and nested objects are not serialized again to infer their schema. While reading, the
+ * structure of the Json object (field names and value types) is recorded, and used as key of a cache of inferred
+ * schemas: a stream of Json objects with the same structure shares the same {@link Schema} instance.
+ * <p>
+ * Inferred schemas are the same as the ones of {@link JsonSchemaInferrer#inferSchema(String)}, except that integers too
+ * large for a long are kept as strings.
+ * <p>
+ * Instances are thread-safe and should be reused so that inferred schemas are too.
+ */
+public class JsonStreamingGenericRecordConverter implements AvroConverter<String, GenericRecord> {
+
+    /** default max number of cached schemas */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /** readers given to {@link #convertAll(Reader, Consumer)} belong to the caller, they're not closed by parser */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    /** Schemas of top level records, by structure, in access order (guarded by its own lock). */
+    private final Map<String, Schema> recordSchemas;
+
+    /** Schemas of records nested in arrays, by structure, in access order (guarded by its own lock). */
+    private final Map<String, Schema> subRecordSchemas;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor
+     */
+    public JsonStreamingGenericRecordConverter() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxCacheSize max number of cached schemas.
+     */
+    public JsonStreamingGenericRecordConverter(int maxCacheSize) {
+        if (maxCacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.recordSchemas = newSchemaCache(maxCacheSize);
+        this.subRecordSchemas = newSchemaCache(maxCacheSize);
+    }
+
+    private static Map<String, Schema> newSchemaCache(int maxCacheSize) {
+        return new LinkedHashMap<String, Schema>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Schema> eldest) {
+                return size() > maxCacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return null, as the schema is inferred for each converted record.
+     */
+    @Override
+    public Schema getSchema() {
+        return null;
+    }
+
+    @Override
+    public Class<String> getDatumClass() {
+        return String.class;
+    }
+
+    @Override
+    public String convertToDatum(GenericRecord record) {
+        return record.toString();
+    }
+
+    /**
+     * Convert Json String to Avro Generic Record.
+     *
+     * TalendRuntimeException thrown when Json is invalid or isn't an object.
+     *
+     * @param json string to convert
+     * @return Avro Generic Record.
+     */
+    @Override
+    public GenericRecord convertToAvro(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return parser.nextToken() == null ? null : next(parser, new StringBuilder());
+        } catch (IOException e) {
+            throw TalendRuntimeException.createUnexpectedException(e);
+        }
+    }
+
+    /**
+     * Convert all Json objects of a stream (such as newline-delimited Json) to Avro Generic Records.
+     *
+     * TalendRuntimeException thrown when Json is invalid or isn't an object.
+     *
+     * @param json stream to convert, not closed by this method.
+     * @param consumer called with each Avro Generic Record, in the order of the stream.
+     * @return number of converted records.
+     */
+    public long convertAll(Reader json, Consumer<? super GenericRecord> consumer) {
+        long count = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            final StringBuilder structure = new StringBuilder();
+            while (parser.nextToken() != null) {
+                structure.setLength(0);
+                consumer.accept(next(parser, structure));
+                count++;
+            }
+        } catch (IOException e) {
+            throw TalendRuntimeException.createUnexpectedException(e);
+        }
+        return count;
+    }
+
+    public long getSchemaCacheHits() {
+        return hits.sum();
+    }
+
+    public long getSchemaCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Reads the Json object the parser is positioned on.
+     */
+    private GenericRecord next(JsonParser parser, StringBuilder structure) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw TalendRuntimeException.createUnexpectedException("Json object expected, got " + parser.currentToken());
+        }
+        ParsedRecord parsed = parseRecord(parser, structure);
+        Schema schema = getSchema(recordSchemas, structure.toString(), parsed, true);
+        return toRecord(parsed, schema);
+    }
+
+    /**
+     * Reads a Json object and appends its structure.
+     */
+    private ParsedRecord parseRecord(JsonParser parser, StringBuilder structure) throws IOException {
+        ParsedRecord parsed = new ParsedRecord();
+        structure.append('{');
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            // Length prefix keeps structure unambiguous whatever the characters in names.
+            structure.append(name.length()).append(':').append(name);
+            parser.nextToken();
+            parsed.names.add(name);
+            parsed.values.add(parseValue(parser, structure));
+        }
+        structure.append('}');
+        return parsed;
+    }
+
+    private Object parseValue(JsonParser parser, StringBuilder structure) throws IOException {
+        switch (parser.currentToken()) {
+        case START_OBJECT:
+            return parseRecord(parser, structure);
+        case START_ARRAY:
+            return parseArray(parser, structure);
+        case VALUE_NUMBER_INT:
+            switch (parser.getNumberType()) {
+            case INT:
+                structure.append('i');
+                return parser.getIntValue();
+            case LONG:
+                structure.append('l');
+                return parser.getLongValue();
+            default:
+                structure.append('s');
+                return parser.getText();
+            }
+        case VALUE_NUMBER_FLOAT:
+            structure.append('d');
+            return parser.getDoubleValue();
+        case VALUE_TRUE:
+        case VALUE_FALSE:
+            structure.append('b');
+            return parser.getBooleanValue();
+        case VALUE_STRING:
+            structure.append('s');
+            return parser.getText();
+        default:
+            // Null values are inferred as nullable strings.
+            structure.append('s');
+            return null;
+        }
+    }
+
+    /**
+     * Reads a Json array. Schema of array is inferred from the first element, so the structure of next elements is
+     * not appended.
+     */
+    private ParsedArray parseArray(JsonParser parser, StringBuilder structure) throws IOException {
+        ParsedArray parsed = new ParsedArray();
+        structure.append('[');
+        StringBuilder elementStructure = structure;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            int start = elementStructure.length();
+            Object element;
+            if (parser.currentToken() == JsonToken.START_ARRAY) {
+                // Nested arrays are inferred as empty records.
+                parser.skipChildren();
+                elementStructure.append("{}");
+                element = new ParsedRecord();
+            } else {
+                element = parseValue(parser, elementStructure);
+            }
+            if (element instanceof ParsedRecord) {
+                ((ParsedRecord) element).structure = elementStructure.substring(start);
+            }
+            parsed.elements.add(element);
+            if (elementStructure == structure) {
+                elementStructure = new StringBuilder();
+            } else {
+                elementStructure.setLength(0);
+            }
+        }
+        structure.append(']');
+        return parsed;
+    }
+
+    /**
+     * Fills a record with parsed values. Schema was inferred from (or for) the same structure.
+     */
+    private GenericRecord toRecord(ParsedRecord parsed, Schema schema) {
+        GenericData.Record record = new GenericData.Record(schema);
+        List<Schema.Field> fields = schema.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = parsed.values.get(i);
+            if (value instanceof ParsedRecord) {
+                value = toRecord((ParsedRecord) value, fields.get(i).schema());
+            } else if (value instanceof ParsedArray) {
+                List<Object> elements = ((ParsedArray) value).elements;
+                for (int j = 0; j < elements.size(); j++) {
+                    Object element = elements.get(j);
+                    if (element instanceof ParsedRecord) {
+                        ParsedRecord parsedElement = (ParsedRecord) element;
+                        elements.set(j, toRecord(parsedElement,
+                                getSchema(subRecordSchemas, parsedElement.structure, parsedElement, false)));
+                    }
+                }
+                value = elements;
+            }
+            record.put(i, value);
+        }
+        return record;
+    }
+
+    private Schema getSchema(Map<String, Schema> schemas, String structure, ParsedRecord parsed, boolean outer) {
+        Schema schema;
+        synchronized (schemas) {
+            schema = schemas.get(structure);
+        }
+        if (schema != null) {
+            hits.increment();
+            return schema;
+        }
+        misses.increment();
+        // inferred outside of lock, least recently used schema is evicted when cache is full.
+        schema = inferSchema(parsed, outer);
+        synchronized (schemas) {
+            final Schema previous = schemas.putIfAbsent(structure, schema);
+            return previous == null ? schema : previous;
+        }
+    }
+
+    /**
+     * Infers the schema of a parsed record the same way {@link JsonSchemaInferrer} does.
+     */
+    private static Schema inferSchema(ParsedRecord parsed, boolean outer) {
+        List<Schema.Field> fields = new ArrayList<>(parsed.names.size());
+        for (int i = 0; i < parsed.names.size(); i++) {
+            fields.add(new Schema.Field(parsed.names.get(i), inferSchema(parsed.values.get(i)), null, null,
+                    Schema.Field.Order.ASCENDING));
+        }
+        // Create a nameless temporary record to get a fingerprint from.
+        long fingerprint = SchemaNormalization.parsingFingerprint64(Schema.createRecord(fields));
+        List<Schema.Field> copies = new ArrayList<>(fields.size());
+        for (Schema.Field field : fields) {
+            copies.add(new Schema.Field(field, field.schema()));
+        }
+        if (outer) {
+            return Schema.createRecord(("outer_record" + fingerprint).replace('-', '_'), null, "org.talend", false, copies);
+        }
+        return Schema.createRecord(("subrecord" + fingerprint).replace('-', '_'), null, null, false, copies);
+    }
+
+    private static Schema inferSchema(Object value) {
+        if (value instanceof ParsedRecord) {
+            return inferSchema((ParsedRecord) value, false);
+        } else if (value instanceof ParsedArray) {
+            List<Object> elements = ((ParsedArray) value).elements;
+            if (elements.isEmpty()) {
+                return Schema.createArray(AvroUtils.wrapAsNullable(AvroUtils._string()));
+            }
+            return Schema.createArray(inferSchema(elements.get(0)));
+        } else if (value instanceof Integer) {
+            return AvroUtils.wrapAsNullable(AvroUtils._int());
+        } else if (value instanceof Long) {
+            return AvroUtils.wrapAsNullable(AvroUtils._long());
+        } else if (value instanceof Double) {
+            return AvroUtils.wrapAsNullable(AvroUtils._double());
+        } else if (value instanceof Boolean) {
+            return AvroUtils.wrapAsNullable(AvroUtils._boolean());
+        }
+        return AvroUtils.wrapAsNullable(AvroUtils._string());
+    }
+
+    /**
+     * Names and values of a Json object, in order.
+     */
+    private static class ParsedRecord {
+
+        private final List<String> names = new ArrayList<>();
+
+        private final List<Object> values = new ArrayList<>();
+
+        /** Structure of record, only kept for records in arrays. */
+        private String structure;
+    }
+
+    /**
+     * Values of a Json array, converted in place to Avro values.
+     */
+    private static class ParsedArray {
+
+        private final List<Object> elements = new ArrayList<>();
+    }
+}
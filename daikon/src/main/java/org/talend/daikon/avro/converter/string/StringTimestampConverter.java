@@ -2,16 +2,27 @@
 package org.talend.daikon.avro.converter.string;
 
 import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.TimeZone;
 
 import org.apache.avro.Schema;
 import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.converter.FixedWidthDateTimePattern;
 
 /**
  * Converts String datum to avro logical type timestamp and vice versa
+ * <p>
+ * Dates are formatted and parsed as {@link SimpleDateFormat} does, in UTC and with the default locale. Fixed-width
+ * patterns (such as the default one) are handled by a {@link FixedWidthDateTimePattern} when the default locale uses
+ * the Gregorian calendar and ASCII digits, other patterns, locales and unusual values by a {@link SimpleDateFormat} per
+ * thread: a converter can be shared by concurrent threads.
  */
 public class StringTimestampConverter extends StringConverter<Long> {
 
@@ -19,7 +30,9 @@ public class StringTimestampConverter extends StringConverter<Long> {
 
     public static final String DEFAULT_PATTERN = "dd-MM-yyyy hh:mm:ss:SSS";
 
-    private final DateFormat dateFormat;
+    private final FixedWidthDateTimePattern fixedWidthPattern;
+
+    private final ThreadLocal<DateFormat> dateFormat;
 
     /**
      * Constructor sets default datePattern to be used during conversion from
@@ -40,8 +53,25 @@ public class StringTimestampConverter extends StringConverter<Long> {
         if (datePattern == null) {
             throw new IllegalArgumentException("Date pattern is missed");
         }
-        dateFormat = new SimpleDateFormat(datePattern);
-        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        DateFormat prototype = new SimpleDateFormat(datePattern);
+        prototype.setTimeZone(TimeZone.getTimeZone("UTC"));
+        dateFormat = ThreadLocal.withInitial(() -> (DateFormat) prototype.clone());
+        fixedWidthPattern = isIsoLike(prototype) ? FixedWidthDateTimePattern.compileSimpleDateFormat(datePattern)
+                : null;
+    }
+
+    /**
+     * Checks date format counts years and writes digits as {@link FixedWidthDateTimePattern} does: not the case for
+     * locales with another calendar (such as th-TH, with Buddhist years) or other digits.
+     */
+    private static boolean isIsoLike(DateFormat format) {
+        // exact class, as BuddhistCalendar extends GregorianCalendar.
+        if (format.getCalendar().getClass() != GregorianCalendar.class) {
+            return false;
+        }
+        NumberFormat numberFormat = format.getNumberFormat();
+        return numberFormat instanceof DecimalFormat
+                && ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
     }
 
     /**
@@ -56,14 +86,27 @@ public class StringTimestampConverter extends StringConverter<Long> {
 
     @Override
     public String convertToDatum(Long value) {
+        if (fixedWidthPattern != null) {
+            String datum = fixedWidthPattern.format(LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1000L),
+                    (int) Math.floorMod(value, 1000L) * 1_000_000, ZoneOffset.UTC));
+            if (datum != null) {
+                return datum;
+            }
+        }
         Date timestamp = new Date(value);
-        return dateFormat.format(timestamp);
+        return dateFormat.get().format(timestamp);
     }
 
     @Override
     public Long convertToAvro(String value) {
+        if (fixedWidthPattern != null) {
+            LocalDateTime timestamp = fixedWidthPattern.parse(value);
+            if (timestamp != null) {
+                return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+        }
         try {
-            Date timestamp = dateFormat.parse(value);
+            Date timestamp = dateFormat.get().parse(value);
             return timestamp.getTime();
         } catch (ParseException e) {
             throw new IllegalArgumentException("Input string doesn't match specified date pattern", e);
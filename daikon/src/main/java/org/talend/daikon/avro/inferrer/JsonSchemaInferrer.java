@@ -69,17 +69,27 @@ public class JsonSchemaInferrer implements SchemaInferrer<String> {
     @Override
     public Schema inferSchema(String json) {
         try {
-            final JsonNode jsonNode = mapper.readTree(json);
-            // Create a nameless temporary record to get a fingerprint from.
-            Schema record = Schema.createRecord(getFields(jsonNode));
-            long fingerprint = SchemaNormalization.parsingFingerprint64(record);
-            return Schema.createRecord(("outer_record" + fingerprint).replace('-', '_'), null, "org.talend", false,
-                    getFields(jsonNode));
+            return inferSchema(mapper.readTree(json));
         } catch (IOException | TalendRuntimeException e) {
             throw TalendRuntimeException.createUnexpectedException(e.getCause());
         }
     }
 
+    /**
+     * Create an Avro Schema based on an already parsed JSON node.
+     *
+     * @param jsonNode node to infer the schema of
+     * @return Avro schema constructed
+     * @see #inferSchema(String)
+     */
+    public Schema inferSchema(JsonNode jsonNode) {
+        List<Schema.Field> fields = getFields(jsonNode);
+        // Create a nameless temporary record to get a fingerprint from.
+        long fingerprint = SchemaNormalization.parsingFingerprint64(Schema.createRecord(fields));
+        return Schema.createRecord(("outer_record" + fingerprint).replace('-', '_'), null, "org.talend", false,
+                copyFields(fields));
+    }
+
     /**
      * Get the fields schema from json node. Supported data types are: INT, BOOLEAN, LONG, DOUBLE, STRING, ARRAY, OBJECT.
      *
@@ -188,11 +198,22 @@ public class JsonSchemaInferrer implements SchemaInferrer<String> {
      * @param node
      */
     private Schema createSubRecord(JsonNode node) {
+        List<Schema.Field> fields = getFields(node);
         // Create a nameless temporary record to get a fingerprint from.
-        Schema record = Schema.createRecord(getFields(node));
-        long fingerprint = SchemaNormalization.parsingFingerprint64(record);
+        long fingerprint = SchemaNormalization.parsingFingerprint64(Schema.createRecord(fields));
+
+        // Use the fingerprint in the record name.
+        return Schema.createRecord(("subrecord" + fingerprint).replace('-', '_'), null, null, false, copyFields(fields));
+    }
 
-        // Use the fingerprint in the record name. Note that we have to traverse the node twice.
-        return Schema.createRecord(("subrecord" + fingerprint).replace('-', '_'), null, null, false, getFields(node));
+    /**
+     * @return copies of fields, as fields already added to a record can't be added to another one.
+     */
+    private static List<Schema.Field> copyFields(List<Schema.Field> fields) {
+        List<Schema.Field> copies = new ArrayList<>(fields.size());
+        for (Schema.Field field : fields) {
+            copies.add(new Schema.Field(field, field.schema()));
+        }
+        return copies;
     }
 }
@@ -0,0 +1,83 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The sort key of a record, encoded by a {@link SortKeyEncoder}. Keys compare and hash on their bytes only, so that
+ * records can be sorted, grouped or deduplicated without decoding them.
+ */
+public final class SortKey implements Comparable<SortKey> {
+
+    /** Compares encoded sort keys, as unsigned bytes. */
+    public static final Comparator<byte[]> COMPARATOR = SortKey::compare;
+
+    private final byte[] bytes;
+
+    private final int hash;
+
+    /**
+     * @param bytes a sort key encoded by a {@link SortKeyEncoder}, that must not be modified afterwards.
+     */
+    public SortKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = hashCode(bytes);
+    }
+
+    /**
+     * @return the encoded key, that must not be modified.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return a negative value, zero or a positive value when the record of the first key is less than, equal to or
+     * greater than the record of the second key.
+     */
+    public static int compare(byte[] key1, byte[] key2) {
+        return Arrays.compareUnsigned(key1, key2);
+    }
+
+    /**
+     * @return the hash code of an encoded key, equal for the keys of equal records.
+     */
+    public static int hashCode(byte[] key) {
+        // FNV-1a: cheap, and spreads the similar prefixes of sort keys better than a polynomial hash
+        int hash = 0x811C9DC5;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    @Override
+    public int compareTo(SortKey that) {
+        return compare(bytes, that.bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof SortKey))
+            return false;
+        SortKey that = (SortKey) o;
+        return hash == that.hash && Arrays.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
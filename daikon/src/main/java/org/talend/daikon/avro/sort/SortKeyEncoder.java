@@ -0,0 +1,473 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.sort;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.talend.daikon.avro.LogicalTypeUtils;
+
+/**
+ * Encodes the {@link IndexedRecord}s of a schema to sort keys: byte arrays that compare (as unsigned bytes) like the
+ * records compare with {@link GenericData#compare(Object, Object, Schema)}, and that are equal when the records are
+ * equal for this comparison. Records are encoded once, then sorted, grouped or hashed on their keys (see
+ * {@link SortKey}) without looking at the schema again.
+ * <p>
+ * The encoding follows the Avro sort order: field orders are respected (ignored fields are not encoded), unions are
+ * ordered by branch then value, strings by their UTF-8 bytes, enums by symbol ordinal, arrays element by element.
+ * Logical types are ordered by their underlying value, which can also be given as the corresponding
+ * {@link java.time} value ({@link LocalDate}, {@link LocalTime} or {@link Instant}) or {@link java.util.Date}. As with
+ * {@link GenericData}, maps can't be ordered: encoding a map value fails.
+ * <p>
+ * An encoder is immutable and thread-safe. The keys are only comparable between records of the same schema.
+ */
+public final class SortKeyEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private final Schema schema;
+
+    private final ValueEncoder encoder;
+
+    /**
+     * @param schema the schema of the records to encode.
+     */
+    public SortKeyEncoder(Schema schema) {
+        this.schema = schema;
+        this.encoder = compile(schema, new IdentityHashMap<>());
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param record a record of the schema of this encoder.
+     * @return the sort key of the record.
+     */
+    public byte[] encode(IndexedRecord record) {
+        Buffer out = new Buffer();
+        encoder.encode(record, out);
+        return Arrays.copyOf(out.bytes, out.count);
+    }
+
+    /**
+     * @param record a record of the schema of this encoder.
+     * @return the sort key of the record, that can be used as a hash key.
+     */
+    public SortKey toSortKey(IndexedRecord record) {
+        return new SortKey(encode(record));
+    }
+
+    private static ValueEncoder compile(Schema schema, Map<Schema, RecordEncoder> records) {
+        switch (schema.getType()) {
+        case RECORD:
+            RecordEncoder recordEncoder = records.get(schema);
+            if (recordEncoder == null) {
+                // Registered before its fields are compiled, for recursive schemas
+                recordEncoder = new RecordEncoder();
+                records.put(schema, recordEncoder);
+                recordEncoder.init(schema, records);
+            }
+            return recordEncoder;
+        case ENUM:
+            return new EnumEncoder(schema);
+        case ARRAY:
+            return new ArrayEncoder(compile(schema.getElementType(), records));
+        case MAP:
+            return MapEncoder.INSTANCE;
+        case UNION:
+            return new UnionEncoder(schema, records);
+        case FIXED:
+            return FixedEncoder.INSTANCE;
+        case STRING:
+            return StringEncoder.INSTANCE;
+        case BYTES:
+            return BytesEncoder.INSTANCE;
+        case INT:
+            return IntEncoder.INSTANCE;
+        case LONG:
+            return new LongEncoder(schema);
+        case FLOAT:
+            return FloatEncoder.INSTANCE;
+        case DOUBLE:
+            return DoubleEncoder.INSTANCE;
+        case BOOLEAN:
+            return BooleanEncoder.INSTANCE;
+        default:
+            return NullEncoder.INSTANCE;
+        }
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static class Buffer {
+
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+
+        private int count;
+
+        private void ensureCapacity(int extra) {
+            if (count + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + extra));
+            }
+        }
+
+        private void write(int b) {
+            ensureCapacity(1);
+            bytes[count++] = (byte) b;
+        }
+
+        /** Writes a byte of a variable length value, escaping 0 as 0x00 0xFF. */
+        private void writeEscaped(int b) {
+            if (b == 0) {
+                ensureCapacity(2);
+                bytes[count++] = 0;
+                bytes[count++] = (byte) 0xFF;
+            } else {
+                write(b);
+            }
+        }
+
+        /** Ends a variable length value: 0x00 0x00 sorts before any escaped byte, so shorter values sort first. */
+        private void writeTerminator() {
+            ensureCapacity(2);
+            bytes[count++] = 0;
+            bytes[count++] = 0;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[count++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[count++] = (byte) (value >>> shift);
+            }
+        }
+
+        /** Reverses the order of the bytes written since the given position. */
+        private void invert(int from) {
+            for (int i = from; i < count; i++) {
+                bytes[i] = (byte) ~bytes[i];
+            }
+        }
+    }
+
+    /**
+     * Encodes the values of a schema. The encodings of two different values are never a prefix of each other, so that
+     * they keep their order when concatenated, and reverse it when inverted.
+     */
+    private abstract static class ValueEncoder {
+
+        abstract void encode(Object value, Buffer out);
+    }
+
+    private static class RecordEncoder extends ValueEncoder {
+
+        private int[] positions;
+
+        private ValueEncoder[] encoders;
+
+        private boolean[] descending;
+
+        private void init(Schema schema, Map<Schema, RecordEncoder> records) {
+            List<Field> fields = schema.getFields();
+            int count = 0;
+            for (Field field : fields) {
+                if (field.order() != Field.Order.IGNORE) {
+                    count++;
+                }
+            }
+            positions = new int[count];
+            encoders = new ValueEncoder[count];
+            descending = new boolean[count];
+            int i = 0;
+            for (Field field : fields) {
+                if (field.order() != Field.Order.IGNORE) {
+                    positions[i] = field.pos();
+                    encoders[i] = compile(field.schema(), records);
+                    descending[i] = field.order() == Field.Order.DESCENDING;
+                    i++;
+                }
+            }
+        }
+
+        @Override
+        void encode(Object value, Buffer out) {
+            IndexedRecord record = (IndexedRecord) value;
+            for (int i = 0; i < positions.length; i++) {
+                int start = out.count;
+                encoders[i].encode(record.get(positions[i]), out);
+                if (descending[i]) {
+                    out.invert(start);
+                }
+            }
+        }
+    }
+
+    private static class EnumEncoder extends ValueEncoder {
+
+        private final Schema schema;
+
+        private EnumEncoder(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        void encode(Object value, Buffer out) {
+            out.writeInt(schema.getEnumOrdinal(value.toString()));
+        }
+    }
+
+    private static class ArrayEncoder extends ValueEncoder {
+
+        private final ValueEncoder elementEncoder;
+
+        private ArrayEncoder(ValueEncoder elementEncoder) {
+            this.elementEncoder = elementEncoder;
+        }
+
+        @Override
+        void encode(Object value, Buffer out) {
+            // Each element is preceded by 1, the end of the array by 0: shorter arrays sort first
+            for (Object element : (Collection<?>) value) {
+                out.write(1);
+                elementEncoder.encode(element, out);
+            }
+            out.write(0);
+        }
+    }
+
+    private static class MapEncoder extends ValueEncoder {
+
+        private static final MapEncoder INSTANCE = new MapEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            throw new AvroRuntimeException("Can't compare maps!");
+        }
+    }
+
+    private static class UnionEncoder extends ValueEncoder {
+
+        private final Schema schema;
+
+        private final ValueEncoder[] encoders;
+
+        /** The index of the null branch of a union of null and one other type, -1 for the other unions. */
+        private final int nullIndex;
+
+        private UnionEncoder(Schema schema, Map<Schema, RecordEncoder> records) {
+            this.schema = schema;
+            List<Schema> types = schema.getTypes();
+            encoders = new ValueEncoder[types.size()];
+            int nullBranch = -1;
+            for (int i = 0; i < encoders.length; i++) {
+                encoders[i] = compile(types.get(i), records);
+                if (types.get(i).getType() == Schema.Type.NULL) {
+                    nullBranch = i;
+                }
+            }
+            nullIndex = encoders.length == 2 ? nullBranch : -1;
+        }
+
+        @Override
+        void encode(Object value, Buffer out) {
+            int index;
+            if (nullIndex >= 0) {
+                index = value == null ? nullIndex : 1 - nullIndex;
+            } else {
+                index = GenericData.get().resolveUnion(schema, value);
+            }
+            if (encoders.length <= 256) {
+                out.write(index);
+            } else {
+                out.writeInt(index);
+            }
+            encoders[index].encode(value, out);
+        }
+    }
+
+    private static class FixedEncoder extends ValueEncoder {
+
+        private static final FixedEncoder INSTANCE = new FixedEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            // Fixed values have the same size and are compared as unsigned bytes
+            byte[] bytes = ((GenericFixed) value).bytes();
+            out.ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, out.bytes, out.count, bytes.length);
+            out.count += bytes.length;
+        }
+    }
+
+    private static class StringEncoder extends ValueEncoder {
+
+        private static final StringEncoder INSTANCE = new StringEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            if (value instanceof Utf8) {
+                Utf8 utf8 = (Utf8) value;
+                byte[] bytes = utf8.getBytes();
+                for (int i = 0; i < utf8.getByteLength(); i++) {
+                    out.writeEscaped(bytes[i] & 0xFF);
+                }
+            } else {
+                writeUtf8(value.toString(), out);
+            }
+            out.writeTerminator();
+        }
+
+        /** Same bytes as {@link String#getBytes(java.nio.charset.Charset)} in UTF-8, without the intermediate array. */
+        private static void writeUtf8(String value, Buffer out) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    out.writeEscaped(c);
+                } else if (c < 0x800) {
+                    out.write(0xC0 | (c >> 6));
+                    out.write(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    out.write(0xF0 | (codePoint >> 18));
+                    out.write(0x80 | ((codePoint >> 12) & 0x3F));
+                    out.write(0x80 | ((codePoint >> 6) & 0x3F));
+                    out.write(0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogates are replaced, as by the UTF-8 encoder
+                    out.write('?');
+                } else {
+                    out.write(0xE0 | (c >> 12));
+                    out.write(0x80 | ((c >> 6) & 0x3F));
+                    out.write(0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+
+    private static class BytesEncoder extends ValueEncoder {
+
+        private static final BytesEncoder INSTANCE = new BytesEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            // ByteBuffer.compareTo compares signed bytes: flipping the sign bit orders them as unsigned bytes
+            ByteBuffer buffer = (ByteBuffer) value;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                out.writeEscaped((buffer.get(i) ^ 0x80) & 0xFF);
+            }
+            out.writeTerminator();
+        }
+    }
+
+    private static class IntEncoder extends ValueEncoder {
+
+        private static final IntEncoder INSTANCE = new IntEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            int intValue;
+            if (value instanceof LocalDate) {
+                intValue = (int) ((LocalDate) value).toEpochDay();
+            } else if (value instanceof LocalTime) {
+                intValue = (int) (((LocalTime) value).toNanoOfDay() / 1_000_000);
+            } else {
+                intValue = ((Number) value).intValue();
+            }
+            // Flipping the sign bit orders signed values as unsigned bytes
+            out.writeInt(intValue ^ Integer.MIN_VALUE);
+        }
+    }
+
+    private static class LongEncoder extends ValueEncoder {
+
+        private final boolean micros;
+
+        private LongEncoder(Schema schema) {
+            micros = LogicalTypeUtils.isLogicalTimestampMicros(schema) || LogicalTypeUtils.isLogicalTimeMicros(schema);
+        }
+
+        @Override
+        void encode(Object value, Buffer out) {
+            long longValue;
+            if (value instanceof Number) {
+                longValue = ((Number) value).longValue();
+            } else if (value instanceof java.util.Date) {
+                longValue = ((java.util.Date) value).getTime();
+            } else if (value instanceof Instant) {
+                Instant instant = (Instant) value;
+                longValue = micros ? ChronoUnit.MICROS.between(Instant.EPOCH, instant) : instant.toEpochMilli();
+            } else {
+                longValue = ((LocalTime) value).toNanoOfDay() / (micros ? 1_000 : 1_000_000);
+            }
+            out.writeLong(longValue ^ Long.MIN_VALUE);
+        }
+    }
+
+    private static class FloatEncoder extends ValueEncoder {
+
+        private static final FloatEncoder INSTANCE = new FloatEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            // Same order as Float.compareTo: negative values are inverted, -0.0 < 0.0, and NaN is the greatest value
+            int bits = Float.floatToIntBits(((Number) value).floatValue());
+            out.writeInt(bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE);
+        }
+    }
+
+    private static class DoubleEncoder extends ValueEncoder {
+
+        private static final DoubleEncoder INSTANCE = new DoubleEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            out.writeLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+        }
+    }
+
+    private static class BooleanEncoder extends ValueEncoder {
+
+        private static final BooleanEncoder INSTANCE = new BooleanEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            out.write((Boolean) value ? 1 : 0);
+        }
+    }
+
+    private static class NullEncoder extends ValueEncoder {
+
+        private static final NullEncoder INSTANCE = new NullEncoder();
+
+        @Override
+        void encode(Object value, Buffer out) {
+            // Nulls are all equal
+        }
+    }
+}
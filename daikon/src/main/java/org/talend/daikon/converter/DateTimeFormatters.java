@@ -0,0 +1,104 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.converter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached {@link DateTimeFormatter}s, and parsing methods that use a {@link FixedWidthDateTimePattern} for the ISO
+ * formatters and the fixed-width formatters created by {@link #ofPattern(String)}, falling back on the formatter
+ * itself.
+ */
+public final class DateTimeFormatters {
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    /** Fast parsers, by formatter (identity). */
+    private static final Map<DateTimeFormatter, FixedWidthDateTimePattern[]> FAST_PARSERS = new ConcurrentHashMap<>();
+
+    static {
+        FAST_PARSERS.put(DateTimeFormatter.ISO_LOCAL_DATE, compile("uuuu-MM-dd"));
+        FAST_PARSERS.put(DateTimeFormatter.ISO_LOCAL_TIME, compile("HH:mm:ss", "HH:mm:ss.SSS", "HH:mm"));
+        FAST_PARSERS.put(DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+                compile("uuuu-MM-dd'T'HH:mm:ss", "uuuu-MM-dd'T'HH:mm:ss.SSS", "uuuu-MM-dd'T'HH:mm"));
+    }
+
+    private DateTimeFormatters() {
+    }
+
+    private static FixedWidthDateTimePattern[] compile(String... patterns) {
+        FixedWidthDateTimePattern[] compiled = new FixedWidthDateTimePattern[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            compiled[i] = FixedWidthDateTimePattern.compile(patterns[i]);
+        }
+        return compiled;
+    }
+
+    /**
+     * Same as {@link DateTimeFormatter#ofPattern(String)}, but the formatter is created once per pattern and default
+     * locale. Fixed-width patterns (see {@link FixedWidthDateTimePattern}) are parsed faster by the methods of this
+     * class.
+     */
+    public static DateTimeFormatter ofPattern(String pattern) {
+        String key = Locale.getDefault(Locale.Category.FORMAT).toLanguageTag() + ' ' + pattern;
+        return FORMATTERS.computeIfAbsent(key, k -> {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            FixedWidthDateTimePattern fastParser = FixedWidthDateTimePattern.compile(pattern);
+            // DateTimeFormatter can't resolve an hour of am/pm without am/pm marker
+            if (fastParser != null && !fastParser.hasClockHourOfAmPm()) {
+                FAST_PARSERS.put(formatter, new FixedWidthDateTimePattern[] { fastParser });
+            }
+            return formatter;
+        });
+    }
+
+    /**
+     * Same as {@link LocalDate#parse(CharSequence, DateTimeFormatter)}.
+     */
+    public static LocalDate parseLocalDate(CharSequence text, DateTimeFormatter formatter)
+            throws DateTimeParseException {
+        LocalDateTime dateTime = parseFast(text, formatter, true, false);
+        return dateTime != null ? dateTime.toLocalDate() : LocalDate.parse(text, formatter);
+    }
+
+    /**
+     * Same as {@link LocalTime#parse(CharSequence, DateTimeFormatter)}.
+     */
+    public static LocalTime parseLocalTime(CharSequence text, DateTimeFormatter formatter)
+            throws DateTimeParseException {
+        LocalDateTime dateTime = parseFast(text, formatter, false, true);
+        return dateTime != null ? dateTime.toLocalTime() : LocalTime.parse(text, formatter);
+    }
+
+    /**
+     * Same as {@link LocalDateTime#parse(CharSequence, DateTimeFormatter)}.
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text, DateTimeFormatter formatter)
+            throws DateTimeParseException {
+        LocalDateTime dateTime = parseFast(text, formatter, true, true);
+        return dateTime != null ? dateTime : LocalDateTime.parse(text, formatter);
+    }
+
+    private static LocalDateTime parseFast(CharSequence text, DateTimeFormatter formatter, boolean date, boolean time) {
+        FixedWidthDateTimePattern[] fastParsers = FAST_PARSERS.get(formatter);
+        if (fastParsers == null) {
+            return null;
+        }
+        for (FixedWidthDateTimePattern fastParser : fastParsers) {
+            if (fastParser.getLength() == text.length() && (!date || fastParser.hasDate())
+                    && (!time || fastParser.hasTime())) {
+                LocalDateTime dateTime = fastParser.parse(text);
+                if (dateTime != null) {
+                    return dateTime;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,341 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.converter;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * A hand-written parser and formatter for date/time patterns whose fields all have a fixed width: <code>yyyy</code>
+ * (or <code>uuuu</code>), <code>MM</code>, <code>dd</code>, <code>HH</code>, <code>hh</code>, <code>mm</code>,
+ * <code>ss</code> and <code>SSS</code>, separated by literals (quoted or not), such as ISO-8601 or
+ * <code>dd-MM-yyyy HH:mm:ss:SSS</code>.
+ * <p>
+ * It only handles the common case: a text of the exact pattern length, with valid field values and a year between 1583
+ * and 9999. Otherwise {@link #parse(CharSequence)} and {@link #format(LocalDateTime)} return <code>null</code>, and the
+ * general formatter ({@link java.time.format.DateTimeFormatter} or {@link java.text.SimpleDateFormat}) must be used: on
+ * the handled values, both give the same result as this class. Instances are immutable and thread-safe.
+ */
+public final class FixedWidthDateTimePattern {
+
+    private static final int MIN_YEAR = 1583; // First full year of the Gregorian calendar, as used by SimpleDateFormat
+
+    private static final int MAX_YEAR = 9999;
+
+    private static final int YEAR = 0;
+
+    private static final int MONTH = 1;
+
+    private static final int DAY = 2;
+
+    private static final int HOUR_OF_DAY = 3;
+
+    private static final int CLOCK_HOUR_OF_AM_PM = 4;
+
+    private static final int MINUTE = 5;
+
+    private static final int SECOND = 6;
+
+    private static final int MILLISECOND = 7;
+
+    private static final int FIELD_COUNT = 8;
+
+    private final String pattern;
+
+    /** The text of the pattern literals, fields are filled with '0'. */
+    private final char[] template;
+
+    /** Whether each character of the template is a literal. */
+    private final boolean[] literal;
+
+    private final int[] fieldTypes;
+
+    private final int[] fieldOffsets;
+
+    private final int[] fieldWidths;
+
+    private final boolean[] presentFields;
+
+    private FixedWidthDateTimePattern(String pattern, char[] template, boolean[] literal, int[] fieldTypes,
+            int[] fieldOffsets, int[] fieldWidths, boolean[] presentFields) {
+        this.pattern = pattern;
+        this.template = template;
+        this.literal = literal;
+        this.fieldTypes = fieldTypes;
+        this.fieldOffsets = fieldOffsets;
+        this.fieldWidths = fieldWidths;
+        this.presentFields = presentFields;
+    }
+
+    /**
+     * @param pattern a {@link java.time.format.DateTimeFormatter} pattern.
+     * @return the compiled pattern, or <code>null</code> if the pattern has fields of variable width, text fields or
+     * optional sections.
+     */
+    public static FixedWidthDateTimePattern compile(String pattern) {
+        return compile(pattern, true);
+    }
+
+    /**
+     * Same as {@link #compile(String)} for a {@link java.text.SimpleDateFormat} pattern (where <code>u</code> is not
+     * the year).
+     */
+    public static FixedWidthDateTimePattern compileSimpleDateFormat(String pattern) {
+        return compile(pattern, false);
+    }
+
+    private static FixedWidthDateTimePattern compile(String pattern, boolean dateTimeFormatter) {
+        StringBuilder template = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int[] fieldTypes = new int[FIELD_COUNT];
+        int[] fieldOffsets = new int[FIELD_COUNT];
+        int[] fieldWidths = new int[FIELD_COUNT];
+        boolean[] presentFields = new boolean[FIELD_COUNT];
+        int fieldCount = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0 || (end > i + 1 && end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'')) {
+                    // Unterminated, or quote within a quoted literal
+                    return null;
+                }
+                if (end == i + 1) {
+                    // '' is a quote
+                    template.append('\'');
+                    literal.append('L');
+                } else {
+                    for (int j = i + 1; j < end; j++) {
+                        template.append(pattern.charAt(j));
+                        literal.append('L');
+                    }
+                }
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int end = i + 1;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                int type = c == 'u' && !dateTimeFormatter ? -1 : getFieldType(c, end - i);
+                if (type < 0 || presentFields[type]) {
+                    return null;
+                }
+                presentFields[type] = true;
+                fieldTypes[fieldCount] = type;
+                fieldOffsets[fieldCount] = template.length();
+                fieldWidths[fieldCount] = end - i;
+                fieldCount++;
+                for (int j = i; j < end; j++) {
+                    template.append('0');
+                    literal.append('F');
+                }
+                i = end;
+            } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                // Reserved by DateTimeFormatter
+                return null;
+            } else {
+                template.append(c);
+                literal.append('L');
+                i++;
+            }
+        }
+        boolean hasHour = presentFields[HOUR_OF_DAY] || presentFields[CLOCK_HOUR_OF_AM_PM];
+        if (fieldCount == 0 || (presentFields[HOUR_OF_DAY] && presentFields[CLOCK_HOUR_OF_AM_PM])
+                || (presentFields[MINUTE] && !hasHour) || (presentFields[SECOND] && !presentFields[MINUTE])
+                || (presentFields[MILLISECOND] && !presentFields[SECOND])) {
+            // Incomplete time, leave it to the general formatter
+            return null;
+        }
+        boolean[] literals = new boolean[literal.length()];
+        for (int j = 0; j < literals.length; j++) {
+            literals[j] = literal.charAt(j) == 'L';
+        }
+        int[] types = new int[fieldCount];
+        int[] offsets = new int[fieldCount];
+        int[] widths = new int[fieldCount];
+        System.arraycopy(fieldTypes, 0, types, 0, fieldCount);
+        System.arraycopy(fieldOffsets, 0, offsets, 0, fieldCount);
+        System.arraycopy(fieldWidths, 0, widths, 0, fieldCount);
+        return new FixedWidthDateTimePattern(pattern, template.toString().toCharArray(), literals, types, offsets,
+                widths, presentFields);
+    }
+
+    private static int getFieldType(char letter, int count) {
+        switch (letter) {
+        case 'y':
+        case 'u':
+            return count == 4 ? YEAR : -1;
+        case 'M':
+            return count == 2 ? MONTH : -1;
+        case 'd':
+            return count == 2 ? DAY : -1;
+        case 'H':
+            return count == 2 ? HOUR_OF_DAY : -1;
+        case 'h':
+            return count == 2 ? CLOCK_HOUR_OF_AM_PM : -1;
+        case 'm':
+            return count == 2 ? MINUTE : -1;
+        case 's':
+            return count == 2 ? SECOND : -1;
+        case 'S':
+            return count == 3 ? MILLISECOND : -1;
+        default:
+            return -1;
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return the length of the texts of this pattern.
+     */
+    public int getLength() {
+        return template.length;
+    }
+
+    /**
+     * @return true if the pattern has a year, a month and a day.
+     */
+    public boolean hasDate() {
+        return presentFields[YEAR] && presentFields[MONTH] && presentFields[DAY];
+    }
+
+    /**
+     * @return true if the pattern has an hour and minutes.
+     */
+    public boolean hasTime() {
+        return presentFields[MINUTE];
+    }
+
+    /**
+     * @return true if the pattern has an hour of am/pm (<code>hh</code>), that is parsed as an hour of the morning.
+     */
+    public boolean hasClockHourOfAmPm() {
+        return presentFields[CLOCK_HOUR_OF_AM_PM];
+    }
+
+    /**
+     * @return the parsed date/time (January 1st 1970 and midnight for the fields missing from the pattern), or
+     * <code>null</code> if the text is not in the handled form.
+     */
+    public LocalDateTime parse(CharSequence text) {
+        if (text.length() != template.length) {
+            return null;
+        }
+        for (int i = 0; i < template.length; i++) {
+            if (literal[i] && text.charAt(i) != template[i]) {
+                return null;
+            }
+        }
+        int year = 1970;
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millisecond = 0;
+        for (int f = 0; f < fieldTypes.length; f++) {
+            int value = parseDigits(text, fieldOffsets[f], fieldWidths[f]);
+            switch (fieldTypes[f]) {
+            case YEAR:
+                year = value;
+                break;
+            case MONTH:
+                month = value;
+                break;
+            case DAY:
+                day = value;
+                break;
+            case HOUR_OF_DAY:
+                hour = value;
+                break;
+            case CLOCK_HOUR_OF_AM_PM:
+                if (value < 1 || value > 12) {
+                    return null;
+                }
+                hour = value % 12;
+                break;
+            case MINUTE:
+                minute = value;
+                break;
+            case SECOND:
+                second = value;
+                break;
+            default:
+                millisecond = value;
+                break;
+            }
+        }
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year)) || hour > 23 || minute > 59 || second > 59) {
+            // Negative values (non digits) are caught here too
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, millisecond * 1_000_000);
+    }
+
+    private static int parseDigits(CharSequence text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return the formatted date/time (milliseconds are truncated), or <code>null</code> if its year is not handled.
+     */
+    public String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return null;
+        }
+        char[] text = template.clone();
+        for (int f = 0; f < fieldTypes.length; f++) {
+            int value;
+            switch (fieldTypes[f]) {
+            case YEAR:
+                value = year;
+                break;
+            case MONTH:
+                value = dateTime.getMonthValue();
+                break;
+            case DAY:
+                value = dateTime.getDayOfMonth();
+                break;
+            case HOUR_OF_DAY:
+                value = dateTime.getHour();
+                break;
+            case CLOCK_HOUR_OF_AM_PM:
+                value = dateTime.getHour() % 12 == 0 ? 12 : dateTime.getHour() % 12;
+                break;
+            case MINUTE:
+                value = dateTime.getMinute();
+                break;
+            case SECOND:
+                value = dateTime.getSecond();
+                break;
+            default:
+                value = dateTime.getNano() / 1_000_000;
+                break;
+            }
+            for (int i = fieldOffsets[f] + fieldWidths[f] - 1; i >= fieldOffsets[f]; i--) {
+                text[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+        return new String(text);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -15,13 +15,13 @@ public class LocalDateConverter extends Converter<LocalDate> {
             return returnDefaultValue();
         } else if (properties.containsKey(LocalDateConverter.FORMATTER)) {
             try {
-                return LocalDate.parse(value.toString(), getDateTimeFormatter());
+                return DateTimeFormatters.parseLocalDate(value.toString(), getDateTimeFormatter());
             } catch (DateTimeParseException dtpe) {
                 throw TypeConverterErrorCode.createCannotParseWithFormat(dtpe, value.toString(),
                         getDateTimeFormatter().toString());
             }
         }
-        return LocalDate.parse(value.toString());
+        return DateTimeFormatters.parseLocalDate(value.toString(), DateTimeFormatter.ISO_LOCAL_DATE);
     }
 
     public LocalDateConverter withDateTimeFormatter(DateTimeFormatter formatter) {
@@ -15,13 +15,13 @@ public class LocalDateTimeConverter extends Converter<LocalDateTime> {
             return returnDefaultValue();
         } else if (properties.containsKey(LocalDateTimeConverter.FORMATTER)) {
             try {
-                return LocalDateTime.parse(value.toString(), getDateTimeFormatter());
+                return DateTimeFormatters.parseLocalDateTime(value.toString(), getDateTimeFormatter());
             } catch (DateTimeParseException dtpe) {
                 throw TypeConverterErrorCode.createCannotParseWithFormat(dtpe, value.toString(),
                         getDateTimeFormatter().toString());
             }
         }
-        return LocalDateTime.parse(value.toString());
+        return DateTimeFormatters.parseLocalDateTime(value.toString(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
     public LocalDateTimeConverter withDateTimeFormatter(DateTimeFormatter formatter) {
@@ -15,13 +15,13 @@ public class LocalTimeConverter extends Converter<LocalTime> {
             return returnDefaultValue();
         } else if (properties.containsKey(LocalDateTimeConverter.FORMATTER)) {
             try {
-                return LocalTime.parse(value.toString(), getDateTimeFormatter());
+                return DateTimeFormatters.parseLocalTime(value.toString(), getDateTimeFormatter());
             } catch (DateTimeParseException dtpe) {
                 throw TypeConverterErrorCode.createCannotParseWithFormat(dtpe, value.toString(),
                         getDateTimeFormatter().toString());
             }
         }
-        return LocalTime.parse(value.toString());
+        return DateTimeFormatters.parseLocalTime(value.toString(), DateTimeFormatter.ISO_LOCAL_TIME);
     }
 
     public LocalTimeConverter withDateTimeFormatter(DateTimeFormatter formatter) {
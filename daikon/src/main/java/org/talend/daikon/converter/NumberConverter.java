@@ -4,9 +4,6 @@ package org.talend.daikon.converter;
 import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
 import java.text.ParseException;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -60,22 +57,22 @@ public abstract class NumberConverter<ThisT extends NumberConverter<ThisT, T>, T
             } else if (getDateFormatter() != null) {
                 DateTimeFormatter format = getDateFormatter();
                 try {
-                    return getFromNumber(LocalDate.parse(in, format).toEpochDay());
+                    return getFromNumber(DateTimeFormatters.parseLocalDate(in, format).toEpochDay());
                 } catch (DateTimeParseException e) {
                     throw TypeConverterErrorCode.createCannotParseWithFormat(e, in.toString(), format.toString());
                 }
             } else if (getTimeMillisFormatter() != null) {
                 DateTimeFormatter format = getTimeMillisFormatter();
                 try {
-                    return getFromNumber(LocalTime.parse(in, format).toNanoOfDay() / 1000000L);
+                    return getFromNumber(DateTimeFormatters.parseLocalTime(in, format).toNanoOfDay() / 1000000L);
                 } catch (DateTimeParseException e) {
                     throw TypeConverterErrorCode.createCannotParseWithFormat(e, in.toString(), format.toString());
                 }
             } else if (getTimestampMillisFormatter() != null) {
                 DateTimeFormatter format = getTimestampMillisFormatter();
                 try {
-                    return getFromNumber(
-                            LocalDateTime.parse(in, format).atZone(ZoneOffset.ofTotalSeconds(0)).toInstant().toEpochMilli());
+                    return getFromNumber(DateTimeFormatters.parseLocalDateTime(in, format)
+                            .atZone(ZoneOffset.ofTotalSeconds(0)).toInstant().toEpochMilli());
                 } catch (DateTimeParseException e) {
                     throw TypeConverterErrorCode.createCannotParseWithFormat(e, in.toString(), format.toString());
                 }
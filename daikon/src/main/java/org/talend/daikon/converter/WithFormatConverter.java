@@ -45,6 +45,30 @@ public abstract class WithFormatConverter<ThisT extends WithFormatConverter<This
         return (ThisT) this;
     }
 
+    /**
+     * Same as {@link #withDateFormatter(DateTimeFormatter)} with a formatter of the pattern, see
+     * {@link DateTimeFormatters#ofPattern(String)}.
+     */
+    public ThisT withDatePattern(String pattern) {
+        return withDateFormatter(DateTimeFormatters.ofPattern(pattern));
+    }
+
+    /**
+     * Same as {@link #withTimeMillisFormatter(DateTimeFormatter)} with a formatter of the pattern, see
+     * {@link DateTimeFormatters#ofPattern(String)}.
+     */
+    public ThisT withTimeMillisPattern(String pattern) {
+        return withTimeMillisFormatter(DateTimeFormatters.ofPattern(pattern));
+    }
+
+    /**
+     * Same as {@link #withTimestampMillisFormatter(DateTimeFormatter)} with a formatter of the pattern, see
+     * {@link DateTimeFormatters#ofPattern(String)}.
+     */
+    public ThisT withTimestampMillisPattern(String pattern) {
+        return withTimestampMillisFormatter(DateTimeFormatters.ofPattern(pattern));
+    }
+
     public DecimalFormat getNumberFormatter() {
         return (DecimalFormat) properties.get(NUMBER_FORMATTER);
     }
@@ -1,8 +1,6 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.i18n;
 
-import java.util.MissingResourceException;
-
 /**
  * Look for a i18n <b>.properties</b> file according to the following policy. <br>
  * <ul>
@@ -60,18 +58,16 @@ public class ClassBasedI18nMessages extends I18nMessages {
         Class<?> currentClass = clazz;
         while (currentClass != null && currentClass != Object.class) {
             // try first ClassNameMessage.properties
-            String baseName = computeBaseName(currentClass, true);
-            try {
-                return getFormattedMessage(key, currentClass.getClassLoader(), baseName, arguments);
-            } catch (MissingResourceException mre) {
+            ClassLoader classLoader = currentClass.getClassLoader();
+            String message = findFormattedMessage(key, classLoader, computeBaseName(currentClass, true), arguments);
+            if (message == null) {
                 // try then PackageName.messages.properties
-                baseName = computeBaseName(currentClass, false);
-                try {
-                    return getFormattedMessage(key, currentClass.getClassLoader(), baseName, arguments);
-                } catch (MissingResourceException mre2) {
-                    currentClass = currentClass.getSuperclass();
-                }
+                message = findFormattedMessage(key, classLoader, computeBaseName(currentClass, false), arguments);
+            }
+            if (message != null) {
+                return message;
             }
+            currentClass = currentClass.getSuperclass();
         }
         return unknownKeyPrefix + key;
     }
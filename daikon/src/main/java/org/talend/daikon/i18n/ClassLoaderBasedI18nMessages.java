@@ -1,7 +1,6 @@
 // Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
 package org.talend.daikon.i18n;
 
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 /**
@@ -72,12 +71,8 @@ public class ClassLoaderBasedI18nMessages extends I18nMessages {
     @Override
     public String getMessage(String key, Object... arguments) {
         // get the ResouceBundle Value
-        try {
-            return getFormattedMessage(key, classLoader, baseName, arguments);
-
-        } catch (MissingResourceException mre) {
-            return unknownKeyPrefix + key;
-        }
+        String message = findFormattedMessage(key, classLoader, baseName, arguments);
+        return message != null ? message : unknownKeyPrefix + key;
     }
 
     /**
@@ -2,16 +2,24 @@
 package org.talend.daikon.i18n;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.MissingResourceException;
+import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A base class for tools that provide message translation services.
  */
 public abstract class I18nMessages {
 
-    private transient MessageFormat formatter = new MessageFormat(""); //$NON-NLS-1$
+    /**
+     * Compiled messages, per base name, class loader, locale and key, so that bundles are looked up and patterns are
+     * parsed once.
+     */
+    private final transient ConcurrentMap<MessageKey, CompiledMessage> compiledMessages = new ConcurrentHashMap<>();
 
     protected transient LocaleProvider localeProvider;
 
@@ -43,13 +51,119 @@ public abstract class I18nMessages {
      */
     protected String getFormattedMessage(String key, ClassLoader classLoader, String baseName, Object... arguments)
             throws MissingResourceException {
+        String message = findFormattedMessage(key, classLoader, baseName, arguments);
+        if (message == null) {
+            // throws the MissingResourceException describing what is missing
+            ResourceBundle.getBundle(baseName, getLocale(), classLoader).getString(key);
+            throw new MissingResourceException("Can't find resource for bundle " + baseName + ", key " + key, baseName,
+                    key);
+        }
+        return message;
+    }
+
+    /**
+     * Same as {@link #getFormattedMessage(String, ClassLoader, String, Object...)}, but returns <code>null</code>
+     * rather than throwing an exception when the message is missing.
+     * 
+     * @return the formatted message, or null if not message was found with the key.
+     */
+    protected String findFormattedMessage(String key, ClassLoader classLoader, String baseName, Object... arguments) {
         Locale locale = getLocale();
-        ResourceBundle bundle = ResourceBundle.getBundle(baseName, locale, classLoader);
-        String bundleValue = bundle.getString(key);
-        // format it now
-        formatter.setLocale(locale);
-        formatter.applyPattern(bundleValue);
-        return formatter.format(arguments);
+        CompiledMessage message = compiledMessages.computeIfAbsent(new MessageKey(baseName, classLoader, locale, key),
+                I18nMessages::compile);
+        return message.format(arguments);
+    }
+
+    /**
+     * Forget the compiled messages, so that bundles are looked up again (after a
+     * {@link ResourceBundle#clearCache(ClassLoader)} for instance).
+     */
+    public void clearCache() {
+        compiledMessages.clear();
+    }
+
+    private static CompiledMessage compile(MessageKey messageKey) {
+        String bundleValue;
+        try {
+            ResourceBundle bundle = ResourceBundle.getBundle(messageKey.baseName, messageKey.locale,
+                    messageKey.classLoader);
+            bundleValue = bundle.getString(messageKey.key);
+        } catch (MissingResourceException mre) {
+            return CompiledMessage.MISSING;
+        }
+        MessageFormat formatter = new MessageFormat(bundleValue, messageKey.locale);
+        // message without arguments, also the message for any arguments if the pattern has no argument
+        String message = formatter.format(new Object[0]);
+        if (formatter.getFormatsByArgumentIndex().length == 0) {
+            return new CompiledMessage(message, null, true);
+        }
+        // without sub-format (number, date, choice...), format() only reads the formatter state
+        boolean shared = Arrays.stream(formatter.getFormats()).allMatch(Objects::isNull);
+        return new CompiledMessage(message, formatter, shared);
+    }
+
+    private static final class MessageKey {
+
+        private final String baseName;
+
+        private final ClassLoader classLoader;
+
+        private final Locale locale;
+
+        private final String key;
+
+        private MessageKey(String baseName, ClassLoader classLoader, Locale locale, String key) {
+            this.baseName = baseName;
+            this.classLoader = classLoader;
+            this.locale = locale;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MessageKey)) {
+                return false;
+            }
+            MessageKey that = (MessageKey) o;
+            return key.equals(that.key) && baseName.equals(that.baseName) && classLoader == that.classLoader
+                    && locale.equals(that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseName, classLoader, locale, key);
+        }
+    }
+
+    /**
+     * A message whose pattern is parsed, immutable (the formatter is copied when it can't be shared).
+     */
+    private static final class CompiledMessage {
+
+        private static final CompiledMessage MISSING = new CompiledMessage(null, null, true);
+
+        private final String noArgumentMessage;
+
+        private final MessageFormat formatter;
+
+        private final boolean shared;
+
+        private CompiledMessage(String noArgumentMessage, MessageFormat formatter, boolean shared) {
+            this.noArgumentMessage = noArgumentMessage;
+            this.formatter = formatter;
+            this.shared = shared;
+        }
+
+        private String format(Object[] arguments) {
+            if (formatter == null || arguments == null || arguments.length == 0) {
+                return noArgumentMessage;
+            }
+            MessageFormat messageFormat = shared ? formatter : (MessageFormat) formatter.clone();
+            return messageFormat.format(arguments);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -7,30 +7,17 @@ import java.text.DecimalFormatSymbols;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * Parse a {@link BigDecimal} instance from a {@link String}.
+ * <p>
+ * Values are scanned character by character: no regular expression is evaluated and no intermediate string is created
+ * for valid numbers.
  */
 public class BigDecimalParser {
 
-    /**
-     * Patterns used to check different cases in guessSeparators(String):
-     */
-    private static final Pattern ENDS_BY_NOT_3_DIGITS_PATTERN = Pattern.compile("^[(-]?\\d+([,.'\\h])(?:\\d{0,2}|\\d{4,})[)]?");
-
-    private static final Pattern STARTS_WITH_DECIMAL_SEPARATOR_PATTERN = Pattern
-            .compile("^[(-]?(?:\\d{3,}|\\d{0})([,.])\\d+[)]?");
-
-    private static final Pattern FEW_GROUP_SEP_PATTERN = Pattern.compile("^[(-]?\\d+([.,\\h'])\\d{3}(\\1\\d{3})+[)]?");
-
-    private static final Pattern TWO_DIFFERENT_SEPARATORS_PATTERN = Pattern.compile(".*\\d+([.\\h'])\\d+([,.])\\d+[)]?");
-
-    private static final Pattern CONTAINS_AT_LEAST_ONE_WHITESPACE = Pattern.compile("^[(-]?\\d+( \\d{3})+[)]?");
-
     public static final DecimalFormat US_DECIMAL_PATTERN = new DecimalFormat("#,##0.##",
             DecimalFormatSymbols.getInstance(Locale.US));
 
@@ -67,8 +54,8 @@ public class BigDecimalParser {
         if (StringUtils.isEmpty(from)) {
             throw new NumberFormatException("null or empty is not a valid number");
         }
-        final DecimalFormatSymbols decimalFormatSymbols = guessSeparators(from);
-        return toBigDecimal(from, decimalFormatSymbols.getDecimalSeparator(), decimalFormatSymbols.getGroupingSeparator());
+        final int separators = guessSeparatorChars(from);
+        return toBigDecimal(from, decimalSeparator(separators), groupingSeparator(separators));
     }
 
     /**
@@ -87,61 +74,118 @@ public class BigDecimalParser {
         if (StringUtils.isEmpty(from)) {
             throw new NumberFormatException("null or empty is not a valid number");
         }
-        // Remove grouping separators:
-        from = from.replaceAll("[" + groupingSeparator + "]", "");
-
-        // Replace decimal separator:
-        from = from.replaceAll("[" + decimalSeparator + "]", ".");
-
-        // Remove spaces:
-        from = from.replaceAll("\\h", "");
+        // Remove grouping separators and spaces, replace decimal separator:
+        final char[] chars = new char[from.length()];
+        int length = 0;
+        for (int i = 0; i < from.length(); i++) {
+            final char c = from.charAt(i);
+            if (c == groupingSeparator) {
+                continue;
+            }
+            if (c == decimalSeparator) {
+                chars[length++] = '.';
+            } else if (!isHorizontalWhitespace(c)) {
+                chars[length++] = c;
+            }
+        }
 
         // Detect and transform alternative negative pattern:
-        if (from.startsWith("(") && from.endsWith(")")) {
-            from = "-" + from.substring(1, from.length() - 1);
+        if (length > 1 && chars[0] == '(' && chars[length - 1] == ')') {
+            chars[0] = '-';
+            length--;
         }
 
         // Detect a percentage
-        boolean isPercentage = from.endsWith("%");
+        boolean isPercentage = length > 0 && chars[length - 1] == '%';
         if (isPercentage) {
-            from = from.substring(0, from.length() - 1);
+            length--;
         }
 
         try {
-            BigDecimal bigDecimal = new BigDecimal(from);
+            BigDecimal bigDecimal = new BigDecimal(chars, 0, length);
             return isPercentage ? bigDecimal.movePointLeft(2) : bigDecimal;
         } catch (NumberFormatException e) {
-            throw new NumberFormatException("'" + from + "' can not parsed as a number");
+            throw new NumberFormatException("'" + new String(chars, 0, length) + "' can not parsed as a number");
         }
     }
 
     public static DecimalFormatSymbols guessSeparators(String from) {
         final DecimalFormatSymbols toReturn = DecimalFormatSymbols.getInstance(Locale.US);
+        final int separators = guessSeparatorChars(from);
+        toReturn.setDecimalSeparator(decimalSeparator(separators));
+        toReturn.setGroupingSeparator(groupingSeparator(separators));
+        return toReturn;
+    }
+
+    /**
+     * Guesses separators with a scan of <code>from</code>.
+     *
+     * @return decimal separator in high 16 bits, grouping separator in low 16 bits.
+     */
+    private static int guessSeparatorChars(String from) {
+        char decimalSeparator = '.';
+        char groupingSeparator = ',';
+
+        int end = from.length();
+        if (end > 0 && from.charAt(end - 1) == ')') {
+            end--;
+        }
 
         /*
          * This part checks cases where two separators are present. In this case, the first one is probably the grouping
          * separator, and the second the decimal separator.
          * 
          * Like in 1.254.789,45 or 1 254 789.45
+         *
+         * Only the end of the value is checked: digits, separator, digits, separator, digits.
+         */
+        final int lastDigits = skipDigitsBackward(from, end);
+        if (lastDigits < end && lastDigits > 0 && isDecimalSeparatorCandidate(from.charAt(lastDigits - 1))) {
+            final int middleDigits = skipDigitsBackward(from, lastDigits - 1);
+            if (middleDigits < lastDigits - 1 && middleDigits > 1 && isDigit(from.charAt(middleDigits - 2))) {
+                final char c = from.charAt(middleDigits - 1);
+                if (c == '.' || c == '\'' || isHorizontalWhitespace(c)) {
+                    groupingSeparator = c;
+                    decimalSeparator = from.charAt(lastDigits - 1);
+                }
+            }
+        }
+
+        /*
+         * Other cases only apply to digit groups split by separators, optionally prefixed by '(' or '-' and suffixed by
+         * ')'.
          */
-        Matcher matcher = TWO_DIFFERENT_SEPARATORS_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            if (matcher.groupCount() >= 2) {
-                toReturn.setGroupingSeparator(matcher.group(1).charAt(0));
-                toReturn.setDecimalSeparator(matcher.group(2).charAt(0));
+        int position = end > 0 && (from.charAt(0) == '(' || from.charAt(0) == '-') ? 1 : 0;
+        final int firstGroupLength = countDigits(from, position, end);
+        position += firstGroupLength;
+        char separator = 0;
+        boolean sameSeparator = true;
+        boolean allGroupsOf3Digits = true;
+        int separatorCount = 0;
+        int lastGroupLength = 0;
+        while (position < end) {
+            final char c = from.charAt(position);
+            if (!isDecimalSeparatorCandidate(c) && c != '\'' && !isHorizontalWhitespace(c)) {
+                return pack(decimalSeparator, groupingSeparator);
             }
+            if (separatorCount == 0) {
+                separator = c;
+            } else if (c != separator) {
+                sameSeparator = false;
+            }
+            separatorCount++;
+            lastGroupLength = countDigits(from, position + 1, end);
+            allGroupsOf3Digits &= lastGroupLength == 3;
+            position += 1 + lastGroupLength;
         }
 
         /*
          * This part checks cases where there is one separator, following by not 3 digits (less or more). In this case,
          * it's probably a decimal separator. Like in 12,3456 or 12,34
          */
-        matcher = ENDS_BY_NOT_3_DIGITS_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char decimalSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setDecimalSeparator(decimalSeparator);
-            toReturn.setGroupingSeparator(inferGroupingSeparator(decimalSeparator));
+        if (separatorCount == 1 && firstGroupLength > 0 && lastGroupLength != 3) {
+            decimalSeparator = separator;
+            groupingSeparator = inferGroupingSeparator(separator);
         }
 
         /*
@@ -149,12 +193,10 @@ public class BigDecimalParser {
          * separator. Like in .254 or ,888 - where value starts with more than 3 digits then a separator. In this case,
          * it's probably a decimal separator. Like in 1234.24 or 1234,888
          */
-        matcher = STARTS_WITH_DECIMAL_SEPARATOR_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char decimalSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setDecimalSeparator(decimalSeparator);
-            toReturn.setGroupingSeparator(inferGroupingSeparator(decimalSeparator));
+        if (separatorCount == 1 && (firstGroupLength == 0 || firstGroupLength >= 3) && isDecimalSeparatorCandidate(separator)
+                && lastGroupLength > 0) {
+            decimalSeparator = separator;
+            groupingSeparator = inferGroupingSeparator(separator);
         }
 
         /*
@@ -163,12 +205,9 @@ public class BigDecimalParser {
          *
          * Like in 2.452.254 or 1 454 888
          */
-        matcher = FEW_GROUP_SEP_PATTERN.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char groupingSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setGroupingSeparator(groupingSeparator);
-            toReturn.setDecimalSeparator(inferDecimalSeparator(groupingSeparator));
+        if (separatorCount >= 2 && firstGroupLength > 0 && sameSeparator && allGroupsOf3Digits) {
+            groupingSeparator = separator;
+            decimalSeparator = inferDecimalSeparator(separator);
         }
 
         /*
@@ -177,15 +216,62 @@ public class BigDecimalParser {
          *
          * Like in 3 254
          */
-        matcher = CONTAINS_AT_LEAST_ONE_WHITESPACE.matcher(from);
-        if (matcher.matches()) {
-            String firstMatchingGroup = matcher.group(1);
-            final char groupingSeparator = firstMatchingGroup.charAt(0);
-            toReturn.setGroupingSeparator(groupingSeparator);
-            toReturn.setDecimalSeparator(inferDecimalSeparator(groupingSeparator));
+        if (separatorCount >= 1 && firstGroupLength > 0 && sameSeparator && separator == ' ' && allGroupsOf3Digits) {
+            groupingSeparator = separator;
+            decimalSeparator = inferDecimalSeparator(separator);
         }
 
-        return toReturn;
+        return pack(decimalSeparator, groupingSeparator);
+    }
+
+    private static int pack(char decimalSeparator, char groupingSeparator) {
+        return decimalSeparator << 16 | groupingSeparator;
+    }
+
+    private static char decimalSeparator(int separators) {
+        return (char) (separators >>> 16);
+    }
+
+    private static char groupingSeparator(int separators) {
+        return (char) separators;
+    }
+
+    /**
+     * @return number of consecutive digits in <code>from</code> starting at <code>start</code>.
+     */
+    private static int countDigits(String from, int start, int end) {
+        int i = start;
+        while (i < end && isDigit(from.charAt(i))) {
+            i++;
+        }
+        return i - start;
+    }
+
+    /**
+     * @return start of the digits ending at <code>end</code> in <code>from</code>.
+     */
+    private static int skipDigitsBackward(String from, int end) {
+        int i = end;
+        while (i > 0 && isDigit(from.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDecimalSeparatorCandidate(char c) {
+        return c == ',' || c == '.';
+    }
+
+    /**
+     * Same characters as <code>\h</code> in regular expressions.
+     */
+    private static boolean isHorizontalWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u1680' || c == '\u180e' || (c >= '\u2000' && c <= '\u200a')
+                || c == '\u202f' || c == '\u205f' || c == '\u3000';
     }
 
     /**
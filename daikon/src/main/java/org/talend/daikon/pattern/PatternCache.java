@@ -0,0 +1,213 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.pattern;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.talend.daikon.pattern.character.CharPatternToRegex;
+import org.talend.daikon.pattern.word.WordPatternToRegex;
+
+/**
+ * Bounded and thread-safe cache of regular expressions built from patterns (see {@link CharPatternToRegex} and
+ * {@link WordPatternToRegex}) and of their compiled {@link Pattern}, so filters repeatedly evaluated with the same
+ * pattern don't build and compile the regular expression again.
+ * <p>
+ * When cache is full, least recently used entry is evicted to make room.
+ * <p>
+ * Use {@link #getDefault()} for the cache shared by TQL backends.
+ */
+public class PatternCache {
+
+    /** default max number of cached patterns */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final PatternCache DEFAULT = new PatternCache(DEFAULT_MAX_SIZE);
+
+    private enum Kind {
+        REGEX,
+        CHAR_PATTERN,
+        WORD_PATTERN
+    }
+
+    /** entries in access order, guarded by its own lock (regular expressions are built outside of it) */
+    private final Map<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize max number of cached patterns.
+     */
+    public PatternCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return cache shared by all users in class loader.
+     */
+    public static PatternCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param regex A Java regular expression.
+     * @return compiled regular expression.
+     */
+    public Pattern compile(String regex) {
+        return entry(new Key(Kind.REGEX, regex, true)).getPattern();
+    }
+
+    /**
+     * @param pattern A character pattern (as returned in value analysis).
+     * @return compiled regular expression for pattern.
+     * @see CharPatternToRegex#toRegex(String)
+     */
+    public Pattern charPattern(String pattern) {
+        return entry(new Key(Kind.CHAR_PATTERN, pattern, true)).getPattern();
+    }
+
+    /**
+     * @param pattern A character pattern (as returned in value analysis).
+     * @return regular expression for pattern.
+     * @see CharPatternToRegex#toRegex(String)
+     */
+    public String charPatternRegex(String pattern) {
+        return entry(new Key(Kind.CHAR_PATTERN, pattern, true)).regex;
+    }
+
+    /**
+     * @param pattern A word pattern (as returned in value analysis).
+     * @param caseSensitive <code>true</code> for a case sensitive regular expression.
+     * @return compiled regular expression for pattern.
+     * @see WordPatternToRegex#toRegex(String, boolean)
+     */
+    public Pattern wordPattern(String pattern, boolean caseSensitive) {
+        return entry(new Key(Kind.WORD_PATTERN, pattern, caseSensitive)).getPattern();
+    }
+
+    /**
+     * @param pattern A word pattern (as returned in value analysis).
+     * @param caseSensitive <code>true</code> for a case sensitive regular expression.
+     * @return regular expression for pattern.
+     * @see WordPatternToRegex#toRegex(String, boolean)
+     */
+    public String wordPatternRegex(String pattern, boolean caseSensitive) {
+        return entry(new Key(Kind.WORD_PATTERN, pattern, caseSensitive)).regex;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry entry(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = new Entry(key.toRegex());
+        synchronized (entries) {
+            final Entry previous = entries.putIfAbsent(key, entry);
+            return previous == null ? entry : previous;
+        }
+    }
+
+    private static class Key {
+
+        private final Kind kind;
+
+        private final String pattern;
+
+        private final boolean caseSensitive;
+
+        private Key(Kind kind, String pattern, boolean caseSensitive) {
+            this.kind = kind;
+            this.pattern = Objects.requireNonNull(pattern, "pattern");
+            this.caseSensitive = caseSensitive;
+        }
+
+        private String toRegex() {
+            switch (kind) {
+            case CHAR_PATTERN:
+                return CharPatternToRegex.toRegex(pattern);
+            case WORD_PATTERN:
+                return WordPatternToRegex.toRegex(pattern, caseSensitive);
+            default:
+                return pattern;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return caseSensitive == key.caseSensitive && kind == key.kind && pattern.equals(key.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, pattern, caseSensitive);
+        }
+    }
+
+    /**
+     * Regular expression, compiled on first use.
+     */
+    private static class Entry {
+
+        private final String regex;
+
+        private volatile Pattern pattern;
+
+        private Entry(String regex) {
+            this.regex = regex;
+        }
+
+        private Pattern getPattern() {
+            Pattern current = pattern;
+            if (current == null) {
+                current = Pattern.compile(regex);
+                pattern = current;
+            }
+            return current;
+        }
+    }
+}
@@ -9,12 +9,14 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
 import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.converter.AvroConverter;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
 /**
@@ -80,6 +82,49 @@ public class AvroRegistryTest {
         assertThat(irff, nullValue());
     }
 
+    @Test
+    public void testConverterResolvedFromSuperClassAndInterfaces() {
+        AvroRegistry registry = new AvroRegistry();
+        AvroConverter<Number, Number> numberConverter = new AvroRegistry.Unconverted<>(Number.class,
+                Schema.create(Schema.Type.DOUBLE));
+        AvroConverter<CharSequence, CharSequence> charSequenceConverter = new AvroRegistry.Unconverted<>(CharSequence.class,
+                Schema.create(Schema.Type.STRING));
+
+        // when
+        registry.registerConverter(Number.class, numberConverter);
+        registry.registerConverter(CharSequence.class, charSequenceConverter);
+
+        // then
+        assertThat(registry.getConverter(AtomicLong.class), sameInstance((Object) numberConverter));
+        assertThat(registry.getConverter(StringBuilder.class), sameInstance((Object) charSequenceConverter));
+        // Private converters, even registered for a super class, are preferred over shared ones.
+        assertThat(registry.getConverter(Integer.class), sameInstance((Object) numberConverter));
+        assertThat(registry.getConverter(Object.class), nullValue());
+    }
+
+    @Test
+    public void testConverterResolutionInvalidatedOnRegistration() {
+        AvroRegistry registry = new AvroRegistry();
+        AvroConverter<Number, Number> numberConverter = new AvroRegistry.Unconverted<>(Number.class,
+                Schema.create(Schema.Type.DOUBLE));
+        AvroConverter<AtomicLong, AtomicLong> atomicLongConverter = new AvroRegistry.Unconverted<>(AtomicLong.class,
+                Schema.create(Schema.Type.LONG));
+        assertThat(registry.getConverter(AtomicLong.class), nullValue());
+
+        // when
+        registry.registerConverter(Number.class, numberConverter);
+
+        // then
+        assertThat(registry.getConverter(AtomicLong.class), sameInstance((Object) numberConverter));
+
+        // when
+        registry.registerConverter(AtomicLong.class, atomicLongConverter);
+
+        // then
+        assertThat(registry.getConverter(AtomicLong.class), sameInstance((Object) atomicLongConverter));
+        assertThat(new AvroRegistry().getConverter(AtomicLong.class), nullValue());
+    }
+
     @Test
     public void testSerializability() {
         // TODO: Adding shared stuff to the AvroRegistry should be serializable so it can be used across different
@@ -0,0 +1,241 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.container.ContainerReaderByIndex;
+import org.talend.daikon.avro.container.ContainerWriterByIndex;
+
+/**
+ * Unit tests for {@link CachedIndexedRecordConverterBase}.
+ */
+public class CachedIndexedRecordConverterBaseTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("row").fields() //
+            .name("name").type().stringType().noDefault() //
+            .name("created").type(AvroUtils.wrapAsNullable(Schema.create(Schema.Type.LONG))).noDefault() //
+            .endRecord();
+
+    @Test
+    public void convertToAvro() {
+        // given
+        ObjectArrayConverter converter = new ObjectArrayConverter();
+        converter.setContainerDataSpec(SCHEMA);
+
+        // when
+        IndexedRecord first = converter.convertToAvro(new Object[] { "a", new Date(1000L) });
+        IndexedRecord second = converter.convertToAvro(new Object[] { "b", null });
+
+        // then
+        assertEquals("a", first.get(0));
+        assertEquals(1000L, first.get(1));
+        assertEquals("b", second.get(0));
+        assertNull(second.get(1));
+    }
+
+    @Test
+    public void convertToAvro_convertersLookedUpOnce() {
+        // given
+        ObjectArrayConverter converter = new ObjectArrayConverter();
+        converter.setContainerDataSpec(SCHEMA);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            IndexedRecord record = converter.convertToAvro(new Object[] { "name" + i, new Date(i) });
+            record.get(0);
+            record.get(1);
+        }
+
+        // then
+        // Field "name" holds Avro strings: it needs no lookup, and the date converter is looked up only once.
+        assertEquals(1, converter.lookups);
+    }
+
+    @Test
+    public void convertToAvro_converterLookedUpForEachValueClass() {
+        // given
+        ObjectArrayConverter converter = new ObjectArrayConverter();
+        converter.setContainerDataSpec(SCHEMA);
+
+        // when
+        IndexedRecord first = converter.convertToAvro(new Object[] { "a", 1000L });
+        IndexedRecord second = converter.convertToAvro(new Object[] { "b", 1000L });
+        IndexedRecord third = converter.convertToAvro(new Object[] { "c", new Date(2000L) });
+
+        // then
+        // Longs are Avro values that need no lookup, but a date read after them must still be converted.
+        assertEquals(1000L, first.get(1));
+        assertEquals(1000L, second.get(1));
+        assertEquals(0, converter.lookups);
+        assertEquals(2000L, third.get(1));
+        assertEquals(1, converter.lookups);
+    }
+
+    @Test
+    public void convertWideRecord_sameValuesAsConverterLookedUpForEachValue() {
+        // given
+        Schema wideSchema = wideSchema(240);
+        ObjectArrayConverter converter = new ObjectArrayConverter();
+        converter.setContainerDataSpec(wideSchema);
+        ObjectArrayConverter reference = new ObjectArrayConverter();
+        reference.setContainerDataSpec(wideSchema);
+
+        for (int row = 0; row < 20; row++) {
+            Object[] values = wideValues(wideSchema, row);
+
+            // when
+            IndexedRecord record = converter.convertToAvro(values);
+            Object[] datum = converter.convertToDatum(record);
+
+            // then
+            for (int i = 0; i < values.length; i++) {
+                String message = "field " + i + " of row " + row;
+                assertEquals(reference.lookUpAndConvertToAvro(i, values[i]), record.get(i), message);
+                assertEquals(values[i], datum[i], message);
+            }
+        }
+    }
+
+    /**
+     * @return A record schema with fields of (nullable or not) primitive types, and a non-nullable union.
+     */
+    private static Schema wideSchema(int size) {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("wide").fields();
+        for (int i = 0; i < size; i++) {
+            switch (i % 6) {
+            case 0:
+                fields = fields.name("f" + i).type().stringType().noDefault();
+                break;
+            case 1:
+                fields = fields.name("f" + i).type(AvroUtils.wrapAsNullable(Schema.create(Schema.Type.LONG)))
+                        .noDefault();
+                break;
+            case 2:
+                fields = fields.name("f" + i).type().intType().noDefault();
+                break;
+            case 3:
+                fields = fields.name("f" + i).type(AvroUtils.wrapAsNullable(Schema.create(Schema.Type.DOUBLE)))
+                        .noDefault();
+                break;
+            case 4:
+                fields = fields.name("f" + i).type().booleanType().noDefault();
+                break;
+            default:
+                fields = fields.name("f" + i).type().unionOf().intType().and().stringType().endUnion().noDefault();
+                break;
+            }
+        }
+        return fields.endRecord();
+    }
+
+    private static Object[] wideValues(Schema wideSchema, int row) {
+        Object[] values = new Object[wideSchema.getFields().size()];
+        for (int i = 0; i < values.length; i++) {
+            switch (i % 6) {
+            case 0:
+                values[i] = row % 2 == 0 ? "s" + row : new Utf8("u" + row);
+                break;
+            case 1:
+                values[i] = row % 3 == 0 ? null : i % 12 == 1 ? new Date(row * 1000L) : Long.valueOf(row);
+                break;
+            case 2:
+                values[i] = i + row;
+                break;
+            case 3:
+                values[i] = row % 4 == 0 ? null : row / 4.0;
+                break;
+            case 4:
+                values[i] = row % 2 == 0;
+                break;
+            default:
+                values[i] = row % 2 == 0 ? (Object) row : "v" + row;
+                break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Wraps arrays of values, where dates are converted to longs and other values are passed through.
+     */
+    private static class ObjectArrayConverter extends CachedIndexedRecordConverterBase<Schema, Schema, Object[], Object[]> {
+
+        private int lookups;
+
+        private ObjectArrayConverter() {
+            super(Schema.class);
+        }
+
+        @Override
+        public Class<Object[]> getDatumClass() {
+            return Object[].class;
+        }
+
+        @Override
+        protected void setSchemaFromContainerDataSpec(Schema containerType) {
+            setSchema(containerType);
+        }
+
+        @Override
+        protected void setContainerDataSpecFromInstance(Object[] gettable) {
+            // The schema is always set first.
+        }
+
+        @Override
+        public Schema getFieldDataSpec(int i) {
+            return getContainerDataSpec().getFields().get(i).schema();
+        }
+
+        @Override
+        protected ContainerReaderByIndex<? super Object[], ?> getFieldReader(Schema fDataSpec) {
+            return (values, index) -> values[index];
+        }
+
+        @Override
+        protected ContainerWriterByIndex<? super Object[], ?> getFieldWriter(Schema fDataSpec) {
+            return (values, index, value) -> values[index] = value;
+        }
+
+        @Override
+        protected void setToNull(Object[] value, int fieldIndex) {
+            value[fieldIndex] = null;
+        }
+
+        @SuppressWarnings("rawtypes")
+        @Override
+        protected AvroConverter getConverter(Schema fDataSpec, Schema fSchema, Class<?> fDatumClass) {
+            lookups++;
+            if (AvroUtils.unwrapIfNullable(fSchema).getType() == Schema.Type.LONG && fDatumClass != Long.class) {
+                return new ConvertDate();
+            }
+            return null;
+        }
+
+        @Override
+        protected Object[] createOrGetInstance() {
+            return new Object[getContainerDataSpec().getFields().size()];
+        }
+
+        /**
+         * @return The Avro value of a field, with the converter looked up for the class of the given value.
+         */
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        private Object lookUpAndConvertToAvro(int i, Object value) {
+            if (value == null) {
+                return null;
+            }
+            Schema fSchema = getSchema().getFields().get(i).schema();
+            AvroConverter converter = getConverter(getFieldDataSpec(i), fSchema, value.getClass());
+            return converter == null ? value : converter.convertToAvro(value);
+        }
+    }
+}
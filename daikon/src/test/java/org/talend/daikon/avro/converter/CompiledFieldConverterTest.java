@@ -0,0 +1,92 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.SchemaConstants;
+
+/**
+ * Unit tests for {@link CompiledFieldConverter}.
+ */
+public class CompiledFieldConverterTest {
+
+    @Test
+    public void compile() {
+        // given
+        Schema record = SchemaBuilder.record("row").fields() //
+                .name("name").type().stringType().noDefault() //
+                .name("count").type(AvroUtils.wrapAsNullable(Schema.create(Schema.Type.INT))).noDefault() //
+                .name("last").type().unionOf().longType().and().nullType().endUnion().noDefault() //
+                .endRecord();
+
+        // when
+        CompiledFieldConverter[] converters = CompiledFieldConverter.compile(AvroUtils.wrapAsNullable(record));
+
+        // then
+        assertEquals(3, converters.length);
+        assertEquals("count", converters[1].getField().name());
+        assertEquals(1, converters[1].getPosition());
+        assertFalse(converters[0].isNullable());
+        assertTrue(converters[1].isNullable());
+        assertTrue(converters[2].isNullable());
+        assertEquals(Schema.Type.INT, converters[1].getSchema().getType());
+        assertEquals(Schema.Type.LONG, converters[2].getSchema().getType());
+    }
+
+    @Test
+    public void isAvroValue_primitiveTypes() {
+        // given
+        Schema record = SchemaBuilder.record("row").fields() //
+                .name("string").type().stringType().noDefault() //
+                .name("int").type(AvroUtils.wrapAsNullable(Schema.create(Schema.Type.INT))).noDefault() //
+                .name("long").type().longType().noDefault() //
+                .name("bytes").type().bytesType().noDefault() //
+                .endRecord();
+
+        // when
+        CompiledFieldConverter[] converters = CompiledFieldConverter.compile(record);
+
+        // then
+        assertTrue(converters[0].isAvroValue("a"));
+        assertTrue(converters[0].isAvroValue(new Utf8("a")));
+        assertFalse(converters[0].isAvroValue('a'));
+        assertTrue(converters[1].isAvroValue(1));
+        assertFalse(converters[1].isAvroValue((short) 1));
+        assertTrue(converters[2].isAvroValue(1L));
+        assertFalse(converters[2].isAvroValue(new Date(1L)));
+        assertTrue(converters[3].isAvroValue(ByteBuffer.wrap(new byte[] { 1 })));
+        assertFalse(converters[3].isAvroValue(new byte[] { 1 }));
+    }
+
+    @Test
+    public void isAvroValue_falseWhenValuesMayNeedConversion() {
+        // given
+        Schema timestamp = LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+        Schema shortInt = Schema.create(Schema.Type.INT);
+        shortInt.addProp(SchemaConstants.JAVA_CLASS_FLAG, Short.class.getCanonicalName());
+        Schema record = SchemaBuilder.record("row").fields() //
+                .name("timestamp").type(timestamp).noDefault() //
+                .name("short").type(shortInt).noDefault() //
+                .name("union").type().unionOf().intType().and().stringType().endUnion().noDefault() //
+                .endRecord();
+
+        // when
+        CompiledFieldConverter[] converters = CompiledFieldConverter.compile(record);
+
+        // then
+        assertFalse(converters[0].isAvroValue(1L));
+        assertFalse(converters[1].isAvroValue(1));
+        assertFalse(converters[2].isAvroValue(1));
+    }
+}
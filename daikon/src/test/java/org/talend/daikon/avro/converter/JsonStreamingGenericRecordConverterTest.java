@@ -0,0 +1,131 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.avro.inferrer.JsonSchemaInferrer;
+import org.talend.daikon.exception.TalendRuntimeException;
+
+/**
+ * Test {@link JsonStreamingGenericRecordConverter}
+ */
+public class JsonStreamingGenericRecordConverterTest {
+
+    private final String jsonComplexRecord = "{\"a\": {\"b\": \"b1\", \"c\": [1, 2]}, \"d\": 10, \"e\": 12345678901, "
+            + "\"f\": 1.5, \"g\": true, \"h\": null, \"i\": [{\"j\": \"j1\"}, {\"j\": \"j2\", \"k\": false}], \"l\": []}";
+
+    private final JsonStreamingGenericRecordConverter converter = new JsonStreamingGenericRecordConverter();
+
+    @Test
+    public void testSchemaSameAsInferred() {
+        // when
+        GenericRecord record = converter.convertToAvro(jsonComplexRecord);
+
+        // then
+        assertEquals(JsonSchemaInferrer.createJsonSchemaInferrer().inferSchema(jsonComplexRecord), record.getSchema());
+    }
+
+    @Test
+    public void testConvertComplexRecordToAvro() {
+        // when
+        GenericRecord record = converter.convertToAvro(jsonComplexRecord);
+
+        // then
+        GenericRecord recordA = (GenericRecord) record.get("a");
+        assertEquals("b1", recordA.get("b"));
+        assertEquals(Arrays.asList(1, 2), recordA.get("c"));
+        assertEquals(10, record.get("d"));
+        assertEquals(12345678901L, record.get("e"));
+        assertEquals(1.5, record.get("f"));
+        assertEquals(true, record.get("g"));
+        assertNull(record.get("h"));
+        List<?> arrayI = (List<?>) record.get("i");
+        assertEquals(2, arrayI.size());
+        assertEquals("j1", ((GenericRecord) arrayI.get(0)).get("j"));
+        assertEquals("j2", ((GenericRecord) arrayI.get(1)).get("j"));
+        assertEquals(false, ((GenericRecord) arrayI.get(1)).get("k"));
+        assertEquals(new ArrayList<>(), record.get("l"));
+    }
+
+    @Test
+    public void testSchemaReusedForSameStructure() {
+        // when
+        GenericRecord first = converter.convertToAvro("{\"a\": \"a1\", \"b\": {\"c\": 1}}");
+        GenericRecord second = converter.convertToAvro("{\"a\": \"a2\", \"b\": {\"c\": 2}}");
+        GenericRecord other = converter.convertToAvro("{\"a\": \"a3\", \"b\": {\"c\": \"c3\"}}");
+
+        // then
+        assertSame(first.getSchema(), second.getSchema());
+        assertNotSame(first.getSchema(), other.getSchema());
+        assertEquals(1, converter.getSchemaCacheHits());
+        assertEquals(2, converter.getSchemaCacheMisses());
+        assertEquals(2, ((GenericRecord) second.get("b")).get("c"));
+    }
+
+    @Test
+    public void testConvertAll() {
+        // given
+        String json = "{\"a\": 1}\n{\"a\": 2}\n\n{\"a\": 3, \"b\": \"b3\"}\n";
+        List<GenericRecord> records = new ArrayList<>();
+
+        // when
+        long count = converter.convertAll(new StringReader(json), records::add);
+
+        // then
+        assertEquals(3, count);
+        assertEquals(1, records.get(0).get("a"));
+        assertEquals(2, records.get(1).get("a"));
+        assertEquals("b3", records.get(2).get("b"));
+        assertSame(records.get(0).getSchema(), records.get(1).getSchema());
+    }
+
+    @Test
+    public void testConvertAllDoesNotCloseReader() throws IOException {
+        // given
+        StringReader reader = new StringReader("{\"a\": 1}\n{\"a\": 2}\n");
+
+        // when
+        long count = converter.convertAll(reader, record -> {
+        });
+
+        // then, reader is still open (read throws once closed).
+        assertEquals(2, count);
+        assertEquals(-1, reader.read());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSchemaEvicted() {
+        // given
+        JsonStreamingGenericRecordConverter small = new JsonStreamingGenericRecordConverter(2);
+        GenericRecord first = small.convertToAvro("{\"a\": 1}");
+        small.convertToAvro("{\"b\": 1}");
+
+        // when
+        GenericRecord firstAgain = small.convertToAvro("{\"a\": 2}");
+        small.convertToAvro("{\"c\": 1}");
+
+        // then, "b" structure was evicted, not the recently used "a".
+        assertSame(first.getSchema(), firstAgain.getSchema());
+        assertSame(first.getSchema(), small.convertToAvro("{\"a\": 3}").getSchema());
+        assertEquals(2, small.getSchemaCacheHits());
+        small.convertToAvro("{\"b\": 2}");
+        assertEquals(4, small.getSchemaCacheMisses());
+    }
+
+    @Test
+    public void testConvertNotAnObject() {
+        assertThrows(TalendRuntimeException.class, () -> converter.convertToAvro("[1, 2]"));
+    }
+}
@@ -4,6 +4,17 @@ package org.talend.daikon.avro.converter.string;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.apache.avro.Schema;
 import org.junit.jupiter.api.Test;
 import org.talend.daikon.avro.AvroUtils;
@@ -77,4 +88,114 @@ public class StringTimestampConverterTest extends StringConverterTest {
         });
     }
 
+    /**
+     * Checks {@link StringTimestampConverter} formats and parses dates as {@link SimpleDateFormat}, with or without its
+     * fixed-width fast path
+     */
+    @Test
+    public void testSameResultsAsSimpleDateFormat() throws ParseException {
+        String[] patterns = { StringTimestampConverter.DEFAULT_PATTERN, "dd-MM-yyyy HH:mm:ss:SSS", "yyyy-MM-dd",
+                "yyyy-MM-dd'T'HH:mm:ss.SSS", "yyyyMMddHHmmss", "HH:mm", "dd/MM/yyyy hh:mm a", "d MMM yyyy",
+                "'o''clock' HH" };
+        String[] texts = { "13-02-2009 11:31:30:123", "13-02-2009 12:31:30:123", "32-01-2017 10:00:00:000",
+                "29-02-2016 00:00:00:000", "29-02-2017 23:59:59:999", "1-3-2017 10:00:00:000", "01-01-1500 10:00:00:000",
+                "13-02-2009 11:31:30:123 trailing", "2017-03-21", "2017-13-21", "0000-01-01", "2017-03-21T10:15:30.123",
+                "20170321101530", "10:15", "24:15", "21/03/2017 10:15 PM", "21 Mar 2017", "o'clock 10" };
+        long[] values = { 0L, 1234567890123L, -1L, -12219292800001L, -12219292800000L, 253402300799999L,
+                253402300800000L, 1490054400000L };
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            StringTimestampConverter converter = new StringTimestampConverter(pattern);
+            SimpleDateFormat expected = new SimpleDateFormat(pattern);
+            expected.setTimeZone(TimeZone.getTimeZone("UTC"));
+            for (long value : values) {
+                assertEquals(expected.format(value), converter.convertToDatum(value), pattern + " " + value);
+            }
+            for (int i = 0; i < 1000; i++) {
+                // Between years 1500 and 2500
+                long value = -14831769600000L + (long) (random.nextDouble() * 31556889600000L);
+                String datum = expected.format(value);
+                assertEquals(datum, converter.convertToDatum(value), pattern + " " + value);
+                assertEquals(expected.parse(datum).getTime(), converter.convertToAvro(datum), pattern + " " + datum);
+            }
+            for (String text : texts) {
+                Long expectedValue;
+                try {
+                    expectedValue = expected.parse(text).getTime();
+                } catch (ParseException e) {
+                    expectedValue = null;
+                }
+                if (expectedValue == null) {
+                    assertThrows(IllegalArgumentException.class, () -> converter.convertToAvro(text),
+                            pattern + " " + text);
+                } else {
+                    assertEquals(expectedValue, converter.convertToAvro(text), pattern + " " + text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks {@link StringTimestampConverter} formats and parses dates as {@link SimpleDateFormat} with a default
+     * locale that has another calendar or other digits
+     */
+    @Test
+    public void testSameResultsAsSimpleDateFormatWithDefaultLocale() throws ParseException {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("th-TH"));
+            StringTimestampConverter converter = createConverter();
+            assertEquals("13-02-2552 11:31:30:123", converter.convertToDatum(1234567890123L));
+
+            String[] locales = { "th-TH", "th-TH-u-nu-thai", "ja-JP-u-ca-japanese", "ar-SA-u-nu-arab" };
+            for (String locale : locales) {
+                Locale.setDefault(Locale.forLanguageTag(locale));
+                for (String pattern : new String[] { StringTimestampConverter.DEFAULT_PATTERN, "yyyy-MM-dd" }) {
+                    StringTimestampConverter localeConverter = new StringTimestampConverter(pattern);
+                    SimpleDateFormat expected = new SimpleDateFormat(pattern);
+                    expected.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    for (long value : new long[] { 0L, 1234567890123L, 1490054400000L }) {
+                        String datum = expected.format(value);
+                        assertEquals(datum, localeConverter.convertToDatum(value), locale + " " + pattern);
+                        assertEquals(expected.parse(datum).getTime(), localeConverter.convertToAvro(datum),
+                                locale + " " + pattern);
+                    }
+                }
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    /**
+     * Checks a {@link StringTimestampConverter} can be shared by concurrent threads
+     */
+    @Test
+    public void testConcurrentConversions() throws Exception {
+        StringTimestampConverter fastConverter = createConverter();
+        StringTimestampConverter slowConverter = new StringTimestampConverter("d MMM yyyy HH:mm:ss.SSS");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final long offset = thread * 86_400_000L * 365;
+                futures.add(executor.submit(() -> {
+                    for (long value = offset; value < offset + 1000L * 3_600_123L; value += 3_600_123L) {
+                        // The default pattern has no am/pm marker: parsed hours are in the morning
+                        long morningValue = value - (value % 86_400_000L >= 43_200_000L ? 43_200_000L : 0L);
+                        String fastDatum = fastConverter.convertToDatum(value);
+                        assertEquals(morningValue, fastConverter.convertToAvro(fastDatum));
+                        assertEquals(value, slowConverter.convertToAvro(slowConverter.convertToDatum(value)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
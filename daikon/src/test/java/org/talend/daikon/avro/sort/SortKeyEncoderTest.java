@@ -0,0 +1,237 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.avro.sort;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+public class SortKeyEncoderTest {
+
+    private static final Schema DATE = LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+
+    private static final Schema TIMESTAMP = LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+
+    private static final Schema ADDRESS = SchemaBuilder.record("address").fields() //
+            .requiredString("street") //
+            .requiredInt("number") //
+            .endRecord();
+
+    private static final Schema SCHEMA = SchemaBuilder.record("row").fields() //
+            .optionalString("name") //
+            .requiredInt("id") //
+            .requiredDouble("amount") //
+            .requiredFloat("ratio") //
+            .name("count").orderDescending().type().longType().noDefault() //
+            .requiredBoolean("flag") //
+            .requiredBytes("payload") //
+            .name("hash").type().fixed("hash").size(2).noDefault() //
+            .name("color").type().enumeration("color").symbols("RED", "GREEN", "BLUE").noDefault() //
+            .name("birth").type().unionOf().nullType().and().type(DATE).endUnion().noDefault() //
+            .name("updated").type(TIMESTAMP).noDefault() //
+            .name("tags").type().array().items().stringType().noDefault() //
+            .name("address").type().unionOf().nullType().and().type(ADDRESS).endUnion().noDefault() //
+            .name("choice").type().unionOf().nullType().and().intType().and().stringType().endUnion().noDefault() //
+            .name("attributes").orderIgnore().type().map().values().stringType().noDefault() //
+            .endRecord();
+
+    private static final String[] STRINGS = { "", "a", "b", "ab", "a\0", "\0", "é", "€", "😀",
+            "\uD800", "z\uDC00" };
+
+    private static final double[] DOUBLES = { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE,
+            -0.0, 0.0, Double.MIN_VALUE, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN };
+
+    private static final long[] LONGS = { Long.MIN_VALUE, Integer.MIN_VALUE, -1, 0, 1, 255, 256, Integer.MAX_VALUE,
+            Long.MAX_VALUE };
+
+    private final SortKeyEncoder encoder = new SortKeyEncoder(SCHEMA);
+
+    @Test
+    public void testSameOrderAsGenericData() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            IndexedRecord record1 = randomRecord(random);
+            IndexedRecord record2 = random.nextInt(10) == 0 ? copy(record1, random) : randomRecord(random);
+            int expected = Integer.signum(GenericData.get().compare(record1, record2, SCHEMA));
+            byte[] key1 = encoder.encode(record1);
+            byte[] key2 = encoder.encode(record2);
+            assertEquals(expected, Integer.signum(SortKey.compare(key1, key2)), record1 + " " + record2);
+            assertEquals(expected == 0, encoder.toSortKey(record1).equals(encoder.toSortKey(record2)));
+            if (expected == 0) {
+                assertEquals(SortKey.hashCode(key1), SortKey.hashCode(key2));
+            }
+        }
+    }
+
+    @Test
+    public void testSort() {
+        Random random = new Random(7);
+        List<IndexedRecord> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            records.add(randomRecord(random));
+        }
+        Map<SortKey, IndexedRecord> byKey = new HashMap<>();
+        for (IndexedRecord record : records) {
+            byKey.put(encoder.toSortKey(record), record);
+        }
+        List<SortKey> keys = new ArrayList<>(byKey.keySet());
+        Collections.sort(keys);
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(GenericData.get().compare(byKey.get(keys.get(i - 1)), byKey.get(keys.get(i)), SCHEMA) < 0);
+        }
+        Set<IndexedRecord> distinct = new HashSet<>(records);
+        assertEquals(distinct.size(), byKey.size());
+    }
+
+    @Test
+    public void testLogicalTypeValues() {
+        Schema schema = SchemaBuilder.record("dates").fields() //
+                .name("date").type(DATE).noDefault() //
+                .name("timestamp").type(TIMESTAMP).noDefault() //
+                .endRecord();
+        SortKeyEncoder dateEncoder = new SortKeyEncoder(schema);
+        LocalDate date = LocalDate.of(1969, 7, 21);
+        Instant instant = Instant.parse("1969-07-21T02:56:15.123Z");
+
+        GenericData.Record primitives = new GenericData.Record(schema);
+        primitives.put("date", (int) date.toEpochDay());
+        primitives.put("timestamp", instant.toEpochMilli());
+        GenericData.Record javaTime = new GenericData.Record(schema);
+        javaTime.put("date", date);
+        javaTime.put("timestamp", instant);
+        GenericData.Record javaUtil = new GenericData.Record(schema);
+        javaUtil.put("date", date);
+        javaUtil.put("timestamp", new java.util.Date(instant.toEpochMilli()));
+
+        assertArrayEquals(dateEncoder.encode(primitives), dateEncoder.encode(javaTime));
+        assertArrayEquals(dateEncoder.encode(primitives), dateEncoder.encode(javaUtil));
+    }
+
+    @Test
+    public void testRecursiveSchema() {
+        Schema schema = SchemaBuilder.record("node").fields() //
+                .requiredInt("value") //
+                .name("next").type().optional().type("node") //
+                .endRecord();
+        SortKeyEncoder listEncoder = new SortKeyEncoder(schema);
+        IndexedRecord list1 = list(schema, 1, 2);
+        IndexedRecord list2 = list(schema, 1, 2, 3);
+        IndexedRecord list3 = list(schema, 1, 3);
+
+        assertTrue(SortKey.compare(listEncoder.encode(list1), listEncoder.encode(list2)) < 0);
+        assertTrue(SortKey.compare(listEncoder.encode(list2), listEncoder.encode(list3)) < 0);
+        assertArrayEquals(listEncoder.encode(list2), listEncoder.encode(list(schema, 1, 2, 3)));
+    }
+
+    @Test
+    public void testMapsCannotBeOrdered() {
+        Schema schema = SchemaBuilder.record("withMap").fields() //
+                .name("attributes").type().map().values().stringType().noDefault() //
+                .endRecord();
+        GenericData.Record record = new GenericData.Record(schema);
+        record.put("attributes", Collections.singletonMap("key", "value"));
+
+        assertThrows(AvroRuntimeException.class, () -> new SortKeyEncoder(schema).encode(record));
+    }
+
+    @Test
+    public void testSortKey() {
+        SortKey key = new SortKey(new byte[] { 0, (byte) 0xAB });
+
+        assertEquals("00ab", key.toString());
+        assertEquals(key, new SortKey(new byte[] { 0, (byte) 0xAB }));
+        assertNotEquals(key, new SortKey(new byte[] { 0, (byte) 0xAB, 0 }));
+        assertTrue(key.compareTo(new SortKey(new byte[] { 0, (byte) 0xAB, 0 })) < 0);
+        assertTrue(key.compareTo(new SortKey(new byte[] { 1 })) < 0);
+        assertTrue(SortKey.COMPARATOR.compare(new byte[] { (byte) 0x80 }, new byte[] { 0x7F }) > 0);
+    }
+
+    private static IndexedRecord list(Schema schema, int... values) {
+        GenericData.Record next = null;
+        for (int i = values.length - 1; i >= 0; i--) {
+            GenericData.Record node = new GenericData.Record(schema);
+            node.put("value", values[i]);
+            node.put("next", next);
+            next = node;
+        }
+        return next;
+    }
+
+    private static IndexedRecord randomRecord(Random random) {
+        GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("name", random.nextInt(4) == 0 ? null : randomString(random));
+        record.put("id", (int) LONGS[1 + random.nextInt(LONGS.length - 2)]);
+        record.put("amount", DOUBLES[random.nextInt(DOUBLES.length)]);
+        record.put("ratio", (float) DOUBLES[random.nextInt(DOUBLES.length)]);
+        record.put("count", LONGS[random.nextInt(LONGS.length)]);
+        record.put("flag", random.nextBoolean());
+        byte[] payload = new byte[random.nextInt(3)];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) new int[] { 0, 1, 0x7F, 0x80, 0xFF }[random.nextInt(5)];
+        }
+        record.put("payload", ByteBuffer.wrap(payload));
+        Schema hash = SCHEMA.getField("hash").schema();
+        byte[] hashBytes = { (byte) random.nextInt(2), (byte) (random.nextInt(3) * 0x7F) };
+        record.put("hash", new GenericData.Fixed(hash, hashBytes));
+        Schema color = SCHEMA.getField("color").schema();
+        record.put("color", new GenericData.EnumSymbol(color, color.getEnumSymbols().get(random.nextInt(3))));
+        record.put("birth", random.nextInt(3) == 0 ? null : random.nextInt(5) - 2);
+        record.put("updated", LONGS[random.nextInt(LONGS.length)]);
+        List<Object> tags = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            tags.add(randomString(random));
+        }
+        record.put("tags", tags);
+        if (random.nextInt(3) > 0) {
+            GenericData.Record address = new GenericData.Record(ADDRESS);
+            address.put("street", randomString(random));
+            address.put("number", random.nextInt(3));
+            record.put("address", address);
+        }
+        record.put("choice", new Object[] { null, random.nextInt(3) - 1, randomString(random) }[random.nextInt(3)]);
+        record.put("attributes", Collections.singletonMap("key", randomString(random)));
+        return record;
+    }
+
+    private static Object randomString(Random random) {
+        String value = STRINGS[random.nextInt(STRINGS.length)];
+        return random.nextBoolean() ? new Utf8(value) : value;
+    }
+
+    /**
+     * @return a record equal to the given one, with some fields changed to the other string type, and the ignored
+     * field changed.
+     */
+    private static IndexedRecord copy(IndexedRecord record, Random random) {
+        GenericData.Record copy = new GenericData.Record((GenericData.Record) record, true);
+        Object name = copy.get("name");
+        if (name != null) {
+            copy.put("name", name instanceof Utf8 ? name.toString() : new Utf8(name.toString()));
+        }
+        copy.put("tags", new ArrayList<>((List<?>) copy.get("tags")));
+        copy.put("attributes", Collections.singletonMap("key", randomString(random)));
+        return copy;
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the fast parsers of {@link DateTimeFormatters} give the same results as {@link DateTimeFormatter}.
+ */
+public class DateTimeFormattersTest {
+
+    private static final String[] TEXTS = { "2017-03-21", "2016-02-29", "2017-02-29", "2017-02-30", "2017-13-01",
+            "0000-01-01", "1500-01-01", "+2017-03-21", "2017-03-21T10:15", "2017-03-21T10:15:30",
+            "2017-03-21T10:15:30.123", "2017-03-21T10:15:30.1", "2017-03-21T24:00:00", "2017-03-21T23:60:00",
+            "2017-03-21 10:15:30", "21/03/2017 10:15:30", "21/03/2017", "10:15", "10:15:30", "10:15:30.123",
+            "24:00", "10:15:30.123456789", "21-03-2017 10:15:30:123", "20170321101530", "2017-0a-21", "" };
+
+    private static final DateTimeFormatter[] FORMATTERS = { DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ISO_LOCAL_TIME, DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatters.ofPattern("dd/MM/yyyy HH:mm:ss"), DateTimeFormatters.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatters.ofPattern("dd-MM-yyyy HH:mm:ss:SSS"), DateTimeFormatters.ofPattern("yyyyMMddHHmmss"),
+            DateTimeFormatters.ofPattern("HH:mm"), DateTimeFormatters.ofPattern("yyyy-MM-dd HH:mm:ss") };
+
+    @Test
+    public void testOfPatternIsCached() {
+        assertSame(DateTimeFormatters.ofPattern("dd/MM/yyyy"), DateTimeFormatters.ofPattern("dd/MM/yyyy"));
+    }
+
+    @Test
+    public void testCompile() {
+        assertNotNull(FixedWidthDateTimePattern.compile("yyyy-MM-dd'T'HH:mm:ss.SSS"));
+        assertNotNull(FixedWidthDateTimePattern.compile("dd-MM-yyyy hh:mm:ss:SSS"));
+        assertNull(FixedWidthDateTimePattern.compile("d/M/yyyy"));
+        assertNull(FixedWidthDateTimePattern.compile("dd MMM yyyy"));
+        assertNull(FixedWidthDateTimePattern.compile("yyyy-MM-dd[ HH:mm]"));
+        assertNull(FixedWidthDateTimePattern.compile("mm:ss"));
+        assertNull(FixedWidthDateTimePattern.compileSimpleDateFormat("uuuu-MM-dd"));
+    }
+
+    @Test
+    public void testSameResultsAsDateTimeFormatter() {
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            for (String text : TEXTS) {
+                assertSameResult(LocalDate::parse, DateTimeFormatters::parseLocalDate, text, formatter);
+                assertSameResult(LocalTime::parse, DateTimeFormatters::parseLocalTime, text, formatter);
+                assertSameResult(LocalDateTime::parse, DateTimeFormatters::parseLocalDateTime, text, formatter);
+            }
+        }
+    }
+
+    @Test
+    public void testSameResultsAsDateTimeFormatterForRandomValues() {
+        Random random = new Random(42);
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            for (int i = 0; i < 1000; i++) {
+                // Between years 1500 and 2500
+                long value = -14831769600000L + (long) (random.nextDouble() * 31556889600000L);
+                String text = LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1000),
+                        (int) Math.floorMod(value, 1000) * 1_000_000, ZoneOffset.UTC).format(formatter);
+                assertSameResult(LocalDate::parse, DateTimeFormatters::parseLocalDate, text, formatter);
+                assertSameResult(LocalTime::parse, DateTimeFormatters::parseLocalTime, text, formatter);
+                assertSameResult(LocalDateTime::parse, DateTimeFormatters::parseLocalDateTime, text, formatter);
+            }
+        }
+    }
+
+    private static <T> void assertSameResult(BiFunction<CharSequence, DateTimeFormatter, T> expected,
+            BiFunction<CharSequence, DateTimeFormatter, T> actual, String text, DateTimeFormatter formatter) {
+        String expectedResult;
+        try {
+            expectedResult = String.valueOf(expected.apply(text, formatter));
+        } catch (DateTimeParseException e) {
+            expectedResult = e.getMessage();
+        }
+        String actualResult;
+        try {
+            actualResult = String.valueOf(actual.apply(text, formatter));
+        } catch (DateTimeParseException e) {
+            actualResult = e.getMessage();
+        }
+        assertEquals(expectedResult, actualResult, formatter + " " + text);
+    }
+}
@@ -4,8 +4,13 @@ package org.talend.daikon.i18n;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.MissingResourceException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
@@ -85,4 +90,40 @@ public class I18nMessagesTest {
 
     }
 
+    @Test
+    public void testGetMessageWithQuotesAndSubFormats() {
+        I18nMessages i18nMessages = new DynamicLocalFormatedI18nImpl(null, "org.talend.daikon.i18n.testMessage");
+        assertEquals("it's {0}", i18nMessages.getMessage("ze.quote.key"));
+        assertEquals("it's foo", i18nMessages.getMessage("ze.quote.key", "foo"));
+        assertEquals("{0} of {1} files", i18nMessages.getMessage("ze.number.key"));
+        assertEquals("3 of 12 files", i18nMessages.getMessage("ze.number.key", 3, 12));
+        // the compiled message is reused
+        assertEquals("4 of 13 files", i18nMessages.getMessage("ze.number.key", 4, 13));
+    }
+
+    @Test
+    public void testGetMessageFromConcurrentThreads() throws Exception {
+        I18nMessages i18nMessages = new DynamicLocalFormatedI18nImpl(null, "org.talend.daikon.i18n.testMessage");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final int offset = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < offset + 1000; i++) {
+                        assertEquals("f" + i + " of " + (i % 100) + " files",
+                                i18nMessages.getMessage("ze.number.key", "f" + i, i % 100));
+                        assertEquals("test " + i + " and bar", i18nMessages.getMessage("ze.message.key", String.valueOf(i), "bar"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,144 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.number;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link BigDecimalParser} against its former regular expression based implementation.
+ */
+public class BigDecimalParserDifferentialTest {
+
+    private static final Pattern ENDS_BY_NOT_3_DIGITS_PATTERN = Pattern.compile("^[(-]?\\d+([,.'\\h])(?:\\d{0,2}|\\d{4,})[)]?");
+
+    private static final Pattern STARTS_WITH_DECIMAL_SEPARATOR_PATTERN = Pattern
+            .compile("^[(-]?(?:\\d{3,}|\\d{0})([,.])\\d+[)]?");
+
+    private static final Pattern FEW_GROUP_SEP_PATTERN = Pattern.compile("^[(-]?\\d+([.,\\h'])\\d{3}(\\1\\d{3})+[)]?");
+
+    private static final Pattern TWO_DIFFERENT_SEPARATORS_PATTERN = Pattern.compile(".*\\d+([.\\h'])\\d+([,.])\\d+[)]?");
+
+    private static final Pattern CONTAINS_AT_LEAST_ONE_WHITESPACE = Pattern.compile("^[(-]?\\d+( \\d{3})+[)]?");
+
+    private static final String[] SEPARATORS = { ",", ".", " ", "'", "\u00A0", "\u202f", "\t" };
+
+    private static final String[] PREFIXES = { "", "", "", "-", "(", "+", " " };
+
+    private static final String[] SUFFIXES = { "", "", "", ")", "%", "E3", "e-2", "k", " " };
+
+    @Test
+    public void sameAsRegexImplementation() {
+        for (String value : values()) {
+            // given
+            DecimalFormatSymbols expectedSymbols = guessSeparators(value);
+
+            // when
+            DecimalFormatSymbols symbols = BigDecimalParser.guessSeparators(value);
+
+            // then
+            assertEquals(expectedSymbols.getDecimalSeparator(), symbols.getDecimalSeparator(), value);
+            assertEquals(expectedSymbols.getGroupingSeparator(), symbols.getGroupingSeparator(), value);
+            assertEquals(parse(value, expectedSymbols), parseOrError(value), value);
+        }
+    }
+
+    private static List<String> values() {
+        final Random random = new Random(1234);
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder value = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+            int groups = random.nextInt(5);
+            for (int group = 0; group <= groups; group++) {
+                if (group > 0) {
+                    value.append(SEPARATORS[random.nextInt(group == groups ? SEPARATORS.length : 3)]);
+                }
+                int digits = random.nextInt(3) == 0 ? random.nextInt(6) : 3;
+                for (int digit = 0; digit < digits; digit++) {
+                    value.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            value.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+            values.add(value.toString());
+        }
+        return values;
+    }
+
+    private static String parseOrError(String value) {
+        try {
+            return BigDecimalParser.toBigDecimal(value).toString();
+        } catch (NumberFormatException e) {
+            return "error";
+        }
+    }
+
+    /**
+     * Former implementation of {@link BigDecimalParser#toBigDecimal(String, char, char)}.
+     */
+    private static String parse(String from, DecimalFormatSymbols symbols) {
+        from = from.replaceAll("[" + symbols.getGroupingSeparator() + "]", "");
+        from = from.replaceAll("[" + symbols.getDecimalSeparator() + "]", ".");
+        from = from.replaceAll("\\h", "");
+        if (from.startsWith("(") && from.endsWith(")")) {
+            from = "-" + from.substring(1, from.length() - 1);
+        }
+        boolean isPercentage = from.endsWith("%");
+        if (isPercentage) {
+            from = from.substring(0, from.length() - 1);
+        }
+        try {
+            BigDecimal bigDecimal = new BigDecimal(from);
+            return (isPercentage ? bigDecimal.movePointLeft(2) : bigDecimal).toString();
+        } catch (NumberFormatException e) {
+            return "error";
+        }
+    }
+
+    /**
+     * Former implementation of {@link BigDecimalParser#guessSeparators(String)}.
+     */
+    private static DecimalFormatSymbols guessSeparators(String from) {
+        final DecimalFormatSymbols toReturn = DecimalFormatSymbols.getInstance(Locale.US);
+        Matcher matcher = TWO_DIFFERENT_SEPARATORS_PATTERN.matcher(from);
+        if (matcher.matches()) {
+            toReturn.setGroupingSeparator(matcher.group(1).charAt(0));
+            toReturn.setDecimalSeparator(matcher.group(2).charAt(0));
+        }
+        matcher = ENDS_BY_NOT_3_DIGITS_PATTERN.matcher(from);
+        if (matcher.matches()) {
+            setDecimalSeparator(toReturn, matcher.group(1).charAt(0));
+        }
+        matcher = STARTS_WITH_DECIMAL_SEPARATOR_PATTERN.matcher(from);
+        if (matcher.matches()) {
+            setDecimalSeparator(toReturn, matcher.group(1).charAt(0));
+        }
+        matcher = FEW_GROUP_SEP_PATTERN.matcher(from);
+        if (matcher.matches()) {
+            setGroupingSeparator(toReturn, matcher.group(1).charAt(0));
+        }
+        matcher = CONTAINS_AT_LEAST_ONE_WHITESPACE.matcher(from);
+        if (matcher.matches()) {
+            setGroupingSeparator(toReturn, matcher.group(1).charAt(0));
+        }
+        return toReturn;
+    }
+
+    private static void setDecimalSeparator(DecimalFormatSymbols symbols, char decimalSeparator) {
+        symbols.setDecimalSeparator(decimalSeparator);
+        symbols.setGroupingSeparator(decimalSeparator == '.' ? ',' : '.');
+    }
+
+    private static void setGroupingSeparator(DecimalFormatSymbols symbols, char groupingSeparator) {
+        symbols.setGroupingSeparator(groupingSeparator);
+        symbols.setDecimalSeparator(groupingSeparator == '.' || groupingSeparator == ' ' ? ',' : '.');
+    }
+}
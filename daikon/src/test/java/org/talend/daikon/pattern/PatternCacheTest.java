@@ -0,0 +1,82 @@
+// Copyright 2005 - 2024 Talend, Inc., All Rights Reserved - www.talend.com
+package org.talend.daikon.pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.talend.daikon.pattern.character.CharPatternToRegex;
+import org.talend.daikon.pattern.word.WordPatternToRegex;
+
+public class PatternCacheTest {
+
+    @Test
+    public void charPatternShouldBeCompiledOnce() {
+        final PatternCache cache = new PatternCache(10);
+
+        final Pattern pattern = cache.charPattern("Aaa99");
+        assertSame(pattern, cache.charPattern("Aaa99"));
+        assertEquals(CharPatternToRegex.toRegex("Aaa99"), pattern.pattern());
+        assertTrue(pattern.matcher("Abc12").matches());
+        assertFalse(pattern.matcher("abc12").matches());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void keyShouldIncludeKindAndCase() {
+        final PatternCache cache = new PatternCache(10);
+
+        assertEquals(CharPatternToRegex.toRegex("a/9"), cache.charPatternRegex("a/9"));
+        assertEquals(WordPatternToRegex.toRegex("[char]", false), cache.wordPatternRegex("[char]", false));
+        assertNotSame(cache.wordPattern("[char]", false), cache.wordPattern("[char]", true));
+        assertNotSame(cache.compile("[char]"), cache.wordPattern("[char]", true));
+
+        assertEquals(4, cache.size());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void leastRecentlyUsedShouldBeEvicted() {
+        final PatternCache cache = new PatternCache(2);
+
+        final Pattern first = cache.compile("first");
+        cache.compile("second");
+        assertSame(first, cache.compile("first"));
+        cache.compile("third");
+
+        // "second" was evicted, "first" was used since.
+        assertEquals(2, cache.size());
+        assertSame(first, cache.compile("first"));
+        assertEquals(2, cache.getHits());
+        cache.compile("second");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void sizeShouldBeBounded() {
+        final PatternCache cache = new PatternCache(16);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(cache.compile("value" + i).matcher("value" + i).matches());
+        }
+
+        assertTrue(cache.size() <= 16);
+        assertEquals(100, cache.getMisses());
+    }
+
+    @Test
+    public void invalidRegexShouldNotBeCompiled() {
+        final PatternCache cache = new PatternCache(10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.compile("[a-"));
+        assertThrows(NullPointerException.class, () -> cache.charPattern(null));
+    }
+}